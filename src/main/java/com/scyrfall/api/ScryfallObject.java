@@ -1,6 +1,7 @@
 package com.scyrfall.api;
 
 import com.scyrfall.api.field.CardFace;
+import com.scyrfall.api.field.ColorSet;
 import com.scyrfall.api.field.RelatedCard;
 import com.scyrfall.api.field.Ruling;
 import com.scyrfall.api.object.Set;
@@ -14,8 +15,9 @@ import java.net.MalformedURLException;
 import java.net.URI;
 import java.net.URISyntaxException;
 import java.net.URL;
-import java.text.ParseException;
-import java.text.SimpleDateFormat;
+import java.time.DateTimeException;
+import java.time.LocalDate;
+import java.time.ZoneId;
 import java.time.ZonedDateTime;
 import java.util.*;
 import java.util.function.BiFunction;
@@ -26,7 +28,6 @@ public abstract class ScryfallObject {
     protected JSONObject data;
     private ScryfallError error;
     private boolean isError;
-    protected static SimpleDateFormat dateFormat = new SimpleDateFormat("yyyy-MM-dd", Locale.ENGLISH);
 
     protected ScryfallObject(JSONObject data) {
         this.data = data;
@@ -41,6 +42,15 @@ public abstract class ScryfallObject {
     protected ScryfallObject() {
     }
 
+    /**
+     * Drops this object's reference to the JSON it was decoded from. Objects which copy every value they need out of
+     * the JSON call this at the end of their constructor, so that objects kept around after a bulk load hold only
+     * their own, pooled values instead of the whole parsed document.
+     */
+    protected void releaseData() {
+        data = null;
+    }
+
     /**
      * @return true if the Scryfall API returned an error when retrieving this object. False if this object was retrieved
      * successfully.
@@ -127,6 +137,9 @@ public abstract class ScryfallObject {
      * <code>-1</code> is returned instead.
      */
     protected int getInt(String key) {
+        if (!data.has(key)) {
+            return -1;
+        }
         try {
             return data.getInt(key);
         } catch (JSONException e) {
@@ -140,6 +153,9 @@ public abstract class ScryfallObject {
      * an empty JSONArray is returned instead.
      */
     protected JSONArray getJSONArray(String key) {
+        if (!data.has(key)) {
+            return new JSONArray();
+        }
         try {
             return data.getJSONArray(key);
         } catch (JSONException e) {
@@ -155,13 +171,69 @@ public abstract class ScryfallObject {
      * return <code>null</code>.
      */
     protected Date getDate(String key) {
+        return toDate(getLocalDate(key));
+    }
+
+    /**
+     * @param key The key of the date to be returned
+     * @return The date at the specified key, formatted from the yyyy-MM-dd date format. If the provided key isn't in
+     * the correct format or doesn't exist, this method will return <code>null</code>.
+     * @see #parseDate(CharSequence)
+     */
+    protected LocalDate getLocalDate(String key) {
+        return parseDate(getString(key));
+    }
+
+    /**
+     * Parses a date in Scryfall's fixed <code>yyyy-MM-dd</code> format. Unlike <code>SimpleDateFormat</code>, this
+     * method holds no shared state, so it is safe to call from any number of threads at once, and it allocates nothing
+     * besides the returned <code>LocalDate</code>. Any characters after the day (such as a time component) are
+     * ignored.
+     *
+     * @param value the text to parse
+     * @return the parsed date, or <code>null</code> if the value is not a valid <code>yyyy-MM-dd</code> date.
+     */
+    public static LocalDate parseDate(CharSequence value) {
+        if (value == null || value.length() < 10 || value.charAt(4) != '-' || value.charAt(7) != '-') {
+            return null;
+        }
+        int year = parseDigits(value, 0, 4);
+        int month = parseDigits(value, 5, 7);
+        int day = parseDigits(value, 8, 10);
+        if (year < 0 || month < 0 || day < 0) {
+            return null;
+        }
         try {
-            return dateFormat.parse(getString(key));
-        } catch (ParseException e) {
+            return LocalDate.of(year, month, day);
+        } catch (DateTimeException e) {
             return null;
         }
     }
 
+    private static int parseDigits(CharSequence value, int start, int end) {
+        int result = 0;
+        for (int i = start; i < end; i++) {
+            int digit = value.charAt(i) - '0';
+            if (digit < 0 || digit > 9) {
+                return -1;
+            }
+            result = result * 10 + digit;
+        }
+        return result;
+    }
+
+    /**
+     * @param date the date to convert
+     * @return A Date representing the start of the given day in the system time zone, or <code>null</code> if
+     * <code>date</code> is null.
+     */
+    protected static Date toDate(LocalDate date) {
+        if (date == null) {
+            return null;
+        }
+        return Date.from(date.atStartOfDay(ZoneId.systemDefault()).toInstant());
+    }
+
     protected ZonedDateTime getDateTime(String key) {
         try {
             return ZonedDateTime.parse(getString(key));
@@ -176,6 +248,9 @@ public abstract class ScryfallObject {
      * an empty JSONObject is returned instead.
      */
     protected JSONObject getJSONObject(String key) {
+        if (!data.has(key)) {
+            return new JSONObject();
+        }
         try {
             return data.getJSONObject(key);
         } catch (JSONException e) {
@@ -190,6 +265,9 @@ public abstract class ScryfallObject {
      */
     @SuppressWarnings("SameParameterValue")
     protected double getDouble(String key) {
+        if (!data.has(key)) {
+            return -1.0;
+        }
         try {
             return data.getDouble(key);
         } catch (JSONException e) {
@@ -203,6 +281,9 @@ public abstract class ScryfallObject {
      * <code>false</code> is returned instead.
      */
     protected boolean getBoolean(String key) {
+        if (!data.has(key)) {
+            return false;
+        }
         try {
             return data.getBoolean(key);
         } catch (JSONException e) {
@@ -216,6 +297,9 @@ public abstract class ScryfallObject {
      * an empty string is returned instead.
      */
     protected String getString(String key) {
+        if (!data.has(key)) {
+            return "";
+        }
         try {
             return data.getString(key);
         } catch (JSONException e) {
@@ -223,6 +307,15 @@ public abstract class ScryfallObject {
         }
     }
 
+    /**
+     * @param key The key of the string to be returned
+     * @return The String at the specified key, canonicalized through {@link StringPool#getDefault()} so that values
+     * repeated across many objects share one instance. If the key is invalid, an empty string is returned instead.
+     */
+    protected String getPooledString(String key) {
+        return StringPool.getDefault().canonicalize(getString(key));
+    }
+
     /**
      * Creates a <code>URL</code> from the string located at the specified key.
      * Returns null if they key is invalid or if an exception is thrown during
@@ -232,14 +325,69 @@ public abstract class ScryfallObject {
      * @return A <code>URL</code> from the string located at the specified key
      */
     protected URL getURL(String key) {
+        if (!data.has(key)) {
+            return null;
+        }
         try {
-            return new URI(data.getString(key)).toURL();
-        } catch (JSONException | URISyntaxException | MalformedURLException | IllegalArgumentException | NullPointerException e) {
+            return toURL(data.getString(key));
+        } catch (JSONException e) {
             return null;
         }
     }
 
+    /**
+     * Creates a <code>URL</code> from the specified string. Returns null if the string is null or if an exception is
+     * thrown during <code>URL</code> initialization.
+     *
+     * @param value The string form of the <code>URL</code> to be created
+     * @return A <code>URL</code> from the specified string
+     */
+    protected static URL toURL(String value) {
+        try {
+            return new URI(value).toURL();
+        } catch (URISyntaxException | MalformedURLException | IllegalArgumentException | NullPointerException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Many of the URLs Scryfall sends can be rebuilt from an object's other fields. Objects keep such URLs as
+     * <code>null</code> and only build them when they are requested, through
+     * {@link #expandURL(String, String, String, String)}.
+     *
+     * @param value  The URL string sent by Scryfall
+     * @param prefix The part of the expected URL before <code>middle</code>
+     * @param middle The part of the expected URL taken from another field, such as an id or a set code
+     * @param suffix The part of the expected URL after <code>middle</code>
+     * @return <code>null</code> if <code>value</code> is exactly <code>prefix + middle + suffix</code>, or
+     * <code>value</code> otherwise.
+     */
+    protected static String compactURL(String value, String prefix, String middle, String suffix) {
+        if (value.length() == prefix.length() + middle.length() + suffix.length() &&
+                value.startsWith(prefix) &&
+                value.startsWith(middle, prefix.length()) &&
+                value.endsWith(suffix)) {
+            return null;
+        }
+        return value;
+    }
+
+    /**
+     * @param value  A URL string produced by {@link #compactURL(String, String, String, String)}
+     * @param prefix The part of the expected URL before <code>middle</code>
+     * @param middle The part of the expected URL taken from another field, such as an id or a set code
+     * @param suffix The part of the expected URL after <code>middle</code>
+     * @return <code>value</code> as a <code>URL</code>, or the URL rebuilt from the given parts if <code>value</code>
+     * is <code>null</code>.
+     */
+    protected static URL expandURL(String value, String prefix, String middle, String suffix) {
+        return toURL(value != null ? value : prefix + middle + suffix);
+    }
+
     protected UUID getUUID(String key) {
+        if (!data.has(key)) {
+            return null;
+        }
         try {
             return UUID.fromString(data.getString(key));
         } catch (JSONException | IllegalArgumentException e) {
@@ -247,6 +395,21 @@ public abstract class ScryfallObject {
         }
     }
 
+    /**
+     * @param key The key of the array of color letters to be returned
+     * @return The colors in the array at the specified key. If the key is invalid, an empty set is returned instead.
+     */
+    protected ColorSet getColorSet(String key) {
+        if (!data.has(key)) {
+            return ColorSet.EMPTY;
+        }
+        try {
+            return ColorSet.fromJSON(data.getJSONArray(key));
+        } catch (JSONException e) {
+            return ColorSet.EMPTY;
+        }
+    }
+
     protected <K, V> List<V> getList(String key, Function<K, V> converter, BiFunction<JSONArray, Integer, K> extractor) {
         if(!data.has(key)) {
             return List.of();
@@ -265,9 +428,8 @@ public abstract class ScryfallObject {
         }
         JSONObject data = getJSONObject(key);
         HashMap<String, V> map = new HashMap<>();
-        for (int i = 0; i < data.names().length(); i++) {
-            String name = data.names().getString(i);
-            data.put(name, converter.apply(extractor.apply(data, name)));
+        for (String name : data.keySet()) {
+            map.put(name, converter.apply(extractor.apply(data, name)));
         }
         return map;
     }
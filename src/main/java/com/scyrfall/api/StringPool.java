@@ -0,0 +1,119 @@
+package com.scyrfall.api;
+
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A bounded, thread-safe pool used to canonicalize strings which repeat across many objects, such as set codes,
+ * artist names and type lines. Once every card in a bulk load has been decoded through the pool, identical values
+ * share a single <code>String</code> instance.
+ *
+ * <p>The pool is a fixed-size, direct-mapped table: each string can only live in the slot chosen by its hash, and a
+ * new value simply replaces whatever occupied its slot. Lookups therefore never lock or allocate, and the pool can
+ * never grow beyond its capacity. Frequently repeated values win their slots back quickly, which is all bulk loading
+ * needs.</p>
+ */
+public final class StringPool {
+
+    private static final StringPool DEFAULT = new StringPool(1 << 16);
+
+    private final AtomicReferenceArray<String> table;
+    private final int mask;
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder bytesSaved = new LongAdder();
+
+    /**
+     * @param capacity the number of slots in this pool. This is rounded up to the next power of two.
+     */
+    public StringPool(int capacity) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("capacity must be positive: " + capacity);
+        }
+        int size = Integer.highestOneBit(Math.max(capacity - 1, 1)) << 1;
+        table = new AtomicReferenceArray<>(size);
+        mask = size - 1;
+    }
+
+    /**
+     * @return The pool used by {@link ScryfallObject} while decoding.
+     */
+    public static StringPool getDefault() {
+        return DEFAULT;
+    }
+
+    /**
+     * @param value the string to canonicalize
+     * @return a string equal to <code>value</code>. If an equal string is already in the pool, that instance is
+     * returned, otherwise <code>value</code> is added to the pool and returned.
+     */
+    public String canonicalize(String value) {
+        if (value == null || value.isEmpty()) {
+            return value;
+        }
+        int hash = value.hashCode();
+        int index = (hash ^ (hash >>> 16)) & mask;
+        String existing = table.get(index);
+        if (existing == value) {
+            hits.increment();
+            return existing;
+        }
+        if (existing != null && existing.hashCode() == hash && existing.equals(value)) {
+            hits.increment();
+            bytesSaved.add(estimateSize(value));
+            return existing;
+        }
+        table.set(index, value);
+        misses.increment();
+        return value;
+    }
+
+    /**
+     * @return The number of lookups which found an equal string already in the pool.
+     */
+    public long getHits() {
+        return hits.sum();
+    }
+
+    /**
+     * @return The number of lookups which added their string to the pool.
+     */
+    public long getMisses() {
+        return misses.sum();
+    }
+
+    /**
+     * @return An estimate of the heap, in bytes, taken by the duplicate strings this pool has replaced with a pooled
+     * instance. This assumes compact (Latin-1) strings on a 64-bit JVM with compressed object pointers.
+     */
+    public long getBytesSaved() {
+        return bytesSaved.sum();
+    }
+
+    /**
+     * Removes every string from this pool and resets its statistics.
+     */
+    public void clear() {
+        for (int i = 0; i < table.length(); i++) {
+            table.set(i, null);
+        }
+        hits.reset();
+        misses.reset();
+        bytesSaved.reset();
+    }
+
+    private static long estimateSize(String value) {
+        // 24 byte String header plus a 16 byte array header and its contents, padded to 8 bytes
+        return 24 + ((16 + value.length() + 7) & ~7L);
+    }
+
+    @Override
+    public String toString() {
+        return "StringPool{" +
+                "capacity=" + table.length() +
+                ", hits=" + getHits() +
+                ", misses=" + getMisses() +
+                ", bytesSaved=" + getBytesSaved() +
+                '}';
+    }
+}
@@ -1,11 +1,14 @@
 package com.scyrfall.api.field;
 
 import com.scyrfall.api.ScryfallObject;
+import com.scyrfall.api.local.SnapshotInput;
+import com.scyrfall.api.local.SnapshotOutput;
+import com.scyrfall.api.local.SymbolRegistry;
 import com.scyrfall.api.object.Card;
-import org.json.JSONArray;
+import com.scyrfall.api.object.Symbol;
 import org.json.JSONObject;
 
-import java.util.Arrays;
+import java.util.List;
 import java.util.Objects;
 import java.util.UUID;
 
@@ -29,8 +32,8 @@ public class CardFace extends ScryfallObject {
     private final String printedName;
     private final String printedTypeLine;
     private final String typeLine;
-    private final Color[] colors;
-    private final Color[] colorIndicator;
+    private final ColorSet colors;
+    private final ColorSet colorIndicator;
     private final UUID illustrationID;
     private final UUID oracleId;
     private final UUID artistId;
@@ -41,18 +44,18 @@ public class CardFace extends ScryfallObject {
 
     public CardFace(JSONObject data) {
         super(data);
-        artist = getString("artist");
+        artist = getPooledString("artist");
         flavorText = getString("flavor_text");
-        manaCost = getString("mana_cost");
+        manaCost = getPooledString("mana_cost");
         name = getString("name");
         oracleText = getString("oracle_text");
-        power = getString("power");
-        toughness = getString("toughness");
-        loyalty = getString("loyalty");
-        defense = getString("defense");
+        power = getPooledString("power");
+        toughness = getPooledString("toughness");
+        loyalty = getPooledString("loyalty");
+        defense = getPooledString("defense");
         printedName = getString("printed_name");
         printedTypeLine = getString("printed_type_line");
-        typeLine = getString("type_line");
+        typeLine = getPooledString("type_line");
         cmc = getDouble("cmc");
         layout = Card.Layout.fromString(getString("layout"));
 
@@ -60,19 +63,63 @@ public class CardFace extends ScryfallObject {
         oracleId = getUUID("oracle_id");
         artistId = getUUID("artist_id");
 
-        JSONArray colors = getJSONArray("colors");
-        this.colors = new Color[colors.length()];
-        for (int i = 0; i < colors.length(); i++) {
-            this.colors[i] = Color.fromString(colors.getString(i));
-        }
-
-        JSONArray colorIndicator = getJSONArray("color_indicator");
-        this.colorIndicator = new Color[colorIndicator.length()];
-        for (int i = 0; i < colorIndicator.length(); i++) {
-            this.colorIndicator[i] = Color.fromString(colorIndicator.getString(i));
-        }
+        colors = getColorSet("colors");
+        colorIndicator = getColorSet("color_indicator");
 
         images = new Images(getJSONObject("image_uris"));
+        releaseData();
+    }
+
+    public CardFace(SnapshotInput in) {
+        artist = in.readPooledString();
+        flavorText = in.readString();
+        manaCost = in.readPooledString();
+        name = in.readString();
+        oracleText = in.readString();
+        power = in.readPooledString();
+        toughness = in.readPooledString();
+        loyalty = in.readPooledString();
+        defense = in.readPooledString();
+        printedName = in.readString();
+        printedTypeLine = in.readString();
+        typeLine = in.readPooledString();
+        cmc = in.readDouble();
+        layout = in.readEnum(Card.Layout.class);
+
+        illustrationID = in.readUUID();
+        oracleId = in.readUUID();
+        artistId = in.readUUID();
+
+        colors = in.readColors();
+        colorIndicator = in.readColors();
+
+        images = new Images(in);
+    }
+
+    public void writeTo(SnapshotOutput out) {
+        out.writeString(artist);
+        out.writeString(flavorText);
+        out.writeString(manaCost);
+        out.writeString(name);
+        out.writeString(oracleText);
+        out.writeString(power);
+        out.writeString(toughness);
+        out.writeString(loyalty);
+        out.writeString(defense);
+        out.writeString(printedName);
+        out.writeString(printedTypeLine);
+        out.writeString(typeLine);
+        out.writeDouble(cmc);
+        out.writeEnum(layout);
+
+        out.writeUUID(illustrationID);
+        out.writeUUID(oracleId);
+        out.writeUUID(artistId);
+
+        out.writeColors(colors);
+        out.writeColors(colorIndicator);
+
+        images.writeTo(out);
     }
 
     public String getArtist() {
@@ -87,6 +134,15 @@ public class CardFace extends ScryfallObject {
         return manaCost;
     }
 
+    /**
+     * @return The symbols of this face's mana cost, in order, from the shared {@link SymbolRegistry}, or an empty list
+     * if no symbols are loaded, as for {@link Card#getManaSymbols()}.
+     */
+    public List<Symbol> getManaSymbols() {
+        SymbolRegistry registry = SymbolRegistry.getLoaded();
+        return registry == null ? List.of() : registry.getSymbols(manaCost);
+    }
+
     public String getName() {
         return name;
     }
@@ -127,11 +183,11 @@ public class CardFace extends ScryfallObject {
         return typeLine;
     }
 
-    public Color[] getColors() {
+    public ColorSet getColors() {
         return colors;
     }
 
-    public Color[] getColorIndicator() {
+    public ColorSet getColorIndicator() {
         return colorIndicator;
     }
 
@@ -175,8 +231,8 @@ public class CardFace extends ScryfallObject {
                 ", printedName='" + printedName + '\'' +
                 ", printedTypeLine='" + printedTypeLine + '\'' +
                 ", typeLine='" + typeLine + '\'' +
-                ", colors=" + Arrays.toString(colors) +
-                ", colorIndicator=" + Arrays.toString(colorIndicator) +
+                ", colors=" + colors +
+                ", colorIndicator=" + colorIndicator +
                 ", illustrationID=" + illustrationID +
                 ", images=" + images +
                 '}';
@@ -198,10 +254,15 @@ public class CardFace extends ScryfallObject {
                 Objects.equals(printedName, cardFace.printedName) &&
                 Objects.equals(printedTypeLine, cardFace.printedTypeLine) &&
                 Objects.equals(typeLine, cardFace.typeLine) &&
-                Arrays.equals(colors, cardFace.colors) &&
-                Arrays.equals(colorIndicator, cardFace.colorIndicator) &&
+                Objects.equals(colors, cardFace.colors) &&
+                Objects.equals(colorIndicator, cardFace.colorIndicator) &&
                 Objects.equals(illustrationID, cardFace.illustrationID) &&
                 Objects.equals(images, cardFace.images);
     }
 
+    @Override
+    public int hashCode() {
+        return Objects.hash(name, manaCost, typeLine, oracleText, illustrationID);
+    }
+
 }
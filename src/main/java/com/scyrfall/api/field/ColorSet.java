@@ -0,0 +1,287 @@
+package com.scyrfall.api.field;
+
+import com.scyrfall.api.ScryfallObject.Color;
+import org.json.JSONArray;
+
+import java.util.AbstractList;
+import java.util.Collection;
+import java.util.RandomAccess;
+
+/**
+ * An immutable set of {@link Color}s, stored as a 6-bit mask with one bit per color. All 64 possible sets are created
+ * once and shared, so combining sets never allocates, and subset, superset, union and intersection checks are single
+ * bit operations.
+ *
+ * <p>A ColorSet is also a read-only <code>List</code>. It iterates in
+ * <code>WHITE, BLUE, BLACK, RED, GREEN, COLORLESS</code> order, no matter what order the colors were given in.</p>
+ */
+public final class ColorSet extends AbstractList<Color> implements RandomAccess {
+
+    private static final Color[] COLORS = Color.values();
+    private static final String LETTERS = "WUBRGC";
+    private static final ColorSet[] SETS = new ColorSet[1 << COLORS.length];
+
+    static {
+        for (int bits = 0; bits < SETS.length; bits++) {
+            SETS[bits] = new ColorSet(bits);
+        }
+    }
+
+    /**
+     * The set containing no colors.
+     */
+    public static final ColorSet EMPTY = SETS[0];
+
+    /**
+     * The set of the five colors of Magic: white, blue, black, red and green.
+     */
+    public static final ColorSet WUBRG = fromBits(0b11111);
+
+    private final int bits;
+    private final int hashCode;
+
+    private ColorSet(int bits) {
+        this.bits = bits;
+        int hash = 1;
+        for (Color color : COLORS) {
+            if ((bits & bit(color)) != 0) {
+                hash = 31 * hash + color.hashCode();
+            }
+        }
+        // hashCode must match List.hashCode() since a ColorSet can equal any other List of the same colors
+        this.hashCode = hash;
+    }
+
+    private static int bit(Color color) {
+        return 1 << color.ordinal();
+    }
+
+    /**
+     * @param bits a mask where bit <code>n</code> is set if the color with ordinal <code>n</code> is present
+     * @return the ColorSet for the given mask
+     */
+    public static ColorSet fromBits(int bits) {
+        if ((bits & ~(SETS.length - 1)) != 0) {
+            throw new IllegalArgumentException("Invalid color bits: " + bits);
+        }
+        return SETS[bits];
+    }
+
+    /**
+     * @param colors the colors in the set
+     * @return the ColorSet containing exactly the given colors
+     */
+    public static ColorSet of(Color... colors) {
+        int bits = 0;
+        for (Color color : colors) {
+            bits |= bit(color);
+        }
+        return SETS[bits];
+    }
+
+    /**
+     * @param colors the colors in the set
+     * @return the ColorSet containing exactly the given colors
+     */
+    public static ColorSet of(Collection<Color> colors) {
+        if (colors instanceof ColorSet) {
+            return (ColorSet) colors;
+        }
+        int bits = 0;
+        for (Color color : colors) {
+            bits |= bit(color);
+        }
+        return SETS[bits];
+    }
+
+    /**
+     * @param letters color letters as used by Scryfall, such as <code>"WU"</code> or <code>"c"</code>. Case is
+     *                ignored.
+     * @return the ColorSet containing the given colors
+     * @throws IllegalArgumentException if <code>letters</code> contains a character that isn't a color letter
+     */
+    public static ColorSet fromString(String letters) {
+        int bits = 0;
+        for (int i = 0; i < letters.length(); i++) {
+            int index = LETTERS.indexOf(Character.toUpperCase(letters.charAt(i)));
+            if (index < 0) {
+                throw new IllegalArgumentException("Invalid color letter '" + letters.charAt(i) + "' in " + letters);
+            }
+            bits |= 1 << index;
+        }
+        return SETS[bits];
+    }
+
+    /**
+     * @param letters an array of color letters, as found in Scryfall's <code>colors</code> fields. Case is ignored, as
+     *                in {@link #fromString(String)}.
+     * @return the ColorSet containing the given colors. Empty or unknown entries are ignored.
+     */
+    public static ColorSet fromJSON(JSONArray letters) {
+        int bits = 0;
+        for (int i = 0; i < letters.length(); i++) {
+            String letter = letters.optString(i);
+            if (letter.length() == 1) {
+                int index = LETTERS.indexOf(Character.toUpperCase(letter.charAt(0)));
+                if (index >= 0) {
+                    bits |= 1 << index;
+                }
+            }
+        }
+        return SETS[bits];
+    }
+
+    /**
+     * @return the mask backing this set, where bit <code>n</code> is set if the color with ordinal <code>n</code> is
+     * present
+     */
+    public int getBits() {
+        return bits;
+    }
+
+    /**
+     * @param color the color to check
+     * @return true if this set contains the given color
+     */
+    public boolean contains(Color color) {
+        return color != null && (bits & bit(color)) != 0;
+    }
+
+    @Override
+    public boolean contains(Object o) {
+        return o instanceof Color && contains((Color) o);
+    }
+
+    @Override
+    public boolean containsAll(Collection<?> c) {
+        if (c instanceof ColorSet) {
+            return isSupersetOf((ColorSet) c);
+        }
+        return super.containsAll(c);
+    }
+
+    /**
+     * @param other the set to compare against
+     * @return true if every color in this set is also in <code>other</code>. For example, a card can be played in a
+     * commander deck if its color identity is a subset of the commander's.
+     */
+    public boolean isSubsetOf(ColorSet other) {
+        return (bits & ~other.bits) == 0;
+    }
+
+    /**
+     * @param other the set to compare against
+     * @return true if every color in <code>other</code> is also in this set
+     */
+    public boolean isSupersetOf(ColorSet other) {
+        return (other.bits & ~bits) == 0;
+    }
+
+    /**
+     * @param other the set to compare against
+     * @return true if the two sets have at least one color in common
+     */
+    public boolean intersects(ColorSet other) {
+        return (bits & other.bits) != 0;
+    }
+
+    /**
+     * @param other the set to combine with this one
+     * @return the set of colors in either set
+     */
+    public ColorSet union(ColorSet other) {
+        return SETS[bits | other.bits];
+    }
+
+    /**
+     * @param other the set to combine with this one
+     * @return the set of colors in both sets
+     */
+    public ColorSet intersection(ColorSet other) {
+        return SETS[bits & other.bits];
+    }
+
+    /**
+     * @param other the colors to remove
+     * @return the set of colors in this set but not in <code>other</code>
+     */
+    public ColorSet difference(ColorSet other) {
+        return SETS[bits & ~other.bits];
+    }
+
+    /**
+     * @param color the color to add
+     * @return this set with the given color added
+     */
+    public ColorSet with(Color color) {
+        return SETS[bits | bit(color)];
+    }
+
+    /**
+     * @param color the color to remove
+     * @return this set without the given color
+     */
+    public ColorSet without(Color color) {
+        return SETS[bits & ~bit(color)];
+    }
+
+    /**
+     * @return this set's colors as Scryfall's color letters, in WUBRGC order. For example, <code>"WU"</code>.
+     */
+    public String toLetters() {
+        StringBuilder builder = new StringBuilder(size());
+        for (int i = 0; i < COLORS.length; i++) {
+            if ((bits & (1 << i)) != 0) {
+                builder.append(LETTERS.charAt(i));
+            }
+        }
+        return builder.toString();
+    }
+
+    @Override
+    public Color get(int index) {
+        if (index < 0 || index >= size()) {
+            throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size());
+        }
+        int remaining = bits;
+        for (int i = 0; i < index; i++) {
+            remaining &= remaining - 1;
+        }
+        return COLORS[Integer.numberOfTrailingZeros(remaining)];
+    }
+
+    @Override
+    public int size() {
+        return Integer.bitCount(bits);
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return bits == 0;
+    }
+
+    @Override
+    public int indexOf(Object o) {
+        if (!contains(o)) {
+            return -1;
+        }
+        return Integer.bitCount(bits & (bit((Color) o) - 1));
+    }
+
+    @Override
+    public int lastIndexOf(Object o) {
+        return indexOf(o);
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o instanceof ColorSet) return false;
+        return super.equals(o);
+    }
+
+    @Override
+    public int hashCode() {
+        return hashCode;
+    }
+}
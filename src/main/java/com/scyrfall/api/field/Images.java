@@ -1,12 +1,24 @@
 package com.scyrfall.api.field;
 
 import com.scyrfall.api.ScryfallObject;
+import com.scyrfall.api.local.SnapshotInput;
+import com.scyrfall.api.local.SnapshotOutput;
+import com.scyrfall.api.query.ImagePipeline;
 import com.scyrfall.api.query.Query;
 import org.json.JSONObject;
 
+import java.awt.Rectangle;
+import java.awt.image.BaseMultiResolutionImage;
 import java.awt.image.BufferedImage;
+import java.awt.image.MultiResolutionImage;
+import java.io.IOException;
+import java.io.OutputStream;
 import java.net.URL;
+import java.nio.channels.Channels;
+import java.nio.channels.WritableByteChannel;
+import java.util.Arrays;
 import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
 
 /**
  * A container for image URLs of different sizes which can be retrieved
@@ -14,64 +26,83 @@ import java.util.Objects;
  */
 public class Images extends ScryfallObject {
 
-    private final URL artCropURL;
-    private final URL borderCropURL;
-    private final URL pngURL;
-    private final URL largeURL;
-    private final URL normalURL;
-    private final URL smallURL;
+    private static final String NORMAL_SEGMENT = "/normal/";
+
+    // Scryfall's image URLs only differ in their size directory (and extension, for PNGs), so when every size follows
+    // that shape only the normal URL is kept and the others are rebuilt from it on request.
+    private final String normalURL;
+    private final String[] urls;
 
     public Images(JSONObject data) {
         super(data);
-        artCropURL = getURL("art_crop");
-        borderCropURL = getURL("border_crop");
-        pngURL = getURL("png");
-        largeURL = getURL("large");
-        normalURL = getURL("normal");
-        smallURL = getURL("small");
+        normalURL = getString("normal");
+        String[] urls = new String[Size.values().length];
+        boolean derivable = true;
+        for (Size size : Size.values()) {
+            urls[size.ordinal()] = getString(size.toParameterString());
+            derivable &= urls[size.ordinal()].equals(derive(size));
+        }
+        this.urls = derivable ? null : urls;
+        releaseData();
+    }
+
+    public Images(SnapshotInput in) {
+        normalURL = in.readString();
+        urls = in.readStrings();
+    }
+
+    public void writeTo(SnapshotOutput out) {
+        out.writeString(normalURL);
+        out.writeStrings(urls);
+    }
+
+    private String derive(Size size) {
+        int split = normalURL.indexOf(NORMAL_SEGMENT);
+        if (size == Size.NORMAL || split < 0) {
+            return size == Size.NORMAL ? normalURL : "";
+        }
+        String rest = normalURL.substring(split + NORMAL_SEGMENT.length());
+        if (size == Size.PNG) {
+            rest = rest.replace(".jpg", ".png");
+        }
+        return normalURL.substring(0, split + 1) + size.toParameterString() + "/" + rest;
     }
 
     public URL getArtCropURL() {
-        return artCropURL;
+        return getURL(Size.ART_CROP);
     }
 
     public URL getBorderCropURL() {
-        return borderCropURL;
+        return getURL(Size.BORDER_CROP);
     }
 
     public URL getPngURL() {
-        return pngURL;
+        return getURL(Size.PNG);
     }
 
     public URL getLargeURL() {
-        return largeURL;
+        return getURL(Size.LARGE);
     }
 
     public URL getNormalURL() {
-        return normalURL;
+        return getURL(Size.NORMAL);
     }
 
     public URL getSmallURL() {
-        return smallURL;
+        return getURL(Size.SMALL);
     }
 
     public URL getURL(Size size) {
-        switch (size) {
-            case PNG:
-                return getPngURL();
-            case LARGE:
-                return getLargeURL();
-            case NORMAL:
-                return getNormalURL();
-            case SMALL:
-                return getSmallURL();
-            case ART_CROP:
-                return getArtCropURL();
-            case BORDER_CROP:
-                return getBorderCropURL();
-            default:
-                return null;
-        }
+        return toURL(getURI(size));
+    }
+
+    /**
+     * @param size the size of the image
+     * @return the URL of the image of the given size, as a string. This is an empty string if Scryfall has no image
+     * for this object.
+     */
+    public String getURI(Size size) {
+        return urls != null ? urls[size.ordinal()] : derive(size);
     }
 
     public BufferedImage getSmall() {
@@ -90,7 +121,6 @@ public class Images extends ScryfallObject {
         try {
             return Query.imageFromURL(getNormalURL());
         } catch (IllegalArgumentException e) {
-            System.out.println(data);
             return null;
         }
     }
@@ -107,6 +137,107 @@ public class Images extends ScryfallObject {
         return Query.imageFromURL(getURL(size));
     }
 
+    /**
+     * Decodes a thumbnail straight from a larger image, skipping the source pixels the thumbnail doesn't need, which
+     * is much faster and uses much less memory than decoding the whole image and scaling it down.
+     *
+     * @param size      the size of the image to make the thumbnail from
+     * @param maxWidth  the most pixels wide the thumbnail may be
+     * @param maxHeight the most pixels high the thumbnail may be
+     * @return the thumbnail, keeping the image's proportions, or null if there is no image of the size
+     * @see Query#thumbnailFromURL(URL, Rectangle, int, int)
+     */
+    public BufferedImage getThumbnail(Size size, int maxWidth, int maxHeight) {
+        return getThumbnail(size, null, maxWidth, maxHeight);
+    }
+
+    /**
+     * Decodes a thumbnail of a region of an image, such as the name bar of a {@link Size#NORMAL} image, decoding only
+     * that region.
+     *
+     * @param size      the size of the image to make the thumbnail from
+     * @param region    the region of the image to keep, in the image's pixels, or null for the whole image
+     * @param maxWidth  the most pixels wide the thumbnail may be
+     * @param maxHeight the most pixels high the thumbnail may be
+     * @return the thumbnail, keeping the region's proportions, or null if there is no image of the size
+     */
+    public BufferedImage getThumbnail(Size size, Rectangle region, int maxWidth, int maxHeight) {
+        URL url = getURL(size);
+        return url == null ? null : Query.thumbnailFromURL(url, region, maxWidth, maxHeight);
+    }
+
+    /**
+     * Makes a set of thumbnails of one image, for components which pick a resolution to draw at, such as on screens
+     * with different scales. Each thumbnail is cached, so the set is only decoded once.
+     *
+     * @param size   the size of the image to make the thumbnails from
+     * @param widths the widths of the thumbnails, in pixels
+     * @return the thumbnails as one image, or null if there is no image of the size or it can't be read
+     */
+    public MultiResolutionImage getThumbnails(Size size, int... widths) {
+        URL url = getURL(size);
+        if (url == null || widths.length == 0) {
+            return null;
+        }
+        int[] sorted = widths.clone();
+        Arrays.sort(sorted);
+        BufferedImage[] variants = new BufferedImage[sorted.length];
+        for (int i = 0; i < sorted.length; i++) {
+            variants[i] = Query.thumbnailFromURL(url, null, sorted[i], Integer.MAX_VALUE);
+            if (variants[i] == null) {
+                return null;
+            }
+        }
+        return new BaseMultiResolutionImage(variants);
+    }
+
+    /**
+     * Returns an image as it was encoded, without decoding it, for passing it on as it is, such as from a proxy.
+     *
+     * @param size the size of the image
+     * @return the image file's bytes, a JPEG or, for {@link Size#PNG}, a PNG, or null if there is no image of the size
+     * @throws IOException if the image isn't cached and can't be downloaded
+     */
+    public byte[] getBytes(Size size) throws IOException {
+        URL url = getURL(size);
+        return url == null ? null : Query.imageBytesFromURL(url);
+    }
+
+    /**
+     * Writes an image as it was encoded to a stream, without decoding it.
+     *
+     * @param size the size of the image
+     * @param out  the stream to write to, which is left open
+     * @return the number of bytes written, or -1 if there is no image of the size
+     * @throws IOException if the image can't be downloaded, or the stream can't be written to
+     */
+    public long writeTo(Size size, OutputStream out) throws IOException {
+        return writeTo(size, Channels.newChannel(out));
+    }
+
+    /**
+     * Writes an image as it was encoded to a channel, without decoding it. A cached image is transferred straight from
+     * its file.
+     *
+     * @param size   the size of the image
+     * @param target the channel to write to, which is left open
+     * @return the number of bytes written, or -1 if there is no image of the size
+     * @throws IOException if the image can't be downloaded, or the channel can't be written to
+     */
+    public long writeTo(Size size, WritableByteChannel target) throws IOException {
+        URL url = getURL(size);
+        return url == null ? -1 : Query.writeImage(url, target);
+    }
+
+    /**
+     * @param size the size of the image
+     * @return a future of the image of the given size, loaded without blocking the caller
+     * @see ImagePipeline
+     */
+    public CompletableFuture<BufferedImage> getImageAsync(Size size) {
+        return ImagePipeline.load(getURL(size));
+    }
+
     /**
      * <table>
      * <tr><td><b>Key name</b></td><td><b>Size</b></td><td><b>Description</b></td></tr>
@@ -135,23 +266,24 @@ public class Images extends ScryfallObject {
         if (this == o) return true;
         if (o == null || getClass() != o.getClass()) return false;
         Images images = (Images) o;
-        return Objects.equals(artCropURL, images.artCropURL) &&
-                Objects.equals(borderCropURL, images.borderCropURL) &&
-                Objects.equals(pngURL, images.pngURL) &&
-                Objects.equals(largeURL, images.largeURL) &&
-                Objects.equals(normalURL, images.normalURL) &&
-                Objects.equals(smallURL, images.smallURL);
+        return Objects.equals(normalURL, images.normalURL) &&
+                Arrays.equals(urls, images.urls);
+    }
+
+    @Override
+    public int hashCode() {
+        return 31 * Objects.hashCode(normalURL) + Arrays.hashCode(urls);
     }
 
     @Override
     public String toString() {
         return "Images{" +
-                "artCropURL=" + artCropURL +
-                ", borderCropURL=" + borderCropURL +
-                ", pngURL=" + pngURL +
-                ", largeURL=" + largeURL +
-                ", normalURL=" + normalURL +
-                ", smallURL=" + smallURL +
+                "artCropURL=" + getURI(Size.ART_CROP) +
+                ", borderCropURL=" + getURI(Size.BORDER_CROP) +
+                ", pngURL=" + getURI(Size.PNG) +
+                ", largeURL=" + getURI(Size.LARGE) +
+                ", normalURL=" + getURI(Size.NORMAL) +
+                ", smallURL=" + getURI(Size.SMALL) +
                 '}';
     }
 
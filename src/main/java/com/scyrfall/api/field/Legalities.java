@@ -1,26 +1,95 @@
 package com.scyrfall.api.field;
 
 import com.scyrfall.api.ScryfallObject;
+import com.scyrfall.api.object.Card;
 import org.json.JSONObject;
 
 import java.util.HashMap;
-import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * This object is a member of a card object, and this describes the legality of the parent
  * card across all supported formats.
+ *
+ * <p>The legality in every format is packed into a single <code>long</code>, two bits per {@link Format}. Most
+ * printings share one of a few hundred legality profiles, so {@link #fromJSON(JSONObject)} hands out shared
+ * instances for them.</p>
  */
 public class Legalities extends ScryfallObject {
-    private final HashMap<Format, Legality> legalityHashMap;
+
+    private static final Legality[] LEGALITIES = Legality.values();
+    private static final Format[] FORMATS = Format.values();
+    private static final int BITS_PER_FORMAT = 2;
+    private static final long FORMAT_MASK = (1L << BITS_PER_FORMAT) - 1;
+    private static final long ALL_NOT_LEGAL;
+    private static final int MAX_SHARED_INSTANCES = 4096;
+    private static final ConcurrentHashMap<Long, Legalities> SHARED_INSTANCES = new ConcurrentHashMap<>();
+
+    static {
+        long packed = 0;
+        for (Format format : Format.values()) {
+            packed = with(packed, format, Legality.NOT_LEGAL);
+        }
+        ALL_NOT_LEGAL = packed;
+    }
+
+    private final long packed;
 
     public Legalities(JSONObject data) {
         super(data);
-        legalityHashMap = new HashMap<>();
-        if (!data.isEmpty()) {
-            for (String key : data.keySet()) {
-                legalityHashMap.put(Format.fromString(key), Legality.fromString(data.getString(key)));
-            }
+        packed = pack(data);
+        releaseData();
+    }
+
+    private Legalities(long packed) {
+        this.packed = packed;
+    }
+
+    /**
+     * @param data the <code>legalities</code> object of a card
+     * @return the legalities described by <code>data</code>. Common legality profiles share a single instance.
+     */
+    public static Legalities fromJSON(JSONObject data) {
+        return fromPacked(pack(data));
+    }
+
+    /**
+     * @param packed legalities packed as by {@link #getPacked()}
+     * @return the legalities described by <code>packed</code>. Common legality profiles share a single instance.
+     */
+    public static Legalities fromPacked(long packed) {
+        Legalities shared = SHARED_INSTANCES.get(packed);
+        if (shared != null) {
+            return shared;
+        }
+        Legalities legalities = new Legalities(packed);
+        if (SHARED_INSTANCES.size() >= MAX_SHARED_INSTANCES) {
+            return legalities;
         }
+        shared = SHARED_INSTANCES.putIfAbsent(packed, legalities);
+        return shared != null ? shared : legalities;
+    }
+
+    private static long pack(JSONObject data) {
+        long packed = ALL_NOT_LEGAL;
+        for (String key : data.keySet()) {
+            packed = with(packed, Format.fromString(key), Legality.fromString(data.getString(key)));
+        }
+        return packed;
+    }
+
+    private static long with(long packed, Format format, Legality legality) {
+        int shift = format.ordinal() * BITS_PER_FORMAT;
+        return (packed & ~(FORMAT_MASK << shift)) | ((long) legality.ordinal() << shift);
+    }
+
+    /**
+     * @param packed legalities packed as by {@link #getPacked()}
+     * @param format the format to check
+     * @return the legality in the given format
+     */
+    public static Legality getFormatLegality(long packed, Format format) {
+        return LEGALITIES[(int) ((packed >>> (format.ordinal() * BITS_PER_FORMAT)) & FORMAT_MASK)];
     }
 
     /**
@@ -31,20 +100,123 @@ public class Legalities extends ScryfallObject {
      * @return the legality of this card in the given format
      */
     public Legality getFormatLegality(Format format) {
-        if (legalityHashMap.containsKey(format)) {
-            return legalityHashMap.get(format);
+        return getFormatLegality(packed, format);
+    }
+
+    /**
+     * @return these legalities packed into a <code>long</code>, where bits <code>2n</code> and <code>2n + 1</code>
+     * hold the ordinal of the {@link Legality} in the format with ordinal <code>n</code>.
+     */
+    public long getPacked() {
+        return packed;
+    }
+
+    /**
+     * @return the names of the formats, in the order {@link #getPacked()} lays them out. Since that order follows the
+     * declaration of {@link Format}, files which keep packed legalities store these names with them, and read them
+     * back through {@link #getFormatOrdinals(String[])} and {@link #repack(long, int[])}, so formats can be added or
+     * reordered without changing what stored legalities mean.
+     */
+    public static String[] getPackedFormatNames() {
+        String[] names = new String[FORMATS.length];
+        for (int i = 0; i < names.length; i++) {
+            names[i] = FORMATS[i].name();
+        }
+        return names;
+    }
+
+    /**
+     * @param names the format names returned by {@link #getPackedFormatNames()} when some legalities were packed
+     * @return for each name, the ordinal of the format with that name now, or -1 if there is no such format anymore
+     * @throws IllegalArgumentException if there are more names than a <code>long</code> has room for
+     */
+    public static int[] getFormatOrdinals(String[] names) {
+        if (names.length * BITS_PER_FORMAT > Long.SIZE) {
+            throw new IllegalArgumentException("Too many formats: " + names.length);
+        }
+        int[] ordinals = new int[names.length];
+        for (int i = 0; i < names.length; i++) {
+            ordinals[i] = -1;
+            for (Format format : FORMATS) {
+                if (format.name().equals(names[i])) {
+                    ordinals[i] = format.ordinal();
+                    break;
+                }
+            }
+        }
+        return ordinals;
+    }
+
+    /**
+     * @param packed   legalities packed when the formats had other ordinals
+     * @param ordinals the ordinals of those formats now, as returned by {@link #getFormatOrdinals(String[])}
+     * @return the same legalities packed as {@link #getPacked()} lays them out now. Formats which weren't stored are
+     * {@link Legality#NOT_LEGAL}.
+     */
+    public static long repack(long packed, int[] ordinals) {
+        long repacked = ALL_NOT_LEGAL;
+        for (int i = 0; i < ordinals.length; i++) {
+            if (ordinals[i] >= 0) {
+                repacked = with(repacked, FORMATS[ordinals[i]],
+                        LEGALITIES[(int) ((packed >>> (i * BITS_PER_FORMAT)) & FORMAT_MASK)]);
+            }
         }
-        return Legality.NOT_LEGAL;
+        return repacked;
     }
 
     /**
      * @return a HashMap containing key value pairs for each format, and the parent card's legality
-     * in that format.
+     * in that format. Every {@link Format} has an entry: formats the card's data doesn't list are
+     * {@link Legality#NOT_LEGAL}, as in {@link #getFormatLegality(Format)}, since only the packed legalities are kept.
      */
     public HashMap<Format, Legality> getLegalityMap() {
+        HashMap<Format, Legality> legalityHashMap = new HashMap<>();
+        for (Format format : Format.values()) {
+            legalityHashMap.put(format, getFormatLegality(format));
+        }
         return legalityHashMap;
     }
 
+    /**
+     * Finds the cards with the given legality in one format, without allocating.
+     *
+     * @param cards    the cards to test
+     * @param format   the format to check
+     * @param legality the legality to look for
+     * @param out      receives the indexes in <code>cards</code> of the matching cards, in order. It must be at least
+     *                 as long as the number of matches, so an array as long as <code>cards</code> is always enough.
+     * @return the number of indexes written to <code>out</code>
+     */
+    public static int select(Card[] cards, Format format, Legality legality, int[] out) {
+        int shift = format.ordinal() * BITS_PER_FORMAT;
+        long expected = legality.ordinal();
+        int count = 0;
+        for (int i = 0; i < cards.length; i++) {
+            if (((cards[i].getLegalities().packed >>> shift) & FORMAT_MASK) == expected) {
+                out[count++] = i;
+            }
+        }
+        return count;
+    }
+
+    /**
+     * @param cards    the cards to test
+     * @param format   the format to check
+     * @param legality the legality to look for
+     * @return the number of cards with the given legality in the given format
+     */
+    public static int count(Card[] cards, Format format, Legality legality) {
+        int shift = format.ordinal() * BITS_PER_FORMAT;
+        long expected = legality.ordinal();
+        int count = 0;
+        for (Card card : cards) {
+            if (((card.getLegalities().packed >>> shift) & FORMAT_MASK) == expected) {
+                count++;
+            }
+        }
+        return count;
+    }
+
     /**
      * Different legalities a card can have in a given format.
      * The options are: LEGAL, NOT_LEGAL, RESTRICTED, and BANNED.
@@ -83,13 +255,18 @@ public class Legalities extends ScryfallObject {
         if (this == o) return true;
         if (o == null || getClass() != o.getClass()) return false;
         Legalities that = (Legalities) o;
-        return Objects.equals(legalityHashMap, that.legalityHashMap);
+        return packed == that.packed;
+    }
+
+    @Override
+    public int hashCode() {
+        return Long.hashCode(packed);
     }
 
     @Override
     public String toString() {
         return "Legalities{" +
-                "legalityHashMap=" + legalityHashMap +
+                "legalityHashMap=" + getLegalityMap() +
                 '}';
     }
 }
@@ -1,18 +1,16 @@
 package com.scyrfall.api.field;
 
 import com.scyrfall.api.ScryfallObject;
-import com.scyrfall.api.query.Query;
-import org.json.JSONArray;
+import com.scyrfall.api.local.LocalResolver;
 import org.json.JSONObject;
 
-import java.util.Arrays;
 import java.util.Objects;
 
 public class ManaCost extends ScryfallObject {
 
     private final String cost;
     private final double cmc;
-    private final Color[] colors;
+    private final ColorSet colors;
     private final boolean colorless;
     private final boolean monoColored;
     private final boolean multiColored;
@@ -24,12 +22,25 @@ public class ManaCost extends ScryfallObject {
         colorless = getBoolean("colorless");
         monoColored = getBoolean("monocolored");
         multiColored = getBoolean("multicolored");
+        colors = getColorSet("colors");
+    }
 
-        JSONArray colors = getJSONArray("colors");
-        this.colors = new Color[colors.length()];
-        for (int i = 0; i < colors.length(); i++) {
-            this.colors[i] = Color.fromString(colors.getString(i));
-        }
+    /**
+     * Creates a parsed cost without JSON, as {@link com.scyrfall.api.local.ManaCostParser} does.
+     *
+     * @param cost   the normalized cost
+     * @param cmc    the converted mana cost
+     * @param colors the colors of the cost
+     */
+    public ManaCost(String cost, double cmc, ColorSet colors) {
+        super();
+        this.cost = cost;
+        this.cmc = cmc;
+        this.colors = colors;
+        int count = colors.size();
+        colorless = count == 0;
+        monoColored = count == 1;
+        multiColored = count > 1;
     }
 
     /**
@@ -49,7 +60,7 @@ public class ManaCost extends ScryfallObject {
     /**
      * @return The colors of the given cost.
      */
-    public Color[] getColors() {
+    public ColorSet getColors() {
         return colors;
     }
 
@@ -81,11 +92,14 @@ public class ManaCost extends ScryfallObject {
      * <code>{2}{W}{W}</code>). Symbols can also be out of order, lowercase, or have multiple colorless costs (such as
      * <code>2{g}2</code> for <code>{4}{G}</code>).</p>
      *
+     * <p>When symbols are loaded into {@link LocalResolver}, the cost is parsed from them without a request.</p>
+     *
      * @param mana The mana string to parse.
      * @return A Symbol object describing the parsed string.
      */
     public static ManaCost parseManaCost(String mana) {
-        return new ManaCost(Query.dataFromPath("symbology/parse-mana?cost=" + mana));
+        return LocalResolver.resolve(() -> LocalResolver.parseManaCost(mana), "symbology/parse-mana?cost=" + mana,
+                ManaCost::new);
     }
 
     @Override
@@ -98,7 +112,12 @@ public class ManaCost extends ScryfallObject {
                 monoColored == manaCost.monoColored &&
                 multiColored == manaCost.multiColored &&
                 Objects.equals(cost, manaCost.cost) &&
-                Arrays.equals(colors, manaCost.colors);
+                Objects.equals(colors, manaCost.colors);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(cost, cmc, colors, colorless, monoColored, multiColored);
     }
 
     @Override
@@ -106,7 +125,7 @@ public class ManaCost extends ScryfallObject {
         return "ManaCost{" +
                 "cost='" + cost + '\'' +
                 ", cmc=" + cmc +
-                ", colors=" + Arrays.toString(colors) +
+                ", colors=" + colors +
                 ", colorless=" + colorless +
                 ", monoColored=" + monoColored +
                 ", multiColored=" + multiColored +
@@ -1,29 +1,52 @@
 package com.scyrfall.api.field;
 
 import com.scyrfall.api.ScryfallObject;
+import com.scyrfall.api.local.SnapshotInput;
+import com.scyrfall.api.local.SnapshotOutput;
 import org.json.JSONObject;
 
 import java.net.URL;
+import java.time.LocalDate;
 import java.util.Date;
 import java.util.Objects;
 
 public class Preview extends ScryfallObject {
 
-    private final Date previewedAt;
+    private final LocalDate previewedAt;
     private final String source;
-    private final URL sourceURL;
+    private final String sourceURL;
 
     public Preview(JSONObject data) {
         super(data);
-        previewedAt = getDate("previewed_at");
-        source = getString("source");
-        sourceURL = getURL("source_uri");
+        previewedAt = getLocalDate("previewed_at");
+        source = getPooledString("source");
+        sourceURL = getString("source_uri");
+        releaseData();
+    }
+
+    public Preview(SnapshotInput in) {
+        previewedAt = in.readDate();
+        source = in.readPooledString();
+        sourceURL = in.readString();
+    }
+
+    public void writeTo(SnapshotOutput out) {
+        out.writeDate(previewedAt);
+        out.writeString(source);
+        out.writeString(sourceURL);
     }
 
     /**
      * @return The date this card was previewed.
      */
     public Date getPreviewedAt() {
+        return toDate(previewedAt);
+    }
+
+    /**
+     * @return The date this card was previewed.
+     */
+    public LocalDate getPreviewedAtLocalDate() {
         return previewedAt;
     }
 
@@ -38,7 +61,7 @@ public class Preview extends ScryfallObject {
      * @return A link to the preview for this card.
      */
     public URL getSourceURL() {
-        return sourceURL;
+        return toURL(sourceURL);
     }
 
     @Override
@@ -51,6 +74,11 @@ public class Preview extends ScryfallObject {
                 Objects.equals(sourceURL, preview.sourceURL);
     }
 
+    @Override
+    public int hashCode() {
+        return Objects.hash(previewedAt, source, sourceURL);
+    }
+
     @Override
     public String toString() {
         return "Preview{" +
@@ -1,6 +1,8 @@
 package com.scyrfall.api.field;
 
 import com.scyrfall.api.ScryfallObject;
+import com.scyrfall.api.local.SnapshotInput;
+import com.scyrfall.api.local.SnapshotOutput;
 import org.json.JSONObject;
 
 import java.util.Objects;
@@ -25,6 +27,23 @@ public class Prices extends ScryfallObject {
         usdEtched = getString("usd_etched");
         tix = getString("tix");
         eur = getString("eur");
+        releaseData();
+    }
+
+    public Prices(SnapshotInput in) {
+        usd = in.readString();
+        usdFoil = in.readString();
+        usdEtched = in.readString();
+        tix = in.readString();
+        eur = in.readString();
+    }
+
+    public void writeTo(SnapshotOutput out) {
+        out.writeString(usd);
+        out.writeString(usdFoil);
+        out.writeString(usdEtched);
+        out.writeString(tix);
+        out.writeString(eur);
     }
 
     /**
@@ -73,6 +92,11 @@ public class Prices extends ScryfallObject {
                 Objects.equals(tix, prices.tix);
     }
 
+    @Override
+    public int hashCode() {
+        return Objects.hash(usdFoil, usd, eur, tix);
+    }
+
     @Override
     public String toString() {
         return "Prices{" +
@@ -1,7 +1,10 @@
 package com.scyrfall.api.field;
 
 import com.scyrfall.api.ScryfallObject;
+import com.scyrfall.api.local.SnapshotInput;
+import com.scyrfall.api.local.SnapshotOutput;
 import com.scyrfall.api.object.Card;
+import com.scyrfall.api.query.Query;
 import org.json.JSONObject;
 
 import java.net.URL;
@@ -15,19 +18,42 @@ import java.util.UUID;
  * @see Card#getAllParts()
  */
 public class RelatedCard extends ScryfallObject {
+    private static final String CARD_API_PREFIX = Query.API_STUB + "cards/";
+
     private final UUID id;
     private final String name;
     private final String typeLine;
-    private final URL url;
+    private final String url;
     private final Component component;
 
     public RelatedCard(JSONObject data) {
         super(data);
-        url = getURL("url");
         id = getUUID("id");
+        url = compactURL(getString("uri"), CARD_API_PREFIX, idText(), "");
         component = Component.fromString(getString("component"));
-        name = getString("name");
-        typeLine = getString("type_line");
+        name = getPooledString("name");
+        typeLine = getPooledString("type_line");
+        releaseData();
+    }
+
+    public RelatedCard(SnapshotInput in) {
+        id = in.readUUID();
+        url = in.readString();
+        component = in.readEnum(Component.class);
+        name = in.readPooledString();
+        typeLine = in.readPooledString();
+    }
+
+    public void writeTo(SnapshotOutput out) {
+        out.writeUUID(id);
+        out.writeString(url);
+        out.writeEnum(component);
+        out.writeString(name);
+        out.writeString(typeLine);
+    }
+
+    private String idText() {
+        return id == null ? "" : id.toString();
     }
 
     public UUID getId() {
@@ -43,7 +69,7 @@ public class RelatedCard extends ScryfallObject {
     }
 
     public URL getUrl() {
-        return url;
+        return expandURL(url, CARD_API_PREFIX, idText(), "");
     }
 
     public Component getComponent() {
@@ -71,4 +97,9 @@ public class RelatedCard extends ScryfallObject {
                 component == that.component;
     }
 
+    @Override
+    public int hashCode() {
+        return Objects.hash(id, name, typeLine, url, component);
+    }
+
 }
@@ -4,14 +4,14 @@ import com.scyrfall.api.ScryfallObject;
 import com.scyrfall.api.query.Query;
 import org.json.JSONObject;
 
-import java.text.ParseException;
+import java.time.LocalDate;
 import java.util.Date;
 import java.util.Objects;
 import java.util.UUID;
 
 public class Ruling extends ScryfallObject {
 
-    private final Date publishedDate;
+    private final LocalDate publishedDate;
     private final RulingSource source;
     private final String comment;
     private final UUID oracleID;
@@ -20,16 +20,24 @@ public class Ruling extends ScryfallObject {
         super(data);
 
         comment = getString("comment");
-        publishedDate = getDate("released_at");
+        publishedDate = getLocalDate("published_at");
 
         source = RulingSource.fromString(getString("source"));
         oracleID = getUUID("oracle_id");
+        releaseData();
     }
 
     /**
      * @return The date when the ruling or note was published.
      */
     public Date getPublishedDate() {
+        return toDate(publishedDate);
+    }
+
+    /**
+     * @return The date when the ruling or note was published.
+     */
+    public LocalDate getPublishedLocalDate() {
         return publishedDate;
     }
 
@@ -135,4 +143,9 @@ public class Ruling extends ScryfallObject {
                 Objects.equals(oracleID, ruling.oracleID);
     }
 
+    @Override
+    public int hashCode() {
+        return Objects.hash(publishedDate, source, comment, oracleID);
+    }
+
 }
\ No newline at end of file
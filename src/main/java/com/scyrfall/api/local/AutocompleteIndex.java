@@ -0,0 +1,315 @@
+package com.scyrfall.api.local;
+
+import com.scyrfall.api.object.Card;
+import com.scyrfall.api.object.Catalog;
+import org.json.JSONArray;
+import org.json.JSONObject;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Completes partly typed card names from memory, the way {@link Card#autoComplete(String)} does on Scryfall's API.
+ *
+ * <p>Names are kept in a radix trie keyed by their normalized form, in which case, accents, spaces and punctuation are
+ * ignored, so <code>"lim dul"</code> completes <code>Lim-Dûl's Vault</code>. Names that start with the typed text come
+ * first, then names with a later word that starts with it, and within each group the most popular names come first.
+ * Every node of the trie keeps the best names below it, so a completion only walks down the typed text and never
+ * visits the names it doesn't return.</p>
+ *
+ * <pre>{@code
+ * AutocompleteIndex index = dataset.getAutocompleteIndex();
+ * String[] names = index.complete("thal").getValues();
+ * }</pre>
+ */
+public final class AutocompleteIndex {
+
+    /**
+     * The maximum number of names a completion returns, the same as on Scryfall's API.
+     */
+    public static final int MAX_RESULTS = 20;
+    /**
+     * The shortest text that is completed. Shorter text returns no names, as on Scryfall's API.
+     */
+    public static final int MIN_LENGTH = 2;
+
+    private static final int[] NO_NAMES = new int[0];
+
+    // sorted by rank, so a lower index is a more popular name
+    private final String[] names;
+    private final Node root = new Node("");
+
+    /**
+     * @param names the names to complete, most popular first
+     */
+    public AutocompleteIndex(String... names) {
+        this.names = names.clone();
+        for (int i = 0; i < names.length; i++) {
+            String key = normalize(names[i]);
+            if (!key.isEmpty()) {
+                root.insert(key, 0, i, true);
+            }
+            for (String suffix : wordSuffixes(names[i])) {
+                root.insert(suffix, 0, i, false);
+            }
+        }
+        root.collect();
+    }
+
+    /**
+     * Indexes the name of every card in a dataset except extras such as tokens and emblems, ranking names by their
+     * best <code>edhrec_rank</code>. Unranked names follow the ranked ones in alphabetical order.
+     *
+     * @param dataset the cards whose names to complete
+     * @return an index of the names in the dataset
+     */
+    public static AutocompleteIndex fromDataset(CardDataset dataset) {
+        Map<String, Integer> ranks = new HashMap<>();
+        for (int row = 0; row < dataset.size(); row++) {
+            Card card = dataset.get(row);
+            if (card.getName() != null && !SearchQuery.EXTRAS.contains(card.getLayout())) {
+                int rank = card.getEdhrecRank() > 0 ? card.getEdhrecRank() : Integer.MAX_VALUE;
+                ranks.merge(card.getName(), rank, Math::min);
+            }
+        }
+        List<Map.Entry<String, Integer>> entries = new ArrayList<>(ranks.entrySet());
+        entries.sort(Map.Entry.<String, Integer>comparingByValue().thenComparing(Map.Entry.comparingByKey()));
+        String[] names = new String[entries.size()];
+        for (int i = 0; i < names.length; i++) {
+            names[i] = entries.get(i).getKey();
+        }
+        return new AutocompleteIndex(names);
+    }
+
+    /**
+     * Indexes the names in a catalog such as <code>card-names</code>, which has no popularity data, so names are
+     * ranked in the catalog's order.
+     *
+     * @param catalog a catalog of names
+     * @return an index of the names in the catalog
+     */
+    public static AutocompleteIndex fromCatalog(Catalog catalog) {
+        return new AutocompleteIndex(catalog.getValues() == null ? new String[0] : catalog.getValues());
+    }
+
+    /**
+     * @return The number of names in this index.
+     */
+    public int size() {
+        return names.length;
+    }
+
+    /**
+     * @param text the partly typed name
+     * @return up to {@link #MAX_RESULTS} names, best first, or none if the normalized text is shorter than
+     * {@link #MIN_LENGTH}
+     */
+    public String[] complete(String text) {
+        String key = normalize(text);
+        if (key.length() < MIN_LENGTH) {
+            return new String[0];
+        }
+        Node node = root.find(key);
+        if (node == null) {
+            return new String[0];
+        }
+        String[] result = new String[MAX_RESULTS];
+        int count = 0;
+        for (int name : node.starts) {
+            result[count++] = names[name];
+        }
+        // a later word may also start a name which already matched from its start, so word matches are skipped
+        // rather than counted until the limit is reached. Both lists hold the best names, so a skipped name is one of
+        // the starts, and the words left over are always enough to fill the limit when there are that many matches.
+        for (int i = 0; i < node.words.length && count < MAX_RESULTS; i++) {
+            if (Arrays.binarySearch(node.starts, node.words[i]) < 0) {
+                result[count++] = names[node.words[i]];
+            }
+        }
+        return count == MAX_RESULTS ? result : Arrays.copyOf(result, count);
+    }
+
+    /**
+     * @param text the partly typed name
+     * @return a catalog of the completions, as {@link Card#autoComplete(String)} returns them
+     */
+    public Catalog completeCatalog(String text) {
+        String[] values = complete(text);
+        return new Catalog(new JSONObject()
+                .put("object", "catalog")
+                .put("total_values", values.length)
+                .put("data", new JSONArray(values)));
+    }
+
+    /**
+     * Normalizes a name as completions match it: lower-cased, without accents, and with only its letters and digits,
+     * with <code>æ</code> written <code>ae</code>.
+     */
+    static String normalize(String text) {
+        String decomposed = Normalizer.normalize(text, Normalizer.Form.NFD).toLowerCase(Locale.ROOT);
+        StringBuilder builder = new StringBuilder(decomposed.length());
+        for (int i = 0; i < decomposed.length(); i++) {
+            char c = decomposed.charAt(i);
+            if (c == 'æ') {
+                builder.append("ae");
+            } else if (Character.isLetterOrDigit(c)) {
+                builder.append(c);
+            }
+        }
+        return builder.toString();
+    }
+
+    /**
+     * @return the normalized rest of the name from the start of each word after the first
+     */
+    private static List<String> wordSuffixes(String name) {
+        List<String> suffixes = new ArrayList<>();
+        for (int i = 1; i < name.length(); i++) {
+            if (Character.isLetterOrDigit(name.charAt(i)) && !Character.isLetterOrDigit(name.charAt(i - 1))
+                    && name.charAt(i - 1) != '\'' && name.charAt(i - 1) != '’') {
+                String suffix = normalize(name.substring(i));
+                if (!suffix.isEmpty()) {
+                    suffixes.add(suffix);
+                }
+            }
+        }
+        return suffixes;
+    }
+
+    /**
+     * A node of the radix trie. The edge into a node is labeled with one or more characters, and each node keeps the
+     * best names which start with, or have a word which starts with, the text spelled out down to it.
+     */
+    private static final class Node {
+        private String label;
+        private char[] firsts = new char[0];
+        private Node[] children = new Node[0];
+        // the names which end at this node, until collect() replaces them with every name below it
+        private int[] starts = NO_NAMES;
+        private int[] words = NO_NAMES;
+
+        Node(String label) {
+            this.label = label;
+        }
+
+        void insert(String key, int offset, int name, boolean start) {
+            if (offset == key.length()) {
+                if (start) {
+                    starts = add(starts, name);
+                } else {
+                    words = add(words, name);
+                }
+                return;
+            }
+            int index = Arrays.binarySearch(firsts, key.charAt(offset));
+            if (index < 0) {
+                Node child = new Node(key.substring(offset));
+                child.insert(key, key.length(), name, start);
+                addChild(-index - 1, child);
+                return;
+            }
+            Node child = children[index];
+            int common = 0;
+            int max = Math.min(child.label.length(), key.length() - offset);
+            while (common < max && child.label.charAt(common) == key.charAt(offset + common)) {
+                common++;
+            }
+            if (common < child.label.length()) {
+                // split the edge where the key leaves it
+                Node split = new Node(child.label.substring(0, common));
+                child.label = child.label.substring(common);
+                split.firsts = new char[]{child.label.charAt(0)};
+                split.children = new Node[]{child};
+                children[index] = split;
+                child = split;
+            }
+            child.insert(key, offset + common, name, start);
+        }
+
+        private void addChild(int index, Node child) {
+            char[] firsts = new char[this.firsts.length + 1];
+            Node[] children = new Node[this.children.length + 1];
+            System.arraycopy(this.firsts, 0, firsts, 0, index);
+            System.arraycopy(this.children, 0, children, 0, index);
+            firsts[index] = child.label.charAt(0);
+            children[index] = child;
+            System.arraycopy(this.firsts, index, firsts, index + 1, this.firsts.length - index);
+            System.arraycopy(this.children, index, children, index + 1, this.children.length - index);
+            this.firsts = firsts;
+            this.children = children;
+        }
+
+        private static int[] add(int[] names, int name) {
+            int[] added = Arrays.copyOf(names, names.length + 1);
+            added[names.length] = name;
+            return added;
+        }
+
+        /**
+         * Replaces each node's names with the best {@link #MAX_RESULTS} names ending at or below it.
+         */
+        void collect() {
+            int[][] starts = new int[children.length + 1][];
+            int[][] words = new int[children.length + 1][];
+            for (int i = 0; i < children.length; i++) {
+                children[i].collect();
+                starts[i] = children[i].starts;
+                words[i] = children[i].words;
+            }
+            starts[children.length] = this.starts;
+            words[children.length] = this.words;
+            this.starts = best(starts);
+            this.words = best(words);
+        }
+
+        private static int[] best(int[][] lists) {
+            int total = 0;
+            for (int[] list : lists) {
+                total += list.length;
+            }
+            if (total == 0) {
+                return NO_NAMES;
+            }
+            int[] all = new int[total];
+            int offset = 0;
+            for (int[] list : lists) {
+                System.arraycopy(list, 0, all, offset, list.length);
+                offset += list.length;
+            }
+            Arrays.sort(all);
+            int count = 0;
+            for (int i = 0; i < all.length && count < MAX_RESULTS; i++) {
+                if (count == 0 || all[count - 1] != all[i]) {
+                    all[count++] = all[i];
+                }
+            }
+            return Arrays.copyOf(all, count);
+        }
+
+        /**
+         * @return the node whose names match <code>key</code>, or null if no name does
+         */
+        Node find(String key) {
+            Node node = this;
+            int offset = 0;
+            while (offset < key.length()) {
+                int index = Arrays.binarySearch(node.firsts, key.charAt(offset));
+                if (index < 0) {
+                    return null;
+                }
+                node = node.children[index];
+                int length = Math.min(node.label.length(), key.length() - offset);
+                if (!key.regionMatches(offset, node.label, 0, length)) {
+                    return null;
+                }
+                offset += length;
+            }
+            return node;
+        }
+    }
+}
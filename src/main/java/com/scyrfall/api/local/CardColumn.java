@@ -0,0 +1,109 @@
+package com.scyrfall.api.local;
+
+import com.scyrfall.api.object.Card;
+
+/**
+ * The columns of a {@link CardStore}. Each column is identified in the file by its fixed <code>id</code> rather than
+ * its position in this enum, so columns can be added without breaking existing files.
+ */
+enum CardColumn {
+    ID(1, Kind.UUID),
+    ORACLE_ID(2, Kind.UUID),
+    SET_ID(3, Kind.UUID),
+    CMC(4, Kind.DOUBLE),
+    EDHREC_RANK(5, Kind.INT),
+    PENNY_RANK(6, Kind.INT),
+    MTGO_ID(7, Kind.INT),
+    ARENA_ID(8, Kind.INT),
+    TCGPLAYER_ID(9, Kind.INT),
+    RELEASE_DATE(10, Kind.INT),
+    FLAGS(11, Kind.INT),
+    LEGALITIES(12, Kind.LEGALITIES),
+    COLORS(13, Kind.BYTE),
+    COLOR_IDENTITY(14, Kind.BYTE),
+    COLOR_INDICATOR(15, Kind.BYTE),
+    PRODUCED_MANA(16, Kind.BYTE),
+    LAYOUT(17, Kind.ENUM, Card.Layout.class),
+    RARITY(18, Kind.ENUM, Card.Rarity.class),
+    BORDER_COLOR(19, Kind.ENUM, Card.BorderColor.class),
+    FRAME(20, Kind.ENUM, Card.Frame.class),
+    NAME(21, Kind.STRING),
+    LANG(22, Kind.STRING),
+    MANA_COST(23, Kind.STRING),
+    TYPE_LINE(24, Kind.STRING),
+    ORACLE_TEXT(25, Kind.STRING),
+    POWER(26, Kind.STRING),
+    TOUGHNESS(27, Kind.STRING),
+    LOYALTY(28, Kind.STRING),
+    DEFENSE(29, Kind.STRING),
+    SET(30, Kind.STRING),
+    SET_NAME(31, Kind.STRING),
+    COLLECTOR_NUMBER(32, Kind.STRING),
+    ARTIST(33, Kind.STRING),
+    FLAVOR_TEXT(34, Kind.STRING),
+    WATERMARK(35, Kind.STRING);
+
+    static final int FLAG_OVERSIZED = 1;
+    static final int FLAG_DIGITAL = 1 << 1;
+    static final int FLAG_RESERVED = 1 << 2;
+    static final int FLAG_TEXTLESS = 1 << 3;
+    static final int FLAG_IN_BOOSTERS = 1 << 4;
+    static final int FLAG_CONTENT_WARNING = 1 << 5;
+    static final int FLAG_VARIATION = 1 << 6;
+    static final int FLAG_FULL_ART = 1 << 7;
+    static final int FLAG_HIGH_RES_IMAGE = 1 << 8;
+    static final int FLAG_PROMO = 1 << 9;
+    static final int FLAG_REPRINT = 1 << 10;
+    static final int FLAG_STORY_SPOTLIGHT = 1 << 11;
+
+    final short id;
+    final Kind kind;
+    final Class<? extends Enum<?>> enumType;
+
+    CardColumn(int id, Kind kind) {
+        this(id, kind, null);
+    }
+
+    CardColumn(int id, Kind kind, Class<? extends Enum<?>> enumType) {
+        this.id = (short) id;
+        this.kind = kind;
+        this.enumType = enumType;
+    }
+
+    static CardColumn fromId(short id) {
+        for (CardColumn column : values()) {
+            if (column.id == id) {
+                return column;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * How a column's values are laid out. Fixed-width columns hold <code>width</code> bytes per row.
+     *
+     * <ul>
+     *     <li>A <code>UUID</code> is two longs. The nil UUID stands for <code>null</code>.</li>
+     *     <li>An <code>ENUM</code> column starts with the number of constants it uses and their names, each as an int
+     *     length and UTF-8 bytes, followed by one byte per row indexing those names, or -1 for <code>null</code>.
+     *     Storing names instead of ordinals keeps stores valid when constants are added or reordered.</li>
+     *     <li>A <code>LEGALITIES</code> column starts with the names of the formats in the order
+     *     {@link com.scyrfall.api.field.Legalities#getPacked()} laid them out when the store was written, stored like
+     *     an <code>ENUM</code> column's names and padded to a multiple of 8 bytes, followed by one packed long per
+     *     row, or -1 for <code>null</code>. The names are mapped back to the current formats when the store is
+     *     opened.</li>
+     *     <li>A <code>STRING</code> column starts with an int offset and an int length per row, followed by the UTF-8
+     *     bytes the offsets point into. Equal strings in a column are stored once. A length of -1 stands for
+     *     <code>null</code>.</li>
+     * </ul>
+     */
+    enum Kind {
+        BYTE(1), INT(4), LONG(8), DOUBLE(8), UUID(16), ENUM(1), LEGALITIES(8), STRING(8);
+
+        final int width;
+
+        Kind(int width) {
+            this.width = width;
+        }
+    }
+}
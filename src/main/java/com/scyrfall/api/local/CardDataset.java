@@ -0,0 +1,441 @@
+package com.scyrfall.api.local;
+
+import com.scyrfall.api.field.CardFace;
+import com.scyrfall.api.object.Card;
+import com.scyrfall.api.object.ScryfallList;
+import com.scyrfall.api.query.Query;
+
+import java.io.IOException;
+import java.net.MalformedURLException;
+import java.net.URI;
+import java.net.URL;
+import java.net.URLEncoder;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * A set of cards held in memory, such as the contents of a bulk data file, with indexes over every id Scryfall can
+ * look a card up by. The lookups mirror {@link Card#fromMtgoID(int)}, {@link Card#fromID(UUID)},
+ * {@link Card#fromSet(String, String)} and the other <code>from</code> methods on {@link Card}, but are answered
+ * from memory instead of with a request to Scryfall.
+ *
+ * <p>Indexes are built once, when the dataset is created, and store their keys in primitive arrays, so lookups don't
+ * box their keys or allocate. Lookups return <code>null</code> if no card in the dataset matches. A dataset is
+ * immutable and can be shared between threads.</p>
+ *
+ * <p>Datasets can also be searched with Scryfall's search syntax through {@link #search(String)}, which returns
+ * pages in the same order and of the same size as {@link Card#search(String)}.</p>
+ */
+public final class CardDataset {
+
+    /**
+     * The number of cards on each page of search results, the same as on Scryfall's API.
+     */
+    public static final int PAGE_SIZE = 175;
+
+    private final Card[] cards;
+    private final IntRowIndex mtgoIDs;
+    private final IntRowIndex arenaIDs;
+    private final IntRowIndex multiverseIDs;
+    private final IntRowIndex tcgplayerIDs;
+    private final IntRowIndex cardmarketIDs;
+    private final UUIDRowIndex ids;
+    private final UUIDRowIndex oracleIDs;
+    private final UUIDRowIndex illustrationIDs;
+    private final SetNumberIndex setNumbers;
+    private final Map<String, Integer> names = new HashMap<>();
+    // built on the first search, since datasets used only for id lookups don't need it
+    private volatile SearchIndex searchIndex;
+    private volatile TextIndex textIndex;
+    private volatile AutocompleteIndex autocompleteIndex;
+    private volatile FuzzyNameMatcher fuzzyNameMatcher;
+
+    /**
+     * @param cards the cards in this dataset. Their order is kept, so a card's row is its index in this array.
+     */
+    public CardDataset(Card... cards) {
+        this.cards = cards.clone();
+        int size = this.cards.length;
+        mtgoIDs = new IntRowIndex(size);
+        arenaIDs = new IntRowIndex(size / 4);
+        multiverseIDs = new IntRowIndex(size);
+        tcgplayerIDs = new IntRowIndex(size);
+        cardmarketIDs = new IntRowIndex(size);
+        ids = new UUIDRowIndex(size);
+        oracleIDs = new UUIDRowIndex(size / 2);
+        illustrationIDs = new UUIDRowIndex(size / 2);
+
+        for (int row = 0; row < size; row++) {
+            Card card = this.cards[row];
+            // Scryfall matches either the regular or the foil/etched id for MTGO and TCGplayer lookups
+            addID(mtgoIDs, card.getMtgoID(), row);
+            addID(mtgoIDs, card.getMtgoFoilID(), row);
+            addID(arenaIDs, card.getArenaID(), row);
+            addID(tcgplayerIDs, card.getTcgplayerID(), row);
+            addID(tcgplayerIDs, card.getTcgplayerEtchedID(), row);
+            addID(cardmarketIDs, card.getCardmarketID(), row);
+            if (card.getMultiverseIDs() != null) {
+                for (int i = 0; i < card.getMultiverseIDs().size(); i++) {
+                    addID(multiverseIDs, card.getMultiverseIDs().get(i), row);
+                }
+            }
+            addID(ids, card.getId(), row);
+            addID(oracleIDs, card.getOracleID(), row);
+            addID(illustrationIDs, card.getIllustrationID(), row);
+            addName(card.getName(), row);
+            if (card.getFaces() != null) {
+                for (CardFace face : card.getFaces()) {
+                    addName(face.getName(), row);
+                }
+            }
+        }
+        setNumbers = new SetNumberIndex(this.cards);
+    }
+
+    /**
+     * @param cards the cards in this dataset, in row order
+     */
+    public CardDataset(Collection<Card> cards) {
+        this(cards.toArray(new Card[0]));
+    }
+
+    /**
+     * @param path a snapshot written by {@link SnapshotWriter}
+     * @return a dataset of the cards in the snapshot
+     * @throws IOException if the snapshot can't be read
+     */
+    public static CardDataset fromSnapshot(Path path) throws IOException {
+        return new CardDataset(Snapshot.read(path).getCards());
+    }
+
+    private static void addID(IntRowIndex index, int id, int row) {
+        // missing ids are read as -1
+        if (id >= 0) {
+            index.add(id, row);
+        }
+    }
+
+    private static void addID(UUIDRowIndex index, UUID id, int row) {
+        if (id != null) {
+            index.add(id, row);
+        }
+    }
+
+    private void addName(String name, int row) {
+        if (name == null || name.isEmpty()) {
+            return;
+        }
+        names.merge(name.toLowerCase(Locale.ROOT), row, (current, added) -> preferred(current, added));
+    }
+
+    private int preferred(int current, int added) {
+        return prefer(cards[current], cards[added]) == cards[current] ? current : added;
+    }
+
+    /**
+     * @return whichever printing of a card lookups by name should return: English printings first, then the most
+     * recent
+     */
+    static Card prefer(Card current, Card added) {
+        boolean currentEnglish = "en".equals(current.getLang());
+        boolean addedEnglish = "en".equals(added.getLang());
+        if (currentEnglish != addedEnglish) {
+            return currentEnglish ? current : added;
+        }
+        LocalDate currentDate = current.getReleaseLocalDate();
+        LocalDate addedDate = added.getReleaseLocalDate();
+        if (addedDate != null && (currentDate == null || addedDate.isAfter(currentDate))) {
+            return added;
+        }
+        return current;
+    }
+
+    private Card card(int row) {
+        return row < 0 ? null : cards[row];
+    }
+
+    private Card[] cards(int[] rows) {
+        Card[] result = new Card[rows.length];
+        for (int i = 0; i < rows.length; i++) {
+            result[i] = cards[rows[i]];
+        }
+        return result;
+    }
+
+    /**
+     * @return The number of cards in this dataset.
+     */
+    public int size() {
+        return cards.length;
+    }
+
+    /**
+     * @param row the index of a card in this dataset
+     * @return the card in the given row
+     */
+    public Card get(int row) {
+        return cards[row];
+    }
+
+    /**
+     * @return The cards in this dataset, in row order.
+     */
+    public Card[] getCards() {
+        return cards.clone();
+    }
+
+    /**
+     * @param name the card's name, or the name of one of its faces, in any case
+     * @return the most recent English printing of the card with the given name, or the most recent printing in any
+     * language if there is no English one
+     * @see Card#namedExactly(String)
+     */
+    public Card fromName(String name) {
+        Integer row = names.get(name.toLowerCase(Locale.ROOT));
+        return row == null ? null : cards[row];
+    }
+
+    /**
+     * @return a card chosen at random from this dataset, or null if it is empty
+     * @see Card#random()
+     */
+    public Card random() {
+        return cards.length == 0 ? null : cards[ThreadLocalRandom.current().nextInt(cards.length)];
+    }
+
+    /**
+     * @param id the card's <code>mtgo_id</code> or <code>mtgo_foil_id</code>
+     * @return the card with the given Magic Online id
+     * @see Card#fromMtgoID(int)
+     */
+    public Card fromMtgoID(int id) {
+        return card(mtgoIDs.get(id));
+    }
+
+    /**
+     * @param id the card's <code>arena_id</code>
+     * @return the card with the given MTG Arena id
+     * @see Card#fromArenaID(int)
+     */
+    public Card fromArenaID(int id) {
+        return card(arenaIDs.get(id));
+    }
+
+    /**
+     * @param id one of the card's <code>multiverse_ids</code>
+     * @return the card with the given Gatherer multiverse id
+     * @see Card#fromMultiverseID(int)
+     */
+    public Card fromMultiverseID(int id) {
+        return card(multiverseIDs.get(id));
+    }
+
+    /**
+     * @param id the card's <code>tcgplayer_id</code> or <code>tcgplayer_etched_id</code>
+     * @return the card with the given TCGplayer id
+     * @see Card#fromxTcgPlayerID(int)
+     */
+    public Card fromTcgplayerID(int id) {
+        return card(tcgplayerIDs.get(id));
+    }
+
+    /**
+     * @param id the card's <code>cardmarket_id</code>
+     * @return the card with the given Cardmarket id
+     * @see Card#fromCardmarketID(int)
+     */
+    public Card fromCardmarketID(int id) {
+        return card(cardmarketIDs.get(id));
+    }
+
+    /**
+     * @param id the card's Scryfall id
+     * @return the card with the given id
+     * @see Card#fromID(UUID)
+     */
+    public Card fromID(UUID id) {
+        return card(ids.get(id));
+    }
+
+    /**
+     * @param oracleID an oracle id
+     * @return every printing of the card with the given oracle id, in row order
+     */
+    public Card[] fromOracleID(UUID oracleID) {
+        return cards(oracleIDs.getAll(oracleID));
+    }
+
+    /**
+     * @param illustrationID an illustration id
+     * @return every printing which uses the given illustration, in row order
+     */
+    public Card[] fromIllustrationID(UUID illustrationID) {
+        return cards(illustrationIDs.getAll(illustrationID));
+    }
+
+    /**
+     * @param setCode         the set's code, in any case
+     * @param collectorNumber the card's collector number
+     * @return the English printing with the given set code and collector number, or the first printing in any
+     * language if there is no English one
+     * @see Card#fromSet(String, String)
+     */
+    public Card fromSet(String setCode, String collectorNumber) {
+        int row = setNumbers.get(setCode, collectorNumber, "en");
+        return card(row >= 0 ? row : setNumbers.get(setCode, collectorNumber, null));
+    }
+
+    /**
+     * @see #fromSet(String, String)
+     */
+    public Card fromSet(String setCode, int collectorNumber) {
+        return fromSet(setCode, String.valueOf(collectorNumber));
+    }
+
+    /**
+     * @param setCode         the set's code, in any case
+     * @param collectorNumber the card's collector number
+     * @param lang            the printing's language code, such as <code>"en"</code> or <code>"ja"</code>
+     * @return the printing with the given set code, collector number and language
+     * @see Card#fromSet(String, String, String)
+     */
+    public Card fromSet(String setCode, String collectorNumber, String lang) {
+        return card(setNumbers.get(setCode, collectorNumber, lang));
+    }
+
+    /**
+     * @see #fromSet(String, String, String)
+     */
+    public Card fromSet(String setCode, int collectorNumber, String lang) {
+        return fromSet(setCode, String.valueOf(collectorNumber), lang);
+    }
+
+    /**
+     * @param setCode         the set's code, in any case
+     * @param collectorNumber the card's collector number
+     * @return every printing with the given set code and collector number, in every language
+     */
+    public Card[] fromSetAllLanguages(String setCode, String collectorNumber) {
+        return cards(setNumbers.getAll(setCode, collectorNumber));
+    }
+
+    /**
+     * @return A full-text index of the oracle, printed and flavor text of the cards in this dataset, whose rows are the
+     * rows of this dataset. It is built the first time it is needed.
+     */
+    public TextIndex getTextIndex() {
+        TextIndex index = textIndex;
+        if (index == null) {
+            index = new TextIndex(cards);
+            textIndex = index;
+        }
+        return index;
+    }
+
+    /**
+     * @return An index completing the names of the cards in this dataset, ranked by popularity. It is built the first
+     * time it is needed.
+     */
+    public AutocompleteIndex getAutocompleteIndex() {
+        AutocompleteIndex index = autocompleteIndex;
+        if (index == null) {
+            index = AutocompleteIndex.fromDataset(this);
+            autocompleteIndex = index;
+        }
+        return index;
+    }
+
+    /**
+     * @return A matcher finding the cards in this dataset by misspelled or partial names. It is built the first time it
+     * is needed.
+     */
+    public FuzzyNameMatcher getFuzzyNameMatcher() {
+        FuzzyNameMatcher matcher = fuzzyNameMatcher;
+        if (matcher == null) {
+            matcher = new FuzzyNameMatcher(this);
+            fuzzyNameMatcher = matcher;
+        }
+        return matcher;
+    }
+
+    /**
+     * @param name a card name, possibly misspelled or incomplete
+     * @return the card the name matches, or null if it matches no card or more than one
+     * @see Card#namedFuzzy(String)
+     * @see FuzzyNameMatcher
+     */
+    public Card fromFuzzyName(String name) {
+        Card card = fromName(name);
+        return card != null ? card : getFuzzyNameMatcher().match(name).getCard();
+    }
+
+    /**
+     * @param query a query in Scryfall's search syntax
+     * @return the first page of cards matching the query, in the same order and with the same page size as
+     * {@link Card#search(String)}. Later pages are available through {@link ScryfallList#getNextPage()}.
+     * @throws IllegalArgumentException if the query is malformed or can't be evaluated locally
+     */
+    public ScryfallList search(String query) {
+        return search(query, 1);
+    }
+
+    /**
+     * @param query a query in Scryfall's search syntax
+     * @param page  the page of results to return, starting at 1
+     * @return the given page of cards matching the query
+     * @throws IllegalArgumentException if the query is malformed or can't be evaluated locally
+     */
+    public ScryfallList search(String query, int page) {
+        if (page < 1) {
+            throw new IllegalArgumentException("Page must be at least 1: " + page);
+        }
+        return page(query, search(SearchQuery.parse(query)), page);
+    }
+
+    /**
+     * @param query a parsed query
+     * @return every card matching the query, in the query's order
+     */
+    public Card[] search(SearchQuery query) {
+        SearchIndex index = searchIndex;
+        if (index == null) {
+            index = new SearchIndex(cards, this::getTextIndex);
+            searchIndex = index;
+        }
+        return query.select(this, index);
+    }
+
+    private static ScryfallList page(String query, Card[] results, int page) {
+        int from = (int) Math.min((long) (page - 1) * PAGE_SIZE, results.length);
+        int to = Math.min(from + PAGE_SIZE, results.length);
+        if (to == results.length) {
+            return new ScryfallList(Arrays.asList(results).subList(from, to), results.length, null, null);
+        }
+        return new ScryfallList(Arrays.asList(results).subList(from, to), results.length, pageURL(query, page + 1),
+                () -> page(query, results, page + 1));
+    }
+
+    private static URL pageURL(String query, int page) {
+        try {
+            return URI.create(Query.API_STUB + "cards/search?page=" + page + "&q="
+                    + URLEncoder.encode(query, StandardCharsets.UTF_8)).toURL();
+        } catch (MalformedURLException e) {
+            return null;
+        }
+    }
+
+    @Override
+    public String toString() {
+        return "CardDataset{" +
+                "size=" + cards.length +
+                '}';
+    }
+}
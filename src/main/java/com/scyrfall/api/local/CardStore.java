@@ -0,0 +1,285 @@
+package com.scyrfall.api.local;
+
+import com.scyrfall.api.field.Legalities;
+import com.scyrfall.api.object.Card;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.UUID;
+
+/**
+ * A read-only, memory-mapped store of cards laid out column by column: fixed-width columns for ids, mana values,
+ * ranks, colors, legalities and flags, and offset tables into UTF-8 data for strings. Cards are read through
+ * {@link CardView}s, which expose the same getters as {@link Card} but read each value straight from the mapped file
+ * when it is requested, so the cards never live on the heap.
+ *
+ * <p>The file is mapped rather than read, so every process on a host which opens the same store shares a single copy
+ * of it in the operating system's page cache. A store may be read from any number of threads at once.</p>
+ *
+ * <pre>{@code
+ * CardStore.write(path, cards);
+ * CardStore store = CardStore.open(path);
+ * CardView view = store.get(0);
+ * }</pre>
+ */
+public final class CardStore {
+
+    /**
+     * <code>SCYC</code> in ASCII
+     */
+    static final int MAGIC = 0x53435943;
+    static final short VERSION = 2;
+    /**
+     * Magic number, version, reserved short, row count and column count
+     */
+    static final int HEADER_SIZE = 16;
+    /**
+     * Column id, reserved short, offset and length
+     */
+    static final int DIRECTORY_ENTRY_SIZE = 20;
+
+    private final ByteBuffer buffer;
+    private final int size;
+    // where each column's rows start, and for string columns where their UTF-8 data starts
+    private final int[] positions = new int[CardColumn.values().length];
+    private final int[] heaps = new int[CardColumn.values().length];
+    private final Object[][] enumValues = new Object[CardColumn.values().length][];
+    // the current ordinal of each format in the legalities column, or null if the formats haven't changed
+    private int[] formats;
+
+    private CardStore(ByteBuffer buffer, Path path) throws IOException {
+        this.buffer = buffer;
+        if (buffer.capacity() < HEADER_SIZE || buffer.getInt(0) != MAGIC) {
+            throw new IOException("Not a card store: " + path);
+        }
+        short version = buffer.getShort(4);
+        if (version < 2 || version > VERSION) {
+            throw new IOException("Unsupported card store version " + version + " in " + path);
+        }
+        size = buffer.getInt(8);
+        int columnCount = buffer.getInt(12);
+        if (size < 0 || columnCount < 0 || HEADER_SIZE + (long) columnCount * DIRECTORY_ENTRY_SIZE > buffer.capacity()) {
+            throw new IOException("Invalid card store header in " + path);
+        }
+
+        Arrays.fill(positions, -1);
+        for (int i = 0; i < columnCount; i++) {
+            int entry = HEADER_SIZE + i * DIRECTORY_ENTRY_SIZE;
+            CardColumn column = CardColumn.fromId(buffer.getShort(entry));
+            long offset = buffer.getLong(entry + 4);
+            long length = buffer.getLong(entry + 12);
+            if (column == null) {
+                // written by a newer version with more columns
+                continue;
+            }
+            if (offset < 0 || length < 0 || offset + length > buffer.capacity()) {
+                throw new IOException("Column " + column + " is out of bounds in " + path);
+            }
+            try {
+                readColumn(column, (int) offset, (int) length, path);
+            } catch (IndexOutOfBoundsException | NegativeArraySizeException e) {
+                throw new IOException("Column " + column + " is malformed in " + path, e);
+            }
+        }
+        for (CardColumn column : CardColumn.values()) {
+            if (positions[column.ordinal()] < 0) {
+                throw new IOException("Missing column " + column + " in " + path);
+            }
+        }
+    }
+
+    private void readColumn(CardColumn column, int offset, int length, Path path) throws IOException {
+        int end = offset + length;
+        int rows = offset;
+        if (column.kind == CardColumn.Kind.ENUM) {
+            Object[] constants = column.enumType.getEnumConstants();
+            String[] names = new String[buffer.getInt(offset)];
+            rows = readNames(offset + 4, names);
+            Object[] values = new Object[names.length];
+            for (int i = 0; i < values.length; i++) {
+                values[i] = constant(constants, names[i]);
+            }
+            enumValues[column.ordinal()] = values;
+        } else if (column.kind == CardColumn.Kind.LEGALITIES) {
+            String[] names = new String[buffer.getInt(offset)];
+            int position = readNames(offset + 4, names);
+            try {
+                formats = Legalities.getFormatOrdinals(names);
+            } catch (IllegalArgumentException e) {
+                throw new IOException("Column " + column + " is malformed in " + path, e);
+            }
+            if (Arrays.equals(formats, Legalities.getFormatOrdinals(Legalities.getPackedFormatNames()))) {
+                formats = null;
+            }
+            // the rows start on an 8 byte boundary, like the column itself
+            rows = offset + ((position - offset + 7) & ~7);
+        } else if (column.kind == CardColumn.Kind.STRING) {
+            heaps[column.ordinal()] = offset + size * column.kind.width;
+        }
+        if ((long) rows + (long) size * column.kind.width > end) {
+            throw new IOException("Column " + column + " is too short in " + path);
+        }
+        positions[column.ordinal()] = rows;
+    }
+
+    /**
+     * Reads names stored as an int length and UTF-8 bytes each, starting at <code>position</code>.
+     *
+     * @return the position after the last name
+     */
+    private int readNames(int position, String[] names) {
+        for (int i = 0; i < names.length; i++) {
+            byte[] name = new byte[buffer.getInt(position)];
+            buffer.get(position + 4, name);
+            position += 4 + name.length;
+            names[i] = new String(name, StandardCharsets.UTF_8);
+        }
+        return position;
+    }
+
+    private static Object constant(Object[] constants, String name) {
+        for (Object constant : constants) {
+            if (((Enum<?>) constant).name().equals(name)) {
+                return constant;
+            }
+        }
+        // a constant which has since been removed reads as null
+        return null;
+    }
+
+    /**
+     * Maps the store at the given path. The mapping stays valid until the store is garbage collected.
+     *
+     * @param path the file written by {@link #write(Path, Card...)}
+     * @return the store in the file
+     * @throws IOException if the file can't be read, isn't a card store, or was written by a newer format version.
+     *                     Stores written before version 2 have no format names for their legalities, and can't be
+     *                     opened either.
+     */
+    public static CardStore open(Path path) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            long size = channel.size();
+            if (size > Integer.MAX_VALUE) {
+                throw new IOException("Card store is too large to map: " + path);
+            }
+            return new CardStore(channel.map(FileChannel.MapMode.READ_ONLY, 0, size), path);
+        }
+    }
+
+    /**
+     * Writes the given cards to a new store, replacing any file at <code>path</code>. The store is written to a
+     * temporary file first and moved into place once complete.
+     *
+     * @param path  the file to write
+     * @param cards the cards to store, in row order
+     * @throws IOException if the store can't be written
+     */
+    public static void write(Path path, Card... cards) throws IOException {
+        CardStoreWriter.write(path, cards);
+    }
+
+    /**
+     * @param path  the file to write
+     * @param cards the cards to store, in row order
+     * @throws IOException if the store can't be written
+     * @see #write(Path, Card...)
+     */
+    public static void write(Path path, Collection<Card> cards) throws IOException {
+        CardStoreWriter.write(path, cards.toArray(new Card[0]));
+    }
+
+    /**
+     * @return The number of cards in this store.
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * @param row the index of a card in this store, from <code>0</code> to <code>size() - 1</code>
+     * @return A view of the card in the given row. Views are cheap to create, and can be moved to another row with
+     * {@link CardView#moveTo(int)} to scan a store without allocating.
+     */
+    public CardView get(int row) {
+        checkRow(row);
+        return new CardView(this, row);
+    }
+
+    void checkRow(int row) {
+        if (row < 0 || row >= size) {
+            throw new IndexOutOfBoundsException("Row: " + row + ", Size: " + size);
+        }
+    }
+
+    byte getByte(CardColumn column, int row) {
+        return buffer.get(positions[column.ordinal()] + row);
+    }
+
+    int getInt(CardColumn column, int row) {
+        return buffer.getInt(positions[column.ordinal()] + row * 4);
+    }
+
+    long getLong(CardColumn column, int row) {
+        return buffer.getLong(positions[column.ordinal()] + row * 8);
+    }
+
+    double getDouble(CardColumn column, int row) {
+        return buffer.getDouble(positions[column.ordinal()] + row * 8);
+    }
+
+    long getMostSignificantBits(CardColumn column, int row) {
+        return buffer.getLong(positions[column.ordinal()] + row * 16);
+    }
+
+    long getLeastSignificantBits(CardColumn column, int row) {
+        return buffer.getLong(positions[column.ordinal()] + row * 16 + 8);
+    }
+
+    UUID getUUID(CardColumn column, int row) {
+        long mostSignificantBits = getMostSignificantBits(column, row);
+        long leastSignificantBits = getLeastSignificantBits(column, row);
+        if (mostSignificantBits == 0 && leastSignificantBits == 0) {
+            return null;
+        }
+        return new UUID(mostSignificantBits, leastSignificantBits);
+    }
+
+    @SuppressWarnings("unchecked")
+    <E extends Enum<E>> E getEnum(CardColumn column, int row) {
+        byte code = getByte(column, row);
+        return code < 0 ? null : (E) enumValues[column.ordinal()][code];
+    }
+
+    Legalities getLegalities(CardColumn column, int row) {
+        long packed = getLong(column, row);
+        if (packed == -1) {
+            return null;
+        }
+        return Legalities.fromPacked(formats == null ? packed : Legalities.repack(packed, formats));
+    }
+
+    String getString(CardColumn column, int row) {
+        int entry = positions[column.ordinal()] + row * 8;
+        int length = buffer.getInt(entry + 4);
+        if (length < 0) {
+            return null;
+        }
+        byte[] bytes = new byte[length];
+        buffer.get(heaps[column.ordinal()] + buffer.getInt(entry), bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    @Override
+    public String toString() {
+        return "CardStore{" +
+                "size=" + size +
+                ", bytes=" + buffer.capacity() +
+                '}';
+    }
+}
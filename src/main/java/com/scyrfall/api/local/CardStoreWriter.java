@@ -0,0 +1,292 @@
+package com.scyrfall.api.local;
+
+import com.scyrfall.api.field.ColorSet;
+import com.scyrfall.api.field.Legalities;
+import com.scyrfall.api.object.Card;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDate;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.UUID;
+
+import static com.scyrfall.api.local.CardColumn.*;
+
+/**
+ * Lays out cards column by column for {@link CardStore#write(Path, Card...)}.
+ */
+final class CardStoreWriter {
+
+    private CardStoreWriter() {
+    }
+
+    static void write(Path path, Card[] cards) throws IOException {
+        CardColumn[] columns = CardColumn.values();
+        ByteBuffer[] data = new ByteBuffer[columns.length];
+        for (int i = 0; i < columns.length; i++) {
+            data[i] = encode(columns[i], cards);
+        }
+
+        ByteBuffer header = ByteBuffer.allocate(CardStore.HEADER_SIZE + columns.length * CardStore.DIRECTORY_ENTRY_SIZE);
+        header.putInt(CardStore.MAGIC).putShort(CardStore.VERSION).putShort((short) 0)
+                .putInt(cards.length).putInt(columns.length);
+        ByteBuffer[] buffers = new ByteBuffer[columns.length * 2 + 1];
+        buffers[0] = header;
+        long end = header.capacity();
+        for (int i = 0; i < columns.length; i++) {
+            // every column starts on an 8 byte boundary so that reads of its longs and doubles are aligned
+            long offset = align(end);
+            header.putShort(columns[i].id).putShort((short) 0).putLong(offset).putLong(data[i].remaining());
+            buffers[i * 2 + 1] = ByteBuffer.allocate((int) (offset - end));
+            buffers[i * 2 + 2] = data[i];
+            end = offset + data[i].remaining();
+        }
+        if (end > Integer.MAX_VALUE) {
+            throw new IOException("Too many cards for a single store: " + end + " bytes");
+        }
+        header.flip();
+
+        Path temporaryPath = path.resolveSibling(path.getFileName() + ".tmp");
+        try (FileChannel channel = FileChannel.open(temporaryPath, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING)) {
+            long remaining = end;
+            while (remaining > 0) {
+                remaining -= channel.write(buffers);
+            }
+            channel.force(true);
+        } catch (IOException | RuntimeException e) {
+            Files.deleteIfExists(temporaryPath);
+            throw e;
+        }
+        try {
+            Files.move(temporaryPath, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (AtomicMoveNotSupportedException e) {
+            Files.move(temporaryPath, path, StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+
+    private static long align(long offset) {
+        return (offset + 7) & ~7L;
+    }
+
+    private static ByteBuffer encode(CardColumn column, Card[] cards) {
+        switch (column.kind) {
+            case ENUM:
+                return encodeEnum(column, cards);
+            case LEGALITIES:
+                return encodeLegalities(cards);
+            case STRING:
+                return encodeString(column, cards);
+            default:
+                ByteBuffer buffer = ByteBuffer.allocate(cards.length * column.kind.width);
+                for (Card card : cards) {
+                    encodeFixed(column, card, buffer);
+                }
+                return buffer.flip();
+        }
+    }
+
+    private static void encodeFixed(CardColumn column, Card card, ByteBuffer buffer) {
+        switch (column) {
+            case ID:
+                putUUID(buffer, card.getId());
+                break;
+            case ORACLE_ID:
+                putUUID(buffer, card.getOracleID());
+                break;
+            case SET_ID:
+                putUUID(buffer, card.getSetID());
+                break;
+            case CMC:
+                buffer.putDouble(card.getCmc());
+                break;
+            case EDHREC_RANK:
+                buffer.putInt(card.getEdhrecRank());
+                break;
+            case PENNY_RANK:
+                buffer.putInt(card.getPennyRank());
+                break;
+            case MTGO_ID:
+                buffer.putInt(card.getMtgoID());
+                break;
+            case ARENA_ID:
+                buffer.putInt(card.getArenaID());
+                break;
+            case TCGPLAYER_ID:
+                buffer.putInt(card.getTcgplayerID());
+                break;
+            case RELEASE_DATE:
+                LocalDate releaseDate = card.getReleaseLocalDate();
+                buffer.putInt(releaseDate == null ? Integer.MIN_VALUE : (int) releaseDate.toEpochDay());
+                break;
+            case FLAGS:
+                buffer.putInt(flags(card));
+                break;
+            case COLORS:
+                buffer.put(colorBits(card.getColors()));
+                break;
+            case COLOR_IDENTITY:
+                buffer.put(colorBits(card.getColorIdentity()));
+                break;
+            case COLOR_INDICATOR:
+                buffer.put(colorBits(card.getColorIndicator()));
+                break;
+            case PRODUCED_MANA:
+                buffer.put(colorBits(card.getProducedMana()));
+                break;
+            default:
+                throw new IllegalArgumentException("Not a fixed-width column: " + column);
+        }
+    }
+
+    private static int flags(Card card) {
+        int flags = 0;
+        flags |= card.isOversized() ? FLAG_OVERSIZED : 0;
+        flags |= card.isDigital() ? FLAG_DIGITAL : 0;
+        flags |= card.isReserved() ? FLAG_RESERVED : 0;
+        flags |= card.isTextless() ? FLAG_TEXTLESS : 0;
+        flags |= card.isInBoosters() ? FLAG_IN_BOOSTERS : 0;
+        flags |= card.hasContentWarning() ? FLAG_CONTENT_WARNING : 0;
+        flags |= card.isVariation() ? FLAG_VARIATION : 0;
+        flags |= card.isFullArt() ? FLAG_FULL_ART : 0;
+        flags |= card.isHighResImage() ? FLAG_HIGH_RES_IMAGE : 0;
+        flags |= card.isPromo() ? FLAG_PROMO : 0;
+        flags |= card.isReprint() ? FLAG_REPRINT : 0;
+        flags |= card.isStorySpotlight() ? FLAG_STORY_SPOTLIGHT : 0;
+        return flags;
+    }
+
+    private static byte colorBits(ColorSet colors) {
+        return (byte) (colors == null ? 0 : colors.getBits());
+    }
+
+    private static void putUUID(ByteBuffer buffer, UUID uuid) {
+        buffer.putLong(uuid == null ? 0 : uuid.getMostSignificantBits());
+        buffer.putLong(uuid == null ? 0 : uuid.getLeastSignificantBits());
+    }
+
+    private static Enum<?> enumValue(CardColumn column, Card card) {
+        switch (column) {
+            case LAYOUT:
+                return card.getLayout();
+            case RARITY:
+                return card.getRarity();
+            case BORDER_COLOR:
+                return card.getBorderColor();
+            case FRAME:
+                return card.getFrame();
+            default:
+                throw new IllegalArgumentException("Not an enum column: " + column);
+        }
+    }
+
+    private static String stringValue(CardColumn column, Card card) {
+        switch (column) {
+            case NAME:
+                return card.getName();
+            case LANG:
+                return card.getLang();
+            case MANA_COST:
+                return card.getManaCost();
+            case TYPE_LINE:
+                return card.getTypeLine();
+            case ORACLE_TEXT:
+                return card.getOracleText();
+            case POWER:
+                return card.getPower();
+            case TOUGHNESS:
+                return card.getToughness();
+            case LOYALTY:
+                return card.getLoyalty();
+            case DEFENSE:
+                return card.getDefense();
+            case SET:
+                return card.getSet();
+            case SET_NAME:
+                return card.getSetName();
+            case COLLECTOR_NUMBER:
+                return card.getCollectorNumber();
+            case ARTIST:
+                return card.getArtist();
+            case FLAVOR_TEXT:
+                return card.getFlavorText();
+            case WATERMARK:
+                return card.getWatermark();
+            default:
+                throw new IllegalArgumentException("Not a string column: " + column);
+        }
+    }
+
+    private static ByteBuffer encodeEnum(CardColumn column, Card[] cards) {
+        Map<String, Integer> names = new LinkedHashMap<>();
+        byte[] codes = new byte[cards.length];
+        for (int i = 0; i < cards.length; i++) {
+            Enum<?> value = enumValue(column, cards[i]);
+            codes[i] = value == null ? -1 : (byte) (int) names.computeIfAbsent(value.name(), name -> names.size());
+        }
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        out.writeBytes(ByteBuffer.allocate(4).putInt(names.size()).array());
+        for (String name : names.keySet()) {
+            byte[] bytes = name.getBytes(StandardCharsets.UTF_8);
+            out.writeBytes(ByteBuffer.allocate(4).putInt(bytes.length).array());
+            out.writeBytes(bytes);
+        }
+        out.writeBytes(codes);
+        return ByteBuffer.wrap(out.toByteArray());
+    }
+
+    private static ByteBuffer encodeLegalities(Card[] cards) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        String[] names = Legalities.getPackedFormatNames();
+        out.writeBytes(ByteBuffer.allocate(4).putInt(names.length).array());
+        for (String name : names) {
+            byte[] bytes = name.getBytes(StandardCharsets.UTF_8);
+            out.writeBytes(ByteBuffer.allocate(4).putInt(bytes.length).array());
+            out.writeBytes(bytes);
+        }
+        // pad the names so that the rows stay aligned
+        out.writeBytes(new byte[(int) (align(out.size()) - out.size())]);
+        ByteBuffer rows = ByteBuffer.allocate(cards.length * LEGALITIES.kind.width);
+        for (Card card : cards) {
+            Legalities legalities = card.getLegalities();
+            // packed legalities use two bits per format and never set the top bit, so -1 can't be mistaken for them
+            rows.putLong(legalities == null ? -1 : legalities.getPacked());
+        }
+        out.writeBytes(rows.array());
+        return ByteBuffer.wrap(out.toByteArray());
+    }
+
+    private static ByteBuffer encodeString(CardColumn column, Card[] cards) {
+        Map<String, Integer> offsets = new HashMap<>();
+        ByteBuffer table = ByteBuffer.allocate(cards.length * column.kind.width);
+        ByteArrayOutputStream heap = new ByteArrayOutputStream();
+        for (Card card : cards) {
+            String value = stringValue(column, card);
+            if (value == null) {
+                table.putInt(0).putInt(-1);
+                continue;
+            }
+            byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+            Integer offset = offsets.get(value);
+            if (offset == null) {
+                offset = heap.size();
+                offsets.put(value, offset);
+                heap.writeBytes(bytes);
+            }
+            table.putInt(offset).putInt(bytes.length);
+        }
+        ByteBuffer buffer = ByteBuffer.allocate(table.capacity() + heap.size());
+        buffer.put(table.array()).put(heap.toByteArray());
+        return buffer.flip();
+    }
+}
@@ -0,0 +1,432 @@
+package com.scyrfall.api.local;
+
+import com.scyrfall.api.field.ColorSet;
+import com.scyrfall.api.field.Legalities;
+import com.scyrfall.api.object.Card;
+import com.scyrfall.api.object.Card.BorderColor;
+import com.scyrfall.api.object.Card.Frame;
+import com.scyrfall.api.object.Card.Layout;
+import com.scyrfall.api.object.Card.Rarity;
+
+import java.time.LocalDate;
+import java.util.UUID;
+
+/**
+ * A flyweight view of one row of a {@link CardStore}. Its getters match those of {@link Card}, but each value is read
+ * from the store when it is requested. Fixed-width values are read in place; strings are decoded on every call.
+ *
+ * <p>A view holds nothing but its store and row, so it is cheap to create. To scan a store without creating a view per
+ * card, move a single view from row to row with {@link #moveTo(int)}.</p>
+ */
+public final class CardView {
+
+    private final CardStore store;
+    private int row;
+
+    CardView(CardStore store, int row) {
+        this.store = store;
+        this.row = row;
+    }
+
+    /**
+     * @param row the row to view
+     * @return this view, now showing the card in the given row
+     */
+    public CardView moveTo(int row) {
+        store.checkRow(row);
+        this.row = row;
+        return this;
+    }
+
+    /**
+     * @return The row of the card this view shows.
+     */
+    public int getRow() {
+        return row;
+    }
+
+    /**
+     * @return The store this view reads from.
+     */
+    public CardStore getStore() {
+        return store;
+    }
+
+    /**
+     * @return The full card, retrieved from Scryfall's API by its id.
+     */
+    public Card fetchCard() {
+        return Card.fromID(getId());
+    }
+
+    /**
+     * @return A unique ID for this card in Scryfall’s database.
+     * @see Card#getId()
+     */
+    public UUID getId() {
+        return store.getUUID(CardColumn.ID, row);
+    }
+
+    /**
+     * @return A unique ID for this card’s oracle identity.
+     * @see Card#getOracleID()
+     */
+    public UUID getOracleID() {
+        return store.getUUID(CardColumn.ORACLE_ID, row);
+    }
+
+    /**
+     * @return This card’s Set object UUID.
+     * @see Card#getSetID()
+     */
+    public UUID getSetID() {
+        return store.getUUID(CardColumn.SET_ID, row);
+    }
+
+    /**
+     * @see Card#getArenaID()
+     */
+    public int getArenaID() {
+        return store.getInt(CardColumn.ARENA_ID, row);
+    }
+
+    /**
+     * @see Card#getMtgoID()
+     */
+    public int getMtgoID() {
+        return store.getInt(CardColumn.MTGO_ID, row);
+    }
+
+    /**
+     * @see Card#getTcgplayerID()
+     */
+    public int getTcgplayerID() {
+        return store.getInt(CardColumn.TCGPLAYER_ID, row);
+    }
+
+    /**
+     * @see Card#getEdhrecRank()
+     */
+    public int getEdhrecRank() {
+        return store.getInt(CardColumn.EDHREC_RANK, row);
+    }
+
+    /**
+     * @see Card#getPennyRank()
+     */
+    public int getPennyRank() {
+        return store.getInt(CardColumn.PENNY_RANK, row);
+    }
+
+    /**
+     * @see Card#getCmc()
+     */
+    public double getCmc() {
+        return store.getDouble(CardColumn.CMC, row);
+    }
+
+    /**
+     * @see Card#getManaValue()
+     */
+    public double getManaValue() {
+        return getCmc();
+    }
+
+    /**
+     * @see Card#getReleaseLocalDate()
+     */
+    public LocalDate getReleaseLocalDate() {
+        int epochDay = store.getInt(CardColumn.RELEASE_DATE, row);
+        return epochDay == Integer.MIN_VALUE ? null : LocalDate.ofEpochDay(epochDay);
+    }
+
+    /**
+     * @see Card#getLegalities()
+     */
+    public Legalities getLegalities() {
+        return store.getLegalities(CardColumn.LEGALITIES, row);
+    }
+
+    /**
+     * @see Card#getColors()
+     */
+    public ColorSet getColors() {
+        return ColorSet.fromBits(store.getByte(CardColumn.COLORS, row));
+    }
+
+    /**
+     * @see Card#getColorIdentity()
+     */
+    public ColorSet getColorIdentity() {
+        return ColorSet.fromBits(store.getByte(CardColumn.COLOR_IDENTITY, row));
+    }
+
+    /**
+     * @see Card#getColorIndicator()
+     */
+    public ColorSet getColorIndicator() {
+        return ColorSet.fromBits(store.getByte(CardColumn.COLOR_INDICATOR, row));
+    }
+
+    /**
+     * @see Card#getProducedMana()
+     */
+    public ColorSet getProducedMana() {
+        return ColorSet.fromBits(store.getByte(CardColumn.PRODUCED_MANA, row));
+    }
+
+    /**
+     * @see Card#fitsColorIdentity(ColorSet)
+     */
+    public boolean fitsColorIdentity(ColorSet commanderIdentity) {
+        return getColorIdentity().isSubsetOf(commanderIdentity);
+    }
+
+    /**
+     * @see Card#getLayout()
+     */
+    public Layout getLayout() {
+        return store.getEnum(CardColumn.LAYOUT, row);
+    }
+
+    /**
+     * @see Card#getRarity()
+     */
+    public Rarity getRarity() {
+        return store.getEnum(CardColumn.RARITY, row);
+    }
+
+    /**
+     * @see Card#getBorderColor()
+     */
+    public BorderColor getBorderColor() {
+        return store.getEnum(CardColumn.BORDER_COLOR, row);
+    }
+
+    /**
+     * @see Card#getFrame()
+     */
+    public Frame getFrame() {
+        return store.getEnum(CardColumn.FRAME, row);
+    }
+
+    /**
+     * @see Card#getName()
+     */
+    public String getName() {
+        return store.getString(CardColumn.NAME, row);
+    }
+
+    /**
+     * @see Card#getLang()
+     */
+    public String getLang() {
+        return store.getString(CardColumn.LANG, row);
+    }
+
+    /**
+     * @see Card#getManaCost()
+     */
+    public String getManaCost() {
+        return store.getString(CardColumn.MANA_COST, row);
+    }
+
+    /**
+     * @see Card#getTypeLine()
+     */
+    public String getTypeLine() {
+        return store.getString(CardColumn.TYPE_LINE, row);
+    }
+
+    /**
+     * @see Card#getOracleText()
+     */
+    public String getOracleText() {
+        return store.getString(CardColumn.ORACLE_TEXT, row);
+    }
+
+    /**
+     * @see Card#getPower()
+     */
+    public String getPower() {
+        return store.getString(CardColumn.POWER, row);
+    }
+
+    /**
+     * @see Card#getToughness()
+     */
+    public String getToughness() {
+        return store.getString(CardColumn.TOUGHNESS, row);
+    }
+
+    /**
+     * @see Card#getLoyalty()
+     */
+    public String getLoyalty() {
+        return store.getString(CardColumn.LOYALTY, row);
+    }
+
+    /**
+     * @see Card#getDefense()
+     */
+    public String getDefense() {
+        return store.getString(CardColumn.DEFENSE, row);
+    }
+
+    /**
+     * @see Card#getSet()
+     */
+    public String getSet() {
+        return store.getString(CardColumn.SET, row);
+    }
+
+    /**
+     * @see Card#getSetName()
+     */
+    public String getSetName() {
+        return store.getString(CardColumn.SET_NAME, row);
+    }
+
+    /**
+     * @see Card#getCollectorNumber()
+     */
+    public String getCollectorNumber() {
+        return store.getString(CardColumn.COLLECTOR_NUMBER, row);
+    }
+
+    /**
+     * @see Card#getArtist()
+     */
+    public String getArtist() {
+        return store.getString(CardColumn.ARTIST, row);
+    }
+
+    /**
+     * @see Card#getFlavorText()
+     */
+    public String getFlavorText() {
+        return store.getString(CardColumn.FLAVOR_TEXT, row);
+    }
+
+    /**
+     * @see Card#getWatermark()
+     */
+    public String getWatermark() {
+        return store.getString(CardColumn.WATERMARK, row);
+    }
+
+    private boolean hasFlag(int flag) {
+        return (store.getInt(CardColumn.FLAGS, row) & flag) != 0;
+    }
+
+    /**
+     * @see Card#isOversized()
+     */
+    public boolean isOversized() {
+        return hasFlag(CardColumn.FLAG_OVERSIZED);
+    }
+
+    /**
+     * @see Card#isDigital()
+     */
+    public boolean isDigital() {
+        return hasFlag(CardColumn.FLAG_DIGITAL);
+    }
+
+    /**
+     * @see Card#isReserved()
+     */
+    public boolean isReserved() {
+        return hasFlag(CardColumn.FLAG_RESERVED);
+    }
+
+    /**
+     * @see Card#isTextless()
+     */
+    public boolean isTextless() {
+        return hasFlag(CardColumn.FLAG_TEXTLESS);
+    }
+
+    /**
+     * @see Card#isInBoosters()
+     */
+    public boolean isInBoosters() {
+        return hasFlag(CardColumn.FLAG_IN_BOOSTERS);
+    }
+
+    /**
+     * @see Card#hasContentWarning()
+     */
+    public boolean hasContentWarning() {
+        return hasFlag(CardColumn.FLAG_CONTENT_WARNING);
+    }
+
+    /**
+     * @see Card#isVariation()
+     */
+    public boolean isVariation() {
+        return hasFlag(CardColumn.FLAG_VARIATION);
+    }
+
+    /**
+     * @see Card#isFullArt()
+     */
+    public boolean isFullArt() {
+        return hasFlag(CardColumn.FLAG_FULL_ART);
+    }
+
+    /**
+     * @see Card#isHighResImage()
+     */
+    public boolean isHighResImage() {
+        return hasFlag(CardColumn.FLAG_HIGH_RES_IMAGE);
+    }
+
+    /**
+     * @see Card#isPromo()
+     */
+    public boolean isPromo() {
+        return hasFlag(CardColumn.FLAG_PROMO);
+    }
+
+    /**
+     * @see Card#isReprint()
+     */
+    public boolean isReprint() {
+        return hasFlag(CardColumn.FLAG_REPRINT);
+    }
+
+    /**
+     * @see Card#isStorySpotlight()
+     */
+    public boolean isStorySpotlight() {
+        return hasFlag(CardColumn.FLAG_STORY_SPOTLIGHT);
+    }
+
+    /**
+     * Two views are equal if they show the same row of the same store.
+     */
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        CardView view = (CardView) o;
+        return row == view.row && store == view.store;
+    }
+
+    @Override
+    public int hashCode() {
+        return 31 * System.identityHashCode(store) + row;
+    }
+
+    @Override
+    public String toString() {
+        return "CardView{" +
+                "row=" + row +
+                ", id=" + getId() +
+                ", name='" + getName() + '\'' +
+                ", set='" + getSet() + '\'' +
+                ", collectorNumber='" + getCollectorNumber() + '\'' +
+                '}';
+    }
+}
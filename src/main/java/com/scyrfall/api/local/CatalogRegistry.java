@@ -0,0 +1,221 @@
+package com.scyrfall.api.local;
+
+import com.scyrfall.api.object.Catalog;
+
+import java.util.Arrays;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+/**
+ * Keeps the catalogs named by {@link Catalog.Name} in memory, so checking whether a word is a creature type or a
+ * keyword costs a binary search instead of a request.
+ *
+ * <p>Each catalog is loaded the first time it is used, and again whenever {@link #refresh()} runs, either when it is
+ * called or on the schedule set by {@link #scheduleRefresh(long, TimeUnit)}. A catalog which fails to load keeps its
+ * previous values. Lookups ignore case, and never wait for a refresh in progress.</p>
+ *
+ * <pre>{@code
+ * CatalogRegistry catalogs = CatalogRegistry.getInstance();
+ * catalogs.scheduleRefresh(1, TimeUnit.DAYS);
+ * boolean elf = catalogs.contains(Catalog.Name.CREATURE_TYPES, "elf");
+ * }</pre>
+ */
+public final class CatalogRegistry implements AutoCloseable {
+
+    private static volatile CatalogRegistry instance;
+
+    private final Function<Catalog.Name, Catalog> loader;
+    private final Map<Catalog.Name, Values> catalogs = new ConcurrentHashMap<>();
+    private ScheduledExecutorService scheduler;
+
+    /**
+     * Creates a registry which loads catalogs with {@link Catalog#fromIdentifier(Catalog.Name)}, so from the catalogs
+     * loaded into {@link LocalResolver} if there are any, and from Scryfall's API otherwise.
+     */
+    public CatalogRegistry() {
+        this(Catalog::fromIdentifier);
+    }
+
+    /**
+     * @param loader loads the current version of a catalog. A catalog without values, such as one made from an error
+     *               response, counts as a failed load.
+     */
+    public CatalogRegistry(Function<Catalog.Name, Catalog> loader) {
+        this.loader = loader;
+    }
+
+    /**
+     * @return the registry shared by the whole process, created the first time it is needed
+     */
+    public static CatalogRegistry getInstance() {
+        CatalogRegistry registry = instance;
+        if (registry == null) {
+            synchronized (CatalogRegistry.class) {
+                registry = instance;
+                if (registry == null) {
+                    registry = new CatalogRegistry();
+                    instance = registry;
+                }
+            }
+        }
+        return registry;
+    }
+
+    /**
+     * @param name a catalog
+     * @return the catalog as it was last loaded, or null if it has never loaded
+     */
+    public Catalog getCatalog(Catalog.Name name) {
+        return values(name).catalog;
+    }
+
+    /**
+     * @param name a catalog
+     * @return the catalog's values, sorted ignoring case
+     */
+    public String[] getValues(Catalog.Name name) {
+        return values(name).sorted.clone();
+    }
+
+    /**
+     * @param name  a catalog
+     * @param value a value, in any case
+     * @return true if the catalog has the value
+     */
+    public boolean contains(Catalog.Name name, String value) {
+        Values values = values(name);
+        return Arrays.binarySearch(values.keys, key(value)) >= 0;
+    }
+
+    /**
+     * @param name   a catalog
+     * @param prefix the start of a value, in any case
+     * @return the catalog's values which start with the prefix, sorted ignoring case
+     */
+    public String[] withPrefix(Catalog.Name name, String prefix) {
+        Values values = values(name);
+        String key = key(prefix);
+        int start = Arrays.binarySearch(values.keys, key);
+        start = start < 0 ? -start - 1 : start;
+        int end = start;
+        while (end < values.keys.length && values.keys[end].startsWith(key)) {
+            end++;
+        }
+        return Arrays.copyOfRange(values.sorted, start, end);
+    }
+
+    /**
+     * Loads every catalog again. Catalogs which fail to load keep their previous values.
+     */
+    public void refresh() {
+        for (Catalog.Name name : Catalog.Name.values()) {
+            refresh(name);
+        }
+    }
+
+    /**
+     * Loads a catalog again, keeping its previous values if it fails to load.
+     *
+     * @param name the catalog to load
+     * @return true if the catalog loaded
+     */
+    public boolean refresh(Catalog.Name name) {
+        Values values = load(name);
+        if (values == null) {
+            return false;
+        }
+        catalogs.put(name, values);
+        return true;
+    }
+
+    /**
+     * Refreshes every catalog now and then once every period, on a daemon thread, until {@link #close()} is called.
+     * Scheduling again replaces the previous schedule.
+     *
+     * @param period the time between refreshes
+     * @param unit   the unit of the period
+     */
+    public synchronized void scheduleRefresh(long period, TimeUnit unit) {
+        if (scheduler != null) {
+            scheduler.shutdownNow();
+        }
+        scheduler = Executors.newSingleThreadScheduledExecutor(task -> {
+            Thread thread = new Thread(task, "catalog-refresh");
+            thread.setDaemon(true);
+            return thread;
+        });
+        scheduler.scheduleAtFixedRate(this::refreshQuietly, 0, period, unit);
+    }
+
+    /**
+     * Stops refreshing on a schedule. The catalogs already loaded stay usable.
+     */
+    @Override
+    public synchronized void close() {
+        if (scheduler != null) {
+            scheduler.shutdownNow();
+            scheduler = null;
+        }
+    }
+
+    private void refreshQuietly() {
+        for (Catalog.Name name : Catalog.Name.values()) {
+            try {
+                refresh(name);
+            } catch (RuntimeException e) {
+                // an exception would cancel every later refresh, and the previous values are still good
+                e.printStackTrace();
+            }
+        }
+    }
+
+    private Values values(Catalog.Name name) {
+        Values values = catalogs.get(name);
+        if (values == null) {
+            values = load(name);
+            if (values == null) {
+                // not remembered, so the next lookup tries again
+                return Values.EMPTY;
+            }
+            Values previous = catalogs.putIfAbsent(name, values);
+            values = previous == null ? values : previous;
+        }
+        return values;
+    }
+
+    private Values load(Catalog.Name name) {
+        Catalog catalog = loader.apply(name);
+        return catalog == null || catalog.getValues() == null ? null : new Values(catalog);
+    }
+
+    private static String key(String value) {
+        return value.toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * A loaded catalog's values, sorted by their lower-cased keys.
+     */
+    private static final class Values {
+        private static final Values EMPTY = new Values(null);
+
+        private final Catalog catalog;
+        private final String[] sorted;
+        private final String[] keys;
+
+        private Values(Catalog catalog) {
+            this.catalog = catalog;
+            String[] values = catalog == null ? new String[0] : catalog.getValues().clone();
+            Arrays.sort(values, (a, b) -> key(a).compareTo(key(b)));
+            sorted = values;
+            keys = new String[values.length];
+            for (int i = 0; i < values.length; i++) {
+                keys[i] = key(values[i]);
+            }
+        }
+    }
+}
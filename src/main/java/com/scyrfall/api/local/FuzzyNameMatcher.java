@@ -0,0 +1,290 @@
+package com.scyrfall.api.local;
+
+import com.scyrfall.api.field.CardFace;
+import com.scyrfall.api.object.Card;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Finds cards by misspelled or partial names, the way {@link Card#namedFuzzy(String)} does on Scryfall's API.
+ *
+ * <p>Names are compared in the normalized form {@link AutocompleteIndex} uses, so case, accents, spaces and
+ * punctuation never count as differences. A name is matched, in order, by:</p>
+ * <li>its exact normalized form
+ * <li>the start of exactly one name, so <code>"lightning bo"</code> finds Lightning Bolt
+ * <li>the one closest name within a few typos, measured by Damerau-Levenshtein distance, so
+ * <code>"lightnign bolt"</code> finds Lightning Bolt too
+ *
+ * <p>Text that starts several names, or is equally close to several names, is ambiguous, and matches nothing, as on
+ * Scryfall. Typos are looked up SymSpell-style: every name's first {@value #PREFIX_LENGTH} characters are indexed with
+ * every way of deleting up to {@value #MAX_DISTANCE} of them, so a lookup only measures the distance to the few names
+ * which share a deletion with the text.</p>
+ *
+ * <p>A matcher is immutable and can be shared between threads.</p>
+ */
+public final class FuzzyNameMatcher {
+
+    /**
+     * The most edits a misspelled name can be from the name it matches.
+     */
+    public static final int MAX_DISTANCE = 2;
+
+    private static final int PREFIX_LENGTH = 7;
+
+    private final CardDataset dataset;
+    // the distinct normalized names, sorted, and the name each one was first seen as
+    private final String[] keys;
+    private final String[] names;
+    private final Map<String, Integer> exact = new HashMap<>();
+    // from the hash of each deletion of a key's prefix to the keys it came from
+    private final IntRowIndex deletions;
+
+    /**
+     * @param dataset the cards whose names, and the names of whose faces, to match
+     */
+    public FuzzyNameMatcher(CardDataset dataset) {
+        this.dataset = dataset;
+        Map<String, String> names = new HashMap<>();
+        for (int row = 0; row < dataset.size(); row++) {
+            Card card = dataset.get(row);
+            addName(names, card.getName());
+            for (CardFace face : card.getFaces()) {
+                addName(names, face.getName());
+            }
+        }
+        keys = names.keySet().toArray(new String[0]);
+        Arrays.sort(keys);
+        this.names = new String[keys.length];
+        deletions = new IntRowIndex(keys.length * 8);
+        Set<String> prefixDeletions = new HashSet<>();
+        for (int i = 0; i < keys.length; i++) {
+            this.names[i] = names.get(keys[i]);
+            exact.put(keys[i], i);
+            prefixDeletions.clear();
+            addDeletions(prefix(keys[i]), MAX_DISTANCE, prefixDeletions);
+            for (String deletion : prefixDeletions) {
+                deletions.add(deletion.hashCode(), i);
+            }
+        }
+    }
+
+    private static void addName(Map<String, String> names, String name) {
+        if (name != null) {
+            String key = AutocompleteIndex.normalize(name);
+            if (!key.isEmpty()) {
+                names.putIfAbsent(key, name);
+            }
+        }
+    }
+
+    private static String prefix(String key) {
+        return key.length() > PREFIX_LENGTH ? key.substring(0, PREFIX_LENGTH) : key;
+    }
+
+    private static void addDeletions(String text, int distance, Set<String> deletions) {
+        if (!deletions.add(text) || distance == 0) {
+            return;
+        }
+        for (int i = 0; i < text.length(); i++) {
+            addDeletions(text.substring(0, i) + text.substring(i + 1), distance - 1, deletions);
+        }
+    }
+
+    /**
+     * @return the most edits text of the given normalized length may be from a name it matches: none below three
+     * characters, since almost every short text is a typo away from some name, then one, and {@link #MAX_DISTANCE}
+     * from six characters on
+     */
+    static int maxDistance(int length) {
+        return length < 3 ? 0 : length < 6 ? 1 : MAX_DISTANCE;
+    }
+
+    /**
+     * @param name a name, possibly misspelled or incomplete
+     * @return the result of matching the name, which holds the matched card if there is exactly one
+     */
+    public Match match(String name) {
+        String key = AutocompleteIndex.normalize(name);
+        if (key.isEmpty()) {
+            return new Match(Status.NOT_FOUND, null, -1);
+        }
+        Integer index = exact.get(key);
+        if (index != null) {
+            return found(Status.EXACT, index, 0);
+        }
+
+        int start = Arrays.binarySearch(keys, key);
+        start = start < 0 ? -start - 1 : start;
+        boolean prefixAmbiguous = false;
+        if (start < keys.length && keys[start].startsWith(key)) {
+            if (start + 1 == keys.length || !keys[start + 1].startsWith(key)) {
+                return found(Status.PREFIX, start, keys[start].length() - key.length());
+            }
+            prefixAmbiguous = true;
+        }
+
+        int limit = maxDistance(key.length());
+        int best = -1;
+        int bestDistance = limit;
+        boolean tied = false;
+        for (int candidate : candidates(key, limit)) {
+            int distance = distance(key, keys[candidate], bestDistance + 1);
+            if (distance > bestDistance) {
+                continue;
+            }
+            if (best < 0 || distance < bestDistance) {
+                best = candidate;
+                bestDistance = distance;
+                tied = false;
+            } else {
+                tied = true;
+            }
+        }
+        if (best >= 0 && !tied) {
+            return found(Status.FUZZY, best, bestDistance);
+        }
+        return new Match(prefixAmbiguous || tied ? Status.AMBIGUOUS : Status.NOT_FOUND, null, -1);
+    }
+
+    private Match found(Status status, int index, int distance) {
+        return new Match(status, dataset.fromName(names[index]), distance);
+    }
+
+    /**
+     * @return the distinct keys which share a deletion of their prefix with the key's prefix, in ascending order
+     */
+    private int[] candidates(String key, int limit) {
+        if (limit == 0) {
+            return new int[0];
+        }
+        Set<String> queryDeletions = new HashSet<>();
+        addDeletions(prefix(key), limit, queryDeletions);
+        List<int[]> lists = new ArrayList<>(queryDeletions.size());
+        int total = 0;
+        for (String deletion : queryDeletions) {
+            int[] rows = deletions.getAll(deletion.hashCode());
+            if (rows.length > 0) {
+                lists.add(rows);
+                total += rows.length;
+            }
+        }
+        int[] candidates = new int[total];
+        int offset = 0;
+        for (int[] rows : lists) {
+            System.arraycopy(rows, 0, candidates, offset, rows.length);
+            offset += rows.length;
+        }
+        Arrays.sort(candidates);
+        int count = 0;
+        for (int i = 0; i < candidates.length; i++) {
+            if (count == 0 || candidates[count - 1] != candidates[i]) {
+                candidates[count++] = candidates[i];
+            }
+        }
+        return Arrays.copyOf(candidates, count);
+    }
+
+    /**
+     * @return the optimal string alignment distance between the two texts, which counts swapping two adjacent
+     * characters as one edit, or <code>max</code> if it is <code>max</code> or more
+     */
+    static int distance(String a, String b, int max) {
+        if (Math.abs(a.length() - b.length()) >= max) {
+            return max;
+        }
+        int[] previous2 = new int[b.length() + 1];
+        int[] previous = new int[b.length() + 1];
+        int[] current = new int[b.length() + 1];
+        for (int j = 0; j <= b.length(); j++) {
+            previous[j] = j;
+        }
+        for (int i = 1; i <= a.length(); i++) {
+            current[0] = i;
+            int rowMin = i;
+            char ca = a.charAt(i - 1);
+            for (int j = 1; j <= b.length(); j++) {
+                char cb = b.charAt(j - 1);
+                int cost = ca == cb ? 0 : 1;
+                int value = Math.min(Math.min(previous[j] + 1, current[j - 1] + 1), previous[j - 1] + cost);
+                if (i > 1 && j > 1 && ca == b.charAt(j - 2) && a.charAt(i - 2) == cb) {
+                    value = Math.min(value, previous2[j - 2] + 1);
+                }
+                current[j] = value;
+                rowMin = Math.min(rowMin, value);
+            }
+            if (rowMin >= max) {
+                return max;
+            }
+            int[] recycled = previous2;
+            previous2 = previous;
+            previous = current;
+            current = recycled;
+        }
+        return Math.min(previous[b.length()], max);
+    }
+
+    /**
+     * How a name was matched.
+     * <li><code>EXACT</code> - the name matched a card's name exactly, ignoring case, accents and punctuation
+     * <li><code>PREFIX</code> - the name is the start of exactly one card's name
+     * <li><code>FUZZY</code> - the name is a few typos away from exactly one card's name
+     * <li><code>AMBIGUOUS</code> - the name starts, or is as close to, more than one card's name
+     * <li><code>NOT_FOUND</code> - no card's name is close to the name
+     */
+    public enum Status {
+        EXACT, PREFIX, FUZZY, AMBIGUOUS, NOT_FOUND
+    }
+
+    /**
+     * The result of {@link #match(String)}.
+     */
+    public static final class Match {
+        private final Status status;
+        private final Card card;
+        private final int distance;
+
+        private Match(Status status, Card card, int distance) {
+            this.status = status;
+            this.card = card;
+            this.distance = distance;
+        }
+
+        /**
+         * @return How the name was matched.
+         */
+        public Status getStatus() {
+            return status;
+        }
+
+        /**
+         * @return The matched card, the same printing {@link CardDataset#fromName(String)} returns, or null if the
+         * name was ambiguous or not found.
+         */
+        public Card getCard() {
+            return card;
+        }
+
+        /**
+         * @return The number of edits between the name and the matched card's name: 0 for an exact match, the number
+         * of characters left out for a prefix match, and -1 if nothing matched.
+         */
+        public int getDistance() {
+            return distance;
+        }
+
+        @Override
+        public String toString() {
+            return "Match{" +
+                    "status=" + status +
+                    ", card=" + (card == null ? null : card.getName()) +
+                    ", distance=" + distance +
+                    '}';
+        }
+    }
+}
@@ -0,0 +1,68 @@
+package com.scyrfall.api.local;
+
+/**
+ * An open-addressing index from <code>int</code> keys, such as MTGO or Arena ids, to rows.
+ */
+final class IntRowIndex extends RowIndex {
+
+    private int[] table;
+
+    IntRowIndex(int expectedKeys) {
+        super(expectedKeys);
+        table = new int[first.length];
+    }
+
+    void add(int key, int row) {
+        int slot = slotOf(key);
+        if (slot < 0) {
+            slot = ~slot;
+            table[slot] = key;
+        }
+        addRow(slot, row);
+        if (needsResize()) {
+            resize();
+        }
+    }
+
+    /**
+     * @return the first row added with the given key, or -1 if there is none
+     */
+    int get(int key) {
+        int slot = slotOf(key);
+        return slot < 0 ? -1 : firstRow(slot);
+    }
+
+    /**
+     * @return every row added with the given key, in the order they were added
+     */
+    int[] getAll(int key) {
+        return rows(slotOf(key));
+    }
+
+    /**
+     * @return the slot holding <code>key</code>, or the complement of the empty slot where it would go
+     */
+    private int slotOf(int key) {
+        int slot = mix(key) & mask;
+        while (first[slot] != 0) {
+            if (table[slot] == key) {
+                return slot;
+            }
+            slot = (slot + 1) & mask;
+        }
+        return ~slot;
+    }
+
+    @Override
+    void rehash(int[] oldFirst, int[] oldLast) {
+        int[] oldTable = table;
+        table = new int[first.length];
+        for (int i = 0; i < oldTable.length; i++) {
+            if (oldFirst[i] != 0) {
+                int slot = ~slotOf(oldTable[i]);
+                table[slot] = oldTable[i];
+                moveSlot(i, slot, oldFirst, oldLast);
+            }
+        }
+    }
+}
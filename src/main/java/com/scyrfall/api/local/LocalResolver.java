@@ -0,0 +1,422 @@
+package com.scyrfall.api.local;
+
+import com.scyrfall.api.ScryfallObject;
+import com.scyrfall.api.field.ManaCost;
+import com.scyrfall.api.field.Ruling;
+import com.scyrfall.api.object.Catalog;
+import com.scyrfall.api.object.ScryfallList;
+import com.scyrfall.api.object.Set;
+import com.scyrfall.api.object.Symbol;
+import com.scyrfall.api.query.Query;
+import org.json.JSONObject;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * Decides whether the static lookups on {@link com.scyrfall.api.object.Card}, {@link Set}, {@link Symbol} and
+ * {@link Catalog} are answered from locally loaded data, from Scryfall's API, or from local data with the API as a
+ * fallback. Existing call sites don't change: load data and pick a {@link Mode} once at startup, and lookups such as
+ * <code>Card.fromMtgoID</code> start answering from memory.
+ *
+ * <pre>{@code
+ * LocalResolver.load(Snapshot.read(path));
+ * LocalResolver.setMode(LocalResolver.Mode.LOCAL_THEN_REMOTE);
+ * }</pre>
+ *
+ * <p>The default mode is {@link Mode#REMOTE_ONLY}, which behaves exactly as if no data were loaded.</p>
+ */
+public final class LocalResolver {
+
+    private static final LongAdder hits = new LongAdder();
+    private static final LongAdder misses = new LongAdder();
+
+    private static volatile Mode mode = Mode.REMOTE_ONLY;
+    private static volatile LocalData data = new LocalData(new CardDataset(), new Set[0], new Symbol[0], new Catalog[0]);
+    // kept apart from the other data, since rulings come from their own bulk file and outlive a reload of the cards
+    private static volatile RulingIndex rulings;
+
+    private LocalResolver() {
+    }
+
+    /**
+     * @param mode how lookups should be resolved from now on
+     */
+    public static void setMode(Mode mode) {
+        LocalResolver.mode = mode;
+    }
+
+    /**
+     * @return How lookups are currently resolved.
+     */
+    public static Mode getMode() {
+        return mode;
+    }
+
+    /**
+     * Replaces the local data with the contents of a snapshot.
+     *
+     * @param snapshot the snapshot to answer lookups from
+     */
+    public static void load(Snapshot snapshot) {
+        load(new CardDataset(snapshot.getCards()), snapshot.getSets(), snapshot.getSymbols(), snapshot.getCatalogs());
+    }
+
+    /**
+     * Replaces the local data. Lookups in progress finish against the data they started with. The shared
+     * {@link SymbolRegistry} is reloaded the next time it is used.
+     *
+     * @param cards    the cards to answer card lookups from
+     * @param sets     the sets to answer set lookups from
+     * @param symbols  the symbols to answer symbol lookups from
+     * @param catalogs the catalogs to answer catalog lookups from
+     */
+    public static void load(CardDataset cards, Set[] sets, Symbol[] symbols, Catalog[] catalogs) {
+        data = new LocalData(cards, sets.clone(), symbols.clone(), catalogs.clone());
+        SymbolRegistry.clear();
+    }
+
+    /**
+     * Replaces the rulings which card rulings are answered from. Loading cards doesn't replace them.
+     *
+     * @param rulings the rulings to answer lookups from, or null to answer them from the API again
+     */
+    public static void loadRulings(RulingIndex rulings) {
+        LocalResolver.rulings = rulings;
+    }
+
+    /**
+     * @return The rulings loaded for local lookups, or null if none have been loaded.
+     */
+    public static RulingIndex getRulings() {
+        return rulings;
+    }
+
+    /**
+     * @param oracleID the oracle id of a card, which may be null
+     * @return the card's loaded rulings, oldest first, or null if no rulings are loaded. A card without rulings or an
+     * oracle id gets an empty list, since the rulings file covers every card.
+     */
+    public static List<Ruling> findRulings(UUID oracleID) {
+        RulingIndex rulings = LocalResolver.rulings;
+        return rulings == null ? null : rulings.get(oracleID);
+    }
+
+    /**
+     * @return The cards loaded for local lookups. This is empty if nothing has been loaded.
+     */
+    public static CardDataset getCards() {
+        return data.cards;
+    }
+
+    /**
+     * @return The sets loaded for local lookups.
+     */
+    public static Set[] getSets() {
+        return data.sets.clone();
+    }
+
+    /**
+     * @return The symbols loaded for local lookups.
+     */
+    public static Symbol[] getSymbols() {
+        return data.symbols.clone();
+    }
+
+    /**
+     * @param code a set code or Scryfall set id, in any case
+     * @return the loaded set with the given code or id, or null if there is none
+     */
+    public static Set findSet(String code) {
+        LocalData data = LocalResolver.data;
+        Set set = data.setsByCode.get(code.toLowerCase(Locale.ROOT));
+        if (set == null) {
+            try {
+                set = data.setsByID.get(UUID.fromString(code));
+            } catch (IllegalArgumentException ignored) {
+                // not an id either
+            }
+        }
+        return set;
+    }
+
+    /**
+     * @param id a Scryfall set id
+     * @return the loaded set with the given id, or null if there is none
+     */
+    public static Set findSet(UUID id) {
+        return data.setsByID.get(id);
+    }
+
+    /**
+     * @param tcgplayerID a set's TCGplayer group id
+     * @return the loaded set with the given group id, or null if there is none
+     */
+    public static Set findSetByTcgplayerID(int tcgplayerID) {
+        return data.setsByTcgplayerID.get(tcgplayerID);
+    }
+
+    /**
+     * Completes a card name from the loaded cards, or from the loaded <code>card-names</code> catalog if no cards are
+     * loaded.
+     *
+     * @param text the partly typed name
+     * @return a catalog of up to 20 names, or null if neither cards nor card names are loaded
+     * @see AutocompleteIndex
+     */
+    public static Catalog autoComplete(String text) {
+        LocalData data = LocalResolver.data;
+        if (data.cards.size() > 0) {
+            return data.cards.getAutocompleteIndex().completeCatalog(text);
+        }
+        AutocompleteIndex names = data.cardNames();
+        return names == null ? null : names.completeCatalog(text);
+    }
+
+    /**
+     * @param cost a mana cost, in braces or shorthand
+     * @return the cost parsed from the loaded symbols, or null if no symbols are loaded or the cost has a symbol which
+     * isn't loaded
+     * @see ManaCostParser
+     */
+    public static ManaCost parseManaCost(String cost) {
+        ManaCostParser parser = data.manaCostParser();
+        return parser == null ? null : parser.parse(cost);
+    }
+
+    /**
+     * @param name a catalog name, such as <code>card-names</code>. Underscores are treated as hyphens.
+     * @return the loaded catalog with the given name, or null if there is none
+     */
+    public static Catalog findCatalog(String name) {
+        return data.catalogs.get(catalogKey(name));
+    }
+
+    private static String catalogKey(String name) {
+        return name.toLowerCase(Locale.ROOT).replace('_', '-');
+    }
+
+    /**
+     * @return The number of lookups answered from local data since the counters were last reset.
+     */
+    public static long getHits() {
+        return hits.sum();
+    }
+
+    /**
+     * @return The number of lookups local data couldn't answer since the counters were last reset. In
+     * {@link Mode#LOCAL_THEN_REMOTE} mode, each of these went to Scryfall's API.
+     */
+    public static long getMisses() {
+        return misses.sum();
+    }
+
+    /**
+     * Resets the hit and miss counters to zero.
+     */
+    public static void resetCounters() {
+        hits.reset();
+        misses.reset();
+    }
+
+    /**
+     * Resolves a lookup according to the current {@link Mode}.
+     *
+     * @param local    answers the lookup from local data, returning null if it can't
+     * @param remote   answers the lookup from Scryfall's API
+     * @param notFound the result to return for a local miss in {@link Mode#LOCAL_ONLY} mode
+     * @param <T>      the type of the result
+     * @return the result of the lookup
+     */
+    public static <T> T resolve(Supplier<T> local, Supplier<T> remote, Supplier<T> notFound) {
+        Mode mode = LocalResolver.mode;
+        if (mode != Mode.REMOTE_ONLY) {
+            T value = local.get();
+            if (value != null) {
+                hits.increment();
+                return value;
+            }
+            misses.increment();
+            if (mode == Mode.LOCAL_ONLY) {
+                return notFound.get();
+            }
+        }
+        return remote.get();
+    }
+
+    /**
+     * Resolves a lookup of a single object according to the current {@link Mode}. A local miss in
+     * {@link Mode#LOCAL_ONLY} mode returns an object for which {@link ScryfallObject#isError()} is true, with the same
+     * <code>not_found</code> error Scryfall's API would have returned.
+     *
+     * @param local   answers the lookup from local data, returning null if it can't
+     * @param path    the path of the object on Scryfall's API
+     * @param factory creates the object from JSON
+     * @param <T>     the type of the object
+     * @return the object
+     */
+    public static <T extends ScryfallObject> T resolve(Supplier<T> local, String path, Function<JSONObject, T> factory) {
+        return resolve(local, () -> factory.apply(Query.dataFromPath(path)), () -> factory.apply(notFound(path)));
+    }
+
+    /**
+     * @param query a query in Scryfall's search syntax
+     * @return the first page of local results, or null if no cards are loaded, the query can't be evaluated locally,
+     * or no card matches. In {@link Mode#LOCAL_ONLY} mode, a query no card matches returns a list for which
+     * {@link ScryfallList#isError()} is true instead, since there is no API to fall back to.
+     * @see CardDataset#search(String)
+     */
+    public static ScryfallList search(String query) {
+        CardDataset cards = data.cards;
+        if (cards.size() == 0) {
+            return null;
+        }
+        ScryfallList results;
+        try {
+            results = cards.search(query);
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+        if (results.getTotalCards() == 0) {
+            // a card missing from the loaded data may still be on Scryfall, so only answer no when the API is off limits
+            return mode == Mode.LOCAL_ONLY
+                    ? new ScryfallList(error("not_found", 404, "Your query didn't match any cards."))
+                    : null;
+        }
+        return results;
+    }
+
+    /**
+     * @param query a query which couldn't be answered locally
+     * @return the JSON of the error Scryfall's API would have returned: <code>bad_request</code> if the query can't
+     * be parsed, and <code>not_found</code> otherwise
+     */
+    public static JSONObject searchError(String query) {
+        try {
+            SearchQuery.parse(query);
+        } catch (IllegalArgumentException e) {
+            return error("bad_request", 400, e.getMessage());
+        }
+        return error("not_found", 404, "Your query didn't match any cards.");
+    }
+
+    /**
+     * @param name  a card name which didn't match a loaded card
+     * @param match the name's match from the loaded cards' {@link FuzzyNameMatcher}
+     * @return the JSON of the error Scryfall's API would have returned: a <code>not_found</code> error, of type
+     * <code>ambiguous</code> if the name matches several cards
+     */
+    public static JSONObject fuzzyNameError(String name, FuzzyNameMatcher.Match match) {
+        if (match.getStatus() == FuzzyNameMatcher.Status.AMBIGUOUS) {
+            return error("not_found", 404, "Too many cards match ambiguous name “" + name
+                    + "”. Add more words to refine your search.").put("type", "ambiguous");
+        }
+        return error("not_found", 404, "No cards found matching “" + name + "”");
+    }
+
+    /**
+     * @param path the path of the object that wasn't found
+     * @return the JSON of a Scryfall <code>not_found</code> error
+     */
+    public static JSONObject notFound(String path) {
+        return error("not_found", 404, "No local data matches " + path);
+    }
+
+    private static JSONObject error(String code, int status, String details) {
+        return new JSONObject()
+                .put("object", "error")
+                .put("code", code)
+                .put("status", status)
+                .put("details", details);
+    }
+
+    /**
+     * How lookups are resolved.
+     */
+    public enum Mode {
+        /**
+         * Lookups are only answered from local data. Lookups it can't answer return a <code>not_found</code> error,
+         * without a request to Scryfall.
+         */
+        LOCAL_ONLY,
+        /**
+         * Lookups are answered from local data when possible, and sent to Scryfall's API otherwise.
+         */
+        LOCAL_THEN_REMOTE,
+        /**
+         * Every lookup is sent to Scryfall's API.
+         */
+        REMOTE_ONLY
+    }
+
+    private static final class LocalData {
+        private final CardDataset cards;
+        private final Set[] sets;
+        private final Symbol[] symbols;
+        private final Map<String, Set> setsByCode = new HashMap<>();
+        private final Map<UUID, Set> setsByID = new HashMap<>();
+        private final Map<Integer, Set> setsByTcgplayerID = new HashMap<>();
+        private final Map<String, Catalog> catalogs = new HashMap<>();
+        private volatile AutocompleteIndex cardNames;
+        private volatile ManaCostParser manaCostParser;
+
+        private LocalData(CardDataset cards, Set[] sets, Symbol[] symbols, Catalog[] catalogs) {
+            this.cards = cards;
+            this.sets = sets;
+            this.symbols = symbols;
+            for (Set set : sets) {
+                setsByCode.put(set.getCode().toLowerCase(Locale.ROOT), set);
+                if (set.getId() != null) {
+                    setsByID.put(set.getId(), set);
+                }
+                if (set.getTcgPlayerID() >= 0) {
+                    setsByTcgplayerID.put(set.getTcgPlayerID(), set);
+                }
+            }
+            for (Catalog catalog : catalogs) {
+                if (catalog.getUrl() != null) {
+                    String path = catalog.getUrl().getPath();
+                    this.catalogs.put(catalogKey(path.substring(path.lastIndexOf('/') + 1)), catalog);
+                }
+            }
+        }
+
+        /**
+         * @return an index of the <code>card-names</code> catalog, built the first time it is needed, or null if the
+         * catalog isn't loaded
+         */
+        private AutocompleteIndex cardNames() {
+            AutocompleteIndex index = cardNames;
+            if (index == null) {
+                Catalog catalog = catalogs.get("card-names");
+                if (catalog == null) {
+                    return null;
+                }
+                index = AutocompleteIndex.fromCatalog(catalog);
+                cardNames = index;
+            }
+            return index;
+        }
+
+        /**
+         * @return a parser of the loaded symbols, built the first time it is needed, or null if no symbols are loaded
+         */
+        private ManaCostParser manaCostParser() {
+            ManaCostParser parser = manaCostParser;
+            if (parser == null) {
+                if (symbols.length == 0) {
+                    return null;
+                }
+                parser = new ManaCostParser(symbols);
+                manaCostParser = parser;
+            }
+            return parser;
+        }
+    }
+}
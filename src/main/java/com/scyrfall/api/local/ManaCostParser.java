@@ -0,0 +1,236 @@
+package com.scyrfall.api.local;
+
+import com.scyrfall.api.field.ColorSet;
+import com.scyrfall.api.field.ManaCost;
+import com.scyrfall.api.object.Symbol;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Parses mana costs from a table of {@link Symbol}s, the way {@link ManaCost#parseManaCost(String)} does on Scryfall's
+ * API, without a request.
+ *
+ * <p>Costs may use braces or community shorthand, in any case and order: <code>2g2</code>, <code>{2}{g}2</code> and
+ * <code>{4}{G}</code> are the same cost. The normalized cost lists variable symbols such as <code>{X}</code> first,
+ * then the sum of the generic costs, then other colorless symbols, then colored symbols in the order the cost's colors
+ * are printed in: clockwise around the color pie for allied colors, shards and four-color costs, and skipping one color
+ * at a time for enemy pairs and wedges, so <code>XURW</code> becomes <code>{X}{U}{R}{W}</code>.</p>
+ *
+ * <p>A parser is immutable and can be shared between threads.</p>
+ */
+public final class ManaCostParser {
+
+    private static final String VARIABLES = "XYZ";
+    // colorless symbols which follow the other colorless symbols, such as {½}, in this order
+    private static final String[] LAST_COLORLESS = {"{C}", "{S}"};
+    // the colors around the pie, by ColorSet bit: white, blue, black, red, green
+    private static final int PIE = 5;
+    private static final int COLOR_MASK = ColorSet.WUBRG.getBits();
+
+    // symbols of one ASCII character, such as {G}, by that character, so the common symbols and shorthand are looked
+    // up without building their text
+    private final Symbol[] singles = new Symbol[128];
+    // every other symbol, such as {G/U} or {½}, by its text
+    private final Map<String, Symbol> symbols = new HashMap<>();
+
+    /**
+     * @param symbols the symbol table, as returned by {@link Symbol#getSymbols()}
+     */
+    public ManaCostParser(Symbol... symbols) {
+        for (Symbol symbol : symbols) {
+            String text = symbol.getSymbol();
+            if (text == null || !symbol.representsMana()) {
+                continue;
+            }
+            if (text.length() == 3 && text.charAt(1) < singles.length) {
+                singles[text.charAt(1)] = symbol;
+            } else {
+                this.symbols.put(text, symbol);
+            }
+        }
+    }
+
+    /**
+     * @param cost a mana cost, in braces or shorthand
+     * @return the parsed cost, or null if it has a symbol which isn't a mana symbol in the table
+     */
+    public ManaCost parse(String cost) {
+        int generic = 0;
+        boolean hasGeneric = false;
+        Symbol[] parsed = new Symbol[cost.length()];
+        int count = 0;
+        int length = cost.length();
+        for (int i = 0; i < length; ) {
+            char c = cost.charAt(i);
+            Symbol symbol;
+            if (Character.isWhitespace(c)) {
+                i++;
+                continue;
+            } else if (c == '{') {
+                int end = cost.indexOf('}', i);
+                if (end < 0) {
+                    return null;
+                }
+                int number = number(cost, i + 1, end);
+                if (number >= 0) {
+                    generic += number;
+                    hasGeneric = true;
+                    i = end + 1;
+                    continue;
+                }
+                symbol = end == i + 2 ? single(cost.charAt(i + 1))
+                        : symbols.get(cost.substring(i, end + 1).toUpperCase(Locale.ROOT));
+                i = end + 1;
+            } else if (isDigit(c)) {
+                int end = i;
+                while (end < length && isDigit(cost.charAt(end))) {
+                    end++;
+                }
+                int number = number(cost, i, end);
+                if (number < 0) {
+                    return null;
+                }
+                generic += number;
+                hasGeneric = true;
+                i = end;
+                continue;
+            } else {
+                symbol = single(c);
+                i++;
+            }
+            if (symbol == null) {
+                return null;
+            }
+            parsed[count++] = symbol;
+        }
+        return build(generic, hasGeneric, Arrays.copyOf(parsed, count));
+    }
+
+    private Symbol single(char c) {
+        char upper = Character.toUpperCase(c);
+        return upper < singles.length ? singles[upper] : symbols.get("{" + upper + "}");
+    }
+
+    /**
+     * @return the value of the digits from <code>start</code> to <code>end</code>, the inside of a generic cost such
+     * as <code>{12}</code>, or -1 if they aren't from 1 to 9 digits
+     */
+    private static int number(String cost, int start, int end) {
+        if (end <= start || end - start > 9) {
+            return -1;
+        }
+        int value = 0;
+        for (int i = start; i < end; i++) {
+            char c = cost.charAt(i);
+            if (!isDigit(c)) {
+                return -1;
+            }
+            value = value * 10 + (c - '0');
+        }
+        return value;
+    }
+
+    private static boolean isDigit(char c) {
+        return c >= '0' && c <= '9';
+    }
+
+    private static ManaCost build(int generic, boolean hasGeneric, Symbol[] parsed) {
+        int colors = 0;
+        double cmc = generic;
+        for (Symbol symbol : parsed) {
+            colors |= symbol.getColors().getBits() & COLOR_MASK;
+            // {∞} has a mana value of -1, so it adds nothing to the total
+            cmc += Math.max(0, symbol.getManaValue());
+        }
+        int[] order = pieOrder(colors);
+
+        int[] ranks = new int[parsed.length];
+        int[] indexes = new int[parsed.length];
+        for (int i = 0; i < parsed.length; i++) {
+            ranks[i] = rank(parsed[i], order);
+            // an insertion sort, which is stable, so symbols of the same rank stay in the order they were written
+            int j = i;
+            while (j > 0 && ranks[indexes[j - 1]] > ranks[i]) {
+                indexes[j] = indexes[j - 1];
+                j--;
+            }
+            indexes[j] = i;
+        }
+
+        StringBuilder builder = new StringBuilder(parsed.length * 3 + 4);
+        boolean genericWritten = !hasGeneric || generic == 0 && parsed.length > 0;
+        for (int index : indexes) {
+            if (!genericWritten && ranks[index] >= VARIABLES.length()) {
+                builder.append('{').append(generic).append('}');
+                genericWritten = true;
+            }
+            builder.append(parsed[index].getSymbol());
+        }
+        if (!genericWritten) {
+            builder.append('{').append(generic).append('}');
+        }
+        return new ManaCost(builder.toString(), cmc, ColorSet.fromBits(colors));
+    }
+
+    /**
+     * Ranks a symbol by where it goes in a normalized cost: variables in <code>XYZ</code> order, then colorless
+     * symbols, with <code>{C}</code> and <code>{S}</code> last, then colored symbols by the position of their first
+     * color in the cost's color order.
+     */
+    private static int rank(Symbol symbol, int[] order) {
+        String text = symbol.getSymbol();
+        int variable = VARIABLES.indexOf(text.charAt(1));
+        if (text.length() == 3 && variable >= 0) {
+            return variable;
+        }
+        int colors = symbol.getColors().getBits() & COLOR_MASK;
+        int colorless = VARIABLES.length();
+        if (colors == 0) {
+            for (int i = 0; i < LAST_COLORLESS.length; i++) {
+                if (LAST_COLORLESS[i].equals(text)) {
+                    return colorless + 1 + i;
+                }
+            }
+            return colorless;
+        }
+        int colored = colorless + 1 + LAST_COLORLESS.length;
+        for (int i = 0; i < order.length; i++) {
+            if ((colors & 1 << order[i]) != 0) {
+                return colored + i;
+            }
+        }
+        return colorless;
+    }
+
+    /**
+     * @param colors a mask of <code>WUBRG</code> bits
+     * @return the colors' bit positions in the order they are printed: starting after the widest gap around the pie
+     * when the colors are all next to each other, and every other color, as in <code>{U}{R}{W}</code>, otherwise
+     */
+    static int[] pieOrder(int colors) {
+        int count = Integer.bitCount(colors);
+        int[] order = new int[count];
+        if (count == 0) {
+            return order;
+        }
+        for (int step = 1; step <= 2; step++) {
+            for (int start = 0; start < PIE; start++) {
+                int covered = 0;
+                for (int i = 0; i < count; i++) {
+                    covered |= 1 << (start + i * step) % PIE;
+                }
+                if (covered == colors) {
+                    for (int i = 0; i < count; i++) {
+                        order[i] = (start + i * step) % PIE;
+                    }
+                    return order;
+                }
+            }
+        }
+        // every set of colors is a run of neighbours or of every other color, so this isn't reached
+        throw new IllegalStateException("No order for colors " + colors);
+    }
+}
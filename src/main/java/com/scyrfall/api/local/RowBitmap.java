@@ -0,0 +1,441 @@
+package com.scyrfall.api.local;
+
+import java.util.Arrays;
+import java.util.function.IntConsumer;
+
+/**
+ * An immutable, compressed set of rows, laid out like a Roaring bitmap. Rows are split into chunks of 65536 by their
+ * high 16 bits, and each chunk which has rows keeps their low 16 bits either as a sorted array, while it has at most
+ * 4096 of them, or as a 65536 bit bitmap beyond that. A bitmap therefore never takes more than two bytes per row, and
+ * AND, OR and AND NOT work chunk by chunk, on arrays by merging and on bitmaps a word at a time.
+ *
+ * <pre>{@code
+ * RowBitmap.Builder builder = new RowBitmap.Builder();
+ * builder.add(3);
+ * builder.add(70000);
+ * RowBitmap rows = builder.build().and(RowBitmap.range(dataset.size()));
+ * rows.forEach(row -> System.out.println(dataset.get(row).getName()));
+ * }</pre>
+ */
+public final class RowBitmap {
+
+    public static final RowBitmap EMPTY = new RowBitmap(new char[0], new Chunk[0]);
+
+    private static final int ARRAY_MAX = 4096;
+    private static final int WORDS = 1 << 16 >>> 6;
+
+    private final char[] keys;
+    private final Chunk[] chunks;
+    private final int cardinality;
+
+    private RowBitmap(char[] keys, Chunk[] chunks) {
+        this.keys = keys;
+        this.chunks = chunks;
+        int cardinality = 0;
+        for (Chunk chunk : chunks) {
+            cardinality += chunk.cardinality;
+        }
+        this.cardinality = cardinality;
+    }
+
+    /**
+     * @param rows rows in ascending order
+     */
+    public static RowBitmap of(int... rows) {
+        Builder builder = new Builder();
+        for (int row : rows) {
+            builder.add(row);
+        }
+        return builder.build();
+    }
+
+    /**
+     * @return the rows from 0 to <code>size - 1</code>
+     */
+    public static RowBitmap range(int size) {
+        int count = (size + 0xFFFF) >>> 16;
+        char[] keys = new char[count];
+        Chunk[] chunks = new Chunk[count];
+        for (int i = 0; i < count; i++) {
+            int length = Math.min(1 << 16, size - (i << 16));
+            long[] words = new long[WORDS];
+            Arrays.fill(words, 0, length >>> 6, -1L);
+            if ((length & 63) != 0) {
+                words[length >>> 6] = (1L << length) - 1;
+            }
+            keys[i] = (char) i;
+            chunks[i] = Chunk.fromWords(words, length);
+        }
+        return new RowBitmap(keys, chunks);
+    }
+
+    /**
+     * @return The number of rows in this bitmap.
+     */
+    public int cardinality() {
+        return cardinality;
+    }
+
+    /**
+     * @return True if this bitmap has no rows.
+     */
+    public boolean isEmpty() {
+        return cardinality == 0;
+    }
+
+    /**
+     * @return True if this bitmap has the given row.
+     */
+    public boolean contains(int row) {
+        int index = Arrays.binarySearch(keys, (char) (row >>> 16));
+        return index >= 0 && chunks[index].contains((char) row);
+    }
+
+    /**
+     * @return the rows in both this bitmap and <code>other</code>
+     */
+    public RowBitmap and(RowBitmap other) {
+        int length = Math.min(keys.length, other.keys.length);
+        char[] keys = new char[length];
+        Chunk[] chunks = new Chunk[length];
+        int count = 0;
+        for (int i = 0, j = 0; i < this.keys.length && j < other.keys.length; ) {
+            if (this.keys[i] < other.keys[j]) {
+                i++;
+            } else if (this.keys[i] > other.keys[j]) {
+                j++;
+            } else {
+                Chunk chunk = this.chunks[i].and(other.chunks[j]);
+                if (chunk != null) {
+                    keys[count] = this.keys[i];
+                    chunks[count++] = chunk;
+                }
+                i++;
+                j++;
+            }
+        }
+        return create(keys, chunks, count);
+    }
+
+    /**
+     * @return the rows in this bitmap, <code>other</code> or both
+     */
+    public RowBitmap or(RowBitmap other) {
+        if (other.isEmpty()) {
+            return this;
+        } else if (isEmpty()) {
+            return other;
+        }
+        int length = keys.length + other.keys.length;
+        char[] keys = new char[length];
+        Chunk[] chunks = new Chunk[length];
+        int count = 0;
+        int i = 0;
+        int j = 0;
+        while (i < this.keys.length || j < other.keys.length) {
+            if (j == other.keys.length || i < this.keys.length && this.keys[i] < other.keys[j]) {
+                keys[count] = this.keys[i];
+                chunks[count++] = this.chunks[i++];
+            } else if (i == this.keys.length || this.keys[i] > other.keys[j]) {
+                keys[count] = other.keys[j];
+                chunks[count++] = other.chunks[j++];
+            } else {
+                keys[count] = this.keys[i];
+                chunks[count++] = this.chunks[i++].or(other.chunks[j++]);
+            }
+        }
+        return create(keys, chunks, count);
+    }
+
+    /**
+     * @return the rows in this bitmap which aren't in <code>other</code>
+     */
+    public RowBitmap andNot(RowBitmap other) {
+        if (other.isEmpty() || isEmpty()) {
+            return this;
+        }
+        char[] keys = new char[this.keys.length];
+        Chunk[] chunks = new Chunk[this.keys.length];
+        int count = 0;
+        int j = 0;
+        for (int i = 0; i < this.keys.length; i++) {
+            while (j < other.keys.length && other.keys[j] < this.keys[i]) {
+                j++;
+            }
+            Chunk chunk = j < other.keys.length && other.keys[j] == this.keys[i]
+                    ? this.chunks[i].andNot(other.chunks[j]) : this.chunks[i];
+            if (chunk != null) {
+                keys[count] = this.keys[i];
+                chunks[count++] = chunk;
+            }
+        }
+        return create(keys, chunks, count);
+    }
+
+    /**
+     * Calls <code>action</code> with each row, in ascending order.
+     */
+    public void forEach(IntConsumer action) {
+        for (int i = 0; i < keys.length; i++) {
+            chunks[i].forEach(keys[i] << 16, action);
+        }
+    }
+
+    /**
+     * @return the rows in ascending order
+     */
+    public int[] toArray() {
+        int[] rows = new int[cardinality];
+        int[] count = {0};
+        forEach(row -> rows[count[0]++] = row);
+        return rows;
+    }
+
+    @Override
+    public String toString() {
+        return "RowBitmap{" +
+                "cardinality=" + cardinality +
+                ", chunks=" + chunks.length +
+                '}';
+    }
+
+    private static RowBitmap create(char[] keys, Chunk[] chunks, int count) {
+        if (count == 0) {
+            return EMPTY;
+        }
+        return new RowBitmap(Arrays.copyOf(keys, count), Arrays.copyOf(chunks, count));
+    }
+
+    /**
+     * Builds a bitmap from rows added in ascending order.
+     */
+    public static final class Builder {
+        private char[] keys = new char[4];
+        private Chunk[] chunks = new Chunk[4];
+        private int count;
+        private int key = -1;
+        private char[] values = new char[16];
+        private long[] words;
+        private int size;
+        private int last = -1;
+
+        /**
+         * @param row a row greater than any added before
+         * @throws IllegalArgumentException if the row isn't greater than the last one added
+         */
+        public void add(int row) {
+            if (row <= last) {
+                throw new IllegalArgumentException("Rows must be added in ascending order: " + row + " after " + last);
+            }
+            last = row;
+            if (row >>> 16 != key) {
+                flush();
+                key = row >>> 16;
+            }
+            char low = (char) row;
+            if (words != null) {
+                words[low >>> 6] |= 1L << low;
+            } else if (size == ARRAY_MAX) {
+                words = new long[WORDS];
+                for (int i = 0; i < size; i++) {
+                    words[values[i] >>> 6] |= 1L << values[i];
+                }
+                words[low >>> 6] |= 1L << low;
+            } else {
+                if (size == values.length) {
+                    values = Arrays.copyOf(values, size * 2);
+                }
+                values[size] = low;
+            }
+            size++;
+        }
+
+        public RowBitmap build() {
+            flush();
+            return create(keys, chunks, count);
+        }
+
+        private void flush() {
+            if (size == 0) {
+                return;
+            }
+            if (count == keys.length) {
+                keys = Arrays.copyOf(keys, count * 2);
+                chunks = Arrays.copyOf(chunks, count * 2);
+            }
+            keys[count] = (char) key;
+            chunks[count++] = words != null ? new Chunk(null, words, size) : new Chunk(Arrays.copyOf(values, size), null, size);
+            words = null;
+            size = 0;
+        }
+    }
+
+    /**
+     * The low 16 bits of the rows in one chunk, as a sorted array or as a bitmap. Chunks are never empty; operations
+     * return null instead.
+     */
+    private static final class Chunk {
+        private final char[] values;
+        private final long[] words;
+        private final int cardinality;
+
+        Chunk(char[] values, long[] words, int cardinality) {
+            this.values = values;
+            this.words = words;
+            this.cardinality = cardinality;
+        }
+
+        /**
+         * @return a chunk of the set bits, as an array if there are few enough of them, or null if there are none
+         */
+        static Chunk fromWords(long[] words, int cardinality) {
+            if (cardinality == 0) {
+                return null;
+            } else if (cardinality > ARRAY_MAX) {
+                return new Chunk(null, words, cardinality);
+            }
+            char[] values = new char[cardinality];
+            int count = 0;
+            for (int i = 0; i < words.length; i++) {
+                for (long word = words[i]; word != 0; word &= word - 1) {
+                    values[count++] = (char) (i << 6 | Long.numberOfTrailingZeros(word));
+                }
+            }
+            return new Chunk(values, null, cardinality);
+        }
+
+        boolean contains(char value) {
+            if (words != null) {
+                return (words[value >>> 6] & 1L << value) != 0;
+            }
+            return Arrays.binarySearch(values, value) >= 0;
+        }
+
+        Chunk and(Chunk other) {
+            if (words == null && other.words == null) {
+                char[] result = new char[Math.min(cardinality, other.cardinality)];
+                int count = 0;
+                for (int i = 0, j = 0; i < cardinality && j < other.cardinality; ) {
+                    if (values[i] < other.values[j]) {
+                        i++;
+                    } else if (values[i] > other.values[j]) {
+                        j++;
+                    } else {
+                        result[count++] = values[i];
+                        i++;
+                        j++;
+                    }
+                }
+                return count == 0 ? null : new Chunk(Arrays.copyOf(result, count), null, count);
+            } else if (words == null) {
+                return other.filter(this, true);
+            } else if (other.words == null) {
+                return filter(other, true);
+            }
+            long[] result = new long[WORDS];
+            int cardinality = 0;
+            for (int i = 0; i < WORDS; i++) {
+                result[i] = words[i] & other.words[i];
+                cardinality += Long.bitCount(result[i]);
+            }
+            return fromWords(result, cardinality);
+        }
+
+        Chunk or(Chunk other) {
+            if (words == null && other.words == null && cardinality + other.cardinality <= ARRAY_MAX) {
+                char[] result = new char[cardinality + other.cardinality];
+                int count = 0;
+                int i = 0;
+                int j = 0;
+                while (i < cardinality || j < other.cardinality) {
+                    if (j == other.cardinality || i < cardinality && values[i] < other.values[j]) {
+                        result[count++] = values[i++];
+                    } else if (i == cardinality || values[i] > other.values[j]) {
+                        result[count++] = other.values[j++];
+                    } else {
+                        result[count++] = values[i++];
+                        j++;
+                    }
+                }
+                return new Chunk(Arrays.copyOf(result, count), null, count);
+            }
+            long[] result = toWords();
+            if (other.words != null) {
+                for (int i = 0; i < WORDS; i++) {
+                    result[i] |= other.words[i];
+                }
+            } else {
+                for (int i = 0; i < other.cardinality; i++) {
+                    result[other.values[i] >>> 6] |= 1L << other.values[i];
+                }
+            }
+            int cardinality = 0;
+            for (long word : result) {
+                cardinality += Long.bitCount(word);
+            }
+            return fromWords(result, cardinality);
+        }
+
+        Chunk andNot(Chunk other) {
+            if (words == null) {
+                return other.filter(this, false);
+            }
+            long[] result = words.clone();
+            if (other.words != null) {
+                for (int i = 0; i < WORDS; i++) {
+                    result[i] &= ~other.words[i];
+                }
+            } else {
+                for (int i = 0; i < other.cardinality; i++) {
+                    result[other.values[i] >>> 6] &= ~(1L << other.values[i]);
+                }
+            }
+            int cardinality = 0;
+            for (long word : result) {
+                cardinality += Long.bitCount(word);
+            }
+            return fromWords(result, cardinality);
+        }
+
+        /**
+         * @param array a chunk kept as an array
+         * @return the values of <code>array</code> which are in this chunk, or which aren't if <code>keep</code> is
+         * false
+         */
+        private Chunk filter(Chunk array, boolean keep) {
+            char[] result = new char[array.cardinality];
+            int count = 0;
+            for (int i = 0; i < array.cardinality; i++) {
+                if (contains(array.values[i]) == keep) {
+                    result[count++] = array.values[i];
+                }
+            }
+            return count == 0 ? null : new Chunk(count == result.length ? result : Arrays.copyOf(result, count), null, count);
+        }
+
+        private long[] toWords() {
+            if (words != null) {
+                return words.clone();
+            }
+            long[] result = new long[WORDS];
+            for (int i = 0; i < cardinality; i++) {
+                result[values[i] >>> 6] |= 1L << values[i];
+            }
+            return result;
+        }
+
+        void forEach(int base, IntConsumer action) {
+            if (words == null) {
+                for (int i = 0; i < cardinality; i++) {
+                    action.accept(base | values[i]);
+                }
+                return;
+            }
+            for (int i = 0; i < WORDS; i++) {
+                for (long word = words[i]; word != 0; word &= word - 1) {
+                    action.accept(base | i << 6 | Long.numberOfTrailingZeros(word));
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,139 @@
+package com.scyrfall.api.local;
+
+import java.util.Arrays;
+
+/**
+ * Base of the open-addressing indexes in {@link CardDataset}. Subclasses store keys in flat primitive arrays and map
+ * each key to a chain of rows, kept here in insertion order, so that lookups never box and never allocate.
+ *
+ * <p>Slots hold the index of the first and last entry of their key's chain, plus one, so that zero marks an empty
+ * slot. Tables are kept at most half full.</p>
+ */
+abstract class RowIndex {
+
+    private static final int[] NO_ROWS = new int[0];
+
+    private int[] entryRows = new int[16];
+    private int[] entryNext = new int[16];
+    private int entries;
+
+    int[] first;
+    int[] last;
+    int mask;
+    int keys;
+
+    RowIndex(int expectedKeys) {
+        int capacity = Integer.highestOneBit(Math.max(expectedKeys, 4) * 2 - 1) << 1;
+        first = new int[capacity];
+        last = new int[capacity];
+        mask = capacity - 1;
+    }
+
+    static int mix(int hash) {
+        hash *= 0x9E3779B9;
+        return hash ^ (hash >>> 16);
+    }
+
+    static int mix(long hash) {
+        return mix((int) (hash ^ (hash >>> 32)));
+    }
+
+    /**
+     * Adds <code>row</code> to the chain of the key in <code>slot</code>, claiming the slot if it is empty.
+     *
+     * @return true if the slot was empty
+     */
+    boolean addRow(int slot, int row) {
+        if (entries == entryRows.length) {
+            entryRows = Arrays.copyOf(entryRows, entries * 2);
+            entryNext = Arrays.copyOf(entryNext, entries * 2);
+        }
+        int entry = entries++;
+        entryRows[entry] = row;
+        entryNext[entry] = 0;
+        if (first[slot] == 0) {
+            first[slot] = entry + 1;
+            last[slot] = entry + 1;
+            keys++;
+            return true;
+        }
+        if (entryRows[last[slot] - 1] == row) {
+            // the same row was added twice under one key, such as a card listing a multiverse id twice
+            entries--;
+            return false;
+        }
+        entryNext[last[slot] - 1] = entry + 1;
+        last[slot] = entry + 1;
+        return false;
+    }
+
+    boolean needsResize() {
+        return keys * 2 > mask;
+    }
+
+    /**
+     * @return the first row stored under the key in <code>slot</code>, or -1 if the slot is empty
+     */
+    int firstRow(int slot) {
+        return first[slot] == 0 ? -1 : entryRows[first[slot] - 1];
+    }
+
+    /**
+     * @return every row stored under the key in <code>slot</code>, in the order they were added
+     */
+    int[] rows(int slot) {
+        if (slot < 0 || first[slot] == 0) {
+            return NO_ROWS;
+        }
+        int count = 0;
+        for (int entry = first[slot]; entry != 0; entry = entryNext[entry - 1]) {
+            count++;
+        }
+        int[] rows = new int[count];
+        int i = 0;
+        for (int entry = first[slot]; entry != 0; entry = entryNext[entry - 1]) {
+            rows[i++] = entryRows[entry - 1];
+        }
+        return rows;
+    }
+
+    /**
+     * Calls <code>visitor</code> with each row stored under the key in <code>slot</code>, until it returns true.
+     *
+     * @return the row the visitor accepted, or -1
+     */
+    int findRow(int slot, RowPredicate visitor) {
+        if (slot < 0) {
+            return -1;
+        }
+        for (int entry = first[slot]; entry != 0; entry = entryNext[entry - 1]) {
+            if (visitor.test(entryRows[entry - 1])) {
+                return entryRows[entry - 1];
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Replaces the slot arrays with larger ones. Subclasses move their keys with {@link #moveSlot(int, int, int[], int[])}.
+     */
+    void resize() {
+        int[] oldFirst = first;
+        int[] oldLast = last;
+        first = new int[oldFirst.length * 2];
+        last = new int[oldLast.length * 2];
+        mask = first.length - 1;
+        rehash(oldFirst, oldLast);
+    }
+
+    abstract void rehash(int[] oldFirst, int[] oldLast);
+
+    void moveSlot(int from, int to, int[] oldFirst, int[] oldLast) {
+        first[to] = oldFirst[from];
+        last[to] = oldLast[from];
+    }
+
+    interface RowPredicate {
+        boolean test(int row);
+    }
+}
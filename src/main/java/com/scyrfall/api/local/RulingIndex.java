@@ -0,0 +1,174 @@
+package com.scyrfall.api.local;
+
+import com.scyrfall.api.field.Ruling;
+import com.scyrfall.api.object.BulkData;
+import org.json.JSONException;
+import org.json.JSONObject;
+import org.json.JSONTokener;
+
+import java.io.BufferedInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * The rulings of every card, from Scryfall's <code>rulings</code> bulk file, by oracle id. Loading an index into the
+ * {@link LocalResolver} lets {@link com.scyrfall.api.object.Card#getRulings()} answer without asking the API once
+ * per card.
+ *
+ * <pre>{@code
+ * LocalResolver.loadRulings(RulingIndex.fromBulkData());
+ * }</pre>
+ *
+ * <p>The rulings are kept in one array, grouped by oracle id and sorted by date within each group, so a card's
+ * rulings are a view of a slice of it.</p>
+ */
+public final class RulingIndex {
+
+    /**
+     * The type of Scryfall's bulk file of rulings.
+     */
+    public static final String BULK_DATA_TYPE = "rulings";
+
+    private static final Comparator<Ruling> ORDER = Comparator
+            .comparing(Ruling::getOracleID)
+            .thenComparing(Ruling::getPublishedLocalDate, Comparator.nullsFirst(Comparator.naturalOrder()));
+
+    private final Ruling[] rulings;
+    // the start of each oracle id's rulings in rulings, with one more entry for the end of the last
+    private final int[] starts;
+    private final UUIDRowIndex groups;
+
+    /**
+     * @param rulings the rulings to index. Rulings without an oracle id are left out.
+     */
+    public RulingIndex(Ruling... rulings) {
+        Ruling[] sorted = Arrays.stream(rulings).filter(ruling -> ruling.getOracleID() != null).toArray(Ruling[]::new);
+        // stable, so rulings published on the same day keep the order Scryfall gave them
+        Arrays.sort(sorted, ORDER);
+        this.rulings = sorted;
+
+        int[] starts = new int[sorted.length + 1];
+        int count = 0;
+        for (int i = 0; i < sorted.length; i++) {
+            if (i == 0 || !sorted[i].getOracleID().equals(sorted[i - 1].getOracleID())) {
+                starts[count++] = i;
+            }
+        }
+        starts[count] = sorted.length;
+        this.starts = Arrays.copyOf(starts, count + 1);
+        this.groups = new UUIDRowIndex(count);
+        for (int group = 0; group < count; group++) {
+            groups.add(sorted[this.starts[group]].getOracleID(), group);
+        }
+    }
+
+    /**
+     * Reads the rulings bulk file Scryfall currently offers.
+     *
+     * @return an index of every ruling
+     * @throws IOException if the bulk file can't be downloaded or read
+     */
+    public static RulingIndex fromBulkData() throws IOException {
+        return fromBulkData(BulkData.fromType(BULK_DATA_TYPE));
+    }
+
+    /**
+     * @param bulkData a bulk file of rulings, such as <code>BulkData.fromType("rulings")</code>
+     * @return an index of every ruling in the file
+     * @throws IOException if the file can't be downloaded or read
+     */
+    public static RulingIndex fromBulkData(BulkData bulkData) throws IOException {
+        URL url = bulkData.getDownloadURL();
+        if (bulkData.isError() || url == null) {
+            throw new IOException("No rulings bulk file to download: " + bulkData);
+        }
+        try (InputStream in = new BufferedInputStream(url.openStream())) {
+            return read(in);
+        }
+    }
+
+    /**
+     * @param path a downloaded rulings bulk file
+     * @return an index of every ruling in the file
+     * @throws IOException if the file can't be read, or isn't a JSON array of rulings
+     */
+    public static RulingIndex read(Path path) throws IOException {
+        try (InputStream in = Files.newInputStream(path)) {
+            return read(new BufferedInputStream(in));
+        }
+    }
+
+    /**
+     * Reads a JSON array of rulings one ruling at a time, so the whole file is never held as one JSON document.
+     *
+     * @param in a rulings bulk file, which this method doesn't close
+     * @return an index of every ruling read
+     * @throws IOException if the stream can't be read, or isn't a JSON array of rulings
+     */
+    public static RulingIndex read(InputStream in) throws IOException {
+        Reader reader = new InputStreamReader(in, StandardCharsets.UTF_8);
+        List<Ruling> rulings = new ArrayList<>();
+        try {
+            JSONTokener tokener = new JSONTokener(reader);
+            if (tokener.nextClean() != '[') {
+                throw new IOException("Not a JSON array of rulings");
+            }
+            char next = tokener.nextClean();
+            if (next != ']') {
+                tokener.back();
+                do {
+                    Object value = tokener.nextValue();
+                    if (!(value instanceof JSONObject)) {
+                        throw new IOException("Not a ruling: " + value);
+                    }
+                    rulings.add(new Ruling((JSONObject) value));
+                    next = tokener.nextClean();
+                } while (next == ',');
+                if (next != ']') {
+                    throw new IOException("Unterminated JSON array of rulings");
+                }
+            }
+        } catch (JSONException e) {
+            throw new IOException(e);
+        }
+        return new RulingIndex(rulings.toArray(new Ruling[0]));
+    }
+
+    /**
+     * @param oracleID the oracle id of a card
+     * @return the card's rulings, oldest first, or an empty list if it has none
+     */
+    public List<Ruling> get(UUID oracleID) {
+        int group = oracleID == null ? -1 : groups.get(oracleID);
+        if (group < 0) {
+            return List.of();
+        }
+        return Collections.unmodifiableList(Arrays.asList(rulings).subList(starts[group], starts[group + 1]));
+    }
+
+    /**
+     * @return The number of rulings in this index.
+     */
+    public int size() {
+        return rulings.length;
+    }
+
+    /**
+     * @return The number of cards with rulings in this index.
+     */
+    public int getCardCount() {
+        return starts.length - 1;
+    }
+}
@@ -0,0 +1,250 @@
+package com.scyrfall.api.local;
+
+import com.scyrfall.api.field.CardFace;
+import com.scyrfall.api.field.Legalities;
+import com.scyrfall.api.field.Legalities.Format;
+import com.scyrfall.api.field.Legalities.Legality;
+import com.scyrfall.api.object.Card;
+import com.scyrfall.api.object.Card.BorderColor;
+import com.scyrfall.api.object.Card.Finish;
+import com.scyrfall.api.object.Card.Frame;
+import com.scyrfall.api.object.Card.FrameEffect;
+import com.scyrfall.api.object.Card.Game;
+import com.scyrfall.api.object.Card.Layout;
+import com.scyrfall.api.object.Card.Rarity;
+import com.scyrfall.api.object.Set.SetType;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.function.IntPredicate;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+
+/**
+ * Rows of a {@link CardDataset} grouped by the attributes searches filter on most: set, set type, language, rarity,
+ * layout, border, frame, frame effects, finishes, games, colors, color identity and format legality. Each group is a
+ * {@link RowBitmap}, so the search planner can combine the groups of several terms with AND, OR and AND NOT before it
+ * looks at a single card. Text terms use the dataset's {@link TextIndex}.
+ */
+final class SearchIndex {
+
+    private static final int COLOR_MASKS = 32;
+
+    private final int size;
+    private final RowBitmap all;
+    private final Map<String, RowBitmap> sets;
+    private final Map<String, RowBitmap> langs;
+    private final RowBitmap[] setTypes;
+    private final RowBitmap[] rarities;
+    private final RowBitmap[] layouts;
+    private final RowBitmap[] borders;
+    private final RowBitmap[] frames;
+    private final RowBitmap[] frameEffects;
+    private final RowBitmap[] finishes;
+    private final RowBitmap[] games;
+    private final RowBitmap[] colors;
+    private final RowBitmap[] identities;
+    private final RowBitmap[][] legalities;
+    private final Supplier<TextIndex> text;
+
+    SearchIndex(Card[] cards, Supplier<TextIndex> text) {
+        size = cards.length;
+        this.text = text;
+        Map<String, RowBitmap.Builder> sets = new HashMap<>();
+        Map<String, RowBitmap.Builder> langs = new HashMap<>();
+        RowBitmap.Builder[] setTypes = builders(SetType.values().length);
+        RowBitmap.Builder[] rarities = builders(Rarity.values().length);
+        RowBitmap.Builder[] layouts = builders(Layout.values().length);
+        RowBitmap.Builder[] borders = builders(BorderColor.values().length);
+        RowBitmap.Builder[] frames = builders(Frame.values().length);
+        RowBitmap.Builder[] frameEffects = builders(FrameEffect.values().length);
+        RowBitmap.Builder[] finishes = builders(Finish.values().length);
+        RowBitmap.Builder[] games = builders(Game.values().length);
+        RowBitmap.Builder[] colors = builders(COLOR_MASKS);
+        RowBitmap.Builder[] identities = builders(COLOR_MASKS);
+        RowBitmap.Builder[][] legalities = new RowBitmap.Builder[Format.values().length][];
+        for (int i = 0; i < legalities.length; i++) {
+            legalities[i] = builders(Legality.values().length);
+        }
+
+        for (int row = 0; row < cards.length; row++) {
+            Card card = cards[row];
+            if (card.getSet() != null) {
+                sets.computeIfAbsent(card.getSet().toLowerCase(Locale.ROOT), key -> new RowBitmap.Builder()).add(row);
+            }
+            if (card.getLang() != null) {
+                langs.computeIfAbsent(card.getLang().toLowerCase(Locale.ROOT), key -> new RowBitmap.Builder()).add(row);
+            }
+            if (card.getSetType() != null) {
+                setTypes[card.getSetType().ordinal()].add(row);
+            }
+            rarities[card.getRarity().ordinal()].add(row);
+            layouts[card.getLayout().ordinal()].add(row);
+            if (card.getBorderColor() != null) {
+                borders[card.getBorderColor().ordinal()].add(row);
+            }
+            if (card.getFrame() != null) {
+                frames[card.getFrame().ordinal()].add(row);
+            }
+            addAll(frameEffects, card.getFrameEffects(), row);
+            addAll(finishes, card.getFinishes(), row);
+            addAll(games, card.getGames(), row);
+            colors[colorBits(card)].add(row);
+            identities[identityBits(card)].add(row);
+            long packed = card.getLegalities().getPacked();
+            for (Format format : Format.values()) {
+                legalities[format.ordinal()][Legalities.getFormatLegality(packed, format).ordinal()].add(row);
+            }
+        }
+
+        all = RowBitmap.range(size);
+        this.sets = build(sets);
+        this.langs = build(langs);
+        this.setTypes = build(setTypes);
+        this.rarities = build(rarities);
+        this.layouts = build(layouts);
+        this.borders = build(borders);
+        this.frames = build(frames);
+        this.frameEffects = build(frameEffects);
+        this.finishes = build(finishes);
+        this.games = build(games);
+        this.colors = build(colors);
+        this.identities = build(identities);
+        this.legalities = new RowBitmap[legalities.length][];
+        for (int i = 0; i < legalities.length; i++) {
+            this.legalities[i] = build(legalities[i]);
+        }
+    }
+
+    /**
+     * @return the card's colors as a mask of <code>WUBRG</code> bits, including the colors of every face
+     */
+    static int colorBits(Card card) {
+        int bits = card.getColors() == null ? 0 : card.getColors().getBits();
+        if (card.getFaces() != null) {
+            for (CardFace face : card.getFaces()) {
+                if (face.getColors() != null) {
+                    bits |= face.getColors().getBits();
+                }
+            }
+        }
+        return bits & (COLOR_MASKS - 1);
+    }
+
+    /**
+     * @return the card's color identity as a mask of <code>WUBRG</code> bits
+     */
+    static int identityBits(Card card) {
+        return card.getColorIdentity() == null ? 0 : card.getColorIdentity().getBits() & (COLOR_MASKS - 1);
+    }
+
+    int size() {
+        return size;
+    }
+
+    TextIndex text() {
+        return text.get();
+    }
+
+    /**
+     * @return every row
+     */
+    RowBitmap all() {
+        return all;
+    }
+
+    RowBitmap set(String code) {
+        return sets.getOrDefault(code.toLowerCase(Locale.ROOT), RowBitmap.EMPTY);
+    }
+
+    RowBitmap lang(String lang) {
+        return langs.getOrDefault(lang.toLowerCase(Locale.ROOT), RowBitmap.EMPTY);
+    }
+
+    RowBitmap setType(SetType setType) {
+        return setTypes[setType.ordinal()];
+    }
+
+    RowBitmap rarities(Predicate<Rarity> filter) {
+        return select(rarities, ordinal -> filter.test(Rarity.values()[ordinal]));
+    }
+
+    RowBitmap layouts(Collection<Layout> layouts) {
+        return select(this.layouts, ordinal -> layouts.contains(Layout.values()[ordinal]));
+    }
+
+    RowBitmap border(BorderColor border) {
+        return borders[border.ordinal()];
+    }
+
+    RowBitmap frames(Predicate<Frame> filter) {
+        return select(frames, ordinal -> filter.test(Frame.values()[ordinal]));
+    }
+
+    RowBitmap frameEffects(Predicate<FrameEffect> filter) {
+        return select(frameEffects, ordinal -> filter.test(FrameEffect.values()[ordinal]));
+    }
+
+    RowBitmap finish(Finish finish) {
+        return finishes[finish.ordinal()];
+    }
+
+    RowBitmap game(Game game) {
+        return games[game.ordinal()];
+    }
+
+    RowBitmap colors(IntPredicate masks) {
+        return select(colors, masks);
+    }
+
+    RowBitmap identities(IntPredicate masks) {
+        return select(identities, masks);
+    }
+
+    RowBitmap legalities(Format format, Legality... legalities) {
+        RowBitmap[] groups = this.legalities[format.ordinal()];
+        return select(groups, ordinal -> Arrays.asList(legalities).contains(Legality.values()[ordinal]));
+    }
+
+    private static RowBitmap select(RowBitmap[] groups, IntPredicate filter) {
+        RowBitmap rows = RowBitmap.EMPTY;
+        for (int i = 0; i < groups.length; i++) {
+            if (!groups[i].isEmpty() && filter.test(i)) {
+                rows = rows.or(groups[i]);
+            }
+        }
+        return rows;
+    }
+
+    private static RowBitmap.Builder[] builders(int length) {
+        RowBitmap.Builder[] builders = new RowBitmap.Builder[length];
+        for (int i = 0; i < length; i++) {
+            builders[i] = new RowBitmap.Builder();
+        }
+        return builders;
+    }
+
+    private static void addAll(RowBitmap.Builder[] builders, List<? extends Enum<?>> values, int row) {
+        for (Enum<?> value : values) {
+            builders[value.ordinal()].add(row);
+        }
+    }
+
+    private static RowBitmap[] build(RowBitmap.Builder[] builders) {
+        RowBitmap[] bitmaps = new RowBitmap[builders.length];
+        for (int i = 0; i < builders.length; i++) {
+            bitmaps[i] = builders[i].build();
+        }
+        return bitmaps;
+    }
+
+    private static Map<String, RowBitmap> build(Map<String, RowBitmap.Builder> builders) {
+        Map<String, RowBitmap> bitmaps = new HashMap<>();
+        builders.forEach((key, value) -> bitmaps.put(key, value.build()));
+        return bitmaps;
+    }
+}
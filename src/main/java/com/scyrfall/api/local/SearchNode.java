@@ -0,0 +1,243 @@
+package com.scyrfall.api.local;
+
+import com.scyrfall.api.object.Card;
+
+import java.util.List;
+import java.util.StringJoiner;
+import java.util.function.Function;
+import java.util.function.Predicate;
+
+/**
+ * A node of a parsed search query. Every node can test a single card, and nodes backed by a {@link SearchIndex} can
+ * also list the rows they may match, so the planner only tests those rows instead of the whole dataset. Nodes whose
+ * list is exact, such as a set or a format legality, don't need their rows tested at all.
+ *
+ * <p>Cards are tested along with their row and the dataset's index, when there is one, so that terms can use values
+ * the index has already computed for the row. Cards tested on their own have row -1 and no index.</p>
+ */
+abstract class SearchNode {
+
+    /**
+     * Matches every card, such as for a query made only of options like <code>order:cmc</code>.
+     */
+    static final SearchNode ALL = new Term("*", card -> true, SearchIndex::all);
+
+    abstract boolean matches(Card card, int row, SearchIndex index);
+
+    /**
+     * @return the rows this node may match, or null if every row has to be tested
+     */
+    RowBitmap candidates(SearchIndex index) {
+        return null;
+    }
+
+    /**
+     * @return true if {@link #candidates(SearchIndex)} lists exactly the rows this node matches
+     */
+    boolean isExact() {
+        return false;
+    }
+
+    static final class And extends SearchNode {
+        private final SearchNode[] children;
+
+        And(List<SearchNode> children) {
+            this.children = children.toArray(new SearchNode[0]);
+        }
+
+        @Override
+        boolean matches(Card card, int row, SearchIndex index) {
+            for (SearchNode child : children) {
+                if (!child.matches(card, row, index)) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        /**
+         * Every child has to match, so the candidates are those every child with candidates lists; children without
+         * any are checked while testing each candidate.
+         */
+        @Override
+        RowBitmap candidates(SearchIndex index) {
+            RowBitmap rows = null;
+            for (SearchNode child : children) {
+                RowBitmap childRows = child.candidates(index);
+                if (childRows != null) {
+                    rows = rows == null ? childRows : rows.and(childRows);
+                }
+            }
+            return rows;
+        }
+
+        @Override
+        boolean isExact() {
+            for (SearchNode child : children) {
+                if (!child.isExact()) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        @Override
+        public String toString() {
+            StringJoiner joiner = new StringJoiner(" ", "(", ")");
+            for (SearchNode child : children) {
+                joiner.add(child.toString());
+            }
+            return joiner.toString();
+        }
+    }
+
+    static final class Or extends SearchNode {
+        private final SearchNode[] children;
+
+        Or(List<SearchNode> children) {
+            this.children = children.toArray(new SearchNode[0]);
+        }
+
+        @Override
+        boolean matches(Card card, int row, SearchIndex index) {
+            for (SearchNode child : children) {
+                if (child.matches(card, row, index)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        /**
+         * Any child may match, so candidates can only be listed if every child can list its own.
+         */
+        @Override
+        RowBitmap candidates(SearchIndex index) {
+            RowBitmap rows = RowBitmap.EMPTY;
+            for (SearchNode child : children) {
+                RowBitmap childRows = child.candidates(index);
+                if (childRows == null) {
+                    return null;
+                }
+                rows = rows.or(childRows);
+            }
+            return rows;
+        }
+
+        @Override
+        boolean isExact() {
+            for (SearchNode child : children) {
+                if (!child.isExact()) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        @Override
+        public String toString() {
+            StringJoiner joiner = new StringJoiner(" or ", "(", ")");
+            for (SearchNode child : children) {
+                joiner.add(child.toString());
+            }
+            return joiner.toString();
+        }
+    }
+
+    static final class Not extends SearchNode {
+        private final SearchNode child;
+
+        Not(SearchNode child) {
+            this.child = child;
+        }
+
+        @Override
+        boolean matches(Card card, int row, SearchIndex index) {
+            return !child.matches(card, row, index);
+        }
+
+        /**
+         * A negated node can only list its rows if its child lists exactly the rows it matches.
+         */
+        @Override
+        RowBitmap candidates(SearchIndex index) {
+            if (!child.isExact()) {
+                return null;
+            }
+            RowBitmap rows = child.candidates(index);
+            return rows == null ? null : index.all().andNot(rows);
+        }
+
+        @Override
+        boolean isExact() {
+            return child.isExact();
+        }
+
+        @Override
+        public String toString() {
+            return "-" + child;
+        }
+    }
+
+    static final class Term extends SearchNode {
+        private final String text;
+        private final Predicate<Card> predicate;
+        private final RowTest rowTest;
+        private final Function<SearchIndex, RowBitmap> planner;
+        private final boolean exact;
+
+        /**
+         * @param text      the term as it was written in the query
+         * @param predicate tests a single card
+         * @param planner   lists exactly the rows the term matches, or null if the term isn't indexed
+         */
+        Term(String text, Predicate<Card> predicate, Function<SearchIndex, RowBitmap> planner) {
+            this(text, predicate, null, planner, planner != null);
+        }
+
+        /**
+         * @param rowTest tests a row of an indexed dataset, giving the same result as <code>predicate</code> would for
+         *                the card in that row
+         * @param planner lists the rows the term may match, which are then tested, or null if the term isn't indexed
+         */
+        Term(String text, Predicate<Card> predicate, RowTest rowTest, Function<SearchIndex, RowBitmap> planner) {
+            this(text, predicate, rowTest, planner, false);
+        }
+
+        private Term(String text, Predicate<Card> predicate, RowTest rowTest, Function<SearchIndex, RowBitmap> planner,
+                     boolean exact) {
+            this.text = text;
+            this.predicate = predicate;
+            this.rowTest = rowTest;
+            this.planner = planner;
+            this.exact = exact;
+        }
+
+        @Override
+        boolean matches(Card card, int row, SearchIndex index) {
+            if (rowTest != null && index != null) {
+                return rowTest.test(index, row);
+            }
+            return predicate.test(card);
+        }
+
+        @Override
+        RowBitmap candidates(SearchIndex index) {
+            return planner == null ? null : planner.apply(index);
+        }
+
+        @Override
+        boolean isExact() {
+            return exact;
+        }
+
+        @Override
+        public String toString() {
+            return text;
+        }
+    }
+
+    interface RowTest {
+        boolean test(SearchIndex index, int row);
+    }
+}
@@ -0,0 +1,996 @@
+package com.scyrfall.api.local;
+
+import com.scyrfall.api.field.CardFace;
+import com.scyrfall.api.field.Legalities.Format;
+import com.scyrfall.api.field.Legalities.Legality;
+import com.scyrfall.api.field.Prices;
+import com.scyrfall.api.object.Card;
+import com.scyrfall.api.object.Card.BorderColor;
+import com.scyrfall.api.object.Card.Finish;
+import com.scyrfall.api.object.Card.FrameEffect;
+import com.scyrfall.api.object.Card.Game;
+import com.scyrfall.api.object.Card.Layout;
+import com.scyrfall.api.object.Card.Rarity;
+import com.scyrfall.api.object.Set.SetType;
+
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.function.IntPredicate;
+import java.util.function.Predicate;
+import java.util.function.ToDoubleFunction;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Parses Scryfall's search syntax into a tree of {@link SearchNode}s. Terms written next to each other are combined
+ * with <code>and</code>, which binds more tightly than <code>or</code>.
+ *
+ * <pre>
+ * query := and ("or" and)*
+ * and   := unary (["and"] unary)*
+ * unary := "-" unary | "(" query ")" | term
+ * term  := keyword operator value | "!" value | value
+ * </pre>
+ */
+final class SearchParser {
+
+    private static final Pattern MANA_SYMBOL = Pattern.compile("\\{([^}]+)}");
+    private static final Pattern HYBRID = Pattern.compile("\\{[WUBRGC2]/[WUBRG]}");
+    private static final Pattern STAT = Pattern.compile("^[+-]?\\d*\\.?\\d+");
+    private static final String[] EXTRA_NAMES = {"token", "emblem", "art_series", "art series", "plane", "phenomenon",
+            "scheme", "vanguard"};
+    private static final Map<String, Integer> COLOR_NAMES = new HashMap<>();
+
+    static {
+        String[][] names = {
+                {"white", "w"}, {"blue", "u"}, {"black", "b"}, {"red", "r"}, {"green", "g"},
+                {"azorius", "wu"}, {"dimir", "ub"}, {"rakdos", "br"}, {"gruul", "rg"}, {"selesnya", "gw"},
+                {"orzhov", "wb"}, {"izzet", "ur"}, {"golgari", "bg"}, {"boros", "rw"}, {"simic", "gu"},
+                {"bant", "gwu"}, {"esper", "wub"}, {"grixis", "ubr"}, {"jund", "brg"}, {"naya", "rgw"},
+                {"abzan", "wbg"}, {"jeskai", "urw"}, {"sultai", "bgu"}, {"mardu", "rwb"}, {"temur", "gur"},
+                {"colorless", ""}, {"c", ""}
+        };
+        for (String[] name : names) {
+            COLOR_NAMES.put(name[0], colorLetters(name[1]));
+        }
+    }
+
+    private final String input;
+    private int position;
+
+    private SearchQuery.Order order = SearchQuery.Order.NAME;
+    private SearchQuery.Direction direction = SearchQuery.Direction.AUTO;
+    private SearchQuery.Unique unique = SearchQuery.Unique.CARDS;
+    private boolean includeExtras;
+    private boolean allLanguages;
+
+    SearchParser(String input) {
+        this.input = input;
+    }
+
+    SearchQuery parse() {
+        SearchNode root = parseOr();
+        skipWhitespace();
+        if (position < input.length()) {
+            throw error("Unexpected '" + input.charAt(position) + "'");
+        }
+        return new SearchQuery(input, root == null ? SearchNode.ALL : root, order, direction, unique, includeExtras,
+                allLanguages);
+    }
+
+    private IllegalArgumentException error(String message) {
+        return new IllegalArgumentException(message + " at position " + position + " of query: " + input);
+    }
+
+    private SearchNode parseOr() {
+        List<SearchNode> children = new ArrayList<>();
+        SearchNode first = parseAnd();
+        if (first != null) {
+            children.add(first);
+        }
+        while (acceptWord("or")) {
+            SearchNode next = parseAnd();
+            if (next == null) {
+                throw error("Expected a term after 'or'");
+            }
+            children.add(next);
+        }
+        if (children.size() <= 1) {
+            return children.isEmpty() ? null : children.get(0);
+        }
+        return new SearchNode.Or(children);
+    }
+
+    private SearchNode parseAnd() {
+        List<SearchNode> children = new ArrayList<>();
+        while (true) {
+            skipWhitespace();
+            if (position >= input.length() || input.charAt(position) == ')' || peekWord("or")) {
+                break;
+            }
+            if (acceptWord("and")) {
+                continue;
+            }
+            SearchNode child = parseUnary();
+            if (child != null) {
+                children.add(child);
+            }
+        }
+        if (children.size() <= 1) {
+            return children.isEmpty() ? null : children.get(0);
+        }
+        return new SearchNode.And(children);
+    }
+
+    private SearchNode parseUnary() {
+        char c = input.charAt(position);
+        if (c == '-' && position + 1 < input.length() && !Character.isWhitespace(input.charAt(position + 1))) {
+            position++;
+            SearchNode child = parseUnary();
+            return child == null ? null : new SearchNode.Not(child);
+        }
+        if (c == '(') {
+            position++;
+            SearchNode child = parseOr();
+            skipWhitespace();
+            if (position >= input.length() || input.charAt(position) != ')') {
+                throw error("Missing ')'");
+            }
+            position++;
+            return child == null ? SearchNode.ALL : child;
+        }
+        return parseTerm();
+    }
+
+    private SearchNode parseTerm() {
+        int start = position;
+        if (input.charAt(position) == '!') {
+            position++;
+            String name = readValue();
+            return new SearchNode.Term(input.substring(start, position), card -> hasName(card, name), null);
+        }
+
+        int end = position;
+        while (end < input.length() && Character.isLetter(input.charAt(end))) {
+            end++;
+        }
+        Operator operator = end > position ? Operator.at(input, end) : null;
+        if (operator == null) {
+            String word = readValue();
+            return new SearchNode.Term(input.substring(start, position), card -> hasNameContaining(card, word), null);
+        }
+
+        String keyword = input.substring(position, end).toLowerCase(Locale.ROOT);
+        position = end + operator.symbol.length();
+        Pattern regex = acceptsRegex(keyword) ? readRegex() : null;
+        String value = regex == null ? readValue() : regex.pattern();
+        return term(input.substring(start, position), keyword, operator, value, regex);
+    }
+
+    private static boolean acceptsRegex(String keyword) {
+        switch (keyword) {
+            case "name":
+            case "t":
+            case "type":
+            case "o":
+            case "oracle":
+            case "ft":
+            case "flavor":
+                return true;
+            default:
+                return false;
+        }
+    }
+
+    private Pattern readRegex() {
+        if (position >= input.length() || input.charAt(position) != '/') {
+            return null;
+        }
+        int start = ++position;
+        while (position < input.length() && input.charAt(position) != '/') {
+            if (input.charAt(position) == '\\') {
+                position++;
+            }
+            position++;
+        }
+        if (position >= input.length()) {
+            throw error("Unterminated regular expression");
+        }
+        String pattern = input.substring(start, position++);
+        return Pattern.compile(pattern, Pattern.CASE_INSENSITIVE | Pattern.UNICODE_CASE);
+    }
+
+    private String readValue() {
+        if (position < input.length() && input.charAt(position) == '"') {
+            int end = input.indexOf('"', position + 1);
+            if (end < 0) {
+                throw error("Unterminated quote");
+            }
+            String value = input.substring(position + 1, end);
+            position = end + 1;
+            return value;
+        }
+        int start = position;
+        while (position < input.length() && !Character.isWhitespace(input.charAt(position))
+                && input.charAt(position) != ')') {
+            position++;
+        }
+        if (start == position) {
+            throw error("Expected a value");
+        }
+        return input.substring(start, position);
+    }
+
+    private void skipWhitespace() {
+        while (position < input.length() && Character.isWhitespace(input.charAt(position))) {
+            position++;
+        }
+    }
+
+    private boolean peekWord(String word) {
+        int end = position + word.length();
+        return input.regionMatches(true, position, word, 0, word.length())
+                && (end == input.length() || Character.isWhitespace(input.charAt(end)) || input.charAt(end) == '(');
+    }
+
+    private boolean acceptWord(String word) {
+        skipWhitespace();
+        if (peekWord(word)) {
+            position += word.length();
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * @return the term for a keyword, or null for options such as <code>order:cmc</code> which don't filter cards
+     */
+    private SearchNode.Term term(String text, String keyword, Operator operator, String value, Pattern regex) {
+        String lower = value.toLowerCase(Locale.ROOT);
+        switch (keyword) {
+            case "c":
+            case "color":
+                return colors(text, operator, lower, false);
+            case "id":
+            case "identity":
+            case "ci":
+                return colors(text, operator, lower, true);
+            case "t":
+            case "type":
+                includeExtras |= mentionsExtras(lower);
+                return text(text, operator, value, regex, card -> faceValues(card, Card::getTypeLine, CardFace::getTypeLine));
+            case "o":
+            case "oracle":
+                return fullText(text, operator, value, regex, TextIndex.Field.ORACLE);
+            case "ft":
+            case "flavor":
+                return fullText(text, operator, value, regex, TextIndex.Field.FLAVOR);
+            case "name":
+                return text(text, operator, value, regex, card -> faceValues(card, Card::getName, CardFace::getName));
+            case "a":
+            case "artist":
+                return text(text, operator, value, null, card -> faceValues(card, Card::getArtist, CardFace::getArtist));
+            case "wm":
+            case "watermark":
+                return text(text, operator, value, null, card -> List.of(nullToEmpty(card.getWatermark())));
+            case "m":
+            case "mana":
+                return mana(text, operator, value);
+            case "cmc":
+            case "mv":
+            case "manavalue":
+                if (lower.equals("even") || lower.equals("odd")) {
+                    requireEquality(operator, keyword);
+                    int remainder = lower.equals("even") ? 0 : 1;
+                    return new SearchNode.Term(text, card -> (card.getCmc() % 2 == remainder) != (operator == Operator.NOT_EQUAL), null);
+                }
+                return number(text, operator, keyword, value, Card::getCmc);
+            case "pow":
+            case "power":
+                return number(text, operator, keyword, value, card -> stat(card, Card::getPower, CardFace::getPower));
+            case "tou":
+            case "toughness":
+                return number(text, operator, keyword, value, card -> stat(card, Card::getToughness, CardFace::getToughness));
+            case "loy":
+            case "loyalty":
+                return number(text, operator, keyword, value, card -> stat(card, Card::getLoyalty, CardFace::getLoyalty));
+            case "def":
+            case "defense":
+                return number(text, operator, keyword, value, card -> stat(card, Card::getDefense, CardFace::getDefense));
+            case "usd":
+            case "eur":
+            case "tix":
+                return number(text, operator, keyword, value, card -> price(card, keyword));
+            case "r":
+            case "rarity":
+                return rarity(text, operator, lower);
+            case "s":
+            case "set":
+            case "e":
+            case "edition":
+                requireEquality(operator, keyword);
+                return indexed(text, operator, card -> lower.equalsIgnoreCase(card.getSet()), index -> index.set(lower));
+            case "cn":
+            case "number":
+                return new SearchNode.Term(text, card -> card.getCollectorNumber() != null
+                        && operator.test(compareNumbers(card.getCollectorNumber(), value)), null);
+            case "f":
+            case "format":
+            case "legal":
+                return legality(text, operator, keyword, lower, Legality.LEGAL, Legality.RESTRICTED);
+            case "banned":
+                return legality(text, operator, keyword, lower, Legality.BANNED);
+            case "restricted":
+                return legality(text, operator, keyword, lower, Legality.RESTRICTED);
+            case "is":
+                requireEquality(operator, keyword);
+                return is(text, operator == Operator.NOT_EQUAL, lower);
+            case "not":
+                requireEquality(operator, keyword);
+                return is(text, operator != Operator.NOT_EQUAL, lower);
+            case "kw":
+            case "keyword":
+                requireEquality(operator, keyword);
+                return indexed(text, operator, card -> card.getKeywords().stream().anyMatch(value::equalsIgnoreCase), null);
+            case "lang":
+            case "language":
+                requireEquality(operator, keyword);
+                allLanguages = true;
+                if (lower.equals("any")) {
+                    return null;
+                }
+                return indexed(text, operator, card -> lower.equalsIgnoreCase(card.getLang()), index -> index.lang(lower));
+            case "year":
+                int year = parseInt(keyword, value);
+                return new SearchNode.Term(text, card -> card.getReleaseLocalDate() != null
+                        && operator.test(Integer.compare(card.getReleaseLocalDate().getYear(), year)), null);
+            case "date":
+                LocalDate date = parseDate(value);
+                return new SearchNode.Term(text, card -> card.getReleaseLocalDate() != null
+                        && operator.test(card.getReleaseLocalDate().compareTo(date)), null);
+            case "game":
+                requireEquality(operator, keyword);
+                Game game = parseEnum(Game.class, keyword, lower);
+                return indexed(text, operator, card -> card.getGames().contains(game), index -> index.game(game));
+            case "border":
+                requireEquality(operator, keyword);
+                BorderColor border = parseEnum(BorderColor.class, keyword, lower);
+                return indexed(text, operator, card -> card.getBorderColor() == border, index -> index.border(border));
+            case "frame":
+                requireEquality(operator, keyword);
+                return indexed(text, operator, card -> hasFrame(card, lower),
+                        index -> index.frames(frame -> isFrame(frame, lower))
+                                .or(index.frameEffects(effect -> isFrameEffect(effect, lower))));
+            case "layout":
+                requireEquality(operator, keyword);
+                Layout layout = parseEnum(Layout.class, keyword, lower);
+                includeExtras |= mentionsExtras(lower);
+                return indexed(text, operator, card -> card.getLayout() == layout, index -> index.layouts(List.of(layout)));
+            case "st":
+            case "settype":
+                requireEquality(operator, keyword);
+                SetType setType = parseEnum(SetType.class, keyword, lower);
+                return indexed(text, operator, card -> card.getSetType() == setType, index -> index.setType(setType));
+            case "order":
+                order = SearchQuery.Order.fromString(lower);
+                return null;
+            case "dir":
+            case "direction":
+                direction = SearchQuery.Direction.fromString(lower);
+                return null;
+            case "unique":
+                unique = SearchQuery.Unique.fromString(lower);
+                return null;
+            case "include":
+                if (!lower.equals("extras")) {
+                    throw error("Unknown include: " + value);
+                }
+                includeExtras = true;
+                return null;
+            default:
+                throw error("Unsupported keyword '" + keyword + "'");
+        }
+    }
+
+    private void requireEquality(Operator operator, String keyword) {
+        if (operator != Operator.COLON && operator != Operator.EQUAL && operator != Operator.NOT_EQUAL) {
+            throw error("'" + keyword + "' doesn't support " + operator.symbol);
+        }
+    }
+
+    /**
+     * A term matched by equality, which is indexed unless it is negated with <code>!=</code>.
+     */
+    private static SearchNode.Term indexed(String text, Operator operator, Predicate<Card> predicate,
+                                           Function<SearchIndex, RowBitmap> planner) {
+        if (operator == Operator.NOT_EQUAL) {
+            return new SearchNode.Term(text, predicate.negate(), null);
+        }
+        return new SearchNode.Term(text, predicate, planner);
+    }
+
+    private static boolean mentionsExtras(String value) {
+        for (String name : EXTRA_NAMES) {
+            if (value.contains(name)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private SearchNode.Term colors(String text, Operator operator, String value, boolean identity) {
+        IntPredicate masks;
+        if (value.chars().allMatch(Character::isDigit)) {
+            int count = parseInt(text, value);
+            masks = bits -> operator.test(Integer.compare(Integer.bitCount(bits), count));
+        } else if (value.equals("m") || value.equals("multicolor")) {
+            requireEquality(operator, text);
+            masks = bits -> (Integer.bitCount(bits) >= 2) != (operator == Operator.NOT_EQUAL);
+        } else {
+            Integer named = COLOR_NAMES.get(value);
+            int query = named != null ? named : colorLetters(value);
+            if (query < 0) {
+                throw error("Unknown colors: " + value);
+            }
+            // c: means "at least these colors" and id: means "fits in this identity"; colorless means exactly none
+            Operator effective = operator;
+            if (operator == Operator.COLON) {
+                effective = query == 0 ? Operator.EQUAL : identity ? Operator.LESS_OR_EQUAL : Operator.GREATER_OR_EQUAL;
+            }
+            masks = colorRelation(effective, query);
+        }
+        if (identity) {
+            return new SearchNode.Term(text, card -> masks.test(SearchIndex.identityBits(card)), index -> index.identities(masks));
+        }
+        return new SearchNode.Term(text, card -> masks.test(SearchIndex.colorBits(card)), index -> index.colors(masks));
+    }
+
+    /**
+     * @return a mask of <code>WUBRG</code> bits, or -1 if the letters aren't colors
+     */
+    private static int colorLetters(String letters) {
+        int bits = 0;
+        for (int i = 0; i < letters.length(); i++) {
+            int color = "wubrg".indexOf(letters.charAt(i));
+            if (color < 0) {
+                return -1;
+            }
+            bits |= 1 << color;
+        }
+        return bits;
+    }
+
+    private static IntPredicate colorRelation(Operator operator, int query) {
+        switch (operator) {
+            case EQUAL:
+                return bits -> bits == query;
+            case NOT_EQUAL:
+                return bits -> bits != query;
+            case LESS:
+                return bits -> (bits & ~query) == 0 && bits != query;
+            case LESS_OR_EQUAL:
+                return bits -> (bits & ~query) == 0;
+            case GREATER:
+                return bits -> (bits & query) == query && bits != query;
+            default:
+                return bits -> (bits & query) == query;
+        }
+    }
+
+    private SearchNode.Term text(String text, Operator operator, String value, Pattern regex,
+                                 Function<Card, List<String>> values) {
+        requireEquality(operator, text);
+        Predicate<String> matcher = regex != null ? string -> regex.matcher(string).find()
+                : string -> containsIgnoreCase(string, value);
+        Predicate<Card> predicate = card -> {
+            for (String string : values.apply(card)) {
+                if (string != null && matcher.test(string)) {
+                    return true;
+                }
+            }
+            return false;
+        };
+        return new SearchNode.Term(text, operator == Operator.NOT_EQUAL ? predicate.negate() : predicate, null);
+    }
+
+    /**
+     * Oracle and flavor text are matched in the form {@link TextIndex} indexes them, in which a card's name is written
+     * <code>~</code> and reminder text is left out. Plain text terms start from the rows the text index lists.
+     */
+    private SearchNode.Term fullText(String text, Operator operator, String value, Pattern regex, TextIndex.Field field) {
+        requireEquality(operator, text);
+        String normalized = TextIndex.normalizeText(value);
+        Predicate<String> matcher = regex != null ? string -> regex.matcher(string).find() : string -> string.contains(normalized);
+        boolean negate = operator == Operator.NOT_EQUAL;
+        return new SearchNode.Term(text,
+                card -> matcher.test(TextIndex.normalize(card, field)) != negate,
+                (index, row) -> matcher.test(index.text().getText(field, row)) != negate,
+                regex != null || negate ? null : index -> {
+                    int[] rows = index.text().candidates(field, normalized);
+                    return rows == null ? null : RowBitmap.of(rows);
+                });
+    }
+
+    /**
+     * Mana costs are compared as multisets of symbols: <code>m:RR</code> matches any cost with at least two
+     * <code>{R}</code>, and <code>m=</code> requires exactly the same symbols.
+     */
+    private SearchNode.Term mana(String text, Operator operator, String value) {
+        Map<String, Integer> query = manaSymbols(value.indexOf('{') >= 0 ? value : bracket(value));
+        Predicate<Card> predicate = card -> {
+            if (card.getManaCost() == null) {
+                return false;
+            }
+            Map<String, Integer> cost = manaSymbols(card.getManaCost());
+            boolean superset = containsSymbols(cost, query);
+            boolean subset = containsSymbols(query, cost);
+            switch (operator) {
+                case EQUAL:
+                    return superset && subset;
+                case NOT_EQUAL:
+                    return !(superset && subset);
+                case LESS:
+                    return subset && !superset;
+                case LESS_OR_EQUAL:
+                    return subset;
+                case GREATER:
+                    return superset && !subset;
+                default:
+                    return superset;
+            }
+        };
+        return new SearchNode.Term(text, predicate, null);
+    }
+
+    /**
+     * @return true if <code>cost</code> has at least as many of each symbol as <code>query</code>
+     */
+    private static boolean containsSymbols(Map<String, Integer> cost, Map<String, Integer> query) {
+        for (Map.Entry<String, Integer> entry : query.entrySet()) {
+            if (cost.getOrDefault(entry.getKey(), 0) < entry.getValue()) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static Map<String, Integer> manaSymbols(String cost) {
+        Map<String, Integer> symbols = new HashMap<>();
+        Matcher matcher = MANA_SYMBOL.matcher(cost.toUpperCase(Locale.ROOT));
+        while (matcher.find()) {
+            symbols.merge(matcher.group(1), 1, Integer::sum);
+        }
+        return symbols;
+    }
+
+    /**
+     * @return a cost written without braces, such as <code>2WW</code>, as <code>{2}{W}{W}</code>
+     */
+    private static String bracket(String value) {
+        StringBuilder builder = new StringBuilder();
+        int i = 0;
+        while (i < value.length()) {
+            int end = i + 1;
+            if (Character.isDigit(value.charAt(i))) {
+                while (end < value.length() && Character.isDigit(value.charAt(end))) {
+                    end++;
+                }
+            }
+            builder.append('{').append(value, i, end).append('}');
+            i = end;
+        }
+        return builder.toString();
+    }
+
+    private SearchNode.Term number(String text, Operator operator, String keyword, String value,
+                                   ToDoubleFunction<Card> values) {
+        double number;
+        try {
+            number = Double.parseDouble(value);
+        } catch (NumberFormatException e) {
+            throw error("'" + keyword + "' needs a number, not '" + value + "'");
+        }
+        return new SearchNode.Term(text, card -> {
+            double cardValue = values.applyAsDouble(card);
+            return !Double.isNaN(cardValue) && operator.test(Double.compare(cardValue, number));
+        }, null);
+    }
+
+    private SearchNode.Term rarity(String text, Operator operator, String value) {
+        Rarity rarity = null;
+        for (Rarity candidate : Rarity.values()) {
+            String name = candidate.name().toLowerCase(Locale.ROOT);
+            if (name.equals(value) || value.length() == 1 && name.charAt(0) == value.charAt(0)) {
+                rarity = candidate;
+                break;
+            }
+        }
+        if (rarity == null || rarity == Rarity.NONE) {
+            throw error("Unknown rarity: " + value);
+        }
+        Rarity query = rarity;
+        Predicate<Rarity> filter = candidate -> candidate != Rarity.NONE && operator.test(candidate.compareTo(query));
+        return new SearchNode.Term(text, card -> filter.test(card.getRarity()), index -> index.rarities(filter));
+    }
+
+    private SearchNode.Term legality(String text, Operator operator, String keyword, String value, Legality... legalities) {
+        requireEquality(operator, keyword);
+        Format format;
+        try {
+            format = Format.fromString(value);
+        } catch (IllegalArgumentException e) {
+            throw error("Unknown format: " + value);
+        }
+        List<Legality> accepted = List.of(legalities);
+        return indexed(text, operator, card -> accepted.contains(card.getLegalities().getFormatLegality(format)),
+                index -> index.legalities(format, legalities));
+    }
+
+    private SearchNode.Term is(String text, boolean negate, String value) {
+        Predicate<Card> predicate = isPredicate(value);
+        if (predicate == null) {
+            throw error("Unknown criterion: " + value);
+        }
+        if (negate) {
+            return new SearchNode.Term(text, predicate.negate(), null);
+        }
+        return new SearchNode.Term(text, predicate, isPlanner(value));
+    }
+
+    /**
+     * @return the rows an <code>is:</code> criterion matches, for criteria {@link SearchIndex} has a group for
+     */
+    private static Function<SearchIndex, RowBitmap> isPlanner(String value) {
+        switch (value) {
+            case "foil":
+                return index -> index.finish(Finish.FOIL);
+            case "nonfoil":
+                return index -> index.finish(Finish.NONFOIL);
+            case "etched":
+                return index -> index.finish(Finish.ETCHED);
+            case "split":
+                return index -> index.layouts(List.of(Layout.SPLIT));
+            case "flip":
+                return index -> index.layouts(List.of(Layout.FLIP));
+            case "transform":
+                return index -> index.layouts(List.of(Layout.TRANSFORM));
+            case "meld":
+                return index -> index.layouts(List.of(Layout.MELD));
+            case "leveler":
+                return index -> index.layouts(List.of(Layout.LEVELER));
+            case "adventure":
+                return index -> index.layouts(List.of(Layout.ADVENTURE));
+            case "mdfc":
+                return index -> index.layouts(List.of(Layout.MODAL_DFC));
+            case "dfc":
+                return index -> index.layouts(List.of(Layout.TRANSFORM, Layout.MODAL_DFC, Layout.MELD,
+                        Layout.DOUBLE_FACED_TOKEN));
+            case "token":
+                return index -> index.layouts(List.of(Layout.TOKEN, Layout.DOUBLE_FACED_TOKEN));
+            case "funny":
+                return index -> index.setType(SetType.FUNNY);
+            case "paper":
+                return index -> index.game(Game.PAPER);
+            case "arena":
+                return index -> index.game(Game.ARENA);
+            case "mtgo":
+                return index -> index.game(Game.MTGO);
+            default:
+                return null;
+        }
+    }
+
+    private Predicate<Card> isPredicate(String value) {
+        switch (value) {
+            case "reserved":
+                return Card::isReserved;
+            case "digital":
+                return Card::isDigital;
+            case "promo":
+                return Card::isPromo;
+            case "reprint":
+                return Card::isReprint;
+            case "fullart":
+            case "full":
+                return Card::isFullArt;
+            case "textless":
+                return Card::isTextless;
+            case "oversized":
+                return Card::isOversized;
+            case "spotlight":
+                return Card::isStorySpotlight;
+            case "variation":
+                return Card::isVariation;
+            case "hires":
+                return Card::isHighResImage;
+            case "booster":
+                return Card::isInBoosters;
+            case "foil":
+                return card -> card.getFinishes().contains(Finish.FOIL);
+            case "nonfoil":
+                return card -> card.getFinishes().contains(Finish.NONFOIL);
+            case "etched":
+                return card -> card.getFinishes().contains(Finish.ETCHED);
+            case "split":
+                return card -> card.getLayout() == Layout.SPLIT;
+            case "flip":
+                return card -> card.getLayout() == Layout.FLIP;
+            case "transform":
+                return card -> card.getLayout() == Layout.TRANSFORM;
+            case "meld":
+                return card -> card.getLayout() == Layout.MELD;
+            case "leveler":
+                return card -> card.getLayout() == Layout.LEVELER;
+            case "adventure":
+                return card -> card.getLayout() == Layout.ADVENTURE;
+            case "mdfc":
+                return card -> card.getLayout() == Layout.MODAL_DFC;
+            case "dfc":
+                return card -> card.getLayout() == Layout.TRANSFORM || card.getLayout() == Layout.MODAL_DFC
+                        || card.getLayout() == Layout.MELD || card.getLayout() == Layout.DOUBLE_FACED_TOKEN;
+            case "token":
+                includeExtras = true;
+                return card -> card.getLayout() == Layout.TOKEN || card.getLayout() == Layout.DOUBLE_FACED_TOKEN;
+            case "hybrid":
+                return card -> card.getManaCost() != null && HYBRID.matcher(card.getManaCost()).find();
+            case "phyrexian":
+                return card -> card.getManaCost() != null && card.getManaCost().contains("/P}");
+            case "permanent":
+                return card -> card.getTypeLine() != null && !card.getTypeLine().contains("Instant")
+                        && !card.getTypeLine().contains("Sorcery");
+            case "spell":
+                return card -> card.getTypeLine() != null && !card.getTypeLine().contains("Land");
+            case "historic":
+                return card -> card.getTypeLine() != null && (card.getTypeLine().contains("Legendary")
+                        || card.getTypeLine().contains("Artifact") || card.getTypeLine().contains("Saga"));
+            case "vanilla":
+                return card -> card.getTypeLine() != null && card.getTypeLine().contains("Creature")
+                        && (card.getOracleText() == null || card.getOracleText().isEmpty());
+            case "commander":
+                return card -> card.getTypeLine() != null && card.getTypeLine().contains("Legendary")
+                        && card.getTypeLine().contains("Creature")
+                        || card.getOracleText() != null && card.getOracleText().contains("can be your commander");
+            case "funny":
+                return card -> card.getSetType() == SetType.FUNNY;
+            case "paper":
+                return card -> card.getGames().contains(Game.PAPER);
+            case "arena":
+                return card -> card.getGames().contains(Game.ARENA);
+            case "mtgo":
+                return card -> card.getGames().contains(Game.MTGO);
+            default:
+                return null;
+        }
+    }
+
+    private static boolean hasFrame(Card card, String value) {
+        if (card.getFrame() != null && isFrame(card.getFrame(), value)) {
+            return true;
+        }
+        for (FrameEffect effect : card.getFrameEffects()) {
+            if (isFrameEffect(effect, value)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static boolean isFrame(Card.Frame frame, String value) {
+        return frameName(frame).equals(value) || frame.name().equalsIgnoreCase(value);
+    }
+
+    private static boolean isFrameEffect(FrameEffect effect, String value) {
+        return effect.name().replace("_", "").equalsIgnoreCase(value.replace("_", ""));
+    }
+
+    private static String frameName(Card.Frame frame) {
+        switch (frame) {
+            case ORIGINAL:
+                return "1993";
+            case OLD:
+                return "1997";
+            case MODERN:
+                return "2003";
+            case M15:
+                return "2015";
+            default:
+                return "future";
+        }
+    }
+
+    private static boolean hasName(Card card, String name) {
+        for (String faceName : faceValues(card, Card::getName, CardFace::getName)) {
+            if (name.equalsIgnoreCase(faceName)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static boolean hasNameContaining(Card card, String word) {
+        return card.getName() != null && containsIgnoreCase(card.getName(), word);
+    }
+
+    /**
+     * @return the card's own value followed by the value of each face
+     */
+    private static List<String> faceValues(Card card, Function<Card, String> cardValue, Function<CardFace, String> faceValue) {
+        List<CardFace> faces = card.getFaces();
+        if (faces.isEmpty()) {
+            return List.of(nullToEmpty(cardValue.apply(card)));
+        }
+        List<String> values = new ArrayList<>(faces.size() + 1);
+        values.add(nullToEmpty(cardValue.apply(card)));
+        for (CardFace face : faces) {
+            values.add(nullToEmpty(faceValue.apply(face)));
+        }
+        return values;
+    }
+
+    private static String nullToEmpty(String value) {
+        return value == null ? "" : value;
+    }
+
+    static boolean containsIgnoreCase(String haystack, String needle) {
+        int last = haystack.length() - needle.length();
+        for (int i = 0; i <= last; i++) {
+            if (haystack.regionMatches(true, i, needle, 0, needle.length())) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * @return a power, toughness, loyalty or defense as a number, reading <code>*</code> as 0, or NaN if the card has
+     * none. Cards with faces use their front face's value.
+     */
+    static double stat(Card card, Function<Card, String> cardValue, Function<CardFace, String> faceValue) {
+        String value = cardValue.apply(card);
+        if (value == null && !card.getFaces().isEmpty()) {
+            value = faceValue.apply(card.getFaces().get(0));
+        }
+        if (value == null) {
+            return Double.NaN;
+        }
+        Matcher matcher = STAT.matcher(value);
+        if (matcher.find()) {
+            return Double.parseDouble(matcher.group());
+        }
+        return value.contains("*") ? 0 : Double.NaN;
+    }
+
+    /**
+     * @return the card's price in the given currency, or NaN if it has none
+     */
+    static double price(Card card, String currency) {
+        Prices prices = card.getPrices();
+        if (prices == null) {
+            return Double.NaN;
+        }
+        String value;
+        switch (currency) {
+            case "usd":
+                value = prices.getUsd();
+                break;
+            case "eur":
+                value = prices.getEur();
+                break;
+            default:
+                value = prices.getTix();
+        }
+        if (value == null) {
+            return Double.NaN;
+        }
+        try {
+            return Double.parseDouble(value);
+        } catch (NumberFormatException e) {
+            return Double.NaN;
+        }
+    }
+
+    /**
+     * Compares collector numbers numerically when both start with a number, so that <code>9</code> sorts before
+     * <code>10</code>, and as text otherwise.
+     */
+    static int compareNumbers(String a, String b) {
+        int aDigits = leadingDigits(a);
+        int bDigits = leadingDigits(b);
+        if (aDigits > 0 && bDigits > 0) {
+            String aNumber = a.substring(0, aDigits).replaceFirst("^0+(?=.)", "");
+            String bNumber = b.substring(0, bDigits).replaceFirst("^0+(?=.)", "");
+            int compare = aNumber.length() != bNumber.length() ? Integer.compare(aNumber.length(), bNumber.length())
+                    : aNumber.compareTo(bNumber);
+            if (compare != 0) {
+                return compare;
+            }
+        }
+        return a.compareToIgnoreCase(b);
+    }
+
+    private static int leadingDigits(String value) {
+        int digits = 0;
+        while (digits < value.length() && Character.isDigit(value.charAt(digits))) {
+            digits++;
+        }
+        return digits;
+    }
+
+    private int parseInt(String keyword, String value) {
+        try {
+            return Integer.parseInt(value);
+        } catch (NumberFormatException e) {
+            throw error("'" + keyword + "' needs a whole number, not '" + value + "'");
+        }
+    }
+
+    private LocalDate parseDate(String value) {
+        try {
+            return LocalDate.parse(value);
+        } catch (DateTimeParseException e) {
+            throw error("Dates must be written as yyyy-mm-dd, not '" + value + "'");
+        }
+    }
+
+    private <E extends Enum<E>> E parseEnum(Class<E> type, String keyword, String value) {
+        try {
+            return Enum.valueOf(type, value.toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            throw error("Unknown " + keyword + ": " + value);
+        }
+    }
+
+    /**
+     * The comparison operators of the search syntax. <code>:</code> means whatever is most useful for the keyword,
+     * which is usually equality or containment.
+     */
+    enum Operator {
+        GREATER_OR_EQUAL(">="), LESS_OR_EQUAL("<="), NOT_EQUAL("!="), COLON(":"), EQUAL("="), LESS("<"), GREATER(">");
+
+        private final String symbol;
+
+        Operator(String symbol) {
+            this.symbol = symbol;
+        }
+
+        /**
+         * @return the operator starting at <code>position</code>, or null if there is none. Longer operators are
+         * matched first, so <code>&lt;=</code> isn't read as <code>&lt;</code>.
+         */
+        static Operator at(String input, int position) {
+            for (Operator operator : values()) {
+                if (input.startsWith(operator.symbol, position)) {
+                    return operator;
+                }
+            }
+            return null;
+        }
+
+        /**
+         * @param comparison the result of comparing a card's value with the value in the query
+         * @return true if the comparison satisfies this operator
+         */
+        boolean test(int comparison) {
+            switch (this) {
+                case GREATER_OR_EQUAL:
+                    return comparison >= 0;
+                case LESS_OR_EQUAL:
+                    return comparison <= 0;
+                case NOT_EQUAL:
+                    return comparison != 0;
+                case LESS:
+                    return comparison < 0;
+                case GREATER:
+                    return comparison > 0;
+                default:
+                    return comparison == 0;
+            }
+        }
+    }
+}
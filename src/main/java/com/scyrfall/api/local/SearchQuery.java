@@ -0,0 +1,303 @@
+package com.scyrfall.api.local;
+
+import com.scyrfall.api.field.CardFace;
+import com.scyrfall.api.object.Card;
+import com.scyrfall.api.object.Card.Layout;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.function.ToDoubleFunction;
+import java.util.function.ToIntFunction;
+
+/**
+ * A query in Scryfall's <a href="https://scryfall.com/docs/syntax">search syntax</a>, parsed so it can be run
+ * against a {@link CardDataset} instead of Scryfall's API.
+ *
+ * <pre>{@code
+ * SearchQuery query = SearchQuery.parse("t:goblin (c:r or id<=rg) cmc<=2 f:modern order:cmc");
+ * Card[] goblins = dataset.search(query);
+ * }</pre>
+ *
+ * <p>Supported keywords are <code>c</code>, <code>id</code>, <code>t</code>, <code>o</code>, <code>m</code>,
+ * <code>cmc</code>/<code>mv</code>, <code>pow</code>, <code>tou</code>, <code>loy</code>, <code>r</code>,
+ * <code>s</code>/<code>e</code>, <code>cn</code>, <code>f</code>, <code>banned</code>, <code>restricted</code>,
+ * <code>is</code>, <code>not</code>, <code>usd</code>, <code>eur</code>, <code>tix</code>, <code>a</code>,
+ * <code>ft</code>, <code>wm</code>, <code>kw</code>, <code>lang</code>, <code>year</code>, <code>date</code>,
+ * <code>game</code>, <code>border</code>, <code>frame</code>, <code>layout</code>, <code>st</code> and
+ * <code>name</code>, along with bare and <code>!"exact"</code> names, <code>/regular expressions/</code>,
+ * <code>-</code> negation, <code>or</code>, <code>and</code> and parentheses. The <code>order</code>,
+ * <code>dir</code>, <code>unique</code> and <code>include:extras</code> options control the results as they do on
+ * Scryfall.</p>
+ *
+ * <p>As on Scryfall, results include only English printings unless the query has a <code>lang</code> term, and
+ * exclude extras such as tokens, emblems and art series cards unless the query asks for them.</p>
+ */
+public final class SearchQuery {
+
+    static final EnumSet<Layout> EXTRAS = EnumSet.of(Layout.TOKEN, Layout.DOUBLE_FACED_TOKEN,
+            Layout.EMBLEM, Layout.ART_SERIES, Layout.PLANAR, Layout.SCHEME, Layout.VANGUARD);
+
+    private final String text;
+    private final SearchNode root;
+    private final Order order;
+    private final Direction direction;
+    private final Unique unique;
+    private final boolean includeExtras;
+    private final boolean allLanguages;
+
+    SearchQuery(String text, SearchNode root, Order order, Direction direction, Unique unique, boolean includeExtras,
+                boolean allLanguages) {
+        this.text = text;
+        this.root = root;
+        this.order = order;
+        this.direction = direction;
+        this.unique = unique;
+        this.includeExtras = includeExtras;
+        this.allLanguages = allLanguages;
+    }
+
+    /**
+     * @param query a query in Scryfall's search syntax
+     * @return the parsed query
+     * @throws IllegalArgumentException if the query is malformed or uses a keyword that can't be evaluated locally
+     */
+    public static SearchQuery parse(String query) {
+        return new SearchParser(query).parse();
+    }
+
+    /**
+     * Tests a single card against the terms of this query. Options such as <code>unique</code>, and the default
+     * filtering of extras and non-English printings, only apply to {@link CardDataset#search(SearchQuery)}.
+     *
+     * @param card the card to test
+     * @return true if the card matches this query's terms
+     */
+    public boolean matches(Card card) {
+        return root.matches(card, -1, null);
+    }
+
+    /**
+     * @return How results are sorted. This is {@link Order#NAME} unless the query has an <code>order</code> option.
+     */
+    public Order getOrder() {
+        return order;
+    }
+
+    /**
+     * @return The direction results are sorted in.
+     */
+    public Direction getDirection() {
+        return direction;
+    }
+
+    /**
+     * @return How printings of the same card are collapsed. This is {@link Unique#CARDS} unless the query has a
+     * <code>unique</code> option.
+     */
+    public Unique getUnique() {
+        return unique;
+    }
+
+    /**
+     * Runs this query against a dataset. The rows to test come from the dataset's index when a term allows it, and
+     * are then tested against the whole query, unless the index lists exactly the rows the query matches.
+     *
+     * @return the matching cards, collapsed and sorted
+     */
+    Card[] select(CardDataset dataset, SearchIndex index) {
+        RowBitmap rows = root.candidates(index);
+        boolean exact = rows != null && root.isExact();
+        if (rows == null) {
+            rows = index.all();
+        }
+        if (!allLanguages) {
+            rows = rows.and(index.lang("en"));
+        }
+        if (!includeExtras) {
+            rows = rows.andNot(index.layouts(EXTRAS));
+        }
+        List<Card> matches = new ArrayList<>(rows.cardinality());
+        for (int row : rows.toArray()) {
+            Card card = dataset.get(row);
+            if (exact || root.matches(card, row, index)) {
+                matches.add(card);
+            }
+        }
+
+        if (unique != Unique.PRINTS) {
+            // keep the printing Card.namedExactly would return for each card or illustration, in first-seen order
+            Map<Object, Integer> seen = new HashMap<>();
+            List<Card> collapsed = new ArrayList<>();
+            for (Card card : matches) {
+                Object key = unique.key(card);
+                Integer position = seen.putIfAbsent(key == null ? card : key, collapsed.size());
+                if (position == null) {
+                    collapsed.add(card);
+                } else if (CardDataset.prefer(collapsed.get(position), card) == card) {
+                    collapsed.set(position, card);
+                }
+            }
+            matches = collapsed;
+        }
+
+        Comparator<Card> comparator = order.comparator;
+        if (direction == Direction.ASC && order.descending || direction == Direction.DESC && !order.descending) {
+            comparator = comparator.reversed();
+        }
+        matches.sort(comparator.thenComparing(Order.NAME.comparator));
+        return matches.toArray(new Card[0]);
+    }
+
+    /**
+     * Sorts mono-colored cards in <code>WUBRG</code> order, then multicolored cards by their number of colors, then
+     * colorless cards.
+     */
+    private static int colorRank(Card card) {
+        int bits = SearchIndex.colorBits(card);
+        switch (Integer.bitCount(bits)) {
+            case 0:
+                return Integer.MAX_VALUE;
+            case 1:
+                return Integer.numberOfTrailingZeros(bits);
+            default:
+                return Integer.bitCount(bits) << 5 | bits;
+        }
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        return text.equals(((SearchQuery) o).text);
+    }
+
+    @Override
+    public int hashCode() {
+        return text.hashCode();
+    }
+
+    /**
+     * @return The query as it was written.
+     */
+    @Override
+    public String toString() {
+        return text;
+    }
+
+    /**
+     * The orders results can be sorted in, matching Scryfall's <code>order</code> values. Each order has a natural
+     * direction, which is used unless the query has a <code>dir</code> option; cards which tie are sorted by name.
+     */
+    public enum Order {
+        NAME(Comparator.comparing(Card::getName, Comparator.nullsLast(String.CASE_INSENSITIVE_ORDER)), false),
+        SET(Comparator.comparing(Card::getSet, Comparator.nullsLast(String.CASE_INSENSITIVE_ORDER))
+                .thenComparing(Card::getCollectorNumber, Comparator.nullsLast(SearchParser::compareNumbers)), false),
+        RELEASED(Comparator.comparing(Card::getReleaseLocalDate, Comparator.nullsLast(Comparator.reverseOrder())), true),
+        RARITY(Comparator.comparing(Card::getRarity, Comparator.reverseOrder()), true),
+        COLOR(Comparator.comparingInt(SearchQuery::colorRank), false),
+        USD(byNumber(card -> SearchParser.price(card, "usd"), true), true),
+        EUR(byNumber(card -> SearchParser.price(card, "eur"), true), true),
+        TIX(byNumber(card -> SearchParser.price(card, "tix"), true), true),
+        CMC(Comparator.comparingDouble(Card::getCmc), false),
+        POWER(byNumber(card -> SearchParser.stat(card, Card::getPower, CardFace::getPower), true), true),
+        TOUGHNESS(byNumber(card -> SearchParser.stat(card, Card::getToughness, CardFace::getToughness), true), true),
+        EDHREC(byRank(Card::getEdhrecRank), false),
+        PENNY(byRank(Card::getPennyRank), false),
+        ARTIST(Comparator.comparing(Card::getArtist, Comparator.nullsLast(String.CASE_INSENSITIVE_ORDER)), false);
+
+        private final Comparator<Card> comparator;
+        private final boolean descending;
+
+        /**
+         * @param comparator sorts cards in this order's natural direction
+         * @param descending true if the natural direction is from the highest value to the lowest
+         */
+        Order(Comparator<Card> comparator, boolean descending) {
+            this.comparator = comparator;
+            this.descending = descending;
+        }
+
+        /**
+         * Cards without a value, such as cards with no price, sort last in the natural direction.
+         */
+        private static Comparator<Card> byNumber(ToDoubleFunction<Card> value, boolean descending) {
+            return (a, b) -> {
+                double x = value.applyAsDouble(a);
+                double y = value.applyAsDouble(b);
+                if (Double.isNaN(x) || Double.isNaN(y)) {
+                    return Boolean.compare(Double.isNaN(x), Double.isNaN(y));
+                }
+                return descending ? Double.compare(y, x) : Double.compare(x, y);
+            };
+        }
+
+        private static Comparator<Card> byRank(ToIntFunction<Card> rank) {
+            // missing ranks are read as -1, which sorts after every ranked card when compared unsigned
+            return (a, b) -> Integer.compareUnsigned(rank.applyAsInt(a), rank.applyAsInt(b));
+        }
+
+        /**
+         * @return true if results are sorted from the highest value to the lowest unless the query says otherwise
+         */
+        public boolean isDescending() {
+            return descending;
+        }
+
+        static Order fromString(String value) {
+            try {
+                return valueOf(value.toUpperCase(Locale.ROOT));
+            } catch (IllegalArgumentException e) {
+                throw new IllegalArgumentException("Unknown order: " + value);
+            }
+        }
+    }
+
+    /**
+     * The directions results can be sorted in. <code>AUTO</code> uses the natural direction of the {@link Order}.
+     */
+    public enum Direction {
+        AUTO, ASC, DESC;
+
+        static Direction fromString(String value) {
+            try {
+                return valueOf(value.toUpperCase(Locale.ROOT));
+            } catch (IllegalArgumentException e) {
+                throw new IllegalArgumentException("Unknown direction: " + value);
+            }
+        }
+    }
+
+    /**
+     * How printings of the same card are collapsed in the results:
+     * <li><code>CARDS</code> - one printing of each card, by oracle id
+     * <li><code>ART</code> - one printing of each illustration
+     * <li><code>PRINTS</code> - every matching printing
+     */
+    public enum Unique {
+        CARDS, ART, PRINTS;
+
+        private Object key(Card card) {
+            switch (this) {
+                case CARDS:
+                    return card.getOracleID();
+                case ART:
+                    return card.getIllustrationID();
+                default:
+                    return null;
+            }
+        }
+
+        static Unique fromString(String value) {
+            try {
+                return valueOf(value.toUpperCase(Locale.ROOT));
+            } catch (IllegalArgumentException e) {
+                throw new IllegalArgumentException("Unknown unique mode: " + value);
+            }
+        }
+    }
+}
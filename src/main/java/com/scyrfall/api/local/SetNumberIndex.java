@@ -0,0 +1,98 @@
+package com.scyrfall.api.local;
+
+import com.scyrfall.api.object.Card;
+
+/**
+ * An open-addressing index from a set code and collector number to the rows of every printing with them, such as the
+ * same card in several languages. Only the hash of each key is stored; keys are compared against the cards themselves,
+ * so lookups don't need to build a combined key string. Set codes are compared ignoring case.
+ */
+final class SetNumberIndex extends RowIndex {
+
+    private final Card[] cards;
+    private int[] hashes;
+
+    SetNumberIndex(Card[] cards) {
+        super(cards.length);
+        this.cards = cards;
+        hashes = new int[first.length];
+        for (int row = 0; row < cards.length; row++) {
+            String set = cards[row].getSet();
+            String number = cards[row].getCollectorNumber();
+            if (set == null || set.isEmpty() || number == null || number.isEmpty()) {
+                continue;
+            }
+            int hash = hash(set, number);
+            int slot = slotOf(hash, set, number);
+            if (slot < 0) {
+                slot = ~slot;
+                hashes[slot] = hash;
+            }
+            addRow(slot, row);
+            if (needsResize()) {
+                resize();
+            }
+        }
+    }
+
+    private static int hash(String set, String number) {
+        int hash = 0;
+        for (int i = 0; i < set.length(); i++) {
+            hash = 31 * hash + Character.toLowerCase(set.charAt(i));
+        }
+        return mix(31 * hash + number.hashCode());
+    }
+
+    private int slotOf(int hash, String set, String number) {
+        int slot = hash & mask;
+        while (first[slot] != 0) {
+            if (hashes[slot] == hash) {
+                Card card = cards[firstRow(slot)];
+                if (card.getCollectorNumber().equals(number) && card.getSet().equalsIgnoreCase(set)) {
+                    return slot;
+                }
+            }
+            slot = (slot + 1) & mask;
+        }
+        return ~slot;
+    }
+
+    /**
+     * @return every row with the given set code and collector number, in row order
+     */
+    int[] getAll(String set, String number) {
+        return rows(slotOf(hash(set, number), set, number));
+    }
+
+    /**
+     * @param lang the language code to look for, or null for any language
+     * @return the first row with the given set code, collector number and language, or -1 if there is none
+     */
+    int get(String set, String number, String lang) {
+        int slot = slotOf(hash(set, number), set, number);
+        if (slot < 0) {
+            return -1;
+        }
+        if (lang == null) {
+            return firstRow(slot);
+        }
+        return findRow(slot, row -> lang.equals(cards[row].getLang()));
+    }
+
+    @Override
+    void rehash(int[] oldFirst, int[] oldLast) {
+        int[] oldHashes = hashes;
+        hashes = new int[first.length];
+        for (int i = 0; i < oldHashes.length; i++) {
+            if (oldFirst[i] != 0) {
+                // keys are unique, so only an empty slot needs to be found
+                int slot = oldHashes[i] & mask;
+                while (first[slot] != 0) {
+                    slot = (slot + 1) & mask;
+                }
+                hashes[slot] = oldHashes[i];
+                moveSlot(i, slot, oldFirst, oldLast);
+            }
+        }
+    }
+}
@@ -0,0 +1,274 @@
+package com.scyrfall.api.local;
+
+import com.scyrfall.api.ScryfallObject;
+import com.scyrfall.api.object.Card;
+import com.scyrfall.api.object.Catalog;
+import com.scyrfall.api.object.Set;
+import com.scyrfall.api.object.Symbol;
+import org.json.JSONObject;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
+import java.util.stream.IntStream;
+
+import static com.scyrfall.api.local.SnapshotFormat.*;
+
+/**
+ * The contents of a binary snapshot written by {@link SnapshotWriter}. Loading a snapshot skips JSON entirely: the file
+ * is read through a <code>FileChannel</code>, its headers and blocks are checked, and the blocks are decoded in
+ * parallel, each object reading its fields straight from its block through a {@link SnapshotInput}.
+ *
+ * @see SnapshotFormat
+ */
+public final class Snapshot {
+
+    private final Card[] cards;
+    private final Set[] sets;
+    private final Symbol[] symbols;
+    private final Catalog[] catalogs;
+
+    private Snapshot(Map<Section, List<ScryfallObject>> objects) {
+        cards = ScryfallObject.convertArray(objects.get(Section.CARDS).toArray(new ScryfallObject[0]), new Card[0]);
+        sets = ScryfallObject.convertArray(objects.get(Section.SETS).toArray(new ScryfallObject[0]), new Set[0]);
+        symbols = ScryfallObject.convertArray(objects.get(Section.SYMBOLS).toArray(new ScryfallObject[0]), new Symbol[0]);
+        catalogs = ScryfallObject.convertArray(objects.get(Section.CATALOGS).toArray(new ScryfallObject[0]), new Catalog[0]);
+    }
+
+    /**
+     * @param path the snapshot file to read
+     * @return the objects stored in the snapshot, in the order they were written
+     * @throws IOException if the file can't be read, isn't a snapshot, was written by another format version, or fails
+     *                     its checksums. Snapshots are a cache of data which can be downloaded again, so there is no
+     *                     reader for older versions: write the snapshot again instead.
+     */
+    public static Snapshot read(Path path) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            long size = channel.size();
+            if (size < HEADER_SIZE) {
+                throw new EOFException("Truncated header in " + path);
+            }
+            ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE);
+            readFully(channel, header, 0);
+            if (header.getInt(0) != MAGIC) {
+                throw new IOException("Not a snapshot file: " + path);
+            }
+            short version = header.getShort(4);
+            if (version != VERSION) {
+                throw new IOException("Unsupported snapshot version " + version + " in " + path);
+            }
+            int tableLength = header.getInt(12);
+            if (tableLength < 0 || tableLength > size - HEADER_SIZE) {
+                throw new IOException("Invalid format table length " + tableLength + " in " + path);
+            }
+            ByteBuffer table = ByteBuffer.allocate(tableLength);
+            readFully(channel, table, HEADER_SIZE);
+            if (checksum(header.duplicate().limit(16), table) != header.getInt(16)) {
+                throw new IOException("Header checksum mismatch in " + path);
+            }
+            int blockCount = header.getInt(8);
+            if (blockCount < 0) {
+                throw new IOException("Invalid block count " + blockCount + " in " + path);
+            }
+            int[] formats;
+            try {
+                formats = readFormatTable(table);
+            } catch (RuntimeException e) {
+                throw new IOException("Malformed format table in " + path, e);
+            }
+
+            List<Block> blocks = new ArrayList<>(blockCount);
+            ByteBuffer blockHeader = ByteBuffer.allocate(BLOCK_HEADER_SIZE);
+            long position = HEADER_SIZE + tableLength;
+            for (int i = 0; i < blockCount; i++) {
+                if (size - position < BLOCK_HEADER_SIZE) {
+                    throw new EOFException("Truncated block header at " + position + " in " + path);
+                }
+                blockHeader.clear();
+                readFully(channel, blockHeader, position);
+                if (checksum(blockHeader.duplicate().limit(13)) != blockHeader.getInt(13)) {
+                    throw new IOException("Block header checksum mismatch at " + position + " in " + path);
+                }
+                Section section = Section.fromId(blockHeader.get(0));
+                int count = blockHeader.getInt(1);
+                int length = blockHeader.getInt(5);
+                if (section == null || count < 0 || length < 0) {
+                    throw new IOException("Invalid block header at " + position + " in " + path);
+                }
+                long start = position + BLOCK_HEADER_SIZE;
+                if (size - start < length) {
+                    throw new EOFException("Truncated block at " + position + " in " + path);
+                }
+                blocks.add(new Block(section, count, start, length, blockHeader.getInt(9)));
+                position = start + length;
+            }
+            if (position != size) {
+                throw new IOException("Unexpected data after the last block at " + position + " in " + path);
+            }
+
+            ScryfallObject[][] decoded = new ScryfallObject[blocks.size()][];
+            try {
+                IntStream.range(0, blocks.size()).parallel()
+                        .forEach(i -> decoded[i] = decode(channel, blocks.get(i), formats));
+            } catch (UncheckedIOException e) {
+                throw e.getCause();
+            }
+
+            Map<Section, List<ScryfallObject>> objects = new EnumMap<>(Section.class);
+            for (Section section : Section.values()) {
+                objects.put(section, new ArrayList<>());
+            }
+            for (int i = 0; i < decoded.length; i++) {
+                objects.get(blocks.get(i).section).addAll(List.of(decoded[i]));
+            }
+            return new Snapshot(objects);
+        }
+    }
+
+    private static ScryfallObject[] decode(FileChannel channel, Block block, int[] formats) {
+        try {
+            ByteBuffer payload = ByteBuffer.allocate(block.length);
+            readFully(channel, payload, block.position);
+            if (checksum(payload) != block.checksum) {
+                throw new IOException("Checksum mismatch in block at " + (block.position - BLOCK_HEADER_SIZE));
+            }
+            return readBlock(payload, block, formats);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static ScryfallObject[] readBlock(ByteBuffer payload, Block block, int[] formats) throws IOException {
+        try {
+            SnapshotInput in = new SnapshotInput(payload, formats);
+            ScryfallObject[] objects = new ScryfallObject[block.count];
+            for (int i = 0; i < objects.length; i++) {
+                objects[i] = block.section.reader.apply(in);
+            }
+            if (in.hasRemaining()) {
+                throw new IOException("Unexpected data after the last object in block at " + block.position);
+            }
+            return objects;
+        } catch (RuntimeException e) {
+            // a buffer underflow, an index out of range or an unknown constant, which the checksum should have caught
+            throw new IOException("Malformed block at " + block.position, e);
+        }
+    }
+
+    private static void readFully(FileChannel channel, ByteBuffer buffer, long position) throws IOException {
+        while (buffer.hasRemaining()) {
+            int read = channel.read(buffer, position + buffer.position());
+            if (read < 0) {
+                throw new EOFException("Unexpected end of snapshot at " + (position + buffer.position()));
+            }
+        }
+        buffer.flip();
+    }
+
+    /**
+     * @return The cards in this snapshot.
+     */
+    public Card[] getCards() {
+        return cards.clone();
+    }
+
+    /**
+     * @return The sets in this snapshot.
+     */
+    public Set[] getSets() {
+        return sets.clone();
+    }
+
+    /**
+     * @return The card symbols in this snapshot.
+     */
+    public Symbol[] getSymbols() {
+        return symbols.clone();
+    }
+
+    /**
+     * @return The catalogs in this snapshot.
+     */
+    public Catalog[] getCatalogs() {
+        return catalogs.clone();
+    }
+
+    @Override
+    public String toString() {
+        return "Snapshot{" +
+                "cards=" + cards.length +
+                ", sets=" + sets.length +
+                ", symbols=" + symbols.length +
+                ", catalogs=" + catalogs.length +
+                '}';
+    }
+
+    /**
+     * The kinds of object a snapshot can hold. Every block in a snapshot belongs to exactly one section.
+     */
+    public enum Section {
+        CARDS(1, Card::new, Card::new, (object, out) -> ((Card) object).writeTo(out)),
+        SETS(2, Set::new, Set::new, (object, out) -> ((Set) object).writeTo(out)),
+        SYMBOLS(3, Symbol::new, Symbol::new, (object, out) -> ((Symbol) object).writeTo(out)),
+        CATALOGS(4, Catalog::new, Catalog::new, (object, out) -> ((Catalog) object).writeTo(out));
+
+        private final byte id;
+        private final Function<JSONObject, ScryfallObject> factory;
+        private final Function<SnapshotInput, ScryfallObject> reader;
+        private final BiConsumer<ScryfallObject, SnapshotOutput> writer;
+
+        Section(int id, Function<JSONObject, ScryfallObject> factory, Function<SnapshotInput, ScryfallObject> reader,
+                BiConsumer<ScryfallObject, SnapshotOutput> writer) {
+            this.id = (byte) id;
+            this.factory = factory;
+            this.reader = reader;
+            this.writer = writer;
+        }
+
+        byte getId() {
+            return id;
+        }
+
+        /**
+         * Decodes an object of this section from its JSON, and writes its fields to a block.
+         */
+        void write(JSONObject data, SnapshotOutput out) {
+            writer.accept(factory.apply(data), out);
+        }
+
+        static Section fromId(byte id) {
+            for (Section section : values()) {
+                if (section.id == id) {
+                    return section;
+                }
+            }
+            return null;
+        }
+    }
+
+    private static final class Block {
+        private final Section section;
+        private final int count;
+        private final long position;
+        private final int length;
+        private final int checksum;
+
+        private Block(Section section, int count, long position, int length, int checksum) {
+            this.section = section;
+            this.count = count;
+            this.position = position;
+            this.length = length;
+            this.checksum = checksum;
+        }
+    }
+}
@@ -0,0 +1,92 @@
+package com.scyrfall.api.local;
+
+import com.scyrfall.api.field.Legalities;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.zip.CRC32C;
+
+/**
+ * Constants and checksums shared by {@link SnapshotWriter} and {@link Snapshot}.
+ *
+ * <p>A snapshot file starts with a 20 byte header: the magic number <code>SCYS</code>, a 2 byte format version, 2
+ * reserved bytes, the number of blocks (4 bytes), the length of the format table (4 bytes) and the CRC32C checksum of
+ * the 16 header bytes before it and the format table. The format table follows the header: a 2 byte count, then the
+ * name of each {@link Legalities.Format} in the order packed legalities lay them out, each as a 2 byte length and
+ * UTF-8 bytes. Legalities are read back through it, so formats can be added or reordered without changing what a
+ * snapshot means. The rest of the file is exactly as many blocks as the header says. Each block has a 17 byte header holding its {@link Snapshot.Section} id (1 byte),
+ * the number of objects in the block (4 bytes), the length of its payload (4 bytes), the CRC32C checksum of that
+ * payload (4 bytes) and the CRC32C checksum of the 13 header bytes before it, so a damaged or truncated header is
+ * caught as surely as a damaged payload.</p>
+ *
+ * <p>A payload starts with the block's string dictionary: a varint count, then each distinct string in the block as a
+ * varint length followed by its UTF-8 bytes. The block's objects follow, each as the fields written by its
+ * <code>writeTo(SnapshotOutput)</code> method, with no keys: strings as their varint index in the dictionary plus one,
+ * or zero for null, integers as zigzag varints, UUIDs as two longs, color sets as a byte of color bits and legalities
+ * as packed by {@link Legalities#getPacked()} when the snapshot was written. All
+ * multi-byte numbers are big-endian. See {@link SnapshotOutput} for the encoding of each kind of field.</p>
+ *
+ * <p>Since fields are stored in order and without keys, changing what an object writes changes the format, and must
+ * come with a new {@link #VERSION}.</p>
+ */
+final class SnapshotFormat {
+
+    /**
+     * <code>SCYS</code> in ASCII
+     */
+    static final int MAGIC = 0x53435953;
+    static final short VERSION = 2;
+    static final int HEADER_SIZE = 20;
+    static final int BLOCK_HEADER_SIZE = 17;
+
+    private SnapshotFormat() {
+    }
+
+    /**
+     * @return the format table of a snapshot written now
+     */
+    static ByteBuffer formatTable() {
+        String[] names = Legalities.getPackedFormatNames();
+        byte[][] encoded = new byte[names.length][];
+        int length = 2;
+        for (int i = 0; i < names.length; i++) {
+            encoded[i] = names[i].getBytes(StandardCharsets.UTF_8);
+            length += 2 + encoded[i].length;
+        }
+        ByteBuffer table = ByteBuffer.allocate(length).putShort((short) names.length);
+        for (byte[] name : encoded) {
+            table.putShort((short) name.length).put(name);
+        }
+        return table.flip();
+    }
+
+    /**
+     * @param table the format table of a snapshot
+     * @return the ordinal each format in the table has now, as {@link Legalities#getFormatOrdinals(String[])} returns
+     * @throws java.nio.BufferUnderflowException if the table is cut short
+     * @throws IllegalArgumentException          if the table is malformed
+     */
+    static int[] readFormatTable(ByteBuffer table) {
+        String[] names = new String[table.getShort()];
+        for (int i = 0; i < names.length; i++) {
+            byte[] name = new byte[table.getShort()];
+            table.get(name);
+            names[i] = new String(name, StandardCharsets.UTF_8);
+        }
+        if (table.hasRemaining()) {
+            throw new IllegalArgumentException("Unexpected data after the format table");
+        }
+        return Legalities.getFormatOrdinals(names);
+    }
+
+    /**
+     * @return the CRC32C checksum of the remaining bytes of the buffers, without moving their positions
+     */
+    static int checksum(ByteBuffer... buffers) {
+        CRC32C crc = new CRC32C();
+        for (ByteBuffer buffer : buffers) {
+            crc.update(buffer.duplicate());
+        }
+        return (int) crc.getValue();
+    }
+}
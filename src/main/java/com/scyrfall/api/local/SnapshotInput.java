@@ -0,0 +1,175 @@
+package com.scyrfall.api.local;
+
+import com.scyrfall.api.StringPool;
+import com.scyrfall.api.field.ColorSet;
+import com.scyrfall.api.field.Legalities;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.HashMap;
+import java.util.List;
+import java.util.UUID;
+import java.util.function.Function;
+
+/**
+ * Reads the fields of objects from one block of a {@link Snapshot}. Objects which can be stored in a snapshot have a
+ * constructor taking a <code>SnapshotInput</code>, which reads their fields straight from the block in the order their
+ * <code>writeTo(SnapshotOutput)</code> method wrote them, without going through JSON.
+ *
+ * <p>A malformed block makes these methods throw an unchecked exception, such as a
+ * <code>BufferUnderflowException</code>, which {@link Snapshot#read(java.nio.file.Path)} reports as an
+ * <code>IOException</code>.</p>
+ *
+ * @see SnapshotOutput
+ */
+public final class SnapshotInput {
+
+    private final ByteBuffer buffer;
+    private final String[] dictionary;
+    private final int[] formats;
+
+    /**
+     * @param formats the ordinal each format in the snapshot's format table has now
+     */
+    SnapshotInput(ByteBuffer buffer, int[] formats) {
+        this.buffer = buffer;
+        this.formats = formats;
+        dictionary = new String[readLength()];
+        for (int i = 0; i < dictionary.length; i++) {
+            byte[] bytes = new byte[readLength()];
+            buffer.get(bytes);
+            dictionary[i] = new String(bytes, StandardCharsets.UTF_8);
+        }
+    }
+
+    boolean hasRemaining() {
+        return buffer.hasRemaining();
+    }
+
+    public boolean readBoolean() {
+        return buffer.get() != 0;
+    }
+
+    public int readInt() {
+        long value = readLong();
+        if (value != (int) value) {
+            throw new IllegalArgumentException("Not an int: " + value);
+        }
+        return (int) value;
+    }
+
+    public long readLong() {
+        long raw = readVarint();
+        return (raw >>> 1) ^ -(raw & 1);
+    }
+
+    public double readDouble() {
+        return buffer.getDouble();
+    }
+
+    /**
+     * @return the string, which may be null
+     */
+    public String readString() {
+        long index = readVarint();
+        return index == 0 ? null : dictionary[Math.toIntExact(index - 1)];
+    }
+
+    /**
+     * @return the string, canonicalized through {@link StringPool#getDefault()} like values read with
+     * <code>ScryfallObject.getPooledString</code>
+     */
+    public String readPooledString() {
+        return StringPool.getDefault().canonicalize(readString());
+    }
+
+    public UUID readUUID() {
+        return readBoolean() ? new UUID(buffer.getLong(), buffer.getLong()) : null;
+    }
+
+    public LocalDate readDate() {
+        return readBoolean() ? LocalDate.ofEpochDay(readLong()) : null;
+    }
+
+    public ColorSet readColors() {
+        return ColorSet.fromBits(buffer.get() & 0xFF);
+    }
+
+    /**
+     * @return the legalities, which may be null, moved to the formats' current ordinals if they have changed since
+     * the snapshot was written
+     */
+    public Legalities readLegalities() {
+        return readBoolean() ? Legalities.fromPacked(Legalities.repack(readLong(), formats)) : null;
+    }
+
+    /**
+     * @param type the type of the constant
+     * @param <E>  the type of the constant
+     * @return the constant with the name that was written, or null
+     */
+    public <E extends Enum<E>> E readEnum(Class<E> type) {
+        String name = readString();
+        return name == null ? null : Enum.valueOf(type, name);
+    }
+
+    /**
+     * @return an array of strings, which may be null
+     */
+    public String[] readStrings() {
+        int length = readLength() - 1;
+        if (length < 0) {
+            return null;
+        }
+        String[] values = new String[length];
+        for (int i = 0; i < length; i++) {
+            values[i] = readString();
+        }
+        return values;
+    }
+
+    /**
+     * @param reader reads one element
+     * @param <T>    the type of the elements
+     * @return an unmodifiable list of the elements
+     */
+    @SuppressWarnings("unchecked")
+    public <T> List<T> readList(Function<SnapshotInput, T> reader) {
+        Object[] values = new Object[readLength()];
+        for (int i = 0; i < values.length; i++) {
+            values[i] = reader.apply(this);
+        }
+        return (List<T>) List.of(values);
+    }
+
+    public HashMap<String, String> readStringMap() {
+        int size = readLength();
+        HashMap<String, String> map = new HashMap<>();
+        for (int i = 0; i < size; i++) {
+            map.put(readString(), readString());
+        }
+        return map;
+    }
+
+    private int readLength() {
+        long length = readVarint();
+        // no count or length in a block can exceed the bytes left in it
+        if (length < 0 || length > buffer.remaining() + 1L) {
+            throw new IllegalArgumentException("Invalid length " + length + " at " + buffer.position());
+        }
+        return (int) length;
+    }
+
+    private long readVarint() {
+        long result = 0;
+        for (int shift = 0; shift < 64; shift += 7) {
+            byte b = buffer.get();
+            result |= (long) (b & 0x7F) << shift;
+            if (b >= 0) {
+                return result;
+            }
+        }
+        throw new IllegalArgumentException("Malformed varint at " + buffer.position());
+    }
+}
@@ -0,0 +1,211 @@
+package com.scyrfall.api.local;
+
+import com.scyrfall.api.field.ColorSet;
+import com.scyrfall.api.field.Legalities;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.function.BiConsumer;
+
+/**
+ * Writes the fields of objects into one block of a snapshot, for {@link SnapshotWriter}. Objects which can be stored in
+ * a snapshot have a <code>writeTo(SnapshotOutput)</code> method, and read their fields back in the same order through
+ * a constructor taking a {@link SnapshotInput}.
+ *
+ * <p>Strings are collected into the block's dictionary, so a string repeated within a block, such as a set code or an
+ * artist's name, is stored once.</p>
+ */
+public final class SnapshotOutput {
+
+    private final Map<String, Integer> dictionary = new HashMap<>();
+    private final ByteSink strings = new ByteSink(1 << 12);
+    private final ByteSink values = new ByteSink(1 << 16);
+
+    SnapshotOutput() {
+    }
+
+    public void writeBoolean(boolean value) {
+        values.writeByte((byte) (value ? 1 : 0));
+    }
+
+    public void writeInt(int value) {
+        writeLong(value);
+    }
+
+    public void writeLong(long value) {
+        values.writeVarint((value << 1) ^ (value >> 63));
+    }
+
+    public void writeDouble(double value) {
+        values.writeLong(Double.doubleToRawLongBits(value));
+    }
+
+    /**
+     * @param value the string, which may be null
+     */
+    public void writeString(String value) {
+        if (value == null) {
+            values.writeVarint(0);
+            return;
+        }
+        Integer index = dictionary.get(value);
+        if (index == null) {
+            index = dictionary.size();
+            dictionary.put(value, index);
+            byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+            strings.writeVarint(bytes.length);
+            strings.writeBytes(bytes);
+        }
+        values.writeVarint(index + 1L);
+    }
+
+    public void writeUUID(UUID value) {
+        writeBoolean(value != null);
+        if (value != null) {
+            values.writeLong(value.getMostSignificantBits());
+            values.writeLong(value.getLeastSignificantBits());
+        }
+    }
+
+    public void writeDate(LocalDate value) {
+        writeBoolean(value != null);
+        if (value != null) {
+            writeLong(value.toEpochDay());
+        }
+    }
+
+    public void writeColors(ColorSet value) {
+        values.writeByte((byte) value.getBits());
+    }
+
+    /**
+     * @param value the legalities, which may be null. They are stored packed, and read back through the snapshot's
+     *              format table.
+     */
+    public void writeLegalities(Legalities value) {
+        writeBoolean(value != null);
+        if (value != null) {
+            writeLong(value.getPacked());
+        }
+    }
+
+    /**
+     * @param value the constant, which may be null. It is stored by name, so adding constants doesn't change what
+     *              an existing snapshot reads back as.
+     */
+    public void writeEnum(Enum<?> value) {
+        writeString(value == null ? null : value.name());
+    }
+
+    /**
+     * @param values an array of strings, which may be null
+     */
+    public void writeStrings(String[] values) {
+        this.values.writeVarint(values == null ? 0 : values.length + 1L);
+        if (values != null) {
+            for (String value : values) {
+                writeString(value);
+            }
+        }
+    }
+
+    /**
+     * @param values the elements
+     * @param writer writes one element
+     * @param <T>    the type of the elements
+     */
+    public <T> void writeList(List<T> values, BiConsumer<SnapshotOutput, T> writer) {
+        this.values.writeVarint(values.size());
+        for (T value : values) {
+            writer.accept(this, value);
+        }
+    }
+
+    public void writeStringMap(Map<String, String> map) {
+        values.writeVarint(map.size());
+        for (Map.Entry<String, String> entry : map.entrySet()) {
+            writeString(entry.getKey());
+            writeString(entry.getValue());
+        }
+    }
+
+    /**
+     * @return the number of bytes in the block's payload so far
+     */
+    long size() {
+        return ByteSink.varintSize(dictionary.size()) + (long) strings.size + values.size;
+    }
+
+    /**
+     * @return the block's payload: the dictionary followed by the values
+     */
+    ByteBuffer[] toBuffers() {
+        ByteSink count = new ByteSink(10);
+        count.writeVarint(dictionary.size());
+        return new ByteBuffer[]{count.toBuffer(), strings.toBuffer(), values.toBuffer()};
+    }
+
+    /**
+     * A growable byte array, written big-endian.
+     */
+    private static final class ByteSink {
+        private byte[] bytes;
+        private int size;
+
+        private ByteSink(int capacity) {
+            bytes = new byte[capacity];
+        }
+
+        private static int varintSize(long value) {
+            int size = 1;
+            while ((value & ~0x7FL) != 0) {
+                value >>>= 7;
+                size++;
+            }
+            return size;
+        }
+
+        private void ensureCapacity(int additional) {
+            if (size + additional > bytes.length) {
+                bytes = Arrays.copyOf(bytes, Math.max(bytes.length * 2, size + additional));
+            }
+        }
+
+        private void writeByte(byte value) {
+            ensureCapacity(1);
+            bytes[size++] = value;
+        }
+
+        private void writeBytes(byte[] value) {
+            ensureCapacity(value.length);
+            System.arraycopy(value, 0, bytes, size, value.length);
+            size += value.length;
+        }
+
+        private void writeVarint(long value) {
+            ensureCapacity(10);
+            while ((value & ~0x7FL) != 0) {
+                bytes[size++] = (byte) ((value & 0x7F) | 0x80);
+                value >>>= 7;
+            }
+            bytes[size++] = (byte) value;
+        }
+
+        private void writeLong(long value) {
+            ensureCapacity(8);
+            for (int shift = 56; shift >= 0; shift -= 8) {
+                bytes[size++] = (byte) (value >>> shift);
+            }
+        }
+
+        private ByteBuffer toBuffer() {
+            return ByteBuffer.wrap(bytes, 0, size);
+        }
+    }
+}
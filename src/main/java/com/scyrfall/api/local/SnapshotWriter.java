@@ -0,0 +1,190 @@
+package com.scyrfall.api.local;
+
+import com.scyrfall.api.local.Snapshot.Section;
+import org.json.JSONArray;
+import org.json.JSONObject;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+
+import static com.scyrfall.api.local.SnapshotFormat.*;
+
+/**
+ * Writes Scryfall JSON, such as the contents of a bulk data file or of a list, into a binary snapshot which
+ * {@link Snapshot#read(Path)} can load far faster than the JSON can be parsed.
+ *
+ * <p>The snapshot is written to a temporary file next to the target and only moved into place when the writer is
+ * closed, so readers never see a partially written snapshot.</p>
+ *
+ * <pre>{@code
+ * try (SnapshotWriter writer = new SnapshotWriter(path)) {
+ *     writer.write(Snapshot.Section.CARDS, bulkCards);
+ *     writer.write(Snapshot.Section.SETS, sets);
+ * }
+ * }</pre>
+ *
+ * @see SnapshotFormat
+ */
+public class SnapshotWriter implements Closeable {
+
+    /**
+     * The default number of objects in each block
+     */
+    public static final int DEFAULT_BLOCK_SIZE = 1024;
+
+    private final Path path;
+    private final Path temporaryPath;
+    private final FileChannel channel;
+    private final int blockSize;
+    private final ByteBuffer formatTable = formatTable();
+    private int blockCount;
+    private boolean failed;
+    private boolean closed;
+
+    /**
+     * @param path the file to write the snapshot to. An existing file is replaced when this writer is closed.
+     * @throws IOException if the snapshot can't be created
+     */
+    public SnapshotWriter(Path path) throws IOException {
+        this(path, DEFAULT_BLOCK_SIZE);
+    }
+
+    /**
+     * @param path      the file to write the snapshot to. An existing file is replaced when this writer is closed.
+     * @param blockSize the number of objects in each block. Larger blocks share more strings through their dictionary,
+     *                  smaller blocks give the reader more blocks to decode in parallel.
+     * @throws IOException if the snapshot can't be created
+     */
+    public SnapshotWriter(Path path, int blockSize) throws IOException {
+        if (blockSize <= 0) {
+            throw new IllegalArgumentException("blockSize must be positive: " + blockSize);
+        }
+        this.path = path;
+        this.blockSize = blockSize;
+        temporaryPath = path.resolveSibling(path.getFileName() + ".tmp");
+        channel = FileChannel.open(temporaryPath, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING);
+        // the header is written when the writer is closed, once the number of blocks is known
+        channel.position(HEADER_SIZE + formatTable.remaining());
+    }
+
+    /**
+     * @param section the section the objects belong to
+     * @param objects the JSON of the objects to write, as returned by Scryfall's API. Each object is decoded as its
+     *                section's type, and its fields are written.
+     * @throws IOException if the objects can't be written
+     */
+    public void write(Section section, Iterable<JSONObject> objects) throws IOException {
+        if (closed) {
+            throw new IOException("SnapshotWriter is closed");
+        }
+        try {
+            SnapshotOutput block = new SnapshotOutput();
+            int count = 0;
+            for (JSONObject object : objects) {
+                section.write(object, block);
+                if (++count == blockSize) {
+                    writeBlock(section, block, count);
+                    block = new SnapshotOutput();
+                    count = 0;
+                }
+            }
+            if (count > 0) {
+                writeBlock(section, block, count);
+            }
+        } catch (IOException | RuntimeException e) {
+            failed = true;
+            throw e;
+        }
+    }
+
+    /**
+     * @param section the section the objects belong to
+     * @param objects an array of JSON objects, such as the contents of a bulk data file or the <code>data</code> of a
+     *                list
+     * @throws IOException if the objects can't be written
+     * @throws IllegalArgumentException if the array contains something other than JSON objects
+     */
+    public void write(Section section, JSONArray objects) throws IOException {
+        JSONObject[] array = new JSONObject[objects.length()];
+        for (int i = 0; i < array.length; i++) {
+            array[i] = objects.optJSONObject(i);
+            if (array[i] == null) {
+                throw new IllegalArgumentException("Element " + i + " is not a JSON object");
+            }
+        }
+        write(section, Arrays.asList(array));
+    }
+
+    private void writeBlock(Section section, SnapshotOutput block, int count) throws IOException {
+        long length = block.size();
+        if (length > Integer.MAX_VALUE) {
+            throw new IOException("Block too large: " + length + " bytes. Use a smaller block size.");
+        }
+        ByteBuffer[] payload = block.toBuffers();
+        ByteBuffer header = ByteBuffer.allocate(BLOCK_HEADER_SIZE);
+        header.put(section.getId()).putInt(count).putInt((int) length).putInt(checksum(payload));
+        header.putInt(checksum(header.duplicate().flip())).flip();
+
+        ByteBuffer[] buffers = new ByteBuffer[payload.length + 1];
+        buffers[0] = header;
+        System.arraycopy(payload, 0, buffers, 1, payload.length);
+        writeFully(buffers);
+        blockCount++;
+    }
+
+    private void writeFully(ByteBuffer... buffers) throws IOException {
+        ByteBuffer last = buffers[buffers.length - 1];
+        while (last.hasRemaining()) {
+            channel.write(buffers);
+        }
+    }
+
+    /**
+     * Finishes the snapshot and moves it into place. If a previous write failed, the partial snapshot is deleted
+     * instead, and any existing file at the target path is left untouched.
+     *
+     * @throws IOException if the snapshot can't be finished
+     */
+    @Override
+    public void close() throws IOException {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        try {
+            if (!failed) {
+                ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE);
+                header.putInt(MAGIC).putShort(VERSION).putShort((short) 0).putInt(blockCount)
+                        .putInt(formatTable.remaining());
+                header.putInt(checksum(header.duplicate().flip(), formatTable)).flip();
+                while (header.hasRemaining()) {
+                    channel.write(header, header.position());
+                }
+                while (formatTable.hasRemaining()) {
+                    channel.write(formatTable, HEADER_SIZE + formatTable.position());
+                }
+                channel.force(true);
+            }
+        } finally {
+            channel.close();
+        }
+        if (failed) {
+            Files.deleteIfExists(temporaryPath);
+        } else {
+            try {
+                Files.move(temporaryPath, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(temporaryPath, path, StandardCopyOption.REPLACE_EXISTING);
+            }
+        }
+    }
+}
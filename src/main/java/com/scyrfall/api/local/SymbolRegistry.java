@@ -0,0 +1,214 @@
+package com.scyrfall.api.local;
+
+import com.scyrfall.api.ScryfallObject.Color;
+import com.scyrfall.api.field.ColorSet;
+import com.scyrfall.api.object.Symbol;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * A table of every {@link Symbol}, looked up by its text, shared by the whole process.
+ *
+ * <p>{@link #getInstance()} loads the table from {@link Symbol#getSymbols()} the first time it is called, so from the
+ * symbols loaded into {@link LocalResolver} if there are any, and from Scryfall's API otherwise. A table which couldn't
+ * be loaded isn't kept, so the next call tries again. Getters such as {@link com.scyrfall.api.object.Card#getManaSymbols()}
+ * only use {@link #getLoaded()}, which never asks the API. Loading new local data clears the table, and
+ * {@link #refresh()} reloads it on demand.</p>
+ *
+ * <p>The registry also remembers the mana costs it has split into symbols, so counting the pips of many cards with the
+ * same costs only reads each distinct cost once. Costs from card JSON are pooled, so there are only a few thousand of
+ * them, and all of them fit in the cache. The cache takes no lock to read, so threads counting pips together don't
+ * wait on each other.</p>
+ *
+ * <pre>{@code
+ * Symbol hybrid = SymbolRegistry.getInstance().get("{W/U}");
+ * int devotion = SymbolRegistry.getInstance().getDevotion("{1}{W}{W/U}", ColorSet.of(Color.WHITE));
+ * }</pre>
+ */
+public final class SymbolRegistry {
+
+    // the cache starts over once it holds this many costs, so arbitrary text can't grow it without bound
+    private static final int MAX_CACHED_COSTS = 16384;
+    private static final Tokens NO_TOKENS = new Tokens(new Symbol[0], new int[0]);
+
+    private static volatile SymbolRegistry instance;
+
+    private final Symbol[] symbols;
+    private final Map<String, Symbol> byText = new HashMap<>();
+    private final Map<String, Tokens> costs = new ConcurrentHashMap<>();
+
+    /**
+     * @param symbols the symbols to look up
+     */
+    public SymbolRegistry(Symbol... symbols) {
+        this.symbols = symbols.clone();
+        for (Symbol symbol : symbols) {
+            if (symbol.getSymbol() != null) {
+                byText.put(symbol.getSymbol().toUpperCase(Locale.ROOT), symbol);
+            }
+        }
+    }
+
+    /**
+     * @return the shared registry, loaded the first time it is needed, which may ask Scryfall's API. If no symbols can
+     * be loaded, an empty registry is returned and the next call tries again.
+     */
+    public static SymbolRegistry getInstance() {
+        SymbolRegistry registry = instance;
+        return registry != null ? registry : refresh();
+    }
+
+    /**
+     * @return the shared registry if it has been loaded, or else one loaded from the symbols in {@link LocalResolver},
+     * or null if neither has any symbols. This never asks Scryfall's API.
+     */
+    public static SymbolRegistry getLoaded() {
+        SymbolRegistry registry = instance;
+        if (registry == null) {
+            Symbol[] symbols = LocalResolver.getSymbols();
+            if (symbols.length > 0) {
+                registry = new SymbolRegistry(symbols);
+                instance = registry;
+            }
+        }
+        return registry;
+    }
+
+    /**
+     * Reloads the shared registry from {@link Symbol#getSymbols()}. Lookups in progress finish against the table they
+     * started with. No lock is held while the symbols load, so concurrent calls may each load them.
+     *
+     * @return the reloaded registry. If it is empty because no symbols could be loaded, the shared registry is left as
+     * it was.
+     */
+    public static SymbolRegistry refresh() {
+        SymbolRegistry registry = new SymbolRegistry(Symbol.getSymbols());
+        if (registry.symbols.length > 0) {
+            instance = registry;
+        }
+        return registry;
+    }
+
+    /**
+     * Forgets the shared registry, so the next lookup reloads it.
+     */
+    static void clear() {
+        instance = null;
+    }
+
+    /**
+     * @return All the symbols in this registry.
+     */
+    public Symbol[] getSymbols() {
+        return symbols.clone();
+    }
+
+    /**
+     * @param text a symbol's text, such as <code>{W/U}</code>, in any case. The braces may be left out.
+     * @return the symbol, or null if there is none with the text
+     */
+    public Symbol get(String text) {
+        String key = text.toUpperCase(Locale.ROOT);
+        Symbol symbol = byText.get(key);
+        if (symbol == null && !key.startsWith("{")) {
+            symbol = byText.get("{" + key + "}");
+        }
+        return symbol;
+    }
+
+    /**
+     * @param cost a mana cost in braces, as cards print it, such as <code>{2}{W}{W}</code>. Text between the symbols,
+     *             such as the <code>//</code> between the halves of a split card, is skipped.
+     * @return the cost's symbols in order, as a list which can't be modified. Symbols which aren't in this registry are
+     * left out.
+     */
+    public List<Symbol> getSymbols(String cost) {
+        return tokens(cost).list;
+    }
+
+    /**
+     * @param cost  a mana cost in braces
+     * @param color a color
+     * @return the number of the cost's symbols which are, or can be paid with, the color. A hybrid symbol counts once
+     * for each of its colors.
+     */
+    public int getPips(String cost, Color color) {
+        return count(tokens(cost), 1 << color.ordinal());
+    }
+
+    /**
+     * @param cost   a mana cost in braces
+     * @param colors the colors to count devotion to
+     * @return the number of the cost's symbols which include any of the colors, which is how much the cost adds to
+     * a permanent's controller's devotion to those colors
+     */
+    public int getDevotion(String cost, ColorSet colors) {
+        return count(tokens(cost), colors.getBits());
+    }
+
+    private static int count(Tokens tokens, int bits) {
+        int count = 0;
+        for (int colors : tokens.colors) {
+            if ((colors & bits) != 0) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    private Tokens tokens(String cost) {
+        if (cost == null || cost.isEmpty()) {
+            return NO_TOKENS;
+        }
+        Tokens tokens = costs.get(cost);
+        if (tokens == null) {
+            tokens = tokenize(cost);
+            if (costs.size() >= MAX_CACHED_COSTS) {
+                costs.clear();
+            }
+            costs.put(cost, tokens);
+        }
+        return tokens;
+    }
+
+    private Tokens tokenize(String cost) {
+        List<Symbol> found = new ArrayList<>();
+        for (int start = cost.indexOf('{'); start >= 0; start = cost.indexOf('{', start + 1)) {
+            int end = cost.indexOf('}', start);
+            if (end < 0) {
+                break;
+            }
+            Symbol symbol = byText.get(cost.substring(start, end + 1).toUpperCase(Locale.ROOT));
+            if (symbol != null) {
+                found.add(symbol);
+            }
+            start = end;
+        }
+        Symbol[] symbols = found.toArray(new Symbol[0]);
+        int[] colors = new int[symbols.length];
+        for (int i = 0; i < symbols.length; i++) {
+            colors[i] = symbols[i].getColors().getBits();
+        }
+        return new Tokens(symbols, colors);
+    }
+
+    /**
+     * A mana cost split into its symbols, with each symbol's colors as {@link ColorSet#getBits()} masks.
+     */
+    private static final class Tokens {
+        private final List<Symbol> list;
+        private final int[] colors;
+
+        private Tokens(Symbol[] symbols, int[] colors) {
+            this.list = Collections.unmodifiableList(Arrays.asList(symbols));
+            this.colors = colors;
+        }
+    }
+}
@@ -0,0 +1,732 @@
+package com.scyrfall.api.local;
+
+import com.scyrfall.api.field.CardFace;
+import com.scyrfall.api.object.Card;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.function.Predicate;
+
+/**
+ * An inverted index over the oracle, printed and flavor text of a set of cards, for finding cards by the words in their
+ * text without testing every card.
+ *
+ * <p>Text is normalized before it is indexed: it is lower-cased, accents are removed, curly apostrophes become
+ * straight ones, and in oracle and printed text the card's own name becomes <code>~</code> and reminder text is
+ * dropped, as on Scryfall. Mana symbols such as <code>{T}</code> are single tokens. Each term's postings are stored as
+ * delta-encoded varints with the positions of the term in each card, which allows phrase queries.</p>
+ *
+ * <pre>{@code
+ * TextIndex index = new TextIndex(cards);
+ * int[] rows = index.find(TextIndex.Field.ORACLE, "counter target spell");
+ * TextIndex.Hit[] best = index.search(TextIndex.Field.ORACLE, "draw \"each opponent\"", 20);
+ * }</pre>
+ *
+ * <p>Cards are added one at a time with {@link #add(Card)}, and are identified by the row they were added at. An index
+ * must not be queried while cards are being added to it; once built, it may be queried from any number of threads.</p>
+ */
+public final class TextIndex {
+
+    private static final int[] NO_ROWS = new int[0];
+    private static final Hit[] NO_HITS = new Hit[0];
+    // the usual BM25 parameters: term frequency saturation and document length normalization
+    private static final double K1 = 1.2;
+    private static final double B = 0.75;
+    // the longest mana symbol, {2/W} style hybrids included, with room to spare
+    private static final int MAX_SYMBOL_LENGTH = 10;
+
+    private final FieldIndex[] fields = new FieldIndex[Field.values().length];
+    private int size;
+
+    public TextIndex() {
+        for (int i = 0; i < fields.length; i++) {
+            fields[i] = new FieldIndex();
+        }
+    }
+
+    /**
+     * @param cards the cards to index, in row order
+     */
+    public TextIndex(Card... cards) {
+        this();
+        for (Card card : cards) {
+            add(card);
+        }
+    }
+
+    /**
+     * @param card the card to index
+     * @return the row the card was added at, which identifies it in query results
+     */
+    public int add(Card card) {
+        int row = size++;
+        for (Field field : Field.values()) {
+            fields[field.ordinal()].add(row, normalize(card, field));
+        }
+        return row;
+    }
+
+    /**
+     * @return The number of cards in this index.
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * @param field the text to look at
+     * @param row   a row of this index
+     * @return the normalized text of the card in the given row, which {@link #find(Field, String)} matches against
+     */
+    public String getText(Field field, int row) {
+        if (row < 0 || row >= size) {
+            throw new IndexOutOfBoundsException("Row: " + row + ", Size: " + size);
+        }
+        return fields[field.ordinal()].texts[row];
+    }
+
+    /**
+     * Finds the cards whose normalized text contains the given text, like {@link String#contains(CharSequence)} would,
+     * except that the text is normalized the same way. The text may start and end in the middle of a word.
+     *
+     * @param field the text to search
+     * @param text  the text to find
+     * @return the rows containing the text, in ascending order
+     */
+    public int[] find(Field field, String text) {
+        String normalized = normalizeText(text);
+        int[] rows = candidates(field, normalized);
+        if (rows == null) {
+            rows = new int[size];
+            Arrays.setAll(rows, i -> i);
+        }
+        String[] texts = fields[field.ordinal()].texts;
+        int count = 0;
+        for (int row : rows) {
+            if (texts[row].contains(normalized)) {
+                rows[count++] = row;
+            }
+        }
+        return Arrays.copyOf(rows, count);
+    }
+
+    /**
+     * Lists the rows whose text may contain <code>normalized</code>, from the postings of its tokens: the first and
+     * last tokens may be part of a longer term, and every token in between must match a whole term, with all of them
+     * in consecutive positions.
+     *
+     * @return a sorted superset of the rows containing the text, which may be modified, or null if the text has no
+     * tokens to look up
+     */
+    int[] candidates(Field field, String normalized) {
+        List<String> tokens = tokenize(normalized);
+        if (tokens.isEmpty()) {
+            return null;
+        }
+        FieldIndex index = fields[field.ordinal()];
+        int last = tokens.size() - 1;
+        Decoded[] groups = new Decoded[tokens.size()];
+        for (int i = 0; i <= last; i++) {
+            String token = tokens.get(i);
+            if (i == 0 || i == last) {
+                // the text may cut a word or a mana symbol anywhere, so the ends only need to be part of a term
+                groups[i] = index.decodeMatching(term -> term.contains(token));
+            } else {
+                groups[i] = index.decode(token);
+            }
+            if (groups[i].docs.length == 0) {
+                return NO_ROWS.clone();
+            }
+        }
+        return phrase(groups);
+    }
+
+    /**
+     * Ranks cards by how well their text matches a query, with BM25. Every word and every <code>"quoted phrase"</code>
+     * in the query must appear in a card for it to match. Words are matched whole, after normalization.
+     *
+     * @param field the text to search
+     * @param query words and quoted phrases
+     * @param limit the maximum number of hits to return
+     * @return the best matching rows, best first; cards with equal scores are in row order
+     */
+    public Hit[] search(Field field, String query, int limit) {
+        FieldIndex index = fields[field.ordinal()];
+        List<List<String>> clauses = parseClauses(query);
+        Map<String, Decoded> terms = new LinkedHashMap<>();
+        int[] rows = null;
+        for (List<String> clause : clauses) {
+            Decoded[] groups = new Decoded[clause.size()];
+            for (int i = 0; i < groups.length; i++) {
+                groups[i] = terms.computeIfAbsent(clause.get(i), index::decode);
+            }
+            int[] matches = groups.length == 1 ? groups[0].docs : phrase(groups);
+            rows = rows == null ? matches : intersect(rows, matches);
+            if (rows.length == 0) {
+                return NO_HITS;
+            }
+        }
+        if (rows == null) {
+            return NO_HITS;
+        }
+
+        double averageLength = index.totalLength / (double) Math.max(1, size);
+        Hit[] hits = new Hit[rows.length];
+        for (int i = 0; i < rows.length; i++) {
+            int row = rows[i];
+            double lengthNorm = K1 * (1 - B + B * index.lengths[row] / averageLength);
+            double score = 0;
+            for (Decoded term : terms.values()) {
+                int tf = term.frequency(row);
+                double idf = Math.log(1 + (size - term.docs.length + 0.5) / (term.docs.length + 0.5));
+                score += idf * tf * (K1 + 1) / (tf + lengthNorm);
+            }
+            hits[i] = new Hit(row, score);
+        }
+        Arrays.sort(hits, (a, b) -> a.score != b.score ? Double.compare(b.score, a.score) : Integer.compare(a.row, b.row));
+        return hits.length > limit ? Arrays.copyOf(hits, Math.max(0, limit)) : hits;
+    }
+
+    private static List<List<String>> parseClauses(String query) {
+        List<List<String>> clauses = new ArrayList<>();
+        String[] parts = query.split("\"", -1);
+        for (int i = 0; i < parts.length; i++) {
+            List<String> tokens = tokenize(normalizeText(parts[i]));
+            if (i % 2 == 1) {
+                // inside quotes
+                if (!tokens.isEmpty()) {
+                    clauses.add(tokens);
+                }
+            } else {
+                for (String token : tokens) {
+                    clauses.add(List.of(token));
+                }
+            }
+        }
+        return clauses;
+    }
+
+    /**
+     * @return the rows in which the groups appear at consecutive positions, in ascending order
+     */
+    private static int[] phrase(Decoded[] groups) {
+        int driver = 0;
+        for (int i = 1; i < groups.length; i++) {
+            if (groups[i].docs.length < groups[driver].docs.length) {
+                driver = i;
+            }
+        }
+        int[] rows = new int[groups[driver].docs.length];
+        int count = 0;
+        // every group's docs are sorted, so each group keeps a cursor which only moves forward
+        int[] indexes = new int[groups.length];
+        for (int row : groups[driver].docs) {
+            boolean present = true;
+            for (int i = 0; i < groups.length && present; i++) {
+                indexes[i] = advance(groups[i].docs, indexes[i], row);
+                present = indexes[i] < groups[i].docs.length && groups[i].docs[indexes[i]] == row;
+            }
+            if (present && aligned(groups, indexes)) {
+                rows[count++] = row;
+            }
+        }
+        return Arrays.copyOf(rows, count);
+    }
+
+    /**
+     * @return the first index at or after <code>from</code> whose row is at least <code>row</code>, found by galloping
+     */
+    private static int advance(int[] docs, int from, int row) {
+        int step = 1;
+        int low = from;
+        int high = from;
+        while (high < docs.length && docs[high] < row) {
+            low = high + 1;
+            high += step;
+            step <<= 1;
+        }
+        high = Math.min(high, docs.length);
+        int index = Arrays.binarySearch(docs, low, high, row);
+        return index < 0 ? -index - 1 : index;
+    }
+
+    private static boolean aligned(Decoded[] groups, int[] indexes) {
+        Decoded first = groups[0];
+        for (int p = first.starts[indexes[0]]; p < first.starts[indexes[0] + 1]; p++) {
+            int position = first.positions[p];
+            boolean aligned = true;
+            for (int i = 1; i < groups.length && aligned; i++) {
+                Decoded group = groups[i];
+                aligned = Arrays.binarySearch(group.positions, group.starts[indexes[i]], group.starts[indexes[i] + 1],
+                        position + i) >= 0;
+            }
+            if (aligned) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static int[] intersect(int[] a, int[] b) {
+        int[] result = new int[Math.min(a.length, b.length)];
+        int count = 0;
+        for (int i = 0, j = 0; i < a.length && j < b.length; ) {
+            if (a[i] < b[j]) {
+                i++;
+            } else if (a[i] > b[j]) {
+                j++;
+            } else {
+                result[count++] = a[i];
+                i++;
+                j++;
+            }
+        }
+        return Arrays.copyOf(result, count);
+    }
+
+    /**
+     * @param card  a card
+     * @param field the text to take from the card
+     * @return the card's text for the given field, normalized as it is indexed, with the text of each face on its own
+     * line
+     */
+    public static String normalize(Card card, Field field) {
+        StringBuilder builder = new StringBuilder();
+        switch (field) {
+            case ORACLE:
+                appendRulesText(builder, card.getOracleText(), card, card.getName());
+                for (CardFace face : card.getFaces()) {
+                    appendRulesText(builder, face.getOracleText(), card, face.getName());
+                }
+                break;
+            case PRINTED:
+                appendRulesText(builder, card.getPrintedText(), card, card.getPrintedName());
+                break;
+            case FLAVOR:
+                append(builder, card.getFlavorText());
+                for (CardFace face : card.getFaces()) {
+                    append(builder, face.getFlavorText());
+                }
+                break;
+        }
+        return normalizeText(builder.toString());
+    }
+
+    private static void append(StringBuilder builder, String text) {
+        if (text != null && !text.isEmpty()) {
+            if (builder.length() > 0) {
+                builder.append('\n');
+            }
+            builder.append(text);
+        }
+    }
+
+    private static void appendRulesText(StringBuilder builder, String text, Card card, String name) {
+        if (text == null || text.isEmpty()) {
+            return;
+        }
+        text = stripReminderText(text);
+        List<String> names = new ArrayList<>();
+        names.add(card.getName());
+        names.add(name);
+        if (card.getPrintedName() != null) {
+            names.add(card.getPrintedName());
+        }
+        for (CardFace face : card.getFaces()) {
+            names.add(face.getName());
+        }
+        // legendary cards refer to themselves by the part of their name before the comma
+        for (int i = 0, count = names.size(); i < count; i++) {
+            String full = names.get(i);
+            if (full != null && full.indexOf(", ") > 0) {
+                names.add(full.substring(0, full.indexOf(", ")));
+            }
+        }
+        names.removeIf(n -> n == null || n.isEmpty());
+        names.sort((a, b) -> b.length() - a.length());
+        for (String selfReference : names) {
+            text = replaceWord(text, selfReference, "~");
+        }
+        append(builder, text);
+    }
+
+    private static String stripReminderText(String text) {
+        if (text.indexOf('(') < 0) {
+            return text;
+        }
+        StringBuilder builder = new StringBuilder(text.length());
+        int depth = 0;
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (c == '(') {
+                depth++;
+            } else if (c == ')' && depth > 0) {
+                depth--;
+            } else if (depth == 0) {
+                builder.append(c);
+            }
+        }
+        return builder.toString();
+    }
+
+    /**
+     * Replaces occurrences of <code>word</code> which aren't part of a longer word.
+     */
+    private static String replaceWord(String text, String word, String replacement) {
+        int index = text.indexOf(word);
+        if (index < 0) {
+            return text;
+        }
+        StringBuilder builder = new StringBuilder(text.length());
+        int start = 0;
+        while (index >= 0) {
+            int end = index + word.length();
+            boolean boundary = (index == 0 || !Character.isLetterOrDigit(text.charAt(index - 1)))
+                    && (end == text.length() || !Character.isLetterOrDigit(text.charAt(end)));
+            if (boundary) {
+                builder.append(text, start, index).append(replacement);
+                start = end;
+            }
+            index = text.indexOf(word, boundary ? end : index + 1);
+        }
+        return builder.append(text, start, text.length()).toString();
+    }
+
+    /**
+     * Lower-cases text, removes accents and straightens curly apostrophes, so <code>Lim-Dûl’s</code> and
+     * <code>lim-dul's</code> are the same.
+     */
+    static String normalizeText(String text) {
+        boolean ascii = true;
+        for (int i = 0; i < text.length() && ascii; i++) {
+            ascii = text.charAt(i) < 0x80;
+        }
+        if (!ascii) {
+            text = Normalizer.normalize(text, Normalizer.Form.NFD)
+                    .replaceAll("\\p{M}+", "")
+                    .replace('’', '\'')
+                    .replace('‘', '\'');
+        }
+        return text.toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * Splits normalized text into tokens. A token is a mana symbol in braces, <code>~</code>, or a run of letters,
+     * digits and the characters <code>' + - / *</code>, without leading or trailing punctuation other than
+     * <code>*</code> and a sign before a number, so that <code>+1/+1</code>, <code>*&#47;*</code> and
+     * <code>non-human</code> are single tokens.
+     */
+    static List<String> tokenize(String text) {
+        List<String> tokens = new ArrayList<>();
+        int i = 0;
+        int length = text.length();
+        while (i < length) {
+            char c = text.charAt(i);
+            if (c == '{') {
+                int end = text.indexOf('}', i);
+                if (end > i + 1 && end - i <= MAX_SYMBOL_LENGTH) {
+                    tokens.add(text.substring(i, end + 1));
+                    i = end + 1;
+                    continue;
+                }
+                i++;
+            } else if (c == '~') {
+                tokens.add("~");
+                i++;
+            } else if (isTokenChar(c)) {
+                int start = i;
+                while (i < length && isTokenChar(text.charAt(i))) {
+                    i++;
+                }
+                int end = i;
+                while (start < end && isPunctuation(text.charAt(start)) && text.charAt(start) != '*'
+                        && !(isSign(text.charAt(start)) && start + 1 < end && Character.isDigit(text.charAt(start + 1)))) {
+                    start++;
+                }
+                while (end > start && isPunctuation(text.charAt(end - 1)) && text.charAt(end - 1) != '*') {
+                    end--;
+                }
+                if (start < end) {
+                    tokens.add(text.substring(start, end));
+                }
+            } else {
+                i++;
+            }
+        }
+        return tokens;
+    }
+
+    private static boolean isTokenChar(char c) {
+        return Character.isLetterOrDigit(c) || isPunctuation(c);
+    }
+
+    private static boolean isPunctuation(char c) {
+        return c == '\'' || c == '+' || c == '-' || c == '/' || c == '*';
+    }
+
+    private static boolean isSign(char c) {
+        return c == '+' || c == '-';
+    }
+
+    /**
+     * The card text an index covers.
+     * <li><code>ORACLE</code> - the oracle text of the card and its faces
+     * <li><code>PRINTED</code> - the text printed on a localized card
+     * <li><code>FLAVOR</code> - the flavor text of the card and its faces
+     */
+    public enum Field {
+        ORACLE, PRINTED, FLAVOR
+    }
+
+    /**
+     * A card matched by {@link #search(Field, String, int)}, with its BM25 score.
+     */
+    public static final class Hit {
+        private final int row;
+        private final double score;
+
+        private Hit(int row, double score) {
+            this.row = row;
+            this.score = score;
+        }
+
+        /**
+         * @return The row of the matched card.
+         */
+        public int getRow() {
+            return row;
+        }
+
+        /**
+         * @return How well the card matched. Scores are only comparable between hits of the same search.
+         */
+        public double getScore() {
+            return score;
+        }
+
+        @Override
+        public String toString() {
+            return "Hit{" +
+                    "row=" + row +
+                    ", score=" + score +
+                    '}';
+        }
+    }
+
+    private static final class FieldIndex {
+        private final Map<String, Postings> terms = new HashMap<>();
+        private String[] texts = new String[16];
+        private int[] lengths = new int[16];
+        private long totalLength;
+
+        void add(int row, String text) {
+            if (row == texts.length) {
+                texts = Arrays.copyOf(texts, row * 2);
+                lengths = Arrays.copyOf(lengths, row * 2);
+            }
+            texts[row] = text;
+            List<String> tokens = tokenize(text);
+            lengths[row] = tokens.size();
+            totalLength += tokens.size();
+
+            Map<String, int[]> positions = new LinkedHashMap<>();
+            for (int position = 0; position < tokens.size(); position++) {
+                int[] list = positions.get(tokens.get(position));
+                if (list == null) {
+                    list = new int[]{0, 0, 0, 0, 0};
+                    positions.put(tokens.get(position), list);
+                } else if (list[0] + 1 == list.length) {
+                    list = Arrays.copyOf(list, list.length * 2);
+                    positions.put(tokens.get(position), list);
+                }
+                // the first element counts the positions which follow it
+                list[++list[0]] = position;
+            }
+            positions.forEach((term, list) -> terms.computeIfAbsent(term, key -> new Postings()).add(row, list));
+        }
+
+        Decoded decode(String term) {
+            Postings postings = terms.get(term);
+            return postings == null ? Decoded.EMPTY : postings.decode();
+        }
+
+        Decoded decodeMatching(Predicate<String> filter) {
+            List<Decoded> matches = new ArrayList<>();
+            for (Map.Entry<String, Postings> entry : terms.entrySet()) {
+                if (filter.test(entry.getKey())) {
+                    matches.add(entry.getValue().decode());
+                }
+            }
+            return Decoded.merge(matches);
+        }
+    }
+
+    /**
+     * The postings of one term: for each card containing it, the gap from the previous card's row, the number of
+     * times the term appears, and the gaps between its positions, all as varints. The postings of common terms, which
+     * cost the most to decode, are kept decoded once they have been read.
+     */
+    private static final class Postings {
+        private static final int CACHED_DOC_COUNT = 512;
+
+        private volatile Decoded decoded;
+        private byte[] bytes = new byte[8];
+        private int length;
+        private int docCount;
+        private int positionCount;
+        private int lastRow = -1;
+
+        /**
+         * @param positions the number of positions, followed by the positions in ascending order
+         */
+        void add(int row, int[] positions) {
+            writeVarint(row - lastRow);
+            writeVarint(positions[0]);
+            int previous = 0;
+            for (int i = 1; i <= positions[0]; i++) {
+                writeVarint(positions[i] - previous);
+                previous = positions[i];
+            }
+            lastRow = row;
+            docCount++;
+            positionCount += positions[0];
+            decoded = null;
+        }
+
+        private void writeVarint(int value) {
+            if (length + 5 > bytes.length) {
+                bytes = Arrays.copyOf(bytes, bytes.length * 2);
+            }
+            while ((value & ~0x7F) != 0) {
+                bytes[length++] = (byte) ((value & 0x7F) | 0x80);
+                value >>>= 7;
+            }
+            bytes[length++] = (byte) value;
+        }
+
+        Decoded decode() {
+            Decoded result = decoded;
+            if (result == null) {
+                result = read();
+                if (docCount >= CACHED_DOC_COUNT) {
+                    decoded = result;
+                }
+            }
+            return result;
+        }
+
+        private Decoded read() {
+            int[] docs = new int[docCount];
+            int[] starts = new int[docCount + 1];
+            int[] positions = new int[positionCount];
+            int offset = 0;
+            int row = -1;
+            int p = 0;
+            for (int d = 0; d < docCount; d++) {
+                int value = 0;
+                int shift = 0;
+                byte b;
+                // inlined varint reads: row gap, then position count, then position gaps
+                do {
+                    b = bytes[offset++];
+                    value |= (b & 0x7F) << shift;
+                    shift += 7;
+                } while (b < 0);
+                row += value;
+                docs[d] = row;
+                starts[d] = p;
+                int count = 0;
+                shift = 0;
+                do {
+                    b = bytes[offset++];
+                    count |= (b & 0x7F) << shift;
+                    shift += 7;
+                } while (b < 0);
+                int position = 0;
+                for (int i = 0; i < count; i++) {
+                    int gap = 0;
+                    shift = 0;
+                    do {
+                        b = bytes[offset++];
+                        gap |= (b & 0x7F) << shift;
+                        shift += 7;
+                    } while (b < 0);
+                    position += gap;
+                    positions[p++] = position;
+                }
+            }
+            starts[docCount] = p;
+            return new Decoded(docs, starts, positions);
+        }
+    }
+
+    /**
+     * Decoded postings: the rows containing a term, and the positions of the term in row <code>docs[i]</code> at
+     * <code>positions[starts[i]]</code> to <code>positions[starts[i + 1] - 1]</code>.
+     */
+    private static final class Decoded {
+        static final Decoded EMPTY = new Decoded(NO_ROWS, new int[1], NO_ROWS);
+
+        final int[] docs;
+        final int[] starts;
+        final int[] positions;
+
+        Decoded(int[] docs, int[] starts, int[] positions) {
+            this.docs = docs;
+            this.starts = starts;
+            this.positions = positions;
+        }
+
+        int frequency(int row) {
+            int index = Arrays.binarySearch(docs, row);
+            return index < 0 ? 0 : starts[index + 1] - starts[index];
+        }
+
+        /**
+         * @return the postings of all the given terms, as if they were one term
+         */
+        static Decoded merge(List<Decoded> terms) {
+            if (terms.isEmpty()) {
+                return EMPTY;
+            } else if (terms.size() == 1) {
+                return terms.get(0);
+            }
+            // sort every (row, position) pair of every term, then split them back up by row
+            int total = 0;
+            for (Decoded term : terms) {
+                total += term.positions.length;
+            }
+            long[] pairs = new long[total];
+            int p = 0;
+            for (Decoded term : terms) {
+                for (int i = 0; i < term.docs.length; i++) {
+                    for (int q = term.starts[i]; q < term.starts[i + 1]; q++) {
+                        pairs[p++] = (long) term.docs[i] << 32 | term.positions[q];
+                    }
+                }
+            }
+            Arrays.sort(pairs);
+
+            int[] docs = new int[total];
+            int[] starts = new int[total + 1];
+            int[] positions = new int[total];
+            int docCount = 0;
+            for (int i = 0; i < total; i++) {
+                int row = (int) (pairs[i] >>> 32);
+                if (docCount == 0 || docs[docCount - 1] != row) {
+                    docs[docCount] = row;
+                    starts[docCount++] = i;
+                }
+                positions[i] = (int) pairs[i];
+            }
+            starts[docCount] = total;
+            return new Decoded(Arrays.copyOf(docs, docCount), Arrays.copyOf(starts, docCount + 1), positions);
+        }
+    }
+}
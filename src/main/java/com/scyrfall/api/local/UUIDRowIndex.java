@@ -0,0 +1,77 @@
+package com.scyrfall.api.local;
+
+import java.util.UUID;
+
+/**
+ * An open-addressing index from UUIDs to rows. Each UUID is stored as its two halves in parallel <code>long</code>
+ * arrays.
+ */
+final class UUIDRowIndex extends RowIndex {
+
+    private long[] mostSignificantBits;
+    private long[] leastSignificantBits;
+
+    UUIDRowIndex(int expectedKeys) {
+        super(expectedKeys);
+        mostSignificantBits = new long[first.length];
+        leastSignificantBits = new long[first.length];
+    }
+
+    void add(UUID key, int row) {
+        long most = key.getMostSignificantBits();
+        long least = key.getLeastSignificantBits();
+        int slot = slotOf(most, least);
+        if (slot < 0) {
+            slot = ~slot;
+            mostSignificantBits[slot] = most;
+            leastSignificantBits[slot] = least;
+        }
+        addRow(slot, row);
+        if (needsResize()) {
+            resize();
+        }
+    }
+
+    /**
+     * @return the first row added with the given key, or -1 if there is none
+     */
+    int get(UUID key) {
+        int slot = slotOf(key.getMostSignificantBits(), key.getLeastSignificantBits());
+        return slot < 0 ? -1 : firstRow(slot);
+    }
+
+    /**
+     * @return every row added with the given key, in the order they were added
+     */
+    int[] getAll(UUID key) {
+        return rows(slotOf(key.getMostSignificantBits(), key.getLeastSignificantBits()));
+    }
+
+    private int slotOf(long most, long least) {
+        // random UUIDs are already well mixed, but ids from other sources may not be
+        int slot = mix(most ^ least) & mask;
+        while (first[slot] != 0) {
+            if (mostSignificantBits[slot] == most && leastSignificantBits[slot] == least) {
+                return slot;
+            }
+            slot = (slot + 1) & mask;
+        }
+        return ~slot;
+    }
+
+    @Override
+    void rehash(int[] oldFirst, int[] oldLast) {
+        long[] oldMost = mostSignificantBits;
+        long[] oldLeast = leastSignificantBits;
+        mostSignificantBits = new long[first.length];
+        leastSignificantBits = new long[first.length];
+        for (int i = 0; i < oldMost.length; i++) {
+            if (oldFirst[i] != 0) {
+                int slot = ~slotOf(oldMost[i], oldLeast[i]);
+                mostSignificantBits[slot] = oldMost[i];
+                leastSignificantBits[slot] = oldLeast[i];
+                moveSlot(i, slot, oldFirst, oldLast);
+            }
+        }
+    }
+}
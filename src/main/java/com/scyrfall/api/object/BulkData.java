@@ -158,6 +158,11 @@ public class BulkData extends ScryfallObject {
                 Objects.equals(updated, bulkData.updated);
     }
 
+    @Override
+    public int hashCode() {
+        return Objects.hash(id, type, name, updated, size);
+    }
+
     @Override
     public String toString() {
         return "BulkData{" +
@@ -1,7 +1,14 @@
 package com.scyrfall.api.object;
 
 import com.scyrfall.api.ScryfallObject;
+import com.scyrfall.api.StringPool;
 import com.scyrfall.api.field.*;
+import com.scyrfall.api.local.CardDataset;
+import com.scyrfall.api.local.FuzzyNameMatcher;
+import com.scyrfall.api.local.LocalResolver;
+import com.scyrfall.api.local.SnapshotInput;
+import com.scyrfall.api.local.SnapshotOutput;
+import com.scyrfall.api.local.SymbolRegistry;
 import com.scyrfall.api.query.Query;
 import org.json.JSONArray;
 import org.json.JSONObject;
@@ -9,7 +16,9 @@ import org.json.JSONObject;
 import java.awt.image.BufferedImage;
 import java.net.*;
 import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
 import java.util.*;
+import java.util.concurrent.CompletableFuture;
 import java.util.function.Function;
 
 //TODO: implement /cards/search and /cards/collection
@@ -27,6 +36,14 @@ public class Card extends ScryfallObject {
     private static final String[] TYPES = {"Creature", "Land", "Instant", "Sorcery", "Enchantment", "Artifact",
             "Planeswalker", "Tribal"};
     private static final String EM_DASH = "—";
+    private static final String CARD_API_PREFIX = Query.API_STUB + "cards/";
+    private static final String SET_API_PREFIX = Query.API_STUB + "sets/";
+    private static final String PRINTS_SEARCH_PREFIX = Query.API_STUB + "cards/search?order=released&q=oracleid%3A";
+    private static final String SET_SEARCH_PREFIX = Query.API_STUB + "cards/search?order=set&q=e%3A";
+    private static final String SCRYFALL_SET_PREFIX = "https://scryfall.com/sets/";
+    private static final String RULINGS_SUFFIX = "/rulings";
+    private static final String SEARCH_SUFFIX = "&unique=prints";
+    private static final String SCRYFALL_SUFFIX = "?utm_source=api";
 
     private final int arenaID;
     private final int mtgoID;
@@ -56,10 +73,11 @@ public class Card extends ScryfallObject {
     private final UUID variationID;
     private final UUID cardBackID;
     private final UUID setID;
-    private final URL printsSearchURL;
-    private final URL rulingsURL;
-    private final URL scryfallURL;
-    private final URL url;
+    // URL fields are kept as strings and are null when they can be rebuilt from id, oracleID, setID or set
+    private final String printsSearchURL;
+    private final String rulingsURL;
+    private final String scryfallURL;
+    private final String url;
     private final List<RelatedCard> allParts;
     private final List<CardFace> faces;
     private final List<String> promoTypes;
@@ -67,10 +85,10 @@ public class Card extends ScryfallObject {
     private final List<String> artistIds;
     private final List<Integer> attractionLights;
     private final double cmc;
-    private final List<Color> colors;
-    private final List<Color> colorIdentity;
-    private final List<Color> colorIndicator;
-    private final List<Color> producedMana;
+    private final ColorSet colors;
+    private final ColorSet colorIdentity;
+    private final ColorSet colorIndicator;
+    private final ColorSet producedMana;
     private final boolean oversized;
     private final boolean digital;
     private final boolean reserved;
@@ -97,13 +115,13 @@ public class Card extends ScryfallObject {
     private final boolean variation;
     private final List<Finish> finishes;
     private final List<Game> games;
-    private final HashMap<String, URL> purchaseURLs;
-    private final HashMap<String, URL> relatedURLs;
+    private final HashMap<String, String> purchaseURLs;
+    private final HashMap<String, String> relatedURLs;
     private final Rarity rarity;
-    private final Date releaseDate;
-    private final URL scryfallSetURL;
-    private final URL setSearchURL;
-    private final URL setURL;
+    private final LocalDate releaseDate;
+    private final String scryfallSetURL;
+    private final String setSearchURL;
+    private final String setURL;
     private final String set;
     private final String setName;
     private final Images images;
@@ -129,30 +147,30 @@ public class Card extends ScryfallObject {
         edhrecRank = getInt("edhrec_rank");
         pennyRank = getInt("penny_rank");
 
-        lang = getString("lang");
+        lang = getPooledString("lang");
         handModifier = getString("hand_modifier");
         lifeModifier = getString("life_modifier");
-        loyalty = getString("loyalty");
-        manaCost = getString("mana_cost");
+        loyalty = getPooledString("loyalty");
+        manaCost = getPooledString("mana_cost");
         name = getString("name");
         flavorName = getString("flavor_name");
         oracleText = getString("oracle_text");
-        power = getString("power");
-        toughness = getString("toughness");
-        defense = getString("defense");
-        typeLine = getString("type_line");
-        artist = getString("artist");
-        collectorNumber = getString("collector_number");
+        power = getPooledString("power");
+        toughness = getPooledString("toughness");
+        defense = getPooledString("defense");
+        typeLine = getPooledString("type_line");
+        artist = getPooledString("artist");
+        collectorNumber = getPooledString("collector_number");
         flavorText = getString("flavor_text");
         printedName = getString("printed_name");
         printedText = getString("printed_text");
         printedTypeLine = getString("printed_type_line");
-        watermark = getString("watermark");
+        watermark = getPooledString("watermark");
         euroPrice = getString("eur");
         tixPrice = getString("tix");
         usdPrice = getString("usd");
-        set = getString("set");
-        setName = getString("set_name");
+        set = getPooledString("set");
+        setName = getPooledString("set_name");
         setType = Set.SetType.fromString(getString("set_type"));
 
         cmc = getDouble("cmc");
@@ -170,14 +188,6 @@ public class Card extends ScryfallObject {
         inBoosters = getBoolean("booster");
         contentWarning = getBoolean("content_warning");
 
-        printsSearchURL = getURL("prints_search_uri");
-        rulingsURL = getURL("rulings_uri");
-        scryfallURL = getURL("scryfall_uri");
-        url = getURL("uri");
-        scryfallSetURL = getURL("scryfall_set_uri");
-        setSearchURL = getURL("set_search_uri");
-        setURL = getURL("set_uri");
-
         id = getUUID("id");
         illustrationID = getUUID("illustration_id");
         oracleID = getUUID("oracle_id");
@@ -185,7 +195,15 @@ public class Card extends ScryfallObject {
         cardBackID = getUUID("card_back_id");
         setID = getUUID("set_id");
 
-        releaseDate = getDate("released_at");
+        url = compactURL(getString("uri"), CARD_API_PREFIX, idText(), "");
+        rulingsURL = compactURL(getString("rulings_uri"), CARD_API_PREFIX, idText(), RULINGS_SUFFIX);
+        printsSearchURL = compactURL(getString("prints_search_uri"), PRINTS_SEARCH_PREFIX, oracleIDText(), SEARCH_SUFFIX);
+        scryfallURL = getString("scryfall_uri");
+        scryfallSetURL = compactURL(getString("scryfall_set_uri"), SCRYFALL_SET_PREFIX, set, SCRYFALL_SUFFIX);
+        setSearchURL = compactURL(getString("set_search_uri"), SET_SEARCH_PREFIX, set, SEARCH_SUFFIX);
+        setURL = compactURL(getString("set_uri"), SET_API_PREFIX, setIDText(), "");
+
+        releaseDate = getLocalDate("released_at");
 
         layout = Layout.fromString(getString("layout"));
         frame = Frame.fromString(getString("frame"));
@@ -197,33 +215,254 @@ public class Card extends ScryfallObject {
 
         finishes = getList("finishes", Finish::fromString, JSONArray::getString);
         games = getList("games", Game::fromString, JSONArray::getString);
-        colors = getList("colors", Color::fromString, JSONArray::getString);
-        colorIdentity = getList("color_identity", Color::fromString, JSONArray::getString);
-        producedMana = getList("produced_mana", Color::fromString, JSONArray::getString);
-        colorIndicator = getList("color_indicator", Color::fromString, JSONArray::getString);
+        colors = getColorSet("colors");
+        colorIdentity = getColorSet("color_identity");
+        producedMana = getColorSet("produced_mana");
+        colorIndicator = getColorSet("color_indicator");
         multiverseIDs = getList("multiverse_ids", Function.identity(), JSONArray::getInt);
         allParts = getList("all_parts", RelatedCard::new, JSONArray::getJSONObject);
-        promoTypes = getList("promo_types", Function.identity(), JSONArray::getString);
-        keywords = getList("keywords", Function.identity(), JSONArray::getString);
+        promoTypes = getList("promo_types", StringPool.getDefault()::canonicalize, JSONArray::getString);
+        keywords = getList("keywords", StringPool.getDefault()::canonicalize, JSONArray::getString);
         frameEffects = getList("frame_effects", FrameEffect::fromString, JSONArray::getString);
         faces = getList("card_faces", CardFace::new, JSONArray::getJSONObject);
         attractionLights = getList("attraction_lights", Function.identity(), JSONArray::getInt);
-        relatedURLs = getMap("related_uris", this::makeURL, JSONObject::getString);
-        purchaseURLs = getMap("purchase_uris", this::makeURL, JSONObject::getString);
-        artistIds = getList("artist_ids", Function.identity(), JSONArray::getString);
+        relatedURLs = getMap("related_uris", Function.identity(), JSONObject::getString);
+        purchaseURLs = getMap("purchase_uris", Function.identity(), JSONObject::getString);
+        artistIds = getList("artist_ids", StringPool.getDefault()::canonicalize, JSONArray::getString);
 
         images = new Images(getJSONObject("image_uris"));
-        legalities = new Legalities(getJSONObject("legalities"));
+        legalities = Legalities.fromJSON(getJSONObject("legalities"));
         prices = new Prices(getJSONObject("prices"));
         preview = new Preview(getJSONObject("preview"));
+        releaseData();
     }
 
-    private URL makeURL(String url) {
-        try {
-            return new URI(url).toURL();
-        } catch (MalformedURLException | URISyntaxException e) {
-            return null;
+    /**
+     * Reads a card from a snapshot, in the order {@link #writeTo(SnapshotOutput)} wrote it.
+     *
+     * @param in the block the card is stored in
+     */
+    public Card(SnapshotInput in) {
+        arenaID = in.readInt();
+        mtgoID = in.readInt();
+        mtgoFoilID = in.readInt();
+        tcgplayerID = in.readInt();
+        tcgplayerEtchedID = in.readInt();
+        cardmarketID = in.readInt();
+        edhrecRank = in.readInt();
+        pennyRank = in.readInt();
+
+        lang = in.readPooledString();
+        handModifier = in.readString();
+        lifeModifier = in.readString();
+        loyalty = in.readPooledString();
+        manaCost = in.readPooledString();
+        name = in.readString();
+        flavorName = in.readString();
+        oracleText = in.readString();
+        power = in.readPooledString();
+        toughness = in.readPooledString();
+        defense = in.readPooledString();
+        typeLine = in.readPooledString();
+        artist = in.readPooledString();
+        collectorNumber = in.readPooledString();
+        flavorText = in.readString();
+        printedName = in.readString();
+        printedText = in.readString();
+        printedTypeLine = in.readString();
+        watermark = in.readPooledString();
+        euroPrice = in.readString();
+        tixPrice = in.readString();
+        usdPrice = in.readString();
+        set = in.readPooledString();
+        setName = in.readPooledString();
+        setType = in.readEnum(Set.SetType.class);
+
+        cmc = in.readDouble();
+
+        oversized = in.readBoolean();
+        digital = in.readBoolean();
+        fullArt = in.readBoolean();
+        highResImage = in.readBoolean();
+        promo = in.readBoolean();
+        reprint = in.readBoolean();
+        storySpotlight = in.readBoolean();
+        reserved = in.readBoolean();
+        textless = in.readBoolean();
+        variation = in.readBoolean();
+        inBoosters = in.readBoolean();
+        contentWarning = in.readBoolean();
+
+        id = in.readUUID();
+        illustrationID = in.readUUID();
+        oracleID = in.readUUID();
+        variationID = in.readUUID();
+        cardBackID = in.readUUID();
+        setID = in.readUUID();
+
+        url = in.readString();
+        rulingsURL = in.readString();
+        printsSearchURL = in.readString();
+        scryfallURL = in.readString();
+        scryfallSetURL = in.readString();
+        setSearchURL = in.readString();
+        setURL = in.readString();
+
+        releaseDate = in.readDate();
+
+        layout = in.readEnum(Layout.class);
+        frame = in.readEnum(Frame.class);
+        frameEffect = in.readEnum(FrameEffect.class);
+        rarity = in.readEnum(Rarity.class);
+        borderColor = in.readEnum(BorderColor.class);
+        imageStatus = in.readEnum(ImageStatus.class);
+        securityStamp = in.readEnum(SecurityStamp.class);
+
+        finishes = in.readList(input -> input.readEnum(Finish.class));
+        games = in.readList(input -> input.readEnum(Game.class));
+        colors = in.readColors();
+        colorIdentity = in.readColors();
+        producedMana = in.readColors();
+        colorIndicator = in.readColors();
+        multiverseIDs = in.readList(SnapshotInput::readInt);
+        allParts = in.readList(RelatedCard::new);
+        promoTypes = in.readList(SnapshotInput::readPooledString);
+        keywords = in.readList(SnapshotInput::readPooledString);
+        frameEffects = in.readList(input -> input.readEnum(FrameEffect.class));
+        faces = in.readList(CardFace::new);
+        attractionLights = in.readList(SnapshotInput::readInt);
+        relatedURLs = in.readStringMap();
+        purchaseURLs = in.readStringMap();
+        artistIds = in.readList(SnapshotInput::readPooledString);
+
+        images = new Images(in);
+        legalities = in.readLegalities();
+        prices = new Prices(in);
+        preview = new Preview(in);
+    }
+
+    /**
+     * Writes every field of this card to a snapshot, to be read back by {@link #Card(SnapshotInput)}.
+     *
+     * @param out the block to write the card to
+     */
+    public void writeTo(SnapshotOutput out) {
+        out.writeInt(arenaID);
+        out.writeInt(mtgoID);
+        out.writeInt(mtgoFoilID);
+        out.writeInt(tcgplayerID);
+        out.writeInt(tcgplayerEtchedID);
+        out.writeInt(cardmarketID);
+        out.writeInt(edhrecRank);
+        out.writeInt(pennyRank);
+
+        out.writeString(lang);
+        out.writeString(handModifier);
+        out.writeString(lifeModifier);
+        out.writeString(loyalty);
+        out.writeString(manaCost);
+        out.writeString(name);
+        out.writeString(flavorName);
+        out.writeString(oracleText);
+        out.writeString(power);
+        out.writeString(toughness);
+        out.writeString(defense);
+        out.writeString(typeLine);
+        out.writeString(artist);
+        out.writeString(collectorNumber);
+        out.writeString(flavorText);
+        out.writeString(printedName);
+        out.writeString(printedText);
+        out.writeString(printedTypeLine);
+        out.writeString(watermark);
+        out.writeString(euroPrice);
+        out.writeString(tixPrice);
+        out.writeString(usdPrice);
+        out.writeString(set);
+        out.writeString(setName);
+        out.writeEnum(setType);
+
+        out.writeDouble(cmc);
+
+        out.writeBoolean(oversized);
+        out.writeBoolean(digital);
+        out.writeBoolean(fullArt);
+        out.writeBoolean(highResImage);
+        out.writeBoolean(promo);
+        out.writeBoolean(reprint);
+        out.writeBoolean(storySpotlight);
+        out.writeBoolean(reserved);
+        out.writeBoolean(textless);
+        out.writeBoolean(variation);
+        out.writeBoolean(inBoosters);
+        out.writeBoolean(contentWarning);
+
+        out.writeUUID(id);
+        out.writeUUID(illustrationID);
+        out.writeUUID(oracleID);
+        out.writeUUID(variationID);
+        out.writeUUID(cardBackID);
+        out.writeUUID(setID);
+
+        out.writeString(url);
+        out.writeString(rulingsURL);
+        out.writeString(printsSearchURL);
+        out.writeString(scryfallURL);
+        out.writeString(scryfallSetURL);
+        out.writeString(setSearchURL);
+        out.writeString(setURL);
+
+        out.writeDate(releaseDate);
+
+        out.writeEnum(layout);
+        out.writeEnum(frame);
+        out.writeEnum(frameEffect);
+        out.writeEnum(rarity);
+        out.writeEnum(borderColor);
+        out.writeEnum(imageStatus);
+        out.writeEnum(securityStamp);
+
+        out.writeList(finishes, SnapshotOutput::writeEnum);
+        out.writeList(games, SnapshotOutput::writeEnum);
+        out.writeColors(colors);
+        out.writeColors(colorIdentity);
+        out.writeColors(producedMana);
+        out.writeColors(colorIndicator);
+        out.writeList(multiverseIDs, SnapshotOutput::writeInt);
+        out.writeList(allParts, (output, part) -> part.writeTo(output));
+        out.writeList(promoTypes, SnapshotOutput::writeString);
+        out.writeList(keywords, SnapshotOutput::writeString);
+        out.writeList(frameEffects, SnapshotOutput::writeEnum);
+        out.writeList(faces, (output, face) -> face.writeTo(output));
+        out.writeList(attractionLights, SnapshotOutput::writeInt);
+        out.writeStringMap(relatedURLs);
+        out.writeStringMap(purchaseURLs);
+        out.writeList(artistIds, SnapshotOutput::writeString);
+
+        images.writeTo(out);
+        out.writeLegalities(legalities);
+        prices.writeTo(out);
+        preview.writeTo(out);
+    }
+
+    private String idText() {
+        return id == null ? "" : id.toString();
+    }
+
+    private String oracleIDText() {
+        return oracleID == null ? "" : oracleID.toString();
+    }
+
+    private String setIDText() {
+        return setID == null ? "" : setID.toString();
+    }
+
+    private static HashMap<String, URL> toURLMap(HashMap<String, String> urls) {
+        HashMap<String, URL> map = new HashMap<>();
+        for (Map.Entry<String, String> entry : urls.entrySet()) {
+            map.put(entry.getKey(), toURL(entry.getValue()));
         }
+        return map;
     }
 
     /**
@@ -381,6 +620,34 @@ public class Card extends ScryfallObject {
         return manaCost;
     }
 
+    /**
+     * @return The symbols of this card's mana cost, in order, from the shared {@link SymbolRegistry}. If this card has
+     * no mana cost of its own, as with transforming cards, these are the symbols of its front face's cost. This never
+     * asks Scryfall's API, so it is empty until symbols are loaded into the {@link LocalResolver} or
+     * {@link SymbolRegistry#getInstance()} has loaded them.
+     */
+    public List<Symbol> getManaSymbols() {
+        SymbolRegistry registry = SymbolRegistry.getLoaded();
+        return registry == null ? List.of() : registry.getSymbols(devotionCost());
+    }
+
+    /**
+     * @param colors the colors to count devotion to
+     * @return The number of mana symbols in this card's cost which include any of the colors, as counted by
+     * {@link #getManaSymbols()}.
+     */
+    public int getDevotion(Color... colors) {
+        SymbolRegistry registry = SymbolRegistry.getLoaded();
+        return registry == null ? 0 : registry.getDevotion(devotionCost(), ColorSet.of(colors));
+    }
+
+    private String devotionCost() {
+        if ((manaCost == null || manaCost.isEmpty()) && !getFaces().isEmpty()) {
+            return getFaces().get(0).getManaCost();
+        }
+        return manaCost;
+    }
+
     /**
      * @return The name of this card. If this card has multiple faces, this field will contain both names separated by
      * "<code> // </code>".
@@ -505,28 +772,28 @@ public class Card extends ScryfallObject {
      * @return A link to where you can begin paginating all re/prints for this card on Scryfall’s API.
      */
     public URL getPrintsSearchURL() {
-        return printsSearchURL;
+        return expandURL(printsSearchURL, PRINTS_SEARCH_PREFIX, oracleIDText(), SEARCH_SUFFIX);
     }
 
     /**
      * @return A link to this card’s rulings list on Scryfall’s API.
      */
     public URL getRulingsURL() {
-        return rulingsURL;
+        return expandURL(rulingsURL, CARD_API_PREFIX, idText(), RULINGS_SUFFIX);
     }
 
     /**
      * @return A link to this card’s permapage on Scryfall’s website.
      */
     public URL getScryfallURL() {
-        return scryfallURL;
+        return toURL(scryfallURL);
     }
 
     /**
      * @return A link to this card object on Scryfall’s API.
      */
     public URL getUrl() {
-        return url;
+        return expandURL(url, CARD_API_PREFIX, idText(), "");
     }
 
     /**
@@ -561,29 +828,38 @@ public class Card extends ScryfallObject {
      * @return This card’s colors, if the overall card has colors defined by the rules. Otherwise the colors will be on
      * the {@link CardFace} objects, from {@link #getFaces()}.
      */
-    public List<Color> getColors() {
+    public ColorSet getColors() {
         return colors;
     }
 
     /**
      * @return This card’s color identity.
      */
-    public List<Color> getColorIdentity() {
+    public ColorSet getColorIdentity() {
         return colorIdentity;
     }
 
+    /**
+     * @param commanderIdentity the color identity of a commander
+     * @return True if this card's color identity is within the given identity, so it may be played in a commander
+     * deck with that identity.
+     */
+    public boolean fitsColorIdentity(ColorSet commanderIdentity) {
+        return colorIdentity.isSubsetOf(commanderIdentity);
+    }
+
     /**
      * @return The colors in this card’s color indicator, if any. An empty array for this field indicates the card does
      * not have one.
      */
-    public List<Color> getColorIndicator() {
+    public ColorSet getColorIndicator() {
         return colorIndicator;
     }
 
     /**
      * @return Colors of mana that this card could produce.
      */
-    public List<Color> getProducedMana() {
+    public ColorSet getProducedMana() {
         return producedMana;
     }
 
@@ -845,14 +1121,14 @@ public class Card extends ScryfallObject {
      * @return A HashMap providing URLs to this card’s listing on major marketplaces. Omitted if the card is unpurchaseable.
      */
     public HashMap<String, URL> getPurchaseURLs() {
-        return purchaseURLs;
+        return toURLMap(purchaseURLs);
     }
 
     /**
      * @return A HashMap providing URLs to this card’s listing on other Magic: The Gathering online resources.
      */
     public HashMap<String, URL> getRelatedURLs() {
-        return relatedURLs;
+        return toURLMap(relatedURLs);
     }
 
     /**
@@ -867,6 +1143,13 @@ public class Card extends ScryfallObject {
      * @return The date this card was first released.
      */
     public Date getReleaseDate() {
+        return toDate(releaseDate);
+    }
+
+    /**
+     * @return The date this card was first released.
+     */
+    public LocalDate getReleaseLocalDate() {
         return releaseDate;
     }
 
@@ -874,21 +1157,21 @@ public class Card extends ScryfallObject {
      * @return A link to this card’s set on Scryfall’s website.
      */
     public URL getScryfallSetURL() {
-        return scryfallSetURL;
+        return expandURL(scryfallSetURL, SCRYFALL_SET_PREFIX, set, SCRYFALL_SUFFIX);
     }
 
     /**
      * @return A link to where you can begin paginating this card’s set on the Scryfall API.
      */
     public URL getSetSearchURL() {
-        return setSearchURL;
+        return expandURL(setSearchURL, SET_SEARCH_PREFIX, set, SEARCH_SUFFIX);
     }
 
     /**
      * @return A link to this card’s {@link Set} on Scryfall’s API.
      */
     public URL getSetURL() {
-        return setURL;
+        return expandURL(setURL, SET_API_PREFIX, setIDText(), "");
     }
 
     /**
@@ -923,10 +1206,30 @@ public class Card extends ScryfallObject {
     }
 
     /**
-     * @return An array of Ruling objects for all of the rulings on this card.
+     * @return An array of Ruling objects for all of the rulings on this card, oldest first. These come from the
+     * rulings loaded into the {@link LocalResolver} when there are any, without asking the API, whatever its
+     * {@link LocalResolver.Mode}. Cards without an oracle id of their own, such as reversible cards, are looked up by
+     * their faces' oracle id.
      */
     public List<Ruling> getRulings() {
-        ScryfallList rulingsList = ScryfallList.fromURL(rulingsURL);
+        // the rulings file covers every card, so loaded rulings answer in every mode
+        List<Ruling> rulings = LocalResolver.findRulings(oracleID != null ? oracleID : faceOracleID());
+        return rulings != null ? rulings : LocalResolver.resolve(() -> null, this::fetchRulings, List::of);
+    }
+
+    private UUID faceOracleID() {
+        if (faces != null) {
+            for (CardFace face : faces) {
+                if (face.getOracleId() != null) {
+                    return face.getOracleId();
+                }
+            }
+        }
+        return null;
+    }
+
+    private List<Ruling> fetchRulings() {
+        ScryfallList rulingsList = ScryfallList.fromURL(getRulingsURL());
         ScryfallObject[] rulingsObjects = rulingsList.getContents();
         Ruling[] rulings = new Ruling[rulingsObjects.length];
         for (int i = 0; i < rulings.length; i++) {
@@ -948,11 +1251,24 @@ public class Card extends ScryfallObject {
         }
     }
 
+    /**
+     * @param size the <code>Size</code> of the image to be retrieved
+     * @return a future of the image {@link #getImage(Images.Size)} returns, loaded without blocking the caller
+     * @see com.scyrfall.api.query.ImagePipeline
+     */
+    public CompletableFuture<BufferedImage> getImageAsync(Images.Size size) {
+        if (hasMultipleFaces()) {
+            return faces.getFirst().getImages().getImageAsync(size);
+        } else {
+            return images.getImageAsync(size);
+        }
+    }
+
     public String getImageURI(Images.Size size) {
         if (hasMultipleFaces()) {
-            return faces.getFirst().getImages().getURL(size).toString();
+            return faces.getFirst().getImages().getURI(size);
         } else {
-            return images.getURL(size).toString();
+            return images.getURI(size);
         }
     }
 
@@ -965,19 +1281,34 @@ public class Card extends ScryfallObject {
      * @return A <code>Card</code> object containing the corresponding card's data.
      */
     public static Card namedExactly(String name) {
-        return new Card(Query.dataFromPath("cards/named?exact=" + name.replace(' ', '+')));
+        return LocalResolver.resolve(() -> LocalResolver.getCards().fromName(name),
+                "cards/named?exact=" + name.replace(' ', '+'), Card::new);
     }
 
     /**
      * Searches using the <code>fuzzy</code> parameter in the Scryfall API, so the
      * provided card name can differ from existing cards. The closest match will be found.
      * If no card matches closely enough to the given name, an error will be thrown.
+     * When cards are loaded into {@link LocalResolver}, names are matched from memory by a
+     * {@link com.scyrfall.api.local.FuzzyNameMatcher}.
      *
      * @param name The name of the card for which data should be retrieved.
      * @return A <code>Card</code> object containing the corresponding card's data.
      */
     public static Card namedFuzzy(String name) {
-        return new Card(Query.dataFromPath("cards/named?fuzzy=" + name.replace(' ', '+')));
+        // the local miss is only reported after the local lookup ran, so its match is kept for the error
+        FuzzyNameMatcher.Match[] miss = new FuzzyNameMatcher.Match[1];
+        return LocalResolver.resolve(() -> {
+                    CardDataset cards = LocalResolver.getCards();
+                    Card card = cards.fromName(name);
+                    if (card != null) {
+                        return card;
+                    }
+                    miss[0] = cards.getFuzzyNameMatcher().match(name);
+                    return miss[0].getCard();
+                },
+                () -> new Card(Query.dataFromPath("cards/named?fuzzy=" + name.replace(' ', '+'))),
+                () -> new Card(LocalResolver.fuzzyNameError(name, miss[0])));
     }
 
     /**
@@ -986,12 +1317,17 @@ public class Card extends ScryfallObject {
      * @return A card with the given name
      */
     public static Card named(String name, SearchType type) {
-        return new Card(Query.dataFromPath("cards/named?" + type.toParameterString() + "=" +
-                name.replace(' ', '+')));
+        return type == SearchType.EXACT ? namedExactly(name) : namedFuzzy(name);
     }
 
+    /**
+     * @param query a query in Scryfall's <a href="https://scryfall.com/docs/syntax">search syntax</a>
+     * @return the first page of cards matching the query
+     */
     public static ScryfallList search(String query) {
-        return new ScryfallList(Query.dataFromPath("cards/search?q=" + URLEncoder.encode(query, StandardCharsets.UTF_8)));
+        return LocalResolver.resolve(() -> LocalResolver.search(query),
+                () -> new ScryfallList(Query.dataFromPath("cards/search?q=" + URLEncoder.encode(query, StandardCharsets.UTF_8))),
+                () -> new ScryfallList(LocalResolver.searchError(query)));
     }
 
     /**
@@ -1001,7 +1337,7 @@ public class Card extends ScryfallObject {
      * @return A <code>Card</code> object containing the corresponding card's data.
      */
     public static Card fromMtgoID(int id) {
-        return new Card(Query.dataFromPath("cards/MTGO/" + id));
+        return LocalResolver.resolve(() -> LocalResolver.getCards().fromMtgoID(id), "cards/MTGO/" + id, Card::new);
     }
 
     /**
@@ -1009,7 +1345,7 @@ public class Card extends ScryfallObject {
      * @return the card with the given MTG Arena ID
      */
     public static Card fromArenaID(int id) {
-        return new Card(Query.dataFromPath("cards/ARENA/" + id));
+        return LocalResolver.resolve(() -> LocalResolver.getCards().fromArenaID(id), "cards/ARENA/" + id, Card::new);
     }
 
     /**
@@ -1017,7 +1353,7 @@ public class Card extends ScryfallObject {
      * @return the card with the given Multiverse ID
      */
     public static Card fromMultiverseID(int id) {
-        return new Card(Query.dataFromPath("cards/multiverse/" + id));
+        return LocalResolver.resolve(() -> LocalResolver.getCards().fromMultiverseID(id), "cards/multiverse/" + id, Card::new);
     }
 
     /**
@@ -1026,7 +1362,7 @@ public class Card extends ScryfallObject {
      * also known as the <code>productId</code> on <a href="https://docs.tcgplayer.com/docs">TCGplayer&rsquo;s API</a>.</p>
      */
     public static Card fromxTcgPlayerID(int id) {
-        return new Card(Query.dataFromPath("cards/tcgplayer/" + id));
+        return LocalResolver.resolve(() -> LocalResolver.getCards().fromTcgplayerID(id), "cards/tcgplayer/" + id, Card::new);
     }
 
 
@@ -1036,7 +1372,7 @@ public class Card extends ScryfallObject {
      * Cardmarket's APIs.
      */
     public static Card fromCardmarketID(int id) {
-        return new Card(Query.dataFromPath("cards/cardmarket/" + id));
+        return LocalResolver.resolve(() -> LocalResolver.getCards().fromCardmarketID(id), "cards/cardmarket/" + id, Card::new);
     }
 
     /**
@@ -1044,14 +1380,14 @@ public class Card extends ScryfallObject {
      * @return the card with the given Scryfall ID
      */
     public static Card fromID(UUID id) {
-        return new Card(Query.dataFromPath("cards/" + id));
+        return LocalResolver.resolve(() -> LocalResolver.getCards().fromID(id), "cards/" + id, Card::new);
     }
 
     /**
      * @return a random Magic card
      */
     public static Card random() {
-        return new Card(Query.dataFromPath("cards/random"));
+        return LocalResolver.resolve(() -> LocalResolver.getCards().random(), "cards/random", Card::new);
     }
 
     /**
@@ -1060,7 +1396,8 @@ public class Card extends ScryfallObject {
      * @return the card of the specified collectors number from the specified set
      */
     public static Card fromSet(String setCode, int collectorsNumber) {
-        return new Card(Query.dataFromPath("cards/" + setCode + "/" + collectorsNumber));
+        return LocalResolver.resolve(() -> LocalResolver.getCards().fromSet(setCode, collectorsNumber),
+                "cards/" + setCode + "/" + collectorsNumber, Card::new);
     }
 
     /**
@@ -1069,7 +1406,8 @@ public class Card extends ScryfallObject {
      * @return the card of the specified collectors number from the specified set
      */
     public static Card fromSet(String setCode, String collectorsNumber) {
-        return new Card(Query.dataFromPath("cards/" + setCode + "/" + collectorsNumber));
+        return LocalResolver.resolve(() -> LocalResolver.getCards().fromSet(setCode, collectorsNumber),
+                "cards/" + setCode + "/" + collectorsNumber, Card::new);
     }
 
     /**
@@ -1079,7 +1417,8 @@ public class Card extends ScryfallObject {
      * @return the card of the specified collectors number from the specified set
      */
     public static Card fromSet(String setCode, int collectorsNumber, String lang) {
-        return new Card(Query.dataFromPath("cards/" + setCode + "/" + collectorsNumber + "/" + lang));
+        return LocalResolver.resolve(() -> LocalResolver.getCards().fromSet(setCode, collectorsNumber, lang),
+                "cards/" + setCode + "/" + collectorsNumber + "/" + lang, Card::new);
     }
 
     /**
@@ -1089,21 +1428,24 @@ public class Card extends ScryfallObject {
      * @return the card of the specified collectors number from the specified set
      */
     public static Card fromSet(String setCode, String collectorsNumber, String lang) {
-        return new Card(Query.dataFromPath("cards/" + setCode + "/" + collectorsNumber + "/" + lang));
+        return LocalResolver.resolve(() -> LocalResolver.getCards().fromSet(setCode, collectorsNumber, lang),
+                "cards/" + setCode + "/" + collectorsNumber + "/" + lang, Card::new);
     }
 
     /**
      * This method is designed for creating assistive UI elements that allow users to free-type card names. The names
      * are sorted with the nearest match first, highly favoring results that begin with your given string. Spaces,
      * punctuation, and capitalization are ignored. If q is less than 2 characters long, or if no names match, the
-     * Catalog will contain 0 items (instead of returning any errors).
+     * Catalog will contain 0 items (instead of returning any errors). When cards are loaded into
+     * {@link LocalResolver}, names are completed from memory by a {@link com.scyrfall.api.local.AutocompleteIndex}.
      *
      * @param substring The string to autocomplete.
      * @return a Catalog object containing up to 20 full English card names that could be autocompletions of the
      * given string parameter.
      */
     public static Catalog autoComplete(String substring) {
-        return new Catalog(Query.dataFromPath("cards/autocomplete?q=" + substring));
+        return LocalResolver.resolve(() -> LocalResolver.autoComplete(substring),
+                "cards/autocomplete?q=" + substring, Catalog::new);
     }
 
     /**
@@ -1355,11 +1697,34 @@ public class Card extends ScryfallObject {
         }
     }
 
+    /**
+     * Cards are identified by their Scryfall id, so two Card objects are equal if they represent the same printing, even
+     * if they were retrieved at different times and some of their values (such as prices) have changed in between.
+     * Use {@link #contentEquals(Card)} to compare every field.
+     */
     @Override
     public boolean equals(Object o) {
         if (this == o) return true;
         if (o == null || getClass() != o.getClass()) return false;
         Card card = (Card) o;
+        if (id == null || card.id == null) {
+            return id == card.id && contentEquals(card);
+        }
+        return id.equals(card.id);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hashCode(id);
+    }
+
+    /**
+     * @param card the card to compare with
+     * @return true if every field of this card is equal to the corresponding field of <code>card</code>
+     */
+    public boolean contentEquals(Card card) {
+        if (this == card) return true;
+        if (card == null) return false;
         return arenaID == card.arenaID &&
                 mtgoID == card.mtgoID &&
                 mtgoFoilID == card.mtgoFoilID &&
@@ -1468,10 +1833,10 @@ public class Card extends ScryfallObject {
                 ", variationID=" + variationID +
                 ", cardBackID=" + cardBackID +
                 ", setID=" + setID +
-                ", printsSearchURL=" + printsSearchURL +
-                ", rulingsURL=" + rulingsURL +
+                ", printsSearchURL=" + getPrintsSearchURL() +
+                ", rulingsURL=" + getRulingsURL() +
                 ", scryfallURL=" + scryfallURL +
-                ", url=" + url +
+                ", url=" + getUrl() +
                 ", allParts=" + allParts +
                 ", faces=" + faces +
                 ", promoTypes=" + promoTypes +
@@ -1511,9 +1876,9 @@ public class Card extends ScryfallObject {
                 ", relatedURLs=" + relatedURLs +
                 ", rarity=" + rarity +
                 ", releaseDate=" + releaseDate +
-                ", scryfallSetURL=" + scryfallSetURL +
-                ", setSearchURL=" + setSearchURL +
-                ", setURL=" + setURL +
+                ", scryfallSetURL=" + getScryfallSetURL() +
+                ", setSearchURL=" + getSetSearchURL() +
+                ", setURL=" + getSetURL() +
                 ", set='" + set + '\'' +
                 ", setName='" + setName + '\'' +
                 ", images=" + images +
@@ -5,7 +5,9 @@ import com.scyrfall.api.query.Query;
 import org.json.JSONObject;
 
 import java.net.URL;
+import java.time.LocalDate;
 import java.util.Date;
+import java.util.Objects;
 import java.util.UUID;
 
 /**
@@ -20,7 +22,7 @@ public class CardMigration extends ScryfallObject {
 
     private final URL url;
     private final UUID id;
-    private final Date createdAt;
+    private final LocalDate createdAt;
     private final MigrationStrategy migrationStrategy;
     private final UUID oldScryfallId;
     private final UUID newScryfallId;
@@ -32,7 +34,7 @@ public class CardMigration extends ScryfallObject {
 
         url = getURL("uri");
         id = getUUID("id");
-        createdAt = getDate("created_at");
+        createdAt = getLocalDate("created_at");
         migrationStrategy = MigrationStrategy.fromString(getString("migration_strategy"));
         oldScryfallId = getUUID("old_scryfall_id");
         newScryfallId = getUUID("new_scryfall_id");
@@ -58,6 +60,13 @@ public class CardMigration extends ScryfallObject {
      * @return  The date this migration was performed.
      */
     public Date getCreatedAt() {
+        return toDate(createdAt);
+    }
+
+    /**
+     * @return  The date this migration was performed.
+     */
+    public LocalDate getCreatedAtLocalDate() {
         return createdAt;
     }
 
@@ -112,6 +121,36 @@ public class CardMigration extends ScryfallObject {
         return new CardMigration(Query.dataFromPath("migrations/" + id.toString()));
     }
 
+    /**
+     * Migrations are identified by their Scryfall id, so two CardMigration objects are equal if they represent the same
+     * migration. Use {@link #contentEquals(CardMigration)} to compare every field.
+     */
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        CardMigration that = (CardMigration) o;
+        if (id == null || that.id == null) {
+            return id == that.id && contentEquals(that);
+        }
+        return id.equals(that.id);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hashCode(id);
+    }
+
+    /**
+     * @param that the migration to compare with
+     * @return true if every field of this migration is equal to the corresponding field of <code>that</code>
+     */
+    public boolean contentEquals(CardMigration that) {
+        if (this == that) return true;
+        if (that == null) return false;
+        return migrationStrategy == that.migrationStrategy && Objects.equals(id, that.id) && Objects.equals(createdAt, that.createdAt) && Objects.equals(oldScryfallId, that.oldScryfallId) && Objects.equals(newScryfallId, that.newScryfallId) && Objects.equals(note, that.note) && Objects.equals(url == null ? null : url.toString(), that.url == null ? null : that.url.toString()) && (metadata == null ? that.metadata == null : that.metadata != null && metadata.similar(that.metadata));
+    }
+
     public enum MigrationStrategy {
         MERGE, DELETE;
 
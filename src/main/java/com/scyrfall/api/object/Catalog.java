@@ -1,6 +1,10 @@
 package com.scyrfall.api.object;
 
 import com.scyrfall.api.ScryfallObject;
+import com.scyrfall.api.local.CatalogRegistry;
+import com.scyrfall.api.local.LocalResolver;
+import com.scyrfall.api.local.SnapshotInput;
+import com.scyrfall.api.local.SnapshotOutput;
 import com.scyrfall.api.query.Query;
 import org.json.JSONArray;
 import org.json.JSONObject;
@@ -34,13 +38,26 @@ public class Catalog extends ScryfallObject {
         }
     }
 
+    public Catalog(SnapshotInput in) {
+        url = toURL(in.readString());
+        totalValues = in.readInt();
+        values = in.readStrings();
+    }
+
+    public void writeTo(SnapshotOutput out) {
+        out.writeString(url == null ? null : url.toString());
+        out.writeInt(totalValues);
+        out.writeStrings(values);
+    }
+
     /**
      * @param identifier the identifier of the catalog to be retrieved
      * @return The catalog located at the specified identifier in Scryfall's API
      * @see Name
+     * @see CatalogRegistry
      */
     public static Catalog fromIdentifier(Name identifier) {
-        return new Catalog(Query.dataFromPath("catalog/" + identifier.toParameterString()));
+        return fromName(identifier.toParameterString());
     }
 
     /**
@@ -50,7 +67,7 @@ public class Catalog extends ScryfallObject {
      * Use this method only if the catalog you want to retrieve is not yet in the {@link Name} enum.
      */
     public static Catalog fromName(String name) {
-        return new Catalog(Query.dataFromPath("catalog/" + name));
+        return LocalResolver.resolve(() -> LocalResolver.findCatalog(name), "catalog/" + name, Catalog::new);
     }
 
     /**
@@ -106,8 +123,11 @@ public class Catalog extends ScryfallObject {
         CARD_NAMES, ARTIST_NAMES, WORD_BANK, SUPERTYPES, CARD_TYPES, ARTIFACT_TYPES, BATTLE_TYPES, CREATURE_TYPES, ENCHANTMENT_TYPES, LAND_TYPES, PLANESWALKER_TYPES,
         SPELL_TYPES, POWERS, TOUGHNESSES, LOYALTIES, KEYWORD_ABILITIES, KEYWORD_ACTIONS, ABILITY_WORDS, WATERMARKS;
 
+        /**
+         * @return The name as Scryfall's API spells it, such as <code>card-names</code>.
+         */
         public String toParameterString() {
-            return this.toString().toLowerCase();
+            return this.toString().toLowerCase().replace('_', '-');
         }
     }
 
@@ -130,4 +150,9 @@ public class Catalog extends ScryfallObject {
                 Arrays.equals(values, catalog.values);
     }
 
+    @Override
+    public int hashCode() {
+        return 31 * totalValues + Arrays.hashCode(values);
+    }
+
 }
@@ -86,6 +86,11 @@ public class ScryfallError extends ScryfallObject {
                 Arrays.equals(warnings, that.warnings);
     }
 
+    @Override
+    public int hashCode() {
+        return Objects.hash(status, code, details, type);
+    }
+
     @Override
     public String toString() {
         return "ScryfallError{" +
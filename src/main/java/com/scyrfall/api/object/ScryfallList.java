@@ -8,7 +8,9 @@ import org.json.JSONObject;
 import java.net.URL;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.List;
 import java.util.Objects;
+import java.util.function.Supplier;
 
 /**
  * A List object represents a requested sequence of other objects (Cards, Sets, etc). List objects may be paginated, and
@@ -21,6 +23,8 @@ public class ScryfallList extends ScryfallObject {
     private final URL nextPageURL;
     private final int totalCards;
     private String[] warnings;
+    private final List<ScryfallObject> objects;
+    private final Supplier<ScryfallList> nextPage;
 
     public ScryfallList(JSONObject data) {
         super(data);
@@ -36,10 +40,33 @@ public class ScryfallList extends ScryfallObject {
             }
         }
         nextPageURL = getURL("next_page");
+        objects = null;
+        nextPage = null;
     }
 
     /**
-     * @return A JSONArray of the requested objects, in a specific order.
+     * Creates a page of a list whose objects were found locally rather than retrieved from Scryfall, such as the
+     * results of {@link com.scyrfall.api.local.CardDataset#search(String)}. The page holds the objects themselves, so
+     * {@link #getData()} is empty, and the next page is produced by <code>nextPage</code> without a request.
+     *
+     * @param objects     the objects on this page, in order
+     * @param totalCards  the number of objects across all pages
+     * @param nextPageURL the URL of the equivalent next page on Scryfall's API, or null if this is the last page
+     * @param nextPage    produces the next page, or null if this is the last page
+     */
+    public ScryfallList(List<? extends ScryfallObject> objects, int totalCards, URL nextPageURL,
+                        Supplier<ScryfallList> nextPage) {
+        this.data = new JSONArray();
+        this.objects = List.copyOf(objects);
+        this.totalCards = totalCards;
+        this.hasMore = nextPage != null;
+        this.nextPageURL = nextPageURL;
+        this.nextPage = nextPage;
+    }
+
+    /**
+     * @return A JSONArray of the requested objects, in a specific order. Lists found locally hold their objects
+     * instead, so this array is empty for them.
      */
     public JSONArray getData() {
         return data;
@@ -80,7 +107,9 @@ public class ScryfallList extends ScryfallObject {
      * @return If there is a page beyond this page, returns a List object for that page.
      */
     public ScryfallList getNextPage() {
-        if (hasMore) {
+        if (nextPage != null) {
+            return nextPage.get();
+        } else if (hasMore) {
             return new ScryfallList(Query.dataFromURL(nextPageURL));
         } else {
             return null;
@@ -96,6 +125,9 @@ public class ScryfallList extends ScryfallObject {
         boolean repeat = true;
         while (repeat) {
             repeat = current.hasMore;
+            if (current.objects != null) {
+                total.addAll(current.objects);
+            }
             for (int i = 0; i < current.data.length(); i++) {
                 JSONObject object = current.data.getJSONObject(i);
                 total.add(ScryfallObject.getObject(object));
@@ -123,6 +155,13 @@ public class ScryfallList extends ScryfallObject {
         boolean repeat = true;
         while (repeat) {
             repeat = current.hasMore;
+            if (current.objects != null) {
+                for (ScryfallObject object : current.objects) {
+                    if (object instanceof Card) {
+                        total.add((Card) object);
+                    }
+                }
+            }
             for (int i = 0; i < current.data.length(); i++) {
                 JSONObject object = current.data.getJSONObject(i);
                 if (object.getString("object").equals("card")) {
@@ -146,10 +185,16 @@ public class ScryfallList extends ScryfallObject {
         return hasMore == list.hasMore &&
                 totalCards == list.totalCards &&
                 Objects.equals(data, list.data) &&
+                Objects.equals(objects, list.objects) &&
                 Objects.equals(nextPageURL, list.nextPageURL) &&
                 Arrays.equals(warnings, list.warnings);
     }
 
+    @Override
+    public int hashCode() {
+        return Objects.hash(hasMore, totalCards, data);
+    }
+
     @Override
     public String toString() {
         return "List{" +
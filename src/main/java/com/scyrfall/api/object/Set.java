@@ -1,10 +1,14 @@
 package com.scyrfall.api.object;
 
 import com.scyrfall.api.ScryfallObject;
+import com.scyrfall.api.local.LocalResolver;
+import com.scyrfall.api.local.SnapshotInput;
+import com.scyrfall.api.local.SnapshotOutput;
 import com.scyrfall.api.query.Query;
 import org.json.JSONObject;
 
 import java.net.URL;
+import java.time.LocalDate;
 import java.util.Date;
 import java.util.Objects;
 import java.util.UUID;
@@ -28,7 +32,7 @@ public class Set extends ScryfallObject {
     private final String block;
     private final String parentSetCode;
     private final SetType setType;
-    private final Date released;
+    private final LocalDate released;
     private final int cardCount;
     private final int tcgPlayerID;
     private final int printedSize;
@@ -53,7 +57,7 @@ public class Set extends ScryfallObject {
         blockCode = getString("block_code");
         block = getString("block");
         parentSetCode = getString("parent_set_code");
-        released = getDate("released_at");
+        released = getLocalDate("released_at");
         tcgPlayerID = getInt("tcgplayer_id");
         cardCount = getInt("card_count");
         printedSize = getInt("printed_size");
@@ -66,6 +70,56 @@ public class Set extends ScryfallObject {
         url = getURL("uri");
     }
 
+    public Set(SnapshotInput in) {
+        id = in.readUUID();
+        code = in.readString();
+        mtgoCode = in.readString();
+        arenaCode = in.readString();
+        name = in.readString();
+        setType = in.readEnum(SetType.class);
+        blockCode = in.readString();
+        block = in.readString();
+        parentSetCode = in.readString();
+        released = in.readDate();
+        tcgPlayerID = in.readInt();
+        cardCount = in.readInt();
+        printedSize = in.readInt();
+        digital = in.readBoolean();
+        foilOnly = in.readBoolean();
+        nonfoilOnly = in.readBoolean();
+        iconSvgURL = toURL(in.readString());
+        searchURL = toURL(in.readString());
+        scryfallURL = toURL(in.readString());
+        url = toURL(in.readString());
+    }
+
+    public void writeTo(SnapshotOutput out) {
+        out.writeUUID(id);
+        out.writeString(code);
+        out.writeString(mtgoCode);
+        out.writeString(arenaCode);
+        out.writeString(name);
+        out.writeEnum(setType);
+        out.writeString(blockCode);
+        out.writeString(block);
+        out.writeString(parentSetCode);
+        out.writeDate(released);
+        out.writeInt(tcgPlayerID);
+        out.writeInt(cardCount);
+        out.writeInt(printedSize);
+        out.writeBoolean(digital);
+        out.writeBoolean(foilOnly);
+        out.writeBoolean(nonfoilOnly);
+        out.writeString(urlText(iconSvgURL));
+        out.writeString(urlText(searchURL));
+        out.writeString(urlText(scryfallURL));
+        out.writeString(urlText(url));
+    }
+
+    private static String urlText(URL url) {
+        return url == null ? null : url.toString();
+    }
+
     /**
      * @return The unique three to six-letter code for this set.
      */
@@ -127,6 +181,13 @@ public class Set extends ScryfallObject {
      * @return The date the set was released or the first card was printed in the set (in GMT-8 Pacific time).
      */
     public Date getReleased() {
+        return toDate(released);
+    }
+
+    /**
+     * @return The date the set was released or the first card was printed in the set (in GMT-8 Pacific time).
+     */
+    public LocalDate getReleasedLocalDate() {
         return released;
     }
 
@@ -223,7 +284,7 @@ public class Set extends ScryfallObject {
      * @return A <code>Set</code> with the specified code on Scryfall's API
      */
     public static Set fromCode(String code) {
-        return new Set(Query.dataFromPath("sets/" + code));
+        return LocalResolver.resolve(() -> LocalResolver.findSet(code), "sets/" + code, Set::new);
     }
 
     /**
@@ -231,7 +292,7 @@ public class Set extends ScryfallObject {
      * @return Returns a Set with the given tcgPlayerID, also known as the groupId on TCGPlayer’s API.
      */
     public static Set fromTCGPlayerID(int id) {
-        return new Set(Query.dataFromPath("sets/tcgplayer/" + id));
+        return LocalResolver.resolve(() -> LocalResolver.findSetByTcgplayerID(id), "sets/tcgplayer/" + id, Set::new);
     }
 
     /**
@@ -239,7 +300,7 @@ public class Set extends ScryfallObject {
      * @return Returns a Set with the given Scryfall id.
      */
     public static Set fromID(UUID id) {
-        return new Set(Query.dataFromPath("sets/" + id));
+        return LocalResolver.resolve(() -> LocalResolver.findSet(id), "sets/" + id, Set::new);
     }
 
     /**
@@ -296,11 +357,33 @@ public class Set extends ScryfallObject {
         }
     }
 
+    /**
+     * Sets are identified by their Scryfall id, so two Set objects are equal if they represent the same set.
+     * Use {@link #contentEquals(Set)} to compare every field.
+     */
     @Override
     public boolean equals(Object o) {
         if (this == o) return true;
         if (o == null || getClass() != o.getClass()) return false;
         Set set = (Set) o;
+        if (id == null || set.id == null) {
+            return id == set.id && contentEquals(set);
+        }
+        return id.equals(set.id);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hashCode(id);
+    }
+
+    /**
+     * @param set the set to compare with
+     * @return true if every field of this set is equal to the corresponding field of <code>set</code>
+     */
+    public boolean contentEquals(Set set) {
+        if (this == set) return true;
+        if (set == null) return false;
         return cardCount == set.cardCount &&
                 tcgPlayerID == set.tcgPlayerID &&
                 digital == set.digital &&
@@ -1,13 +1,16 @@
 package com.scyrfall.api.object;
 
 import com.scyrfall.api.ScryfallObject;
+import com.scyrfall.api.local.LocalResolver;
+import com.scyrfall.api.local.SnapshotInput;
+import com.scyrfall.api.local.SnapshotOutput;
+import com.scyrfall.api.local.SymbolRegistry;
+import com.scyrfall.api.field.ColorSet;
 import com.scyrfall.api.query.Query;
-import org.json.JSONArray;
 import org.json.JSONObject;
 
 import java.net.URL;
 import java.util.Arrays;
-import java.util.List;
 import java.util.Objects;
 
 public class Symbol extends ScryfallObject {
@@ -27,7 +30,7 @@ public class Symbol extends ScryfallObject {
     private final boolean phyrexian;
     private final double manaValue;
     private final URL svgURL;
-    private final List<Color> colors;
+    private final ColorSet colors;
 
     public Symbol(JSONObject data) {
         super(data);
@@ -50,7 +53,53 @@ public class Symbol extends ScryfallObject {
 
         svgURL = getURL("svg_uri");
 
-        colors = getList("colors", Color::fromString, JSONArray::getString);
+        colors = getColorSet("colors");
+    }
+
+    public Symbol(SnapshotInput in) {
+        symbol = in.readString();
+        looseVariant = in.readString();
+        english = in.readString();
+        gathererAlternates = in.readString();
+
+        transposeable = in.readBoolean();
+        representsMana = in.readBoolean();
+        appearsInManaCosts = in.readBoolean();
+        funny = in.readBoolean();
+        colorless = in.readBoolean();
+        monoColored = in.readBoolean();
+        multiColored = in.readBoolean();
+        hybrid = in.readBoolean();
+        phyrexian = in.readBoolean();
+
+        manaValue = in.readDouble();
+
+        svgURL = toURL(in.readString());
+
+        colors = in.readColors();
+    }
+
+    public void writeTo(SnapshotOutput out) {
+        out.writeString(symbol);
+        out.writeString(looseVariant);
+        out.writeString(english);
+        out.writeString(gathererAlternates);
+
+        out.writeBoolean(transposeable);
+        out.writeBoolean(representsMana);
+        out.writeBoolean(appearsInManaCosts);
+        out.writeBoolean(funny);
+        out.writeBoolean(colorless);
+        out.writeBoolean(monoColored);
+        out.writeBoolean(multiColored);
+        out.writeBoolean(hybrid);
+        out.writeBoolean(phyrexian);
+
+        out.writeDouble(manaValue);
+
+        out.writeString(svgURL == null ? null : svgURL.toString());
+
+        out.writeColors(colors);
     }
 
     /**
@@ -137,7 +186,7 @@ public class Symbol extends ScryfallObject {
     /**
      * @return An array of colors that this symbol represents.
      */
-    public List<Color> getColors() {
+    public ColorSet getColors() {
         return colors;
     }
 
@@ -178,10 +227,15 @@ public class Symbol extends ScryfallObject {
     }
 
     /**
+     * Loads the symbols again on every call. Use {@link SymbolRegistry} to look symbols up from a table loaded once.
+     *
      * @return an array of all card symbols.
      */
     public static Symbol[] getSymbols() {
-        return new ScryfallList(Query.dataFromPath("symbology")).getContents(new Symbol[0]);
+        return LocalResolver.resolve(() -> {
+            Symbol[] symbols = LocalResolver.getSymbols();
+            return symbols.length == 0 ? null : symbols;
+        }, () -> new ScryfallList(Query.dataFromPath("symbology")).getContents(new Symbol[0]), () -> new Symbol[0]);
     }
 
     /**
@@ -198,11 +252,33 @@ public class Symbol extends ScryfallObject {
         return svgURL;
     }
 
+    /**
+     * Symbols are identified by their text, so two Symbol objects are equal if they represent the same symbol.
+     * Use {@link #contentEquals(Symbol)} to compare every field.
+     */
     @Override
     public boolean equals(Object o) {
         if (this == o) return true;
         if (o == null || getClass() != o.getClass()) return false;
         Symbol symbol1 = (Symbol) o;
+        if (symbol == null || symbol1.symbol == null) {
+            return symbol == symbol1.symbol && contentEquals(symbol1);
+        }
+        return symbol.equals(symbol1.symbol);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hashCode(symbol);
+    }
+
+    /**
+     * @param symbol1 the symbol to compare with
+     * @return true if every field of this symbol is equal to the corresponding field of <code>symbol1</code>
+     */
+    public boolean contentEquals(Symbol symbol1) {
+        if (this == symbol1) return true;
+        if (symbol1 == null) return false;
         return transposeable == symbol1.transposeable && representsMana == symbol1.representsMana && appearsInManaCosts == symbol1.appearsInManaCosts && funny == symbol1.funny && colorless == symbol1.colorless && monoColored == symbol1.monoColored && multiColored == symbol1.multiColored && hybrid == symbol1.hybrid && phyrexian == symbol1.phyrexian && Double.compare(symbol1.manaValue, manaValue) == 0 && Objects.equals(symbol, symbol1.symbol) && Objects.equals(looseVariant, symbol1.looseVariant) && Objects.equals(english, symbol1.english) && Objects.equals(gathererAlternates, symbol1.gathererAlternates) && Objects.equals(svgURL, symbol1.svgURL) && Objects.equals(colors, symbol1.colors);
     }
 
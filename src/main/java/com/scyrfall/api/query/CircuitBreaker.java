@@ -0,0 +1,112 @@
+package com.scyrfall.api.query;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.function.LongSupplier;
+
+/**
+ * Stops requests to things that keep failing, such as an image host during an outage, per key.
+ *
+ * <p>After {@link #FAILURE_THRESHOLD} failures in a row a key's circuit opens, and {@link #allows(String...)} refuses it
+ * until a cooldown passes. Then one trial request is allowed: if it succeeds the circuit closes, and if it fails the
+ * circuit opens again for twice as long, up to {@link #MAX_COOLDOWN_MILLIS}. If it {@link #endTrial(String...) ends}
+ * with neither, the next request is a new trial.</p>
+ */
+final class CircuitBreaker {
+
+    static final int FAILURE_THRESHOLD = 3;
+    static final long COOLDOWN_MILLIS = 30_000;
+    static final long MAX_COOLDOWN_MILLIS = 600_000;
+
+    private final LongSupplier clock;
+    private final Map<String, State> states = new HashMap<>();
+
+    CircuitBreaker() {
+        this(System::currentTimeMillis);
+    }
+
+    CircuitBreaker(LongSupplier clock) {
+        this.clock = clock;
+    }
+
+    /**
+     * @return true if a request which counts against all the keys may be made now. When an open circuit's cooldown
+     * has passed, this allows one trial request and refuses the rest until it is recorded.
+     */
+    synchronized boolean allows(String... keys) {
+        long now = clock.getAsLong();
+        for (String key : keys) {
+            State state = states.get(key);
+            if (state != null && state.openUntil != 0 && (now < state.openUntil || state.trying)) {
+                return false;
+            }
+        }
+        for (String key : keys) {
+            State state = states.get(key);
+            if (state != null && state.openUntil != 0) {
+                state.trying = true;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * @return true if requests for the key are being refused
+     */
+    synchronized boolean isOpen(String key) {
+        State state = states.get(key);
+        return state != null && state.openUntil != 0 && (clock.getAsLong() < state.openUntil || state.trying);
+    }
+
+    synchronized void recordSuccess(String key) {
+        states.remove(key);
+    }
+
+    synchronized void recordFailure(String key) {
+        State state = states.computeIfAbsent(key, ignored -> new State());
+        state.failures++;
+        if (state.trying || state.failures >= FAILURE_THRESHOLD) {
+            state.cooldown = state.cooldown == 0 ? COOLDOWN_MILLIS : Math.min(MAX_COOLDOWN_MILLIS, state.cooldown * 2);
+            state.openUntil = clock.getAsLong() + state.cooldown;
+            state.trying = false;
+        }
+    }
+
+    /**
+     * Ends the trial request of each key which finished without a result being recorded, such as one which threw an
+     * unexpected exception, so the next request becomes a new trial rather than the circuit staying open for good.
+     * Keys without a trial running are left alone, so this is safe to call after a result was recorded.
+     */
+    synchronized void endTrial(String... keys) {
+        for (String key : keys) {
+            State state = states.get(key);
+            if (state != null) {
+                state.trying = false;
+            }
+        }
+    }
+
+    /**
+     * Ends the cooldown of every open circuit, so the next request for each key is a trial.
+     */
+    synchronized void endCooldowns() {
+        long now = clock.getAsLong();
+        for (State state : states.values()) {
+            if (state.openUntil != 0) {
+                state.openUntil = Math.min(state.openUntil, now);
+            }
+        }
+    }
+
+    synchronized void reset() {
+        states.clear();
+    }
+
+    private static final class State {
+        private int failures;
+        private long cooldown;
+        // 0 while the circuit is closed
+        private long openUntil;
+        private boolean trying;
+    }
+}
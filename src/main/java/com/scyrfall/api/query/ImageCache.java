@@ -0,0 +1,483 @@
+package com.scyrfall.api.query;
+
+import java.io.IOException;
+import java.net.URL;
+import java.nio.ByteBuffer;
+import java.nio.channels.ClosedByInterruptException;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.FileAlreadyExistsException;
+import java.nio.file.Files;
+import java.nio.file.LinkOption;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.FileTime;
+import java.nio.file.attribute.PosixFilePermission;
+import java.nio.file.attribute.PosixFilePermissions;
+import java.nio.file.attribute.UserPrincipal;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Keeps downloaded images on disk, so each image is only downloaded once. Every image entry point, such as
+ * {@link com.scyrfall.api.field.Images#getImage(com.scyrfall.api.field.Images.Size)} and
+ * {@link Query#imageFromURL(URL)}, reads through the {@link #getDefault() default cache}.
+ *
+ * <p>Images are stored in files named by the SHA-256 hash of their full URL. Scryfall's image URLs end with a
+ * <code>?version</code> query which changes whenever the image does, so a changed image gets a new file, and the stale
+ * one ages out. The cache holds at most a given number of bytes, and drops the least recently used images to stay under
+ * it. Files are written to a temporary file first and then moved into place, so a reader never sees half an image,
+ * even from another process.</p>
+ */
+public final class ImageCache {
+
+    /**
+     * The size of the default cache: 512 MiB.
+     */
+    public static final long DEFAULT_MAX_BYTES = 512L << 20;
+
+    private static final String EXTENSION = ".img";
+    private static final String TEMPORARY_EXTENSION = ".tmp";
+    private static final char[] HEX = "0123456789abcdef".toCharArray();
+    private static final Set<PosixFilePermission> OWNER_ONLY = PosixFilePermissions.fromString("rwx------");
+
+    private static volatile ImageCache defaultCache;
+    private static volatile boolean defaultDisabled;
+
+    private final Path directory;
+    private final long maxBytes;
+    // file names to sizes, least recently used first
+    private final LinkedHashMap<String, Long> entries = new LinkedHashMap<>(64, 0.75f, true);
+    private long totalBytes;
+
+    /**
+     * Opens a cache in a directory, picking up the images already in it. Images used longest ago are dropped first,
+     * so if the directory holds more than <code>maxBytes</code> the oldest images are dropped now.
+     *
+     * @param directory the directory to keep images in, created if it doesn't exist
+     * @param maxBytes  the most bytes of images to keep
+     * @throws IOException if the directory can't be created or read
+     */
+    public ImageCache(Path directory, long maxBytes) throws IOException {
+        if (maxBytes <= 0) {
+            throw new IllegalArgumentException("maxBytes must be positive: " + maxBytes);
+        }
+        this.directory = Files.createDirectories(directory);
+        this.maxBytes = maxBytes;
+
+        List<Path> files = new ArrayList<>();
+        try (DirectoryStream<Path> stream = Files.newDirectoryStream(this.directory)) {
+            for (Path file : stream) {
+                String name = file.getFileName().toString();
+                if (name.endsWith(TEMPORARY_EXTENSION)) {
+                    // left behind by a write that never finished
+                    Files.deleteIfExists(file);
+                } else if (name.endsWith(EXTENSION)) {
+                    files.add(file);
+                }
+            }
+        }
+        Map<Path, Long> modified = new LinkedHashMap<>();
+        for (Path file : files) {
+            modified.put(file, Files.getLastModifiedTime(file).toMillis());
+        }
+        files.sort((a, b) -> Long.compare(modified.get(a), modified.get(b)));
+        synchronized (this) {
+            for (Path file : files) {
+                long size = Files.size(file);
+                entries.put(file.getFileName().toString(), size);
+                totalBytes += size;
+            }
+            evict();
+        }
+    }
+
+    /**
+     * @return the cache the image entry points use, created the first time it is needed in a
+     * <code>.cache/scryfall-images</code> directory under <code>user.home</code>, or null if it has been disabled or
+     * can't be created. The directory is made readable only by the current user, and the cache isn't created if
+     * someone else owns it, so other users of the host can't plant images in it.
+     */
+    public static ImageCache getDefault() {
+        ImageCache cache = defaultCache;
+        if (cache == null && !defaultDisabled) {
+            synchronized (ImageCache.class) {
+                cache = defaultCache;
+                if (cache == null && !defaultDisabled) {
+                    try {
+                        cache = new ImageCache(defaultDirectory(), DEFAULT_MAX_BYTES);
+                        defaultCache = cache;
+                    } catch (IOException e) {
+                        e.printStackTrace();
+                        defaultDisabled = true;
+                    }
+                }
+            }
+        }
+        return cache;
+    }
+
+    /**
+     * @return the default cache's directory, created if it doesn't exist, after checking that it belongs to the current
+     * user and restricting it to them
+     * @throws IOException if the directory can't be created, or belongs to someone else
+     */
+    private static Path defaultDirectory() throws IOException {
+        Path directory = Paths.get(System.getProperty("user.home"), ".cache", "scryfall-images");
+        boolean posix = directory.getFileSystem().supportedFileAttributeViews().contains("posix");
+        if (Files.notExists(directory, LinkOption.NOFOLLOW_LINKS)) {
+            Files.createDirectories(directory.getParent());
+            try {
+                if (posix) {
+                    Files.createDirectory(directory, PosixFilePermissions.asFileAttribute(OWNER_ONLY));
+                } else {
+                    Files.createDirectory(directory);
+                }
+            } catch (FileAlreadyExistsException e) {
+                // created by another process since, which the checks below cover
+            }
+        }
+        if (!Files.isDirectory(directory, LinkOption.NOFOLLOW_LINKS)) {
+            throw new IOException("Image cache " + directory + " is not a directory");
+        }
+        UserPrincipal user = directory.getFileSystem().getUserPrincipalLookupService()
+                .lookupPrincipalByName(System.getProperty("user.name"));
+        UserPrincipal owner = Files.getOwner(directory, LinkOption.NOFOLLOW_LINKS);
+        if (!owner.equals(user)) {
+            throw new IOException("Image cache " + directory + " belongs to " + owner.getName() + ", not "
+                    + user.getName());
+        }
+        if (posix) {
+            Files.setPosixFilePermissions(directory, OWNER_ONLY);
+        }
+        return directory;
+    }
+
+    /**
+     * Replaces the cache the image entry points use.
+     *
+     * @param cache the new default cache, or null to download every image again each time
+     */
+    public static synchronized void setDefault(ImageCache cache) {
+        defaultCache = cache;
+        defaultDisabled = cache == null;
+    }
+
+    /**
+     * @return The directory this cache keeps images in.
+     */
+    public Path getDirectory() {
+        return directory;
+    }
+
+    /**
+     * @return The most bytes of images this cache keeps.
+     */
+    public long getMaxBytes() {
+        return maxBytes;
+    }
+
+    /**
+     * @return The number of bytes of images in this cache.
+     */
+    public synchronized long getSize() {
+        return totalBytes;
+    }
+
+    /**
+     * @return The number of images in this cache.
+     */
+    public synchronized int getCount() {
+        return entries.size();
+    }
+
+    /**
+     * @param url the URL an image was downloaded from
+     * @return true if the image is cached, without reading it or counting it as used
+     */
+    public synchronized boolean contains(URL url) {
+        return entries.containsKey(fileName(url));
+    }
+
+    /**
+     * @param url the URL an image was downloaded from
+     * @return the image's bytes, or null if they aren't cached
+     */
+    public byte[] get(URL url) {
+        String name = fileName(url);
+        synchronized (this) {
+            if (entries.get(name) == null) {
+                return null;
+            }
+        }
+        Path file = directory.resolve(name);
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            long size = channel.size();
+            if (size > Integer.MAX_VALUE) {
+                return null;
+            }
+            ByteBuffer buffer = ByteBuffer.allocate((int) size);
+            while (buffer.hasRemaining() && channel.read(buffer) >= 0) {
+                // keep reading until the whole file is in the buffer
+            }
+            // record the use on disk too, so a cache opened later drops this image after older ones
+            Files.setLastModifiedTime(file, FileTime.fromMillis(System.currentTimeMillis()));
+            return buffer.hasRemaining() ? null : buffer.array();
+        } catch (NoSuchFileException e) {
+            // evicted since it was looked up, or deleted by someone else
+            forget(name);
+            return null;
+        } catch (IOException e) {
+            e.printStackTrace();
+            return null;
+        }
+    }
+
+    /**
+     * Writes a cached image to a channel without copying it through the heap where the platform allows, such as from
+     * the file straight to a socket.
+     *
+     * @param url    the URL an image was downloaded from
+     * @param target the channel to write the image to
+     * @return the number of bytes written, or -1 if the image isn't cached
+     * @throws IOException if the channel can't be written to
+     */
+    public long transferTo(URL url, WritableByteChannel target) throws IOException {
+        String name = fileName(url);
+        synchronized (this) {
+            if (entries.get(name) == null) {
+                return -1;
+            }
+        }
+        Path file = directory.resolve(name);
+        FileChannel channel;
+        try {
+            channel = FileChannel.open(file, StandardOpenOption.READ);
+        } catch (NoSuchFileException e) {
+            forget(name);
+            return -1;
+        }
+        try (channel) {
+            long size = channel.size();
+            long position = 0;
+            while (position < size) {
+                position += channel.transferTo(position, size - position, target);
+            }
+            Files.setLastModifiedTime(file, FileTime.fromMillis(System.currentTimeMillis()));
+            return size;
+        }
+    }
+
+    /**
+     * Stores an image, replacing any image stored for the same URL, and drops the least recently used images if the
+     * cache is then over its size.
+     *
+     * @param url   the URL the image was downloaded from
+     * @param bytes the image's bytes
+     */
+    public void put(URL url, byte[] bytes) {
+        try (Writer writer = writer(url)) {
+            writer.write(bytes, 0, bytes.length);
+            writer.commit();
+        }
+    }
+
+    /**
+     * Starts storing an image whose bytes arrive in pieces, such as while it is being downloaded, without holding the
+     * whole image in memory. Nothing is stored until {@link Writer#commit()}, so closing the writer without committing
+     * leaves the cache as it was.
+     *
+     * @param url the URL the image is being downloaded from
+     * @return a writer for the image's bytes
+     */
+    public Writer writer(URL url) {
+        return new Writer(fileName(url));
+    }
+
+    /**
+     * Writes one image into its cache through a temporary file. A writer is not thread safe.
+     *
+     * @see #writer(URL)
+     */
+    public final class Writer implements AutoCloseable {
+
+        private final String name;
+        private Path temporary;
+        private FileChannel channel;
+        // the bytes written so far, or -1 once the image is dropped or committed
+        private long size;
+
+        private Writer(String name) {
+            this.name = name;
+        }
+
+        /**
+         * Appends bytes to the image. If they can't be written, or the image grows larger than the whole cache, the
+         * image is dropped and later bytes are ignored, so a failing cache never fails the download it is fed from.
+         *
+         * @param bytes  the bytes
+         * @param offset the index of the first byte to append
+         * @param length the number of bytes to append
+         */
+        public void write(byte[] bytes, int offset, int length) {
+            if (size < 0) {
+                return;
+            }
+            size += length;
+            if (size > maxBytes) {
+                close();
+                return;
+            }
+            try {
+                if (channel == null) {
+                    temporary = Files.createTempFile(directory, name, TEMPORARY_EXTENSION);
+                    channel = FileChannel.open(temporary, StandardOpenOption.WRITE);
+                }
+                ByteBuffer buffer = ByteBuffer.wrap(bytes, offset, length);
+                while (buffer.hasRemaining()) {
+                    channel.write(buffer);
+                }
+            } catch (ClosedByInterruptException e) {
+                // the writing thread was cancelled, which is no error
+                close();
+            } catch (IOException e) {
+                e.printStackTrace();
+                close();
+            }
+        }
+
+        /**
+         * Stores the bytes written so far as the image, replacing any image stored for the same URL, and drops the
+         * least recently used images if the cache is then over its size. Does nothing if the image was dropped.
+         */
+        public void commit() {
+            if (size < 0 || channel == null) {
+                close();
+                return;
+            }
+            long stored = size;
+            try {
+                channel.close();
+                Files.move(temporary, directory.resolve(name), StandardCopyOption.ATOMIC_MOVE,
+                        StandardCopyOption.REPLACE_EXISTING);
+            } catch (ClosedByInterruptException e) {
+                close();
+                return;
+            } catch (IOException e) {
+                e.printStackTrace();
+                close();
+                return;
+            }
+            size = -1;
+            channel = null;
+            temporary = null;
+            synchronized (ImageCache.this) {
+                Long previous = entries.put(name, stored);
+                totalBytes += stored - (previous == null ? 0 : previous);
+                evict();
+            }
+        }
+
+        /**
+         * Drops the image if it wasn't committed.
+         */
+        @Override
+        public void close() {
+            size = -1;
+            if (channel != null) {
+                try {
+                    channel.close();
+                } catch (IOException e) {
+                    e.printStackTrace();
+                }
+                channel = null;
+            }
+            deleteQuietly(temporary);
+            temporary = null;
+        }
+    }
+
+    /**
+     * @param url the URL an image was downloaded from
+     * @return true if the image was cached
+     */
+    public boolean remove(URL url) {
+        String name = fileName(url);
+        boolean removed = forget(name);
+        deleteQuietly(directory.resolve(name));
+        return removed;
+    }
+
+    /**
+     * Deletes every image in this cache.
+     */
+    public void clear() {
+        List<String> names;
+        synchronized (this) {
+            names = new ArrayList<>(entries.keySet());
+            entries.clear();
+            totalBytes = 0;
+        }
+        for (String name : names) {
+            deleteQuietly(directory.resolve(name));
+        }
+    }
+
+    private synchronized boolean forget(String name) {
+        Long size = entries.remove(name);
+        if (size != null) {
+            totalBytes -= size;
+        }
+        return size != null;
+    }
+
+    private void evict() {
+        Iterator<Map.Entry<String, Long>> iterator = entries.entrySet().iterator();
+        while (totalBytes > maxBytes && iterator.hasNext()) {
+            Map.Entry<String, Long> eldest = iterator.next();
+            iterator.remove();
+            totalBytes -= eldest.getValue();
+            deleteQuietly(directory.resolve(eldest.getKey()));
+        }
+    }
+
+    private static void deleteQuietly(Path file) {
+        if (file != null) {
+            try {
+                Files.deleteIfExists(file);
+            } catch (IOException e) {
+                e.printStackTrace();
+            }
+        }
+    }
+
+    /**
+     * @return the name of the file an image from the URL is kept in: the SHA-256 hash of the URL, in hexadecimal
+     */
+    static String fileName(URL url) {
+        byte[] hash;
+        try {
+            hash = MessageDigest.getInstance("SHA-256").digest(url.toString().getBytes(StandardCharsets.UTF_8));
+        } catch (NoSuchAlgorithmException e) {
+            // every Java platform is required to support SHA-256
+            throw new IllegalStateException(e);
+        }
+        char[] name = new char[hash.length * 2];
+        for (int i = 0; i < hash.length; i++) {
+            name[2 * i] = HEX[(hash[i] >> 4) & 0xF];
+            name[2 * i + 1] = HEX[hash[i] & 0xF];
+        }
+        return new String(name) + EXTENSION;
+    }
+}
@@ -1,31 +1,187 @@
 package com.scyrfall.api.query;
 
+import com.scyrfall.api.field.Images;
 import com.scyrfall.api.object.Card;
 
-import javax.imageio.ImageIO;
 import java.awt.image.BufferedImage;
+import java.io.FileNotFoundException;
 import java.io.IOException;
 import java.net.URL;
+import java.util.LinkedHashMap;
+import java.util.Map;
 
+/**
+ * Loads images with fallbacks for when an image can't be downloaded.
+ *
+ * <p>Failures are remembered by host and by image size, such as <code>cards.scryfall.io/normal</code>, and a host or
+ * size which keeps failing is skipped for a while instead of being asked again, as {@link CircuitBreaker} describes.
+ * A missing image doesn't count as a failure of its host, since the host answered.
+ * The API is only asked for a card's image URLs when they aren't already known, at most once per card, and not at all
+ * while the API itself keeps failing.</p>
+ */
 public class ImageLoader {
 
+    // the sizes to try in turn when an image fails, after the size asked for; art crops only stand in for themselves
+    private static final Images.Size[] FALLBACK_SIZES = {
+            Images.Size.NORMAL, Images.Size.LARGE, Images.Size.SMALL, Images.Size.BORDER_CROP, Images.Size.PNG
+    };
+    private static final int MAX_REMEMBERED_CARDS = 1024;
+
+    private static final CircuitBreaker BREAKER = new CircuitBreaker();
+    private static final Map<URL, Images> CARD_IMAGES = new LinkedHashMap<>(64, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<URL, Images> eldest) {
+            return size() > MAX_REMEMBERED_CARDS;
+        }
+    };
+
+    /**
+     * Loads an image, and if it can't be downloaded, loads the normal image of the card at <code>apiUrl</code>
+     * instead. The card is only fetched from the API the first time its images are needed.
+     *
+     * @param url    the URL of the image
+     * @param apiUrl the API URL of the card the image is of
+     * @return the image, or null if neither it nor the fallback could be loaded
+     */
     public static BufferedImage loadImageFromURL(URL url, URL apiUrl) {
-        try {
-            return ImageIO.read(url);
-        } catch (IOException e) {
-            Card card = new Card(Query.dataFromURL(apiUrl));
-            return loadImageFromURL(card.getImages().getNormalURL());
+        BufferedImage image = tryLoad(url);
+        if (image != null || apiUrl == null) {
+            return image;
         }
+        Images images = cardImages(apiUrl);
+        URL normal = images == null ? null : images.getNormalURL();
+        return normal == null || normal.equals(url) ? null : tryLoad(normal);
     }
 
     public static BufferedImage loadImageFromURL(URL url) {
+        return Query.imageFromURL(url);
+    }
+
+    /**
+     * Loads an image of the given size, falling back to the other sizes in <code>images</code> if it can't be
+     * downloaded, without asking the API for anything.
+     *
+     * @param images the card's or face's images
+     * @param size   the size to load, if it can be
+     * @return the image of the first size which loaded, or null if none did
+     */
+    public static BufferedImage loadImage(Images images, Images.Size size) {
+        BufferedImage image = tryLoad(images.getURL(size));
+        if (image != null || size == Images.Size.ART_CROP) {
+            return image;
+        }
+        for (Images.Size fallback : FALLBACK_SIZES) {
+            if (fallback != size) {
+                image = tryLoad(images.getURL(fallback));
+                if (image != null) {
+                    return image;
+                }
+            }
+        }
+        return null;
+    }
+
+    /**
+     * @param url an image URL
+     * @return true if images from the URL's host, or of its size, are being skipped after failing repeatedly
+     */
+    public static boolean isFailing(URL url) {
+        return BREAKER.isOpen(hostKey(url)) || BREAKER.isOpen(sizeKey(url));
+    }
+
+    /**
+     * Tries every host and size which is being skipped again on its next request, without waiting for its cooldown.
+     * Unlike {@link #reset()}, failures are remembered, so one which still fails is skipped again for longer.
+     */
+    public static void retryFailing() {
+        BREAKER.endCooldowns();
+    }
+
+    /**
+     * Forgets every failure and every card's image URLs, such as after the network comes back.
+     */
+    public static void reset() {
+        BREAKER.reset();
+        synchronized (CARD_IMAGES) {
+            CARD_IMAGES.clear();
+        }
+    }
+
+    /**
+     * @return the image, or null if it couldn't be loaded or its host or size is being skipped
+     */
+    private static BufferedImage tryLoad(URL url) {
+        if (url == null) {
+            return null;
+        }
+        String host = hostKey(url);
+        String size = sizeKey(url);
+        if (!BREAKER.allows(host, size)) {
+            return null;
+        }
         try {
-            return ImageIO.read(url);
+            BufferedImage image = Query.readImage(url);
+            BREAKER.recordSuccess(host);
+            BREAKER.recordSuccess(size);
+            return image;
+        } catch (FileNotFoundException e) {
+            // only this image is missing, and the host answered for its size, so both are working
+            BREAKER.recordSuccess(host);
+            BREAKER.recordSuccess(size);
+            return null;
         } catch (IOException e) {
-            e.printStackTrace();
+            // a failed size counts against its host too, since one host serves every size
+            BREAKER.recordFailure(host);
+            BREAKER.recordFailure(size);
             return null;
+        } finally {
+            BREAKER.endTrial(host, size);
         }
     }
 
+    /**
+     * @return the card's images, fetched from the API the first time they are needed, or null if they can't be
+     */
+    private static Images cardImages(URL apiUrl) {
+        synchronized (CARD_IMAGES) {
+            Images images = CARD_IMAGES.get(apiUrl);
+            if (images != null) {
+                return images;
+            }
+        }
+        String api = hostKey(apiUrl);
+        if (!BREAKER.allows(api)) {
+            return null;
+        }
+        Images images;
+        try {
+            Card card = new Card(Query.dataFromURL(apiUrl));
+            images = card.hasMultipleFaces() ? card.getFaces().getFirst().getImages() : card.getImages();
+            if (images == null || images.getNormalURL() == null) {
+                // an error response, or a card without images
+                BREAKER.recordFailure(api);
+                return null;
+            }
+            BREAKER.recordSuccess(api);
+        } finally {
+            BREAKER.endTrial(api);
+        }
+        synchronized (CARD_IMAGES) {
+            CARD_IMAGES.put(apiUrl, images);
+        }
+        return images;
+    }
+
+    private static String hostKey(URL url) {
+        return url.getProtocol() + "://" + url.getHost();
+    }
 
+    /**
+     * @return the host and first path segment, which is the size on Scryfall's image hosts
+     */
+    private static String sizeKey(URL url) {
+        String path = url.getPath();
+        int end = path.indexOf('/', 1);
+        return hostKey(url) + (end < 0 ? path : path.substring(0, end));
+    }
 }
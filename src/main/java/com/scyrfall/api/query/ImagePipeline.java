@@ -0,0 +1,115 @@
+package com.scyrfall.api.query;
+
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.net.URL;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Loads images without blocking the caller, for screens which show many images at once.
+ *
+ * <p>Loading happens in two stages. Fetching, from the {@link ImageCache} or the network, mostly waits, so each fetch
+ * gets its own virtual thread, and a page of a hundred thumbnails doesn't tie up a hundred platform threads. Decoding
+ * uses the CPU, so it runs on a pool with one thread per core. Cancelling a returned future interrupts its fetch, which
+ * aborts a download in progress, and skips its decoding.</p>
+ *
+ * <pre>{@code
+ * List<CompletableFuture<BufferedImage>> thumbnails = new ArrayList<>();
+ * for (Card card : page) {
+ *     thumbnails.add(card.getImageAsync(Images.Size.SMALL));
+ * }
+ * }</pre>
+ */
+public final class ImagePipeline {
+
+    private static final ExecutorService FETCH = Executors.newVirtualThreadPerTaskExecutor();
+    private static final ExecutorService DECODE = Executors.newFixedThreadPool(
+            Runtime.getRuntime().availableProcessors(), new DaemonThreads("image-decode-"));
+
+    private ImagePipeline() {
+    }
+
+    /**
+     * Loads an image the way {@link Query#imageFromURL(URL)} does, reading it from the default {@link ImageCache} if
+     * it is there, and caching it if it was downloaded.
+     *
+     * @param url the URL of the image
+     * @return a future of the image, or of null if the URL is null or its content isn't an image. The future fails
+     * with an <code>IOException</code> if the image can't be downloaded.
+     */
+    public static CompletableFuture<BufferedImage> load(URL url) {
+        CompletableFuture<BufferedImage> result = new CompletableFuture<>();
+        if (url == null) {
+            result.complete(null);
+            return result;
+        }
+        Future<?> fetch = FETCH.submit(() -> fetch(url, result, true));
+        result.whenComplete((image, error) -> {
+            if (result.isCancelled()) {
+                fetch.cancel(true);
+            }
+        });
+        return result;
+    }
+
+    private static void fetch(URL url, CompletableFuture<BufferedImage> result, boolean useCache) {
+        ImageCache cache = Query.cacheFor(url);
+        byte[] cached = useCache && cache != null ? cache.get(url) : null;
+        byte[] bytes;
+        try {
+            bytes = cached != null ? cached : Query.download(url);
+        } catch (IOException | RuntimeException e) {
+            result.completeExceptionally(e);
+            return;
+        }
+        if (result.isDone()) {
+            return;
+        }
+        DECODE.execute(() -> {
+            if (result.isDone()) {
+                return;
+            }
+            BufferedImage image;
+            try {
+                image = Query.decodeImage(bytes);
+            } catch (IOException | RuntimeException e) {
+                image = null;
+                if (cached == null) {
+                    result.completeExceptionally(e);
+                    return;
+                }
+            }
+            if (image == null && cached != null) {
+                // the cached file is damaged, so replace it with a fresh download
+                FETCH.execute(() -> {
+                    cache.remove(url);
+                    fetch(url, result, false);
+                });
+            } else if (result.complete(image) && image != null && cached == null && cache != null) {
+                // writing the file is I/O, so it goes back to a virtual thread
+                FETCH.execute(() -> cache.put(url, bytes));
+            }
+        });
+    }
+
+    private static final class DaemonThreads implements ThreadFactory {
+        private final String prefix;
+        private final AtomicInteger count = new AtomicInteger();
+
+        private DaemonThreads(String prefix) {
+            this.prefix = prefix;
+        }
+
+        @Override
+        public Thread newThread(Runnable task) {
+            Thread thread = new Thread(task, prefix + count.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        }
+    }
+}
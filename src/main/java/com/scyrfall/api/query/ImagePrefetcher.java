@@ -0,0 +1,308 @@
+package com.scyrfall.api.query;
+
+import com.scyrfall.api.field.Images;
+import com.scyrfall.api.object.Card;
+import com.scyrfall.api.object.ScryfallList;
+import com.scyrfall.api.object.Set;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.URISyntaxException;
+import java.net.URL;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+/**
+ * Downloads the images of many cards into the default {@link ImageCache} ahead of time, such as when a set is opened,
+ * so that drawing them later doesn't wait on the network.
+ *
+ * <p>At most a given number of downloads run at once, and downloads only start while the bytes still being downloaded
+ * are expected to fit a limit. The size of a download isn't known until it ends, so each one reserves the average size
+ * of the images downloaded so far. Images already in the cache are skipped, and multi-faced cards get the image of
+ * their front face, as {@link Card#getImage(Images.Size)} does.</p>
+ *
+ * <pre>{@code
+ * ImagePrefetcher.Task task = new ImagePrefetcher().prefetch(set, Images.Size.NORMAL,
+ *         progress -> bar.setValue(progress.getFinished()));
+ * // later, if the user leaves the set
+ * task.cancel();
+ * }</pre>
+ */
+public final class ImagePrefetcher {
+
+    /**
+     * The number of downloads a default prefetcher runs at once.
+     */
+    public static final int DEFAULT_CONCURRENCY = 8;
+    /**
+     * The bytes a default prefetcher downloads at once: 16 MiB.
+     */
+    public static final long DEFAULT_MAX_IN_FLIGHT_BYTES = 16L << 20;
+
+    // what each size usually weighs, until downloads show otherwise
+    private static final long[] EXPECTED_BYTES = new long[Images.Size.values().length];
+
+    static {
+        EXPECTED_BYTES[Images.Size.SMALL.ordinal()] = 16 << 10;
+        EXPECTED_BYTES[Images.Size.NORMAL.ordinal()] = 96 << 10;
+        EXPECTED_BYTES[Images.Size.LARGE.ordinal()] = 192 << 10;
+        EXPECTED_BYTES[Images.Size.PNG.ordinal()] = 1 << 20;
+        EXPECTED_BYTES[Images.Size.ART_CROP.ordinal()] = 96 << 10;
+        EXPECTED_BYTES[Images.Size.BORDER_CROP.ordinal()] = 96 << 10;
+    }
+
+    private final int concurrency;
+    private final int maxInFlightKiB;
+
+    /**
+     * Creates a prefetcher with {@link #DEFAULT_CONCURRENCY} and {@link #DEFAULT_MAX_IN_FLIGHT_BYTES}.
+     */
+    public ImagePrefetcher() {
+        this(DEFAULT_CONCURRENCY, DEFAULT_MAX_IN_FLIGHT_BYTES);
+    }
+
+    /**
+     * @param concurrency      the most downloads to run at once
+     * @param maxInFlightBytes the most bytes to be downloading at once. A single image larger than this is still
+     *                         downloaded, but alone.
+     */
+    public ImagePrefetcher(int concurrency, long maxInFlightBytes) {
+        if (concurrency <= 0 || maxInFlightBytes <= 0) {
+            throw new IllegalArgumentException("Limits must be positive: " + concurrency + ", " + maxInFlightBytes);
+        }
+        this.concurrency = concurrency;
+        this.maxInFlightKiB = (int) Math.max(1, Math.min(Integer.MAX_VALUE, maxInFlightBytes >> 10));
+    }
+
+    /**
+     * @param cards    the cards whose images to download
+     * @param size     the size of the images
+     * @param listener called, from a background thread, each time an image is downloaded, skipped or fails, or null
+     * @return the running prefetch
+     */
+    public Task prefetch(Collection<Card> cards, Images.Size size, Consumer<Task> listener) {
+        List<Card> copy = List.copyOf(cards);
+        return start(() -> copy, size, listener);
+    }
+
+    /**
+     * Downloads the images of every card on a list's pages. The pages after the first are loaded in the background.
+     *
+     * @see #prefetch(Collection, Images.Size, Consumer)
+     */
+    public Task prefetch(ScryfallList list, Images.Size size, Consumer<Task> listener) {
+        return start(() -> Arrays.asList(list.getCards()), size, listener);
+    }
+
+    /**
+     * Downloads the images of every card in a set. The set's cards are loaded in the background.
+     *
+     * @see #prefetch(Collection, Images.Size, Consumer)
+     */
+    public Task prefetch(Set set, Images.Size size, Consumer<Task> listener) {
+        return start(() -> Arrays.asList(set.getCards()), size, listener);
+    }
+
+    private Task start(Supplier<List<Card>> cards, Images.Size size, Consumer<Task> listener) {
+        ImageCache cache = ImageCache.getDefault();
+        if (cache == null) {
+            throw new IllegalStateException("Images can't be prefetched without an ImageCache");
+        }
+        Task task = new Task(size, listener);
+        task.executor.execute(() -> task.run(cache, cards));
+        return task;
+    }
+
+    /**
+     * A prefetch in progress. Its counts only grow, and <code>getFinished()</code> reaches <code>getTotal()</code>
+     * when every image has been handled.
+     */
+    public final class Task {
+        private final Images.Size size;
+        private final Consumer<Task> listener;
+        private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+        private final Semaphore downloads = new Semaphore(concurrency);
+        private final Semaphore kibibytes = new Semaphore(maxInFlightKiB);
+        private final AtomicInteger downloaded = new AtomicInteger();
+        private final AtomicInteger skipped = new AtomicInteger();
+        private final AtomicInteger failed = new AtomicInteger();
+        private final AtomicLong downloadedBytes = new AtomicLong();
+        private final CompletableFuture<Task> completion = new CompletableFuture<>();
+        private volatile int total = -1;
+        private volatile boolean cancelled;
+
+        private Task(Images.Size size, Consumer<Task> listener) {
+            this.size = size;
+            this.listener = listener;
+        }
+
+        private void run(ImageCache cache, Supplier<List<Card>> cards) {
+            RuntimeException error = null;
+            try {
+                List<Card> list = cards.get();
+                total = list.size();
+                for (Card card : list) {
+                    if (cancelled) {
+                        break;
+                    }
+                    URL url = imageURL(card);
+                    if (url == null || cache.contains(url)) {
+                        finish(skipped);
+                        continue;
+                    }
+                    int reserved = reserve();
+                    downloads.acquire();
+                    try {
+                        executor.execute(() -> download(url, reserved));
+                    } catch (RejectedExecutionException e) {
+                        // cancelled between the check and the download
+                        downloads.release();
+                        kibibytes.release(reserved);
+                        break;
+                    }
+                }
+            } catch (InterruptedException e) {
+                // cancelled while waiting for room for another download
+            } catch (RuntimeException e) {
+                error = e;
+            } finally {
+                // every download has ended once all their permits are back
+                downloads.acquireUninterruptibly(concurrency);
+                executor.shutdown();
+            }
+            if (cancelled) {
+                completion.cancel(false);
+            } else if (error != null) {
+                completion.completeExceptionally(error);
+            } else {
+                completion.complete(this);
+            }
+        }
+
+        private URL imageURL(Card card) {
+            String uri = card.getImageURI(size);
+            if (uri == null || uri.isEmpty()) {
+                return null;
+            }
+            try {
+                return new URI(uri).toURL();
+            } catch (URISyntaxException | IOException | IllegalArgumentException e) {
+                return null;
+            }
+        }
+
+        /**
+         * Waits until the expected size of another download fits the in-flight limit, and takes it from the limit.
+         */
+        private int reserve() throws InterruptedException {
+            int finished = downloaded.get();
+            long expected = finished == 0 ? EXPECTED_BYTES[size.ordinal()] : downloadedBytes.get() / finished;
+            int reserved = (int) Math.max(1, Math.min(maxInFlightKiB, expected >> 10));
+            kibibytes.acquire(reserved);
+            return reserved;
+        }
+
+        private void download(URL url, int reserved) {
+            try {
+                byte[] bytes = Query.imageBytesFromURL(url);
+                downloadedBytes.addAndGet(bytes.length);
+                finish(downloaded);
+            } catch (IOException | RuntimeException e) {
+                if (!cancelled) {
+                    finish(failed);
+                }
+            } finally {
+                kibibytes.release(reserved);
+                downloads.release();
+            }
+        }
+
+        private void finish(AtomicInteger count) {
+            count.incrementAndGet();
+            if (listener != null) {
+                listener.accept(this);
+            }
+        }
+
+        /**
+         * Stops starting downloads, and interrupts those in progress. Images already downloaded stay cached.
+         */
+        public void cancel() {
+            if (!completion.isDone()) {
+                cancelled = true;
+                executor.shutdownNow();
+            }
+        }
+
+        /**
+         * @return A future completed with this task when every image has been handled, or cancelled once this task
+         * has stopped after {@link #cancel()}.
+         */
+        public CompletableFuture<Task> getCompletion() {
+            return completion;
+        }
+
+        /**
+         * @return The number of cards to handle, or -1 if they are still being loaded.
+         */
+        public int getTotal() {
+            return total;
+        }
+
+        /**
+         * @return The number of images downloaded so far.
+         */
+        public int getDownloaded() {
+            return downloaded.get();
+        }
+
+        /**
+         * @return The number of cards skipped so far, because their image was already cached or they have none.
+         */
+        public int getSkipped() {
+            return skipped.get();
+        }
+
+        /**
+         * @return The number of images which failed to download so far.
+         */
+        public int getFailed() {
+            return failed.get();
+        }
+
+        /**
+         * @return The number of cards handled so far, whether downloaded, skipped or failed.
+         */
+        public int getFinished() {
+            return downloaded.get() + skipped.get() + failed.get();
+        }
+
+        /**
+         * @return The number of bytes downloaded so far.
+         */
+        public long getDownloadedBytes() {
+            return downloadedBytes.get();
+        }
+
+        @Override
+        public String toString() {
+            return "Task{" +
+                    "size=" + size +
+                    ", total=" + total +
+                    ", downloaded=" + downloaded +
+                    ", skipped=" + skipped +
+                    ", failed=" + failed +
+                    '}';
+        }
+    }
+}
@@ -1,14 +1,29 @@
 package com.scyrfall.api.query;
 
 import com.scyrfall.api.ScryfallObject;
+import com.scyrfall.api.local.LocalResolver;
 import com.scyrfall.api.object.ScryfallList;
 import com.scyrfall.api.object.Set;
 import org.json.JSONObject;
 
 import javax.imageio.ImageIO;
+import javax.imageio.ImageReadParam;
+import javax.imageio.ImageReader;
+import javax.imageio.stream.ImageInputStream;
+import java.awt.Graphics2D;
+import java.awt.Rectangle;
+import java.awt.RenderingHints;
 import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
 import java.io.IOException;
+import java.io.InputStream;
+import java.net.URI;
 import java.net.URL;
+import java.nio.ByteBuffer;
+import java.nio.channels.WritableByteChannel;
+import java.util.Arrays;
+import java.util.Iterator;
 
 public class Query {
 
@@ -19,9 +34,14 @@ public class Query {
     public static final String API_STUB = "https://api.scryfall.com/";
 
     public static Set[] getSets() {
-        ScryfallList data = new ScryfallList(dataFromPath("sets"));
-        ScryfallObject[] contents = data.getContents();
-        return ScryfallObject.convertArray(contents, new Set[0]);
+        return LocalResolver.resolve(() -> {
+            Set[] sets = LocalResolver.getSets();
+            return sets.length == 0 ? null : sets;
+        }, () -> {
+            ScryfallList data = new ScryfallList(dataFromPath("sets"));
+            ScryfallObject[] contents = data.getContents();
+            return ScryfallObject.convertArray(contents, new Set[0]);
+        }, () -> new Set[0]);
     }
 
     /**
@@ -34,17 +54,263 @@ public class Query {
 
     /**
      * @param url the URL from which data should be retrieved
-     * @return a <code>BufferedImage</code> from the specified URL
+     * @return a <code>BufferedImage</code> from the specified URL, read from the default {@link ImageCache} if it was
+     * downloaded before
      */
     public static BufferedImage imageFromURL(URL url) {
         try {
-            return ImageIO.read(url);
+            return readImage(url);
         } catch (IOException e) {
             e.printStackTrace();
             return null;
         }
     }
 
+    /**
+     * @return the default {@link ImageCache}, or null for URLs on Scryfall's API, such as
+     * <code>cards/named?exact=...&amp;format=image</code>. Those redirect to whichever image is current, and have no
+     * version in the URL to tell a new image from one cached before, so they are always downloaded.
+     */
+    static ImageCache cacheFor(URL url) {
+        return url.toString().startsWith(API_STUB) ? null : ImageCache.getDefault();
+    }
+
+    /**
+     * Reads an image through the default {@link ImageCache}, downloading and caching it if it isn't cached. Only
+     * bytes which decode to an image are cached, and a cached image which no longer decodes is dropped and downloaded
+     * again. Images from Scryfall's API rather than its image servers aren't cached.
+     *
+     * @param url the URL of the image
+     * @return the image, or null if the URL's content isn't an image
+     * @throws IOException if the image isn't cached and can't be downloaded
+     */
+    static BufferedImage readImage(URL url) throws IOException {
+        ImageCache cache = cacheFor(url);
+        byte[] bytes = cache == null ? null : cache.get(url);
+        if (bytes != null) {
+            BufferedImage image = decodeCached(cache, url, bytes);
+            if (image != null) {
+                return image;
+            }
+        }
+        bytes = download(url);
+        BufferedImage image = decodeImage(bytes);
+        if (image != null && cache != null) {
+            cache.put(url, bytes);
+        }
+        return image;
+    }
+
+    /**
+     * Decodes an image read from a cache, removing it from the cache if it doesn't decode, so a damaged file is
+     * replaced rather than failing every read.
+     *
+     * @return the image, or null if the bytes aren't an image or are damaged
+     */
+    static BufferedImage decodeCached(ImageCache cache, URL url, byte[] bytes) {
+        try {
+            BufferedImage image = decodeImage(bytes);
+            if (image != null) {
+                return image;
+            }
+        } catch (IOException | RuntimeException e) {
+            // damaged, so treated like bytes which aren't an image
+        }
+        cache.remove(url);
+        return null;
+    }
+
+    /**
+     * Reads an image's encoded bytes, such as a JPEG file, through the default {@link ImageCache}, without decoding
+     * them. Downloaded bytes are cached if they start like an image.
+     *
+     * @param url the URL of the image
+     * @return the image's bytes, exactly as they were served
+     * @throws IOException if the image isn't cached and can't be downloaded
+     */
+    public static byte[] imageBytesFromURL(URL url) throws IOException {
+        ImageCache cache = cacheFor(url);
+        byte[] bytes = cache == null ? null : cache.get(url);
+        if (bytes == null) {
+            bytes = download(url);
+            if (cache != null && isImage(bytes)) {
+                cache.put(url, bytes);
+            }
+        }
+        return bytes;
+    }
+
+    /**
+     * Writes an image's encoded bytes to a channel, straight from the default {@link ImageCache}'s file if it is
+     * cached. Otherwise the download is streamed to the channel and the cache together as it arrives, so the image is
+     * never held in memory whole, and is kept if it starts like an image.
+     *
+     * @param url    the URL of the image
+     * @param target the channel to write the image to
+     * @return the number of bytes written
+     * @throws IOException if the image can't be downloaded, or the channel can't be written to
+     */
+    public static long writeImage(URL url, WritableByteChannel target) throws IOException {
+        ImageCache cache = cacheFor(url);
+        long written = cache == null ? -1 : cache.transferTo(url, target);
+        if (written >= 0) {
+            return written;
+        }
+        written = 0;
+        byte[] chunk = new byte[1 << 13];
+        // enough of the start of the download for isImage to recognize its header
+        byte[] header = new byte[1 << 10];
+        int headerLength = 0;
+        try (InputStream stream = url.openStream();
+             ImageCache.Writer writer = cache == null ? null : cache.writer(url)) {
+            int read;
+            while ((read = stream.read(chunk)) >= 0) {
+                if (headerLength < header.length) {
+                    int copied = Math.min(read, header.length - headerLength);
+                    System.arraycopy(chunk, 0, header, headerLength, copied);
+                    headerLength += copied;
+                }
+                if (writer != null) {
+                    writer.write(chunk, 0, read);
+                }
+                ByteBuffer buffer = ByteBuffer.wrap(chunk, 0, read);
+                while (buffer.hasRemaining()) {
+                    target.write(buffer);
+                }
+                written += read;
+            }
+            if (writer != null && isImage(Arrays.copyOf(header, headerLength))) {
+                writer.commit();
+            }
+        }
+        return written;
+    }
+
+    /**
+     * Reads a thumbnail of an image, or of a region of it, no larger than the given size. The image is decoded with
+     * source subsampling, so only about one pixel in every <code>n * n</code> is decoded for a thumbnail
+     * <code>n</code> times smaller, and then scaled to fit exactly. Thumbnails are kept in the default
+     * {@link ImageCache} next to their images, so each is only made once.
+     *
+     * @param url       the URL of the image
+     * @param region    the region of the image to keep, in the image's pixels, or null for the whole image
+     * @param maxWidth  the most pixels wide the thumbnail may be
+     * @param maxHeight the most pixels high the thumbnail may be
+     * @return the thumbnail, keeping the region's proportions, or null if the image can't be read or the region is
+     * outside it
+     */
+    public static BufferedImage thumbnailFromURL(URL url, Rectangle region, int maxWidth, int maxHeight) {
+        if (maxWidth <= 0 || maxHeight <= 0) {
+            throw new IllegalArgumentException("Thumbnail size must be positive: " + maxWidth + "x" + maxHeight);
+        }
+        try {
+            ImageCache cache = cacheFor(url);
+            URL key = URI.create(url.toString() + "#thumbnail=" + maxWidth + "x" + maxHeight
+                    + (region == null ? "" : "@" + region.x + "," + region.y + "," + region.width + "x" + region.height))
+                    .toURL();
+            byte[] cached = cache == null ? null : cache.get(key);
+            if (cached != null) {
+                BufferedImage image = decodeCached(cache, key, cached);
+                if (image != null) {
+                    return image;
+                }
+            }
+            BufferedImage image = decodeThumbnail(imageBytesFromURL(url), region, maxWidth, maxHeight);
+            if (image != null && cache != null) {
+                ByteArrayOutputStream encoded = new ByteArrayOutputStream();
+                // PNG is lossless, so a thumbnail read back from the cache has exactly the pixels of the one returned now
+                if (ImageIO.write(image, "png", encoded)) {
+                    cache.put(key, encoded.toByteArray());
+                }
+            }
+            return image;
+        } catch (IOException | IllegalArgumentException e) {
+            e.printStackTrace();
+            return null;
+        }
+    }
+
+    /**
+     * Decodes a thumbnail from an encoded image, as {@link #thumbnailFromURL(URL, Rectangle, int, int)} describes.
+     */
+    static BufferedImage decodeThumbnail(byte[] bytes, Rectangle region, int maxWidth, int maxHeight)
+            throws IOException {
+        try (ImageInputStream stream = ImageIO.createImageInputStream(new ByteArrayInputStream(bytes))) {
+            Iterator<ImageReader> readers = stream == null ? null : ImageIO.getImageReaders(stream);
+            if (readers == null || !readers.hasNext()) {
+                return null;
+            }
+            ImageReader reader = readers.next();
+            try {
+                reader.setInput(stream, true, true);
+                Rectangle source = new Rectangle(reader.getWidth(0), reader.getHeight(0));
+                if (region != null) {
+                    source = source.intersection(region);
+                    if (source.isEmpty()) {
+                        return null;
+                    }
+                }
+                double scale = Math.min(1, Math.min((double) maxWidth / source.width,
+                        (double) maxHeight / source.height));
+                // a whole number of source pixels per decoded pixel, leaving the decoded image no smaller than needed
+                int subsampling = (int) Math.floor(1 / scale);
+                ImageReadParam param = reader.getDefaultReadParam();
+                param.setSourceRegion(source);
+                param.setSourceSubsampling(subsampling, subsampling, 0, 0);
+                BufferedImage decoded = reader.read(0, param);
+
+                int width = Math.max(1, (int) Math.round(source.width * scale));
+                int height = Math.max(1, (int) Math.round(source.height * scale));
+                if (decoded.getWidth() == width && decoded.getHeight() == height) {
+                    return decoded;
+                }
+                BufferedImage scaled = new BufferedImage(width, height, decoded.getColorModel().hasAlpha()
+                        ? BufferedImage.TYPE_INT_ARGB : BufferedImage.TYPE_INT_RGB);
+                Graphics2D graphics = scaled.createGraphics();
+                try {
+                    graphics.setRenderingHint(RenderingHints.KEY_INTERPOLATION,
+                            RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+                    graphics.drawImage(decoded, 0, 0, width, height, null);
+                } finally {
+                    graphics.dispose();
+                }
+                return scaled;
+            } finally {
+                reader.dispose();
+            }
+        }
+    }
+
+    /**
+     * @return true if an image reader recognizes the bytes' header. Only the header is read, so this is much cheaper
+     * than decoding.
+     */
+    static boolean isImage(byte[] bytes) throws IOException {
+        try (ImageInputStream stream = ImageIO.createImageInputStream(new ByteArrayInputStream(bytes))) {
+            return stream != null && ImageIO.getImageReaders(stream).hasNext();
+        }
+    }
+
+    /**
+     * @param url the URL of the content
+     * @return all the bytes at the URL
+     * @throws IOException if the content can't be downloaded
+     */
+    static byte[] download(URL url) throws IOException {
+        try (InputStream stream = url.openStream()) {
+            return stream.readAllBytes();
+        }
+    }
+
+    /**
+     * @param bytes an encoded image, such as a JPEG or PNG file
+     * @return the decoded image, or null if the bytes aren't an image
+     * @throws IOException if the bytes are a damaged image
+     */
+    static BufferedImage decodeImage(byte[] bytes) throws IOException {
+        return ImageIO.read(new ByteArrayInputStream(bytes));
+    }
+
     /**
      * @param pathAppend path to the requested resource in Scryfall's API
      * @return a <code>JSONObject</code> located at the specified path on Scryfall's API
@@ -59,7 +325,7 @@ public class Query {
      */
     public static BufferedImage imageFromPath(String pathAppend) {
         try {
-            return ImageIO.read(new URL(API_STUB + pathAppend));
+            return readImage(new URL(API_STUB + pathAppend));
         } catch (IOException e) {
             e.printStackTrace();
             return null;
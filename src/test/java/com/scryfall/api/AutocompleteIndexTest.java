@@ -0,0 +1,103 @@
+package com.scryfall.api;
+
+import com.scyrfall.api.local.AutocompleteIndex;
+import com.scyrfall.api.local.CardDataset;
+import com.scyrfall.api.object.Card;
+import com.scyrfall.api.object.Catalog;
+import org.json.JSONObject;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.HashSet;
+
+import static org.junit.Assert.*;
+
+public class AutocompleteIndexTest {
+
+    private static Card card(String name, int edhrecRank, String layout) {
+        JSONObject data = ScryfallTest.cardJson(name);
+        data.put("layout", layout);
+        if (edhrecRank > 0) {
+            data.put("edhrec_rank", edhrecRank);
+        } else {
+            data.remove("edhrec_rank");
+        }
+        return new Card(data);
+    }
+
+    private static final AutocompleteIndex INDEX = AutocompleteIndex.fromDataset(new CardDataset(
+            card("Lightning Bolt", 30, "normal"),
+            card("Lightning Greaves", 5, "normal"),
+            card("Lightning Helix", 400, "normal"),
+            card("Lightning Bolt", 30, "normal"),
+            card("Chain Lightning", 200, "normal"),
+            card("Lim-Dûl's Vault", 3000, "normal"),
+            card("Æther Vial", 900, "normal"),
+            card("Fire // Ice", 700, "split"),
+            card("Lightning Rager", 0, "normal"),
+            card("Lightning", 0, "token")
+    ));
+
+    @Test
+    public void prefixesRankedByPopularity() {
+        assertArrayEquals(new String[]{"Lightning Greaves", "Lightning Bolt", "Lightning Helix", "Lightning Rager",
+                "Chain Lightning"}, INDEX.complete("light"));
+        assertArrayEquals(new String[]{"Lightning Bolt"}, INDEX.complete("LIGHTNING-BOLT"));
+        assertArrayEquals(new String[]{"Lightning Bolt"}, INDEX.complete("bolt"));
+        assertEquals(8, INDEX.size());
+    }
+
+    @Test
+    public void normalization() {
+        assertArrayEquals(new String[]{"Lim-Dûl's Vault"}, INDEX.complete("limdul"));
+        assertArrayEquals(new String[]{"Lim-Dûl's Vault"}, INDEX.complete("lim dul's v"));
+        assertArrayEquals(new String[]{"Lim-Dûl's Vault"}, INDEX.complete("dul"));
+        assertArrayEquals(new String[]{"Æther Vial"}, INDEX.complete("aether"));
+        assertArrayEquals(new String[]{"Fire // Ice"}, INDEX.complete("ice"));
+        assertArrayEquals(new String[]{"Fire // Ice"}, INDEX.complete("fireic"));
+    }
+
+    @Test
+    public void noMatches() {
+        assertEquals(0, INDEX.complete("l").length);
+        assertEquals(0, INDEX.complete("s Vault").length);
+        assertEquals(0, INDEX.complete("lightningz").length);
+        Catalog catalog = INDEX.completeCatalog("xy");
+        assertEquals(0, catalog.getTotalValues());
+        assertEquals(0, catalog.getValues().length);
+    }
+
+    @Test
+    public void limit() {
+        String[] names = new String[50];
+        for (int i = 0; i < names.length; i++) {
+            names[i] = "Name " + i;
+        }
+        AutocompleteIndex index = new AutocompleteIndex(names);
+        String[] completions = index.complete("name");
+        assertEquals(AutocompleteIndex.MAX_RESULTS, completions.length);
+        assertEquals("Name 0", completions[0]);
+        assertEquals("Name 19", completions[19]);
+        assertArrayEquals(new String[]{"Name 4", "Name 40", "Name 41", "Name 42", "Name 43", "Name 44", "Name 45",
+                "Name 46", "Name 47", "Name 48", "Name 49"}, index.complete("name4"));
+    }
+
+    @Test
+    public void overlappingMatchesFillLimit() {
+        // the best names match "bolt" both from their start and from a later word, so the word matches must skip
+        // them and keep going to fill the limit
+        String[] names = new String[40];
+        for (int i = 0; i < 15; i++) {
+            names[i] = "Bolt Bolt " + i;
+        }
+        for (int i = 15; i < names.length; i++) {
+            names[i] = "Lightning Bolt " + i;
+        }
+        String[] completions = new AutocompleteIndex(names).complete("bolt");
+        assertEquals(AutocompleteIndex.MAX_RESULTS, completions.length);
+        assertEquals("Bolt Bolt 14", completions[14]);
+        assertEquals("Lightning Bolt 15", completions[15]);
+        assertEquals("Lightning Bolt 19", completions[19]);
+        assertEquals(AutocompleteIndex.MAX_RESULTS, new HashSet<>(Arrays.asList(completions)).size());
+    }
+}
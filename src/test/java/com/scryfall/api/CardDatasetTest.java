@@ -0,0 +1,74 @@
+package com.scryfall.api;
+
+import com.scyrfall.api.local.CardDataset;
+import com.scyrfall.api.local.LocalResolver;
+import com.scyrfall.api.object.Card;
+import com.scyrfall.api.object.Catalog;
+import com.scyrfall.api.object.Set;
+import com.scyrfall.api.object.Symbol;
+import org.json.JSONObject;
+import org.junit.Test;
+
+import java.util.UUID;
+
+import static org.junit.Assert.*;
+
+public class CardDatasetTest {
+
+    private static Card printing(int index, String lang) {
+        JSONObject data = new JSONObject(SnapshotTest.ABSORB);
+        data.put("id", new UUID(1, index).toString());
+        data.put("lang", lang);
+        data.put("mtgo_id", 1000 + index);
+        data.put("collector_number", String.valueOf(index % 5));
+        return new Card(data);
+    }
+
+    @Test
+    public void lookups() {
+        Card[] cards = new Card[200];
+        for (int i = 0; i < cards.length; i++) {
+            cards[i] = printing(i, i % 2 == 0 ? "ja" : "en");
+        }
+        CardDataset dataset = new CardDataset(cards);
+
+        assertSame(cards[42], dataset.fromMtgoID(1042));
+        assertSame(cards[7], dataset.fromID(new UUID(1, 7)));
+        assertNull(dataset.fromMtgoID(5));
+        assertNull(dataset.fromID(new UUID(2, 7)));
+        assertSame(cards[0], dataset.fromArenaID(6909));
+        assertSame(cards[0], dataset.fromMultiverseID(458210));
+        assertEquals(200, dataset.fromOracleID(cards[0].getOracleID()).length);
+
+        assertSame(cards[1], dataset.fromSet("RNA", "1"));
+        assertSame(cards[6], dataset.fromSet("rna", 1, "ja"));
+        assertNull(dataset.fromSet("rna", "5"));
+        assertEquals(40, dataset.fromSetAllLanguages("rna", "3").length);
+    }
+
+    @Test
+    public void localResolver() {
+        Card[] cards = {printing(0, "ja"), printing(1, "en")};
+        LocalResolver.load(new CardDataset(cards), new Set[]{new Set(new JSONObject(SnapshotTest.SET))},
+                new Symbol[0], new Catalog[0]);
+        LocalResolver.setMode(LocalResolver.Mode.LOCAL_ONLY);
+        LocalResolver.resetCounters();
+        try {
+            assertSame(cards[1], Card.fromMtgoID(1001));
+            assertSame(cards[1], Card.namedExactly("absorb"));
+            assertEquals("rna", Set.fromCode("RNA").getCode());
+            assertTrue(Card.fromMtgoID(5).isError());
+            assertEquals(0, Symbol.getSymbols().length);
+            assertEquals(3, LocalResolver.getHits());
+            assertEquals(2, LocalResolver.getMisses());
+
+            assertTrue(Card.search("t:creature").isError());
+            assertFalse(Card.search("t:instant").isError());
+            // with the API to fall back to, no local match isn't an answer
+            LocalResolver.setMode(LocalResolver.Mode.LOCAL_THEN_REMOTE);
+            assertNull(LocalResolver.search("t:creature"));
+        } finally {
+            LocalResolver.setMode(LocalResolver.Mode.REMOTE_ONLY);
+        }
+    }
+}
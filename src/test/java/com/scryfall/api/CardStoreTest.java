@@ -0,0 +1,97 @@
+package com.scryfall.api;
+
+import com.scyrfall.api.field.ColorSet;
+import com.scyrfall.api.field.Legalities;
+import com.scyrfall.api.field.Legalities.Format;
+import com.scyrfall.api.field.Legalities.Legality;
+import com.scyrfall.api.local.CardStore;
+import com.scyrfall.api.local.CardView;
+import com.scyrfall.api.object.Card;
+import org.json.JSONObject;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.junit.Assert.*;
+
+public class CardStoreTest {
+
+    @Test
+    public void views() throws IOException {
+        Path directory = Files.createTempDirectory("cardstore");
+        Path path = directory.resolve("cards.store");
+        try {
+            Card absorb = new Card(new JSONObject(SnapshotTest.ABSORB));
+            Card empty = new Card(new JSONObject().put("object", "card"));
+            CardStore.write(path, absorb, empty, absorb);
+
+            CardStore store = CardStore.open(path);
+            assertEquals(3, store.size());
+
+            CardView view = store.get(0);
+            assertEquals(absorb.getId(), view.getId());
+            assertEquals(absorb.getOracleID(), view.getOracleID());
+            assertEquals("Absorb", view.getName());
+            assertEquals("{W}{U}{U}", view.getManaCost());
+            assertEquals(3.0, view.getCmc(), 0);
+            assertEquals(ColorSet.fromString("WU"), view.getColorIdentity());
+            assertEquals(Legality.LEGAL, view.getLegalities().getFormatLegality(Format.MODERN));
+            assertEquals(absorb.getRarity(), view.getRarity());
+            assertEquals(absorb.getLayout(), view.getLayout());
+            assertEquals(absorb.getReleaseLocalDate(), view.getReleaseLocalDate());
+            assertEquals(1523, view.getEdhrecRank());
+            assertFalse(view.isReserved());
+            assertEquals("Ravnica Allegiance", view.getSetName());
+
+            view.moveTo(1);
+            assertNull(view.getId());
+            assertEquals("", view.getName());
+            assertSame(ColorSet.EMPTY, view.getColors());
+            assertEquals(empty.getLegalities(), view.getLegalities());
+            assertEquals(store.get(2).getName(), store.get(0).getName());
+        } finally {
+            Files.deleteIfExists(path);
+            Files.deleteIfExists(directory);
+        }
+    }
+
+    @Test
+    public void reorderedFormats() throws IOException {
+        Path directory = Files.createTempDirectory("cardstore");
+        Path path = directory.resolve("cards.store");
+        try {
+            CardStore.write(path, new Card(new JSONObject(SnapshotTest.ABSORB)));
+            // swap the names of two formats, as if they had been declared in the other order when the store was written
+            byte[] bytes = Files.readAllBytes(path);
+            String text = new String(bytes, StandardCharsets.ISO_8859_1);
+            int modern = text.indexOf("MODERN");
+            int legacy = text.indexOf("LEGACY");
+            System.arraycopy("LEGACY".getBytes(StandardCharsets.US_ASCII), 0, bytes, modern, 6);
+            System.arraycopy("MODERN".getBytes(StandardCharsets.US_ASCII), 0, bytes, legacy, 6);
+            Files.write(path, bytes);
+
+            Legalities legalities = CardStore.open(path).get(0).getLegalities();
+            assertEquals(Legality.LEGAL, legalities.getFormatLegality(Format.LEGACY));
+            assertEquals(Legality.NOT_LEGAL, legalities.getFormatLegality(Format.MODERN));
+        } finally {
+            Files.deleteIfExists(path);
+            Files.deleteIfExists(directory);
+        }
+    }
+
+    @Test(expected = IndexOutOfBoundsException.class)
+    public void rowOutOfRange() throws IOException {
+        Path directory = Files.createTempDirectory("cardstore");
+        Path path = directory.resolve("cards.store");
+        try {
+            CardStore.write(path);
+            CardStore.open(path).get(0);
+        } finally {
+            Files.deleteIfExists(path);
+            Files.deleteIfExists(directory);
+        }
+    }
+}
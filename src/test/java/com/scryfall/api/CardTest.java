@@ -175,6 +175,45 @@ public class CardTest {
                 true, Rarity.COMMON, true, "ust");
     }
 
+    @Test
+    public void urls() {
+        // URLs which can be rebuilt from the card's ids are only built on request, and must come back unchanged
+        JSONObject json = ScryfallTest.loadTestJson("absorb");
+        Card card = new Card(json);
+        assertEquals(json.getString("uri"), card.getUrl().toString());
+        assertEquals(json.getString("rulings_uri"), card.getRulingsURL().toString());
+        assertEquals(json.getString("prints_search_uri"), card.getPrintsSearchURL().toString());
+        assertEquals(json.getString("scryfall_uri"), card.getScryfallURL().toString());
+        assertEquals(json.getString("scryfall_set_uri"), card.getScryfallSetURL().toString());
+        assertEquals(json.getString("set_search_uri"), card.getSetSearchURL().toString());
+        assertEquals(json.getString("set_uri"), card.getSetURL().toString());
+        JSONObject images = json.getJSONObject("image_uris");
+        for (Images.Size size : Images.Size.values()) {
+            assertEquals(images.getString(size.toParameterString()), card.getImages().getURL(size).toString());
+        }
+        JSONObject related = json.getJSONObject("related_uris");
+        assertEquals(related.keySet().size(), card.getRelatedURLs().size());
+        for (String key : related.keySet()) {
+            assertEquals(related.getString(key), card.getRelatedURLs().get(key).toString());
+        }
+        JSONObject purchase = json.getJSONObject("purchase_uris");
+        assertEquals(purchase.keySet().size(), card.getPurchaseURLs().size());
+        for (String key : purchase.keySet()) {
+            assertEquals(purchase.getString(key), card.getPurchaseURLs().get(key).toString());
+        }
+
+        // URLs which don't have the usual shape are kept as they are
+        String rulings = "https://api.scryfall.com/cards/00000000-0000-0000-0000-000000000000/rulings";
+        String small = "https://example.com/absorb-small.jpg";
+        json.put("rulings_uri", rulings);
+        images.put("small", small);
+        json.put("image_uris", images);
+        Card unusual = new Card(json);
+        assertEquals(rulings, unusual.getRulingsURL().toString());
+        assertEquals(small, unusual.getImages().getSmallURL().toString());
+        assertEquals(images.getString("large"), unusual.getImages().getLargeURL().toString());
+    }
+
     private void basicCard(Card card, UUID id, String lang, UUID oracleID, double cmc, Color[] colorIdentity,
                            String name, boolean nonfoil, Layout layout, boolean oversized, boolean reserved, String typeline,
                            Card.BorderColor borderColor, String collectorNumber, boolean digital, Card.FrameEffect[] effects,
@@ -0,0 +1,67 @@
+package com.scryfall.api;
+
+import com.scyrfall.api.local.CatalogRegistry;
+import com.scyrfall.api.object.Catalog;
+import org.json.JSONArray;
+import org.json.JSONObject;
+import org.junit.Test;
+
+import java.util.EnumMap;
+import java.util.Map;
+
+import static org.junit.Assert.*;
+
+public class CatalogRegistryTest {
+
+    private static Catalog catalog(String name, String... values) {
+        return new Catalog(new JSONObject()
+                .put("object", "catalog")
+                .put("uri", "https://api.scryfall.com/catalog/" + name)
+                .put("total_values", values.length)
+                .put("data", new JSONArray(values)));
+    }
+
+    private static Catalog failed() {
+        return new Catalog(new JSONObject().put("object", "error").put("code", "not_found").put("status", 404));
+    }
+
+    @Test
+    public void lookups() {
+        CatalogRegistry registry = new CatalogRegistry(name -> name == Catalog.Name.CREATURE_TYPES
+                ? catalog("creature-types", "Elf", "Goblin", "Eldrazi", "Elemental", "Human")
+                : failed());
+        assertTrue(registry.contains(Catalog.Name.CREATURE_TYPES, "Elf"));
+        assertTrue(registry.contains(Catalog.Name.CREATURE_TYPES, "goblin"));
+        assertFalse(registry.contains(Catalog.Name.CREATURE_TYPES, "Gob"));
+        assertArrayEquals(new String[]{"Eldrazi", "Elemental", "Elf"},
+                registry.withPrefix(Catalog.Name.CREATURE_TYPES, "el"));
+        assertArrayEquals(new String[0], registry.withPrefix(Catalog.Name.CREATURE_TYPES, "z"));
+        assertEquals("Human", registry.getValues(Catalog.Name.CREATURE_TYPES)[4]);
+
+        assertFalse(registry.contains(Catalog.Name.LAND_TYPES, "Forest"));
+        assertNull(registry.getCatalog(Catalog.Name.LAND_TYPES));
+    }
+
+    @Test
+    public void refresh() {
+        Map<Catalog.Name, Catalog> loaded = new EnumMap<>(Catalog.Name.class);
+        loaded.put(Catalog.Name.LAND_TYPES, catalog("land-types", "Forest", "Island"));
+        CatalogRegistry registry = new CatalogRegistry(name -> loaded.getOrDefault(name, failed()));
+        assertTrue(registry.contains(Catalog.Name.LAND_TYPES, "island"));
+
+        loaded.put(Catalog.Name.LAND_TYPES, catalog("land-types", "Forest", "Island", "Desert"));
+        assertFalse(registry.contains(Catalog.Name.LAND_TYPES, "desert"));
+        assertTrue(registry.refresh(Catalog.Name.LAND_TYPES));
+        assertTrue(registry.contains(Catalog.Name.LAND_TYPES, "desert"));
+
+        loaded.remove(Catalog.Name.LAND_TYPES);
+        registry.refresh();
+        assertTrue(registry.contains(Catalog.Name.LAND_TYPES, "desert"));
+    }
+
+    @Test
+    public void parameterNames() {
+        assertEquals("card-names", Catalog.Name.CARD_NAMES.toParameterString());
+        assertEquals("watermarks", Catalog.Name.WATERMARKS.toParameterString());
+    }
+}
@@ -0,0 +1,80 @@
+package com.scryfall.api;
+
+import com.scyrfall.api.ScryfallObject.Color;
+import com.scyrfall.api.field.ColorSet;
+import com.scyrfall.api.field.ManaCost;
+import com.scyrfall.api.object.Card;
+import org.json.JSONArray;
+import org.json.JSONObject;
+import org.junit.Test;
+
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+public class ColorSetTest {
+
+    @Test
+    public void construction() {
+        assertSame(ColorSet.of(Color.BLUE, Color.WHITE), ColorSet.fromString("wu"));
+        assertSame(ColorSet.of(List.of(Color.GREEN)), ColorSet.fromJSON(new JSONArray(new String[]{"G"})));
+        assertSame(ColorSet.EMPTY, ColorSet.fromJSON(new JSONArray()));
+        assertSame(ColorSet.fromString("WU"), ColorSet.fromJSON(new JSONArray(new String[]{"u", "W"})));
+        assertEquals(0b100001, ColorSet.fromString("CW").getBits());
+        assertEquals("WUBRGC", ColorSet.fromBits(0b111111).toLetters());
+    }
+
+    @Test
+    public void listView() {
+        ColorSet set = ColorSet.fromString("GRW");
+        assertEquals(List.of(Color.WHITE, Color.RED, Color.GREEN), set);
+        assertEquals(List.of(Color.WHITE, Color.RED, Color.GREEN).hashCode(), set.hashCode());
+        assertEquals(3, set.size());
+        assertEquals(Color.RED, set.get(1));
+        assertEquals(2, set.indexOf(Color.GREEN));
+        assertEquals(-1, set.indexOf(Color.BLUE));
+        assertTrue(set.contains(Color.WHITE));
+        assertFalse(set.contains(Color.BLACK));
+    }
+
+    @Test
+    public void operations() {
+        ColorSet esper = ColorSet.fromString("WUB");
+        ColorSet azorius = ColorSet.fromString("WU");
+        ColorSet gruul = ColorSet.fromString("RG");
+
+        assertTrue(azorius.isSubsetOf(esper));
+        assertTrue(esper.isSupersetOf(azorius));
+        assertFalse(esper.isSubsetOf(azorius));
+        assertTrue(ColorSet.EMPTY.isSubsetOf(gruul));
+        assertFalse(esper.intersects(gruul));
+
+        assertSame(ColorSet.WUBRG, esper.union(gruul));
+        assertSame(azorius, esper.intersection(azorius));
+        assertSame(ColorSet.fromString("B"), esper.difference(azorius));
+        assertSame(esper, azorius.with(Color.BLACK));
+        assertSame(azorius, esper.without(Color.BLACK));
+    }
+
+    @Test
+    public void commanderIdentity() {
+        Card card = new Card(new JSONObject().put("color_identity", new JSONArray(new String[]{"U", "W"})));
+        assertTrue(card.fitsColorIdentity(ColorSet.fromString("WUB")));
+        assertFalse(card.fitsColorIdentity(ColorSet.fromString("UB")));
+    }
+
+    @Test
+    public void manaCosts() {
+        ManaCost parsed = new ManaCost("{W}{U}", 2, ColorSet.fromString("WU"));
+        ManaCost served = new ManaCost(new JSONObject().put("cost", "{W}{U}").put("cmc", 2.0)
+                .put("colors", new JSONArray(new String[]{"w", "u"})).put("multicolored", true));
+        assertEquals(parsed, served);
+        assertEquals(parsed.hashCode(), served.hashCode());
+        assertNotEquals(parsed, new ManaCost("{W}{U}", 2, ColorSet.fromString("WB")));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void invalidLetter() {
+        ColorSet.fromString("WX");
+    }
+}
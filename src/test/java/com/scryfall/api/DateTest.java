@@ -0,0 +1,76 @@
+package com.scryfall.api;
+
+import com.scyrfall.api.ScryfallObject;
+import com.scyrfall.api.object.Card;
+import com.scyrfall.api.object.Set;
+import org.json.JSONObject;
+import org.junit.Test;
+
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.Assert.*;
+
+public class DateTest {
+
+    @Test
+    public void parse() {
+        assertEquals(LocalDate.of(2019, 1, 25), ScryfallObject.parseDate("2019-01-25"));
+        assertEquals(LocalDate.of(1993, 8, 5), ScryfallObject.parseDate("1993-08-05T00:00:00.000Z"));
+        assertEquals(LocalDate.of(2024, 2, 29), ScryfallObject.parseDate(new StringBuilder("2024-02-29")));
+
+        assertNull(ScryfallObject.parseDate(null));
+        assertNull(ScryfallObject.parseDate(""));
+        assertNull(ScryfallObject.parseDate("2019-1-25"));
+        assertNull(ScryfallObject.parseDate("2019/01/25"));
+        assertNull(ScryfallObject.parseDate("2019-0a-25"));
+        assertNull(ScryfallObject.parseDate("2019-13-01"));
+        assertNull(ScryfallObject.parseDate("2023-02-29"));
+    }
+
+    @Test
+    public void concurrentParsing() throws InterruptedException, ExecutionException {
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<Boolean>> results = new ArrayList<>();
+            for (int thread = 0; thread < 8; thread++) {
+                int offset = thread;
+                results.add(executor.submit(() -> {
+                    for (int i = 0; i < 10_000; i++) {
+                        LocalDate expected = LocalDate.of(2000, 1, 1).plusDays((i * 8L + offset) % 9000);
+                        if (!expected.equals(ScryfallObject.parseDate(expected.toString()))) {
+                            return false;
+                        }
+                    }
+                    return true;
+                }));
+            }
+            for (Future<Boolean> result : results) {
+                assertTrue(result.get());
+            }
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    public void objectDates() {
+        Card card = new Card(ScryfallTest.loadTestJson("absorb"));
+        assertEquals(LocalDate.of(2019, 1, 25), card.getReleaseLocalDate());
+        assertEquals(LocalDate.of(2019, 1, 25),
+                card.getReleaseDate().toInstant().atZone(ZoneId.systemDefault()).toLocalDate());
+
+        Set set = new Set(new JSONObject(ScryfallTest.SET));
+        assertEquals(LocalDate.of(2019, 5, 3), set.getReleasedLocalDate());
+
+        Card undated = new Card(ScryfallTest.loadTestJson("absorb").put("released_at", "soon"));
+        assertNull(undated.getReleaseLocalDate());
+        assertNull(undated.getReleaseDate());
+    }
+}
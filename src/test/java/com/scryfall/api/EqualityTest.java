@@ -0,0 +1,84 @@
+package com.scryfall.api;
+
+import com.scyrfall.api.object.Card;
+import com.scyrfall.api.object.CardMigration;
+import com.scyrfall.api.object.Set;
+import com.scyrfall.api.object.Symbol;
+import org.json.JSONObject;
+import org.junit.Test;
+
+import java.util.HashSet;
+
+import static org.junit.Assert.*;
+
+public class EqualityTest {
+
+    private static final String MIGRATION = "{\"object\":\"migration\",\"id\":\"2a4e5e8b-6c3b-4f0a-9a34-5b1e1d2c0f11\"," +
+            "\"uri\":\"https://api.scryfall.com/migrations/2a4e5e8b-6c3b-4f0a-9a34-5b1e1d2c0f11\"," +
+            "\"created_at\":\"2019-02-01\",\"migration_strategy\":\"merge\"," +
+            "\"old_scryfall_id\":\"3ac4bc3d-8b4a-4f5b-a9a0-5b2a3a1b1a01\"," +
+            "\"new_scryfall_id\":\"c1a316a5-04a3-4128-8d62-58192e2265a5\",\"note\":\"Duplicate entry\"}";
+
+    private static final String SYMBOL = "{\"object\":\"card_symbol\",\"symbol\":\"{W/U}\",\"english\":\"one white or blue mana\"," +
+            "\"transposable\":true,\"represents_mana\":true,\"appears_in_mana_costs\":true,\"mana_value\":1.0," +
+            "\"hybrid\":true,\"phyrexian\":false,\"funny\":false,\"colors\":[\"W\",\"U\"]}";
+
+    @Test
+    public void cards() {
+        Card card = new Card(ScryfallTest.loadTestJson("absorb"));
+        Card repriced = new Card(ScryfallTest.loadTestJson("absorb")
+                .put("prices", new JSONObject().put("usd", "0.30").put("eur", "0.20"))
+                .put("edhrec_rank", 1600));
+        assertEquals(card, repriced);
+        assertEquals(card.hashCode(), repriced.hashCode());
+        assertFalse(card.contentEquals(repriced));
+        assertTrue(card.contentEquals(new Card(ScryfallTest.loadTestJson("absorb"))));
+
+        Card other = new Card(ScryfallTest.loadTestJson("absorb").put("id", "00000000-0000-0000-0000-000000000001"));
+        assertNotEquals(card, other);
+
+        HashSet<Card> cards = new HashSet<>();
+        cards.add(card);
+        assertTrue(cards.contains(repriced));
+        assertFalse(cards.contains(other));
+
+        // objects without an id fall back to comparing every field
+        Card blank = new Card(ScryfallTest.loadTestJson("absorb").put("id", ""));
+        assertEquals(blank, new Card(ScryfallTest.loadTestJson("absorb").put("id", "")));
+        assertNotEquals(blank, new Card(ScryfallTest.loadTestJson("absorb").put("id", "").put("name", "Dissolve")));
+    }
+
+    @Test
+    public void sets() {
+        Set set = new Set(new JSONObject(ScryfallTest.SET));
+        Set grown = new Set(new JSONObject(ScryfallTest.SET).put("card_count", 276));
+        assertEquals(set, grown);
+        assertEquals(set.hashCode(), grown.hashCode());
+        assertFalse(set.contentEquals(grown));
+        assertTrue(set.contentEquals(new Set(new JSONObject(ScryfallTest.SET))));
+        assertNotEquals(set, new Set(new JSONObject(ScryfallTest.SET).put("id", "00000000-0000-0000-0000-000000000002")));
+    }
+
+    @Test
+    public void migrations() {
+        CardMigration migration = new CardMigration(new JSONObject(MIGRATION));
+        CardMigration renoted = new CardMigration(new JSONObject(MIGRATION).put("note", "Merged into Absorb"));
+        assertEquals(migration, renoted);
+        assertEquals(migration.hashCode(), renoted.hashCode());
+        assertFalse(migration.contentEquals(renoted));
+        assertTrue(migration.contentEquals(new CardMigration(new JSONObject(MIGRATION))));
+        assertNotEquals(migration,
+                new CardMigration(new JSONObject(MIGRATION).put("id", "00000000-0000-0000-0000-000000000003")));
+    }
+
+    @Test
+    public void symbols() {
+        Symbol symbol = new Symbol(new JSONObject(SYMBOL));
+        Symbol reworded = new Symbol(new JSONObject(SYMBOL).put("english", "one white mana or one blue mana"));
+        assertEquals(symbol, reworded);
+        assertEquals(symbol.hashCode(), reworded.hashCode());
+        assertFalse(symbol.contentEquals(reworded));
+        assertTrue(symbol.contentEquals(new Symbol(new JSONObject(SYMBOL))));
+        assertNotEquals(symbol, new Symbol(new JSONObject(SYMBOL).put("symbol", "{W/B}")));
+    }
+}
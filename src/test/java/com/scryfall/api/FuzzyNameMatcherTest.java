@@ -0,0 +1,76 @@
+package com.scryfall.api;
+
+import com.scyrfall.api.local.CardDataset;
+import com.scyrfall.api.local.FuzzyNameMatcher;
+import com.scyrfall.api.local.FuzzyNameMatcher.Status;
+import com.scyrfall.api.local.LocalResolver;
+import com.scyrfall.api.object.Card;
+import com.scyrfall.api.object.Catalog;
+import com.scyrfall.api.object.Set;
+import com.scyrfall.api.object.Symbol;
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class FuzzyNameMatcherTest {
+
+    private static final CardDataset DATASET = new CardDataset(
+            ScryfallTest.card("Lightning Bolt"),
+            ScryfallTest.card("Lightning Helix"),
+            ScryfallTest.card("Counterspell"),
+            ScryfallTest.card("Lim-Dûl's Vault"),
+            ScryfallTest.card("Jace Beleren"),
+            ScryfallTest.card("Jace, the Mind Sculptor"),
+            ScryfallTest.card("Shock"),
+            ScryfallTest.card("Shack")
+    );
+
+    private static final FuzzyNameMatcher MATCHER = DATASET.getFuzzyNameMatcher();
+
+    private static void assertMatch(String expected, Status status, String name) {
+        FuzzyNameMatcher.Match match = MATCHER.match(name);
+        assertEquals(name, status, match.getStatus());
+        assertEquals(name, expected, match.getCard() == null ? null : match.getCard().getName());
+    }
+
+    @Test
+    public void matches() {
+        assertMatch("Counterspell", Status.EXACT, "COUNTERSPELL");
+        assertMatch("Lim-Dûl's Vault", Status.EXACT, "lim duls vault");
+        assertMatch("Lightning Bolt", Status.PREFIX, "lightning b");
+        assertMatch("Counterspell", Status.PREFIX, "counters");
+        assertMatch("Lightning Bolt", Status.FUZZY, "lightnign bolt");
+        assertMatch("Counterspell", Status.FUZZY, "conterspel");
+        assertMatch("Jace Beleren", Status.FUZZY, "jace belerne");
+        assertEquals(2, MATCHER.match("lightnign boltt").getDistance());
+    }
+
+    @Test
+    public void ambiguity() {
+        assertMatch(null, Status.AMBIGUOUS, "lightning");
+        assertMatch(null, Status.AMBIGUOUS, "jace");
+        assertMatch(null, Status.AMBIGUOUS, "sheck");
+        assertMatch(null, Status.NOT_FOUND, "fireball");
+        assertMatch(null, Status.AMBIGUOUS, "sh0ck k");
+        assertMatch(null, Status.NOT_FOUND, "shxxkk");
+        assertMatch(null, Status.NOT_FOUND, "");
+    }
+
+    @Test
+    public void localResolver() {
+        LocalResolver.load(DATASET, new Set[0], new Symbol[0], new Catalog[0]);
+        LocalResolver.setMode(LocalResolver.Mode.LOCAL_ONLY);
+        try {
+            assertEquals("Counterspell", Card.namedFuzzy("counterspel").getName());
+            Card ambiguous = Card.namedFuzzy("lightning");
+            assertTrue(ambiguous.isError());
+            assertEquals("ambiguous", ambiguous.getError().getType());
+            Card missing = Card.namedFuzzy("fireball");
+            assertTrue(missing.isError());
+            assertEquals(404, missing.getError().getStatus());
+            assertNotEquals("ambiguous", missing.getError().getType());
+        } finally {
+            LocalResolver.setMode(LocalResolver.Mode.REMOTE_ONLY);
+        }
+    }
+}
@@ -0,0 +1,214 @@
+package com.scryfall.api;
+
+import com.scyrfall.api.field.Images;
+import com.scyrfall.api.query.ImageCache;
+import com.scyrfall.api.query.Query;
+import org.json.JSONObject;
+import org.junit.Test;
+
+import javax.imageio.ImageIO;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.net.URL;
+import java.nio.channels.Channels;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+
+import static org.junit.Assert.*;
+
+public class ImageCacheTest {
+
+    private static URL url(String path) throws IOException {
+        return new URL("https://cards.scryfall.io/normal/front/" + path);
+    }
+
+    static void delete(Path directory) throws IOException {
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(directory)) {
+            for (Path file : files) {
+                Files.delete(file);
+            }
+        }
+        Files.delete(directory);
+    }
+
+    @Test
+    public void storeAndEvict() throws IOException {
+        Path directory = Files.createTempDirectory("images");
+        try {
+            ImageCache cache = new ImageCache(directory, 10);
+            URL first = url("a.jpg?1562");
+            URL second = url("b.jpg?1562");
+            URL third = url("c.jpg?1562");
+            cache.put(first, new byte[]{1, 2, 3, 4});
+            cache.put(second, new byte[]{5, 6, 7, 8});
+            assertArrayEquals(new byte[]{1, 2, 3, 4}, cache.get(first));
+            assertNull(cache.get(url("a.jpg?1563")));
+
+            // the second image is now the least recently used
+            cache.put(third, new byte[]{9, 10, 11});
+            assertEquals(2, cache.getCount());
+            assertEquals(7, cache.getSize());
+            assertNull(cache.get(second));
+            assertNotNull(cache.get(first));
+
+            cache.put(first, new byte[]{1});
+            assertArrayEquals(new byte[]{1}, cache.get(first));
+            assertEquals(4, cache.getSize());
+            // larger than the whole cache, so never stored
+            cache.put(second, new byte[11]);
+            assertNull(cache.get(second));
+
+            ImageCache reopened = new ImageCache(directory, 10);
+            assertEquals(2, reopened.getCount());
+            assertArrayEquals(new byte[]{9, 10, 11}, reopened.get(third));
+
+            assertTrue(reopened.remove(third));
+            assertFalse(reopened.remove(third));
+            reopened.clear();
+            assertEquals(0, reopened.getSize());
+            try (DirectoryStream<Path> files = Files.newDirectoryStream(directory)) {
+                assertFalse(files.iterator().hasNext());
+            }
+        } finally {
+            delete(directory);
+        }
+    }
+
+    @Test
+    public void streamedWrites() throws IOException {
+        Path directory = Files.createTempDirectory("images");
+        Path sizes = Files.createTempDirectory("sizes");
+        try {
+            ImageCache cache = new ImageCache(directory, 10);
+            URL url = url("a.jpg?1562");
+            try (ImageCache.Writer writer = cache.writer(url)) {
+                writer.write(new byte[]{0, 1, 2, 3}, 1, 3);
+                writer.write(new byte[]{4, 5}, 0, 2);
+                // not stored until committed
+                assertFalse(cache.contains(url));
+                writer.commit();
+            }
+            assertArrayEquals(new byte[]{1, 2, 3, 4, 5}, cache.get(url));
+
+            // closed without committing, so the stored image stays
+            try (ImageCache.Writer writer = cache.writer(url)) {
+                writer.write(new byte[]{6}, 0, 1);
+            }
+            assertArrayEquals(new byte[]{1, 2, 3, 4, 5}, cache.get(url));
+
+            // grows larger than the whole cache, so dropped
+            try (ImageCache.Writer writer = cache.writer(url)) {
+                writer.write(new byte[8], 0, 8);
+                writer.write(new byte[8], 0, 8);
+                writer.commit();
+            }
+            assertArrayEquals(new byte[]{1, 2, 3, 4, 5}, cache.get(url));
+            assertEquals(1, cache.getCount());
+
+            // streamed to the caller, but not cached since it isn't an image
+            ImageCache.setDefault(cache);
+            Path text = sizes.resolve("text.png");
+            Files.writeString(text, "not an image");
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            assertEquals(12, Query.writeImage(text.toUri().toURL(), Channels.newChannel(out)));
+            assertEquals("not an image", out.toString());
+            assertFalse(cache.contains(text.toUri().toURL()));
+        } finally {
+            ImageCache.setDefault(null);
+            delete(directory);
+            delete(sizes);
+        }
+    }
+
+    @Test
+    public void imagesReadThroughCache() throws IOException {
+        Path directory = Files.createTempDirectory("images");
+        Path source = Files.createTempFile("image", ".png");
+        try {
+            ImageCache cache = new ImageCache(directory, 1 << 20);
+            ImageCache.setDefault(cache);
+            BufferedImage image = new BufferedImage(4, 3, BufferedImage.TYPE_INT_RGB);
+            image.setRGB(1, 1, 0xFF0000);
+            ImageIO.write(image, "png", source.toFile());
+            URL url = source.toUri().toURL();
+
+            assertEquals(4, Query.imageFromURL(url).getWidth());
+            assertNotNull(cache.get(url));
+            Files.delete(source);
+            BufferedImage cached = Query.imageFromURL(url);
+            assertEquals(3, cached.getHeight());
+            assertEquals(0xFF0000, cached.getRGB(1, 1) & 0xFFFFFF);
+        } finally {
+            ImageCache.setDefault(null);
+            Files.deleteIfExists(source);
+            delete(directory);
+        }
+    }
+
+    @Test
+    public void damagedImageReplaced() throws IOException {
+        Path directory = Files.createTempDirectory("images");
+        Path source = Files.createTempFile("image", ".png");
+        try {
+            ImageCache cache = new ImageCache(directory, 1 << 20);
+            ImageCache.setDefault(cache);
+            ImageIO.write(new BufferedImage(4, 3, BufferedImage.TYPE_INT_RGB), "png", source.toFile());
+            URL url = source.toUri().toURL();
+            byte[] bytes = Files.readAllBytes(source);
+            // a PNG cut off after its header, which image readers recognize but fail to decode
+            cache.put(url, Arrays.copyOf(bytes, 40));
+
+            assertEquals(4, Query.imageFromURL(url).getWidth());
+            assertArrayEquals(bytes, cache.get(url));
+        } finally {
+            ImageCache.setDefault(null);
+            Files.deleteIfExists(source);
+            delete(directory);
+        }
+    }
+
+    @Test
+    public void bytesWithoutDecoding() throws IOException {
+        Path directory = Files.createTempDirectory("images");
+        Path sizes = Files.createTempDirectory("sizes");
+        try {
+            ImageCache cache = new ImageCache(directory, 1 << 20);
+            ImageCache.setDefault(cache);
+            JSONObject uris = new JSONObject();
+            for (Images.Size size : Images.Size.values()) {
+                Path file = sizes.resolve(size.toParameterString() + ".png");
+                BufferedImage image = new BufferedImage(size.ordinal() + 1, 1, BufferedImage.TYPE_INT_RGB);
+                ImageIO.write(image, "png", file.toFile());
+                uris.put(size.toParameterString(), file.toUri().toString());
+            }
+            Images images = new Images(uris);
+            byte[] expected = Files.readAllBytes(sizes.resolve("small.png"));
+
+            assertArrayEquals(expected, images.getBytes(Images.Size.SMALL));
+            assertEquals(1, cache.getCount());
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            assertEquals(expected.length, images.writeTo(Images.Size.SMALL, out));
+            assertArrayEquals(expected, out.toByteArray());
+
+            // not cached yet, so downloaded, written and cached
+            out.reset();
+            long written = images.writeTo(Images.Size.LARGE, out);
+            assertEquals(written, out.size());
+            assertEquals(3, ImageIO.read(new ByteArrayInputStream(out.toByteArray())).getWidth());
+            assertEquals(2, cache.getCount());
+
+            Path text = sizes.resolve("text.png");
+            Files.writeString(text, "not an image");
+            assertArrayEquals("not an image".getBytes(), Query.imageBytesFromURL(text.toUri().toURL()));
+            assertEquals(2, cache.getCount());
+        } finally {
+            ImageCache.setDefault(null);
+            delete(directory);
+            delete(sizes);
+        }
+    }
+}
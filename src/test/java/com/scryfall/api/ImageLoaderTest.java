@@ -0,0 +1,155 @@
+package com.scryfall.api;
+
+import com.scyrfall.api.field.Images;
+import com.scyrfall.api.query.ImageCache;
+import com.scyrfall.api.query.ImageLoader;
+import org.json.JSONObject;
+import org.junit.Test;
+
+import javax.imageio.ImageIO;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.ConnectException;
+import java.net.URL;
+import java.net.URLConnection;
+import java.net.URLStreamHandler;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.junit.Assert.*;
+
+public class ImageLoaderTest {
+
+    // nothing listens on port 1, so connections are refused without touching the network
+    private static final String DOWN = "http://127.0.0.1:1/";
+
+    @Test
+    public void fallsBackToOtherSizes() throws IOException {
+        ImageCache.setDefault(null);
+        ImageLoader.reset();
+        Path png = Files.createTempFile("image", ".png");
+        try {
+            ImageIO.write(new BufferedImage(5, 7, BufferedImage.TYPE_INT_RGB), "png", png.toFile());
+            JSONObject uris = new JSONObject();
+            for (Images.Size size : Images.Size.values()) {
+                uris.put(size.toParameterString(), DOWN + size.toParameterString() + "/front/a.jpg");
+            }
+            uris.put("png", png.toUri().toString());
+            Images images = new Images(uris);
+
+            URL normal = images.getNormalURL();
+            assertFalse(ImageLoader.isFailing(normal));
+            assertEquals(7, ImageLoader.loadImage(images, Images.Size.NORMAL).getHeight());
+            assertTrue(ImageLoader.isFailing(normal));
+            // the host is skipped now, so the fallback is loaded without trying it again
+            assertEquals(5, ImageLoader.loadImage(images, Images.Size.LARGE).getWidth());
+            assertNull(ImageLoader.loadImage(images, Images.Size.ART_CROP));
+
+            ImageLoader.reset();
+            assertFalse(ImageLoader.isFailing(normal));
+        } finally {
+            ImageLoader.reset();
+            Files.deleteIfExists(png);
+        }
+    }
+
+    @Test
+    public void remembersCardImages() throws IOException {
+        ImageCache.setDefault(null);
+        ImageLoader.reset();
+        Path png = Files.createTempFile("image", ".png");
+        Path json = Files.createTempFile("card", ".json");
+        try {
+            ImageIO.write(new BufferedImage(3, 2, BufferedImage.TYPE_INT_RGB), "png", png.toFile());
+            JSONObject card = new JSONObject(SnapshotTest.ABSORB);
+            card.put("image_uris", new JSONObject().put("normal", png.toUri().toString()));
+            Files.writeString(json, card.toString());
+            URL missing = png.resolveSibling("missing.png").toUri().toURL();
+            URL api = json.toUri().toURL();
+
+            assertEquals(3, ImageLoader.loadImageFromURL(missing, api).getWidth());
+            // a missing image isn't a failing host
+            assertFalse(ImageLoader.isFailing(missing));
+            Files.delete(json);
+            assertEquals(2, ImageLoader.loadImageFromURL(missing, api).getHeight());
+        } finally {
+            ImageLoader.reset();
+            Files.deleteIfExists(png);
+            Files.deleteIfExists(json);
+        }
+    }
+
+    @Test
+    public void trialsAlwaysEnd() throws IOException {
+        ImageCache.setDefault(null);
+        ImageLoader.reset();
+        ByteArrayOutputStream png = new ByteArrayOutputStream();
+        ImageIO.write(new BufferedImage(4, 4, BufferedImage.TYPE_INT_RGB), "png", png);
+        // what the next request gets: an outage, a missing image, a broken server or the image
+        String[] outcome = {"down"};
+        URL url = new URL(null, "stub://images/normal/a.png", new URLStreamHandler() {
+            @Override
+            protected URLConnection openConnection(URL u) {
+                return new URLConnection(u) {
+                    @Override
+                    public void connect() {
+                    }
+
+                    @Override
+                    public InputStream getInputStream() throws IOException {
+                        switch (outcome[0]) {
+                            case "down":
+                                throw new ConnectException("down");
+                            case "missing":
+                                throw new FileNotFoundException(url.toString());
+                            case "broken":
+                                throw new IllegalStateException("broken");
+                            default:
+                                return new ByteArrayInputStream(png.toByteArray());
+                        }
+                    }
+                };
+            }
+        });
+        try {
+            failUntilSkipped(url, outcome);
+            outcome[0] = "missing";
+            ImageLoader.retryFailing();
+            assertNull(ImageLoader.loadImageFromURL(url, null));
+            // the host answered, so a missing image closes the circuit
+            assertFalse(ImageLoader.isFailing(url));
+
+            failUntilSkipped(url, outcome);
+            outcome[0] = "broken";
+            ImageLoader.retryFailing();
+            try {
+                ImageLoader.loadImageFromURL(url, null);
+                fail();
+            } catch (IllegalStateException e) {
+                assertEquals("broken", e.getMessage());
+            }
+            // the trial ended without a result, so the next request is another trial
+            assertFalse(ImageLoader.isFailing(url));
+            outcome[0] = "up";
+            assertEquals(4, ImageLoader.loadImageFromURL(url, null).getWidth());
+            assertFalse(ImageLoader.isFailing(url));
+        } finally {
+            ImageLoader.reset();
+        }
+    }
+
+    /**
+     * Fails loads until the image's host is skipped.
+     */
+    private static void failUntilSkipped(URL url, String[] outcome) {
+        outcome[0] = "down";
+        for (int i = 0; i < 10 && !ImageLoader.isFailing(url); i++) {
+            assertNull(ImageLoader.loadImageFromURL(url, null));
+        }
+        assertTrue(ImageLoader.isFailing(url));
+    }
+}
@@ -0,0 +1,111 @@
+package com.scryfall.api;
+
+import com.scyrfall.api.query.ImageCache;
+import com.scyrfall.api.query.ImagePipeline;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import javax.imageio.ImageIO;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.net.URL;
+import java.net.URLConnection;
+import java.net.URLStreamHandler;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+
+import static org.junit.Assert.*;
+
+public class ImagePipelineTest {
+
+    private ImageCache defaultCache;
+
+    @Before
+    public void withoutCache() {
+        defaultCache = ImageCache.getDefault();
+        ImageCache.setDefault(null);
+    }
+
+    @After
+    public void restoreCache() {
+        ImageCache.setDefault(defaultCache);
+    }
+
+    @Test
+    public void loadsConcurrently() throws IOException, InterruptedException, ExecutionException {
+        List<Path> files = new ArrayList<>();
+        try {
+            List<CompletableFuture<BufferedImage>> images = new ArrayList<>();
+            for (int i = 1; i <= 20; i++) {
+                Path file = Files.createTempFile("image", ".png");
+                files.add(file);
+                ImageIO.write(new BufferedImage(i, 2, BufferedImage.TYPE_INT_RGB), "png", file.toFile());
+                images.add(ImagePipeline.load(file.toUri().toURL()));
+            }
+            for (int i = 0; i < images.size(); i++) {
+                assertEquals(i + 1, images.get(i).get().getWidth());
+            }
+
+            Path text = Files.createTempFile("image", ".txt");
+            files.add(text);
+            Files.writeString(text, "not an image");
+            assertNull(ImagePipeline.load(text.toUri().toURL()).get());
+            assertNull(ImagePipeline.load(null).get());
+        } finally {
+            for (Path file : files) {
+                Files.deleteIfExists(file);
+            }
+        }
+    }
+
+    @Test
+    public void failures() throws IOException, InterruptedException {
+        Path missing = Files.createTempFile("image", ".png");
+        Files.delete(missing);
+        try {
+            ImagePipeline.load(missing.toUri().toURL()).get();
+            fail();
+        } catch (ExecutionException e) {
+            assertTrue(e.getCause() instanceof IOException);
+        }
+
+        // a URL whose download doesn't finish until the test lets it, so the load is still running when it's cancelled
+        CountDownLatch release = new CountDownLatch(1);
+        URL slow = new URL(null, "stub:slow.jpg", new URLStreamHandler() {
+            @Override
+            protected URLConnection openConnection(URL url) {
+                return new URLConnection(url) {
+                    @Override
+                    public void connect() {
+                    }
+
+                    @Override
+                    public InputStream getInputStream() throws IOException {
+                        try {
+                            release.await();
+                        } catch (InterruptedException e) {
+                            throw new InterruptedIOException();
+                        }
+                        return new ByteArrayInputStream(new byte[0]);
+                    }
+                };
+            }
+        });
+        try {
+            CompletableFuture<BufferedImage> cancelled = ImagePipeline.load(slow);
+            assertTrue(cancelled.cancel(true));
+            assertTrue(cancelled.isCancelled());
+        } finally {
+            release.countDown();
+        }
+    }
+}
@@ -0,0 +1,101 @@
+package com.scryfall.api;
+
+import com.scyrfall.api.field.Images;
+import com.scyrfall.api.object.Card;
+import com.scyrfall.api.query.ImageCache;
+import com.scyrfall.api.query.ImagePrefetcher;
+import org.json.JSONObject;
+import org.junit.Test;
+
+import javax.imageio.ImageIO;
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.*;
+
+public class ImagePrefetcherTest {
+
+    private static Card card(String url) {
+        JSONObject data = ScryfallTest.cardJson("Absorb");
+        JSONObject uris = new JSONObject();
+        for (Images.Size size : Images.Size.values()) {
+            uris.put(size.toParameterString(), url);
+        }
+        data.put("image_uris", uris);
+        return new Card(data);
+    }
+
+    private static void delete(Path directory) throws IOException {
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(directory)) {
+            for (Path file : files) {
+                Files.delete(file);
+            }
+        }
+        Files.delete(directory);
+    }
+
+    @Test
+    public void warmsCache() throws IOException, InterruptedException, ExecutionException {
+        Path directory = Files.createTempDirectory("images");
+        Path sources = Files.createTempDirectory("sources");
+        try {
+            ImageCache cache = new ImageCache(directory, 1 << 20);
+            ImageCache.setDefault(cache);
+            List<Card> cards = new ArrayList<>();
+            for (int i = 0; i < 30; i++) {
+                Path file = sources.resolve(i + ".png");
+                ImageIO.write(new BufferedImage(i + 1, 1, BufferedImage.TYPE_INT_RGB), "png", file.toFile());
+                cards.add(card(file.toUri().toString()));
+            }
+            cards.add(card(sources.resolve("missing.png").toUri().toString()));
+            cards.add(card(""));
+
+            AtomicInteger calls = new AtomicInteger();
+            ImagePrefetcher prefetcher = new ImagePrefetcher(4, 2048);
+            ImagePrefetcher.Task task = prefetcher.prefetch(cards, Images.Size.SMALL, progress -> calls.incrementAndGet());
+            assertSame(task, task.getCompletion().get());
+            assertEquals(32, task.getTotal());
+            assertEquals(30, task.getDownloaded());
+            assertEquals(1, task.getFailed());
+            assertEquals(1, task.getSkipped());
+            assertEquals(32, task.getFinished());
+            assertEquals(32, calls.get());
+            assertEquals(30, cache.getCount());
+            assertEquals(cache.getSize(), task.getDownloadedBytes());
+
+            ImagePrefetcher.Task again = prefetcher.prefetch(cards, Images.Size.SMALL, null);
+            again.getCompletion().get();
+            assertEquals(0, again.getDownloaded());
+            assertEquals(31, again.getSkipped());
+
+            cache.clear();
+            ImagePrefetcher.Task cancelled = new ImagePrefetcher(1, 1).prefetch(cards, Images.Size.SMALL, null);
+            cancelled.cancel();
+            try {
+                cancelled.getCompletion().join();
+                fail();
+            } catch (CancellationException e) {
+                assertTrue(cancelled.getCompletion().isCancelled());
+            }
+            assertTrue(cancelled.getFinished() < 32);
+        } finally {
+            ImageCache.setDefault(null);
+            delete(directory);
+            delete(sources);
+        }
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void needsCache() {
+        ImageCache.setDefault(null);
+        new ImagePrefetcher().prefetch(List.of(), Images.Size.SMALL, null);
+    }
+}
@@ -0,0 +1,99 @@
+package com.scryfall.api;
+
+import com.scyrfall.api.field.Legalities;
+import com.scyrfall.api.field.Legalities.Format;
+import com.scyrfall.api.field.Legalities.Legality;
+import com.scyrfall.api.object.Card;
+import org.json.JSONObject;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Map;
+
+import static org.junit.Assert.*;
+
+public class LegalitiesTest {
+
+    @Test
+    public void cardRoundTrip() {
+        for (String name : new String[]{"absorb", "sliver-queen", "delver-of-secrets"}) {
+            JSONObject json = ScryfallTest.loadTestJson(name);
+            JSONObject expected = json.getJSONObject("legalities");
+            Legalities legalities = new Card(json).getLegalities();
+            for (String key : expected.keySet()) {
+                assertEquals(Legality.valueOf(expected.getString(key).toUpperCase()),
+                        legalities.getFormatLegality(Format.fromString(key)));
+            }
+            assertEquals(legalities, new Legalities(expected));
+            assertSame(legalities, Legalities.fromJSON(expected));
+            assertSame(legalities, Legalities.fromPacked(legalities.getPacked()));
+            for (Map.Entry<Format, Legality> entry : legalities.getLegalityMap().entrySet()) {
+                assertEquals(entry.getValue(), Legalities.getFormatLegality(legalities.getPacked(), entry.getKey()));
+            }
+        }
+    }
+
+    @Test
+    public void packing() {
+        Legalities legalities = Legalities.fromJSON(new JSONObject()
+                .put("standard", "banned")
+                .put("modern", "legal")
+                .put("vintage", "restricted"));
+        long packed = legalities.getPacked();
+        assertEquals(Legality.BANNED.ordinal(), packed & 3);
+        assertEquals(Legality.LEGAL.ordinal(), (packed >>> (2 * Format.MODERN.ordinal())) & 3);
+        assertEquals(Legality.RESTRICTED, Legalities.getFormatLegality(packed, Format.VINTAGE));
+        // formats the JSON leaves out are not legal
+        assertEquals(Legality.NOT_LEGAL, legalities.getFormatLegality(Format.PAUPER));
+        assertEquals(Legality.NOT_LEGAL, legalities.getFormatLegality(Format.PREDH));
+        Map<Format, Legality> map = legalities.getLegalityMap();
+        assertEquals(Format.values().length, map.size());
+        assertEquals(Legality.BANNED, map.get(Format.STANDARD));
+        assertEquals(Legality.NOT_LEGAL, map.get(Format.PAUPER));
+
+        Legalities unpacked = Legalities.fromPacked(packed);
+        assertEquals(legalities, unpacked);
+        assertEquals(legalities.hashCode(), unpacked.hashCode());
+        assertEquals(legalities.getLegalityMap(), unpacked.getLegalityMap());
+        assertNotEquals(legalities, Legalities.fromJSON(new JSONObject().put("modern", "legal")));
+    }
+
+    @Test
+    public void repacking() {
+        long packed = Legalities.fromJSON(new JSONObject()
+                .put("standard", "banned")
+                .put("vintage", "restricted")).getPacked();
+        String[] names = Legalities.getPackedFormatNames();
+        assertEquals(Format.values().length, names.length);
+        int[] ordinals = Legalities.getFormatOrdinals(new String[]{"VINTAGE", "OLD_FORMAT", "STANDARD"});
+        assertArrayEquals(new int[]{Format.VINTAGE.ordinal(), -1, Format.STANDARD.ordinal()}, ordinals);
+
+        // legalities packed when the formats were VINTAGE, OLD_FORMAT and STANDARD, in that order
+        long old = (long) Legality.RESTRICTED.ordinal() | (long) Legality.LEGAL.ordinal() << 2
+                | (long) Legality.BANNED.ordinal() << 4;
+        assertEquals(packed, Legalities.repack(old, ordinals));
+        assertEquals(packed, Legalities.repack(packed, Legalities.getFormatOrdinals(names)));
+    }
+
+    @Test
+    public void bulkFiltering() {
+        Card[] cards = {
+                new Card(ScryfallTest.loadTestJson("absorb")),
+                new Card(ScryfallTest.loadTestJson("sliver-queen")),
+                new Card(ScryfallTest.loadTestJson("delver-of-secrets"))
+        };
+        int[] out = new int[cards.length];
+
+        assertEquals(2, Legalities.select(cards, Format.MODERN, Legality.LEGAL, out));
+        assertArrayEquals(new int[]{0, 2}, Arrays.copyOf(out, 2));
+        assertEquals(1, Legalities.select(cards, Format.MODERN, Legality.NOT_LEGAL, out));
+        assertEquals(1, out[0]);
+        assertEquals(1, Legalities.select(cards, Format.PAUPER, Legality.LEGAL, out));
+        assertEquals(2, out[0]);
+
+        assertEquals(3, Legalities.count(cards, Format.LEGACY, Legality.LEGAL));
+        assertEquals(3, Legalities.count(cards, Format.STANDARD, Legality.NOT_LEGAL));
+        assertEquals(0, Legalities.count(cards, Format.VINTAGE, Legality.BANNED));
+        assertEquals(0, Legalities.count(new Card[0], Format.VINTAGE, Legality.LEGAL));
+    }
+}
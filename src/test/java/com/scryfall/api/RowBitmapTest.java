@@ -0,0 +1,71 @@
+package com.scryfall.api;
+
+import com.scyrfall.api.local.RowBitmap;
+import org.junit.Test;
+
+import java.util.BitSet;
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+public class RowBitmapTest {
+
+    private static final int SIZE = 200_000;
+
+    private static BitSet random(Random random, double density) {
+        BitSet rows = new BitSet(SIZE);
+        for (int row = 0; row < SIZE; row++) {
+            if (random.nextDouble() < density) {
+                rows.set(row);
+            }
+        }
+        return rows;
+    }
+
+    private static RowBitmap bitmap(BitSet rows) {
+        return RowBitmap.of(rows.stream().toArray());
+    }
+
+    @Test
+    public void operations() {
+        Random random = new Random(7);
+        double[] densities = {0.001, 0.03, 0.2, 0.9};
+        for (double a : densities) {
+            for (double b : densities) {
+                BitSet left = random(random, a);
+                BitSet right = random(random, b);
+                RowBitmap leftBitmap = bitmap(left);
+                RowBitmap rightBitmap = bitmap(right);
+
+                BitSet and = (BitSet) left.clone();
+                and.and(right);
+                BitSet or = (BitSet) left.clone();
+                or.or(right);
+                BitSet andNot = (BitSet) left.clone();
+                andNot.andNot(right);
+
+                assertArrayEquals(and.stream().toArray(), leftBitmap.and(rightBitmap).toArray());
+                assertArrayEquals(or.stream().toArray(), leftBitmap.or(rightBitmap).toArray());
+                assertArrayEquals(andNot.stream().toArray(), leftBitmap.andNot(rightBitmap).toArray());
+                assertEquals(or.cardinality(), leftBitmap.or(rightBitmap).cardinality());
+            }
+        }
+    }
+
+    @Test
+    public void range() {
+        RowBitmap all = RowBitmap.range(70_000);
+        assertEquals(70_000, all.cardinality());
+        assertTrue(all.contains(0));
+        assertTrue(all.contains(69_999));
+        assertFalse(all.contains(70_000));
+        assertTrue(all.andNot(all).isEmpty());
+        assertArrayEquals(new int[]{5, 65_536}, all.and(RowBitmap.of(5, 65_536, 80_000)).toArray());
+        assertEquals(0, RowBitmap.range(0).cardinality());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void unsortedRows() {
+        RowBitmap.of(3, 2);
+    }
+}
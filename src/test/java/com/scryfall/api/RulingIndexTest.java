@@ -0,0 +1,99 @@
+package com.scryfall.api;
+
+import com.scyrfall.api.field.Ruling;
+import com.scyrfall.api.local.LocalResolver;
+import com.scyrfall.api.local.RulingIndex;
+import com.scyrfall.api.object.Card;
+import org.json.JSONArray;
+import org.json.JSONObject;
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.Assert.*;
+
+public class RulingIndexTest {
+
+    private static final String ABSORB_ORACLE_ID = "132ca99a-a3c7-4ed6-b4d0-0edcd7140ca2";
+    private static final String OTHER_ORACLE_ID = "0004ebd0-dfd6-4276-b4a6-de0003e94237";
+
+    private static final String RULINGS = "[" +
+            ruling(ABSORB_ORACLE_ID, "wotc", "2019-01-25", "Absorb can target a spell that can't be countered.") + "," +
+            ruling(OTHER_ORACLE_ID, "scryfall", "2020-06-01", "Another card's ruling.") + "," +
+            ruling(ABSORB_ORACLE_ID, "wotc", "2019-01-25", "You gain 3 life even if the spell isn't countered.") + "," +
+            ruling(ABSORB_ORACLE_ID, "scryfall", "2018-10-05", "An older note.") +
+            "]";
+
+    private static String ruling(String oracleID, String source, String published, String comment) {
+        return new JSONObject()
+                .put("object", "ruling")
+                .put("oracle_id", oracleID)
+                .put("source", source)
+                .put("published_at", published)
+                .put("comment", comment)
+                .toString();
+    }
+
+    private static InputStream stream(String json) {
+        return new ByteArrayInputStream(json.getBytes(StandardCharsets.UTF_8));
+    }
+
+    @Test
+    public void index() throws IOException {
+        RulingIndex index = RulingIndex.read(stream(RULINGS));
+        assertEquals(4, index.size());
+        assertEquals(2, index.getCardCount());
+
+        List<Ruling> rulings = index.get(UUID.fromString(ABSORB_ORACLE_ID));
+        assertEquals(3, rulings.size());
+        assertEquals("An older note.", rulings.get(0).getComment());
+        assertEquals(Ruling.RulingSource.SCRYFALL, rulings.get(0).getSource());
+        assertEquals(LocalDate.of(2018, 10, 5), rulings.get(0).getPublishedLocalDate());
+        // rulings published on the same day keep the file's order
+        assertEquals("Absorb can target a spell that can't be countered.", rulings.get(1).getComment());
+        assertEquals("You gain 3 life even if the spell isn't countered.", rulings.get(2).getComment());
+
+        assertEquals(1, index.get(UUID.fromString(OTHER_ORACLE_ID)).size());
+        assertTrue(index.get(UUID.randomUUID()).isEmpty());
+        assertEquals(0, RulingIndex.read(stream(" [ ] ")).size());
+    }
+
+    @Test(expected = IOException.class)
+    public void notAnArray() throws IOException {
+        RulingIndex.read(stream("{\"object\":\"ruling\"}"));
+    }
+
+    @Test
+    public void cardRulings() throws IOException {
+        Card card = new Card(new JSONObject(SnapshotTest.ABSORB));
+        LocalResolver.loadRulings(RulingIndex.read(stream(RULINGS)));
+        LocalResolver.setMode(LocalResolver.Mode.LOCAL_ONLY);
+        try {
+            List<Ruling> rulings = card.getRulings();
+            assertEquals(3, rulings.size());
+            assertEquals(LocalDate.of(2019, 1, 25), rulings.get(2).getPublishedLocalDate());
+
+            // loaded rulings are used without asking the API in every mode
+            LocalResolver.setMode(LocalResolver.Mode.REMOTE_ONLY);
+            assertEquals(3, card.getRulings().size());
+            // a reversible card has its oracle id on its faces
+            JSONObject face = new JSONObject().put("object", "card_face").put("oracle_id", card.getOracleID().toString());
+            Card reversible = new Card(new JSONObject(SnapshotTest.ABSORB).put("layout", "reversible_card")
+                    .put("oracle_id", JSONObject.NULL).put("card_faces", new JSONArray().put(face).put(face)));
+            assertNull(reversible.getOracleID());
+            assertEquals(3, reversible.getRulings().size());
+
+            LocalResolver.loadRulings(RulingIndex.read(stream("[]")));
+            assertTrue(card.getRulings().isEmpty());
+        } finally {
+            LocalResolver.loadRulings(null);
+            LocalResolver.setMode(LocalResolver.Mode.REMOTE_ONLY);
+        }
+    }
+}
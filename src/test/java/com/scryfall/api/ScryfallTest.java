@@ -1,10 +1,13 @@
 package com.scryfall.api;
 
+import com.scyrfall.api.object.Card;
 import org.json.JSONObject;
 
 import java.io.IOError;
 import java.io.IOException;
 import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
 
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertTrue;
@@ -13,6 +16,13 @@ public class ScryfallTest {
 
     static final double DELTA = 0.4;
 
+    // a set for tests which don't need one of the downloaded test files
+    static final String SET = "{\"object\":\"set\",\"id\":\"a4a0db50-8826-4e73-833c-3fd934375f96\"," +
+            "\"code\":\"war\",\"name\":\"War of the Spark\",\"released_at\":\"2019-05-03\"," +
+            "\"set_type\":\"expansion\",\"card_count\":275,\"digital\":false}";
+
+    private static final AtomicLong CARD_IDS = new AtomicLong();
+
     static JSONObject loadTestJson(String name) {
         try(var stream = ScryfallTest.class.getResourceAsStream("/" + name + ".json")) {
             assert stream != null;
@@ -23,6 +33,25 @@ public class ScryfallTest {
         }
     }
 
+    /**
+     * @param name the name of the card
+     * @return the JSON of {@link SnapshotTest#ABSORB} renamed to <code>name</code>, with a new id and collector
+     * number, and an oracle id shared by every card with the same name. Tests change it further as they need before
+     * building a {@link Card} from it.
+     */
+    static JSONObject cardJson(String name) {
+        long index = CARD_IDS.getAndIncrement();
+        return new JSONObject(SnapshotTest.ABSORB)
+                .put("id", new UUID(0, index).toString())
+                .put("oracle_id", new UUID(1, name.hashCode()).toString())
+                .put("collector_number", String.valueOf(index))
+                .put("name", name);
+    }
+
+    static Card card(String name) {
+        return new Card(cardJson(name));
+    }
+
     static <T> void assertArrayEqualsIgnoreOrder(T[] arr1, T[] arr2) {
         assertEquals(arr1.length, arr2.length);
         for (T one : arr1) {
@@ -0,0 +1,131 @@
+package com.scryfall.api;
+
+import com.scyrfall.api.local.CardDataset;
+import com.scyrfall.api.local.SearchQuery;
+import com.scyrfall.api.object.Card;
+import com.scyrfall.api.object.ScryfallList;
+import org.json.JSONArray;
+import org.json.JSONObject;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+public class SearchQueryTest {
+
+    private static Card card(String name, String cost, String colors, String type, double cmc, String rarity,
+                             String set, String oracle, String usd) {
+        JSONObject data = ScryfallTest.cardJson(name);
+        data.put("mana_cost", cost);
+        data.put("lang", "en");
+        data.put("colors", new JSONArray(colors.chars().mapToObj(c -> String.valueOf((char) c)).toArray()));
+        data.put("color_identity", data.getJSONArray("colors"));
+        data.put("type_line", type);
+        data.put("cmc", cmc);
+        data.put("rarity", rarity);
+        data.put("set", set);
+        data.put("oracle_text", oracle);
+        data.put("prices", new JSONObject().put("usd", usd == null ? JSONObject.NULL : usd));
+        return new Card(data);
+    }
+
+    private static final Card[] CARDS = {
+            card("Lightning Bolt", "{R}", "R", "Instant", 1, "common", "m10", "Lightning Bolt deals 3 damage to any target.", "1.50"),
+            card("Goblin Guide", "{R}", "R", "Creature — Goblin Scout", 1, "rare", "zen", "Haste", "4.00"),
+            card("Counterspell", "{U}{U}", "U", "Instant", 2, "uncommon", "mh2", "Counter target spell.", "0.80"),
+            card("Absorb", "{W}{U}{U}", "WU", "Instant", 3, "rare", "rna", "Counter target spell. You gain 3 life.", null),
+            card("Sol Ring", "{1}", "", "Artifact", 1, "uncommon", "c21", "{T}: Add {C}{C}.", "2.00"),
+            card("Goblin Bombardment", "{1}{R}", "R", "Enchantment", 2, "uncommon", "tpr", "Sacrifice a creature: Goblin Bombardment deals 1 damage to any target.", "3.00"),
+    };
+
+    private static List<String> names(Card[] cards) {
+        List<String> names = new ArrayList<>();
+        for (Card card : cards) {
+            names.add(card.getName());
+        }
+        return names;
+    }
+
+    private static List<String> search(String query) {
+        return names(new CardDataset(CARDS).search(SearchQuery.parse(query)));
+    }
+
+    @Test
+    public void keywords() {
+        assertEquals(List.of("Goblin Bombardment", "Goblin Guide", "Lightning Bolt"), search("c:r"));
+        assertEquals(List.of("Absorb", "Counterspell"), search("c:u"));
+        assertEquals(List.of("Counterspell"), search("c=u"));
+        assertEquals(List.of("Sol Ring"), search("c:c"));
+        assertEquals(List.of("Absorb", "Counterspell", "Sol Ring"), search("id<=azorius"));
+        assertEquals(List.of("Goblin Guide"), search("t:creature t:goblin"));
+        assertEquals(List.of("Absorb", "Counterspell"), search("o:\"counter target\""));
+        assertEquals(List.of("Goblin Bombardment", "Lightning Bolt"), search("o:\"~ deals\""));
+        assertEquals(List.of("Absorb", "Counterspell"), search("cmc>=2 t:instant"));
+        assertEquals(List.of("Absorb", "Goblin Guide"), search("r:rare"));
+        assertEquals(List.of("Absorb", "Goblin Guide"), search("r>u"));
+        assertEquals(List.of("Absorb"), search("s:RNA"));
+        assertEquals(List.of("Absorb", "Counterspell", "Goblin Bombardment", "Goblin Guide", "Lightning Bolt", "Sol Ring"),
+                search("f:modern"));
+        assertEquals(List.of("Goblin Guide", "Goblin Bombardment"), search("usd>=3 order:usd"));
+        assertEquals(List.of("Lightning Bolt"), search("m:R t:instant"));
+        assertEquals(List.of("Absorb", "Counterspell"), search("m:uu"));
+        assertEquals(List.of("Counterspell"), search("m={U}{U}"));
+        assertEquals(List.of("Goblin Guide"), search("!\"goblin guide\""));
+        assertEquals(List.of("Goblin Guide"), search("o:/^has/"));
+    }
+
+    @Test
+    public void booleanOperators() {
+        assertEquals(List.of("Counterspell", "Lightning Bolt"), search("t:instant -c:w"));
+        assertEquals(List.of("Lightning Bolt", "Sol Ring"), search("bolt or ring"));
+        assertEquals(List.of("Goblin Guide", "Sol Ring"), search("(t:artifact or t:creature) cmc=1"));
+        assertEquals(List.of("Goblin Bombardment", "Goblin Guide"), search("goblin and (r:rare or r:uncommon)"));
+        assertEquals(List.of("Absorb", "Goblin Bombardment", "Lightning Bolt", "Sol Ring"),
+                search("-(c:r t:creature) -counterspell"));
+        assertEquals(List.of("Counterspell"), search("-s:rna c:u"));
+        assertEquals(List.of("Lightning Bolt"), search("-(r:rare or r:uncommon)"));
+        assertEquals(List.of("Goblin Bombardment", "Lightning Bolt"), search("c:r -(t:creature or s:zen) r<=u"));
+    }
+
+    @Test
+    public void ordering() {
+        assertEquals(List.of("Absorb", "Counterspell", "Goblin Bombardment", "Goblin Guide", "Lightning Bolt", "Sol Ring"),
+                search(""));
+        assertEquals(List.of("Sol Ring", "Lightning Bolt", "Goblin Guide", "Goblin Bombardment", "Counterspell", "Absorb"),
+                search("dir:desc"));
+        assertEquals(List.of("Goblin Guide", "Lightning Bolt", "Sol Ring", "Counterspell", "Goblin Bombardment", "Absorb"),
+                search("order:cmc"));
+        SearchQuery query = SearchQuery.parse("c:r order:usd");
+        assertEquals(SearchQuery.Order.USD, query.getOrder());
+        assertEquals(SearchQuery.Unique.CARDS, query.getUnique());
+        assertTrue(query.matches(CARDS[0]));
+        assertFalse(query.matches(CARDS[2]));
+    }
+
+    @Test
+    public void pagination() {
+        Card[] printings = new Card[400];
+        for (int i = 0; i < printings.length; i++) {
+            printings[i] = card("Card " + i, "{1}{G}", "G", "Creature", 2, "common", "set", "", null);
+        }
+        ScryfallList first = new CardDataset(printings).search("c:g");
+        assertEquals(400, first.getTotalCards());
+        assertTrue(first.hasMore());
+        ScryfallList third = first.getNextPage().getNextPage();
+        assertFalse(third.hasMore());
+        assertEquals(400, first.getCards().length);
+        assertEquals(50, third.getCards().length);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void unknownKeyword() {
+        SearchQuery.parse("foo:bar");
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void unbalancedParentheses() {
+        SearchQuery.parse("(c:r or c:g");
+    }
+}
@@ -0,0 +1,135 @@
+package com.scryfall.api;
+
+import com.scyrfall.api.local.Snapshot;
+import com.scyrfall.api.local.SnapshotWriter;
+import com.scyrfall.api.object.Card;
+import com.scyrfall.api.object.Catalog;
+import com.scyrfall.api.object.Set;
+import org.json.JSONArray;
+import org.json.JSONObject;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import java.util.function.LongUnaryOperator;
+
+import static org.junit.Assert.*;
+
+public class SnapshotTest {
+
+    static final String ABSORB = "{\"object\":\"card\",\"id\":\"c1a316a5-04a3-4128-8d62-58192e2265a5\"," +
+            "\"oracle_id\":\"132ca99a-a3c7-4ed6-b4d0-0edcd7140ca2\",\"multiverse_ids\":[458210],\"mtgo_id\":71330," +
+            "\"arena_id\":6909,\"name\":\"Absorb\",\"lang\":\"fr\",\"released_at\":\"2019-01-25\"," +
+            "\"uri\":\"https://api.scryfall.com/cards/c1a316a5-04a3-4128-8d62-58192e2265a5\",\"layout\":\"normal\"," +
+            "\"image_uris\":{\"normal\":\"https://cards.scryfall.io/normal/front/c/1/c1a316a5-04a3-4128-8d62-58192e2265a5.jpg?1584831447\"}," +
+            "\"mana_cost\":\"{W}{U}{U}\",\"cmc\":3.0,\"type_line\":\"Instant\"," +
+            "\"oracle_text\":\"Counter target spell. You gain 3 life.\",\"colors\":[\"W\",\"U\"]," +
+            "\"color_identity\":[\"W\",\"U\"],\"keywords\":[],\"legalities\":{\"modern\":\"legal\",\"standard\":\"not_legal\"}," +
+            "\"reserved\":false,\"set\":\"rna\",\"set_name\":\"Ravnica Allegiance\",\"collector_number\":\"151\"," +
+            "\"artist\":\"Nils Hamm\",\"edhrec_rank\":1523,\"prices\":{\"usd\":null,\"eur\":\"0.25\"}}";
+
+    static final String SET = "{\"object\":\"set\",\"id\":\"97a7fd84-8d89-45a3-b48b-c951f6a3f9f1\"," +
+            "\"code\":\"rna\",\"name\":\"Ravnica Allegiance\",\"released_at\":\"2019-01-25\",\"set_type\":\"expansion\"," +
+            "\"card_count\":273,\"digital\":false}";
+
+    private static final String CATALOG = "{\"object\":\"catalog\",\"uri\":\"https://api.scryfall.com/catalog/powers\"," +
+            "\"total_values\":3,\"data\":[\"*\",\"1\",\"1+*\"]}";
+
+    @Test
+    public void roundTrip() throws IOException {
+        Path directory = Files.createTempDirectory("snapshot");
+        Path path = directory.resolve("cards.snapshot");
+        try {
+            JSONArray cards = new JSONArray();
+            for (int i = 0; i < 5; i++) {
+                cards.put(new JSONObject(ABSORB));
+            }
+            try (SnapshotWriter writer = new SnapshotWriter(path, 2)) {
+                writer.write(Snapshot.Section.CARDS, cards);
+                writer.write(Snapshot.Section.SETS, List.of(new JSONObject(SET)));
+                writer.write(Snapshot.Section.CATALOGS, List.of(new JSONObject(CATALOG)));
+            }
+
+            Snapshot snapshot = Snapshot.read(path);
+            Card expected = new Card(new JSONObject(ABSORB));
+            assertEquals(5, snapshot.getCards().length);
+            for (Card card : snapshot.getCards()) {
+                assertTrue(expected.contentEquals(card));
+            }
+            Set set = snapshot.getSets()[0];
+            assertTrue(new Set(new JSONObject(SET)).contentEquals(set));
+            Catalog catalog = snapshot.getCatalogs()[0];
+            assertEquals(new Catalog(new JSONObject(CATALOG)), catalog);
+            assertEquals(0, snapshot.getSymbols().length);
+            assertFalse(Files.exists(directory.resolve("cards.snapshot.tmp")));
+        } finally {
+            Files.deleteIfExists(path);
+            Files.deleteIfExists(directory);
+        }
+    }
+
+    @Test(expected = IOException.class)
+    public void corruptedBlock() throws IOException {
+        // a byte inside the first block's payload, after its 17 byte block header
+        readDamaged(blocks -> blocks + 24, 0);
+    }
+
+    @Test(expected = IOException.class)
+    public void corruptedHeader() throws IOException {
+        // the block count
+        readDamaged(blocks -> 11, 0);
+    }
+
+    @Test(expected = IOException.class)
+    public void corruptedFormatTable() throws IOException {
+        // a byte of the first format name, after the 20 byte file header and the table's count and name length
+        readDamaged(blocks -> 24, 0);
+    }
+
+    @Test(expected = IOException.class)
+    public void corruptedBlockHeader() throws IOException {
+        // the low byte of the first block's object count
+        readDamaged(blocks -> blocks + 4, 0);
+    }
+
+    @Test(expected = IOException.class)
+    public void truncated() throws IOException {
+        readDamaged(blocks -> -1, 1);
+    }
+
+    /**
+     * Writes a snapshot of two blocks, flips the byte at the position <code>position</code> gives for the offset of
+     * the first block if it isn't negative, cuts <code>truncate</code> bytes off the end, and reads it back.
+     */
+    private static void readDamaged(LongUnaryOperator position, int truncate) throws IOException {
+        Path directory = Files.createTempDirectory("snapshot");
+        Path path = directory.resolve("cards.snapshot");
+        try {
+            try (SnapshotWriter writer = new SnapshotWriter(path, 1)) {
+                writer.write(Snapshot.Section.CARDS, List.of(new JSONObject(ABSORB), new JSONObject(ABSORB)));
+            }
+            try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+                // the first block follows the 20 byte file header and the format table
+                ByteBuffer tableLength = ByteBuffer.allocate(4);
+                channel.read(tableLength, 12);
+                long damaged = position.applyAsLong(20 + tableLength.getInt(0));
+                if (damaged >= 0) {
+                    ByteBuffer buffer = ByteBuffer.allocate(1);
+                    channel.read(buffer, damaged);
+                    buffer.put(0, (byte) ~buffer.get(0)).rewind();
+                    channel.write(buffer, damaged);
+                }
+                channel.truncate(channel.size() - truncate);
+            }
+            Snapshot.read(path);
+        } finally {
+            Files.deleteIfExists(path);
+            Files.deleteIfExists(directory);
+        }
+    }
+}
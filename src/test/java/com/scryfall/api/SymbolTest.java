@@ -1,14 +1,24 @@
 package com.scryfall.api;
 
 import com.scyrfall.api.ScryfallObject.Color;
+import com.scyrfall.api.field.ColorSet;
 import com.scyrfall.api.field.ManaCost;
+import com.scyrfall.api.local.CardDataset;
+import com.scyrfall.api.local.LocalResolver;
+import com.scyrfall.api.local.ManaCostParser;
+import com.scyrfall.api.local.SymbolRegistry;
+import com.scyrfall.api.object.Card;
+import com.scyrfall.api.object.Catalog;
 import com.scyrfall.api.object.ScryfallList;
+import com.scyrfall.api.object.Set;
 import com.scyrfall.api.object.Symbol;
 import org.json.JSONObject;
 import org.junit.Test;
 
+import java.util.List;
+
 import static com.scryfall.api.ScryfallTest.*;
-import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.*;
 
 public class SymbolTest {
 
@@ -45,12 +55,69 @@ public class SymbolTest {
         baseCost(loadTestManaCost("halfcc"), "{½}{C}{C}", 2.5, arrayOf(), true, false, false);
     }
 
+    @Test
+    public void localCosts() {
+        ManaCostParser parser = new ManaCostParser(loadTestSymbols());
+        for (String cost : new String[]{"2g2", "XURW", "halfcc"}) {
+            assertEquals(loadTestManaCost(cost), parser.parse(cost.equals("halfcc") ? "½CC" : cost));
+        }
+        assertEquals("{4}{G}", parser.parse("{2}{g}2").getCost());
+        assertEquals("{X}{2}{W}{U}", parser.parse("uw2x").getCost());
+        assertEquals("{R}{W}{B}", parser.parse("BWR").getCost());
+        assertEquals("{0}", parser.parse("0").getCost());
+        assertEquals("{1}{W/U}{W/U}", parser.parse("{w/u}1{W/U}").getCost());
+        assertNull(parser.parse("{Q}"));
+        assertNull(parser.parse("{}"));
+        assertNull(parser.parse("2{G"));
+    }
+
+    @Test
+    public void registry() {
+        SymbolRegistry registry = new SymbolRegistry(loadTestSymbols());
+        assertEquals("{W/U}", registry.get("{w/u}").getSymbol());
+        assertEquals("{W}", registry.get("W").getSymbol());
+        assertNull(registry.get("{W/W}"));
+
+        String cost = "{2}{W}{W/U}{U}";
+        List<Symbol> symbols = registry.getSymbols(cost);
+        assertEquals(4, symbols.size());
+        assertEquals("{W/U}", symbols.get(2).getSymbol());
+        assertSame(symbols, registry.getSymbols(cost));
+        assertEquals(2, registry.getPips(cost, Color.WHITE));
+        assertEquals(2, registry.getPips(cost, Color.BLUE));
+        assertEquals(0, registry.getPips(cost, Color.RED));
+        assertEquals(3, registry.getDevotion(cost, ColorSet.of(Color.WHITE, Color.BLUE)));
+        assertEquals(4, registry.getSymbols("{1}{R} // {2}{U}").size());
+        assertEquals(0, registry.getSymbols("").size());
+    }
+
+    @Test
+    public void cardSymbols() {
+        Card card = ScryfallTest.card("Absorb");
+        try {
+            // with no symbols loaded the getters answer without asking the API, and don't keep the empty answer
+            LocalResolver.load(new CardDataset(), new Set[0], new Symbol[0], new Catalog[0]);
+            assertNull(SymbolRegistry.getLoaded());
+            assertEquals(0, card.getManaSymbols().size());
+            assertEquals(0, card.getDevotion(Color.BLUE));
+
+            LocalResolver.load(new CardDataset(), new Set[0], loadTestSymbols(), new Catalog[0]);
+            assertEquals(3, card.getManaSymbols().size());
+            assertEquals("{U}", card.getManaSymbols().get(2).getSymbol());
+            assertEquals(2, card.getDevotion(Color.BLUE));
+            assertEquals(3, card.getDevotion(Color.WHITE, Color.BLUE));
+            assertSame(SymbolRegistry.getLoaded(), SymbolRegistry.getInstance());
+        } finally {
+            LocalResolver.load(new CardDataset(), new Set[0], new Symbol[0], new Catalog[0]);
+        }
+    }
+
     private void baseCost(ManaCost symbol, String cost, double cmc, Color[] colors, boolean colorless,
                           boolean monoColored, boolean multiColored) {
 
         assertEquals(symbol.getCost(), cost);
         assertEquals(symbol.getCmc(), cmc, ScryfallTest.DELTA);
-        assertArrayEqualsIgnoreOrder(symbol.getColors(), colors);
+        assertListArrayEqualsIgnoreOrder(symbol.getColors(), colors);
         assertEquals(symbol.isColorless(), colorless);
         assertEquals(symbol.isMonoColored(), monoColored);
         assertEquals(symbol.isMultiColored(), multiColored);
@@ -0,0 +1,77 @@
+package com.scryfall.api;
+
+import com.scyrfall.api.local.TextIndex;
+import com.scyrfall.api.object.Card;
+import org.json.JSONObject;
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class TextIndexTest {
+
+    private static Card card(String name, String oracle, String flavor) {
+        JSONObject data = ScryfallTest.cardJson(name);
+        data.put("oracle_text", oracle);
+        data.put("flavor_text", flavor == null ? JSONObject.NULL : flavor);
+        return new Card(data);
+    }
+
+    private static final Card[] CARDS = {
+            card("Lightning Bolt", "Lightning Bolt deals 3 damage to any target.", "The sparkmage shrieked, calling on the rage of the storms of his youth."),
+            card("Counterspell", "Counter target spell.", null),
+            card("Mana Leak", "Counter target spell unless its controller pays {3}.", null),
+            card("Llanowar Elves", "{T}: Add {G}.", "One bone broken for every twig snapped underfoot."),
+            card("Isamaru, Hound of Konda", "", null),
+            card("Kiki-Jiki, Mirror Breaker", "Haste\n{T}: Create a token that's a copy of target nonlegendary creature you control, except it has haste. Sacrifice it at the beginning of the next end step. Kiki-Jiki deals no damage.", null),
+            card("Vampire Nighthawk", "Flying\nDeathtouch (Any amount of damage this deals to a creature is enough to destroy it.)\nLifelink (Damage dealt by this creature also causes you to gain that much life.)", null),
+            card("Glorious Anthem", "Creatures you control get +1/+1.", null),
+    };
+
+    private static final TextIndex INDEX = new TextIndex(CARDS);
+
+    @Test
+    public void normalization() {
+        assertEquals("~ deals 3 damage to any target.", INDEX.getText(TextIndex.Field.ORACLE, 0));
+        assertTrue(INDEX.getText(TextIndex.Field.ORACLE, 5).endsWith("~ deals no damage."));
+        assertEquals("flying\ndeathtouch \nlifelink ", INDEX.getText(TextIndex.Field.ORACLE, 6));
+        assertEquals("", INDEX.getText(TextIndex.Field.FLAVOR, 1));
+        assertEquals(8, INDEX.size());
+    }
+
+    @Test
+    public void find() {
+        assertArrayEquals(new int[]{1, 2}, INDEX.find(TextIndex.Field.ORACLE, "Counter target spell"));
+        assertArrayEquals(new int[]{2}, INDEX.find(TextIndex.Field.ORACLE, "spell unless"));
+        assertArrayEquals(new int[]{3, 5}, INDEX.find(TextIndex.Field.ORACLE, "{T}: "));
+        assertArrayEquals(new int[]{0, 5}, INDEX.find(TextIndex.Field.ORACLE, "~ deals"));
+        assertArrayEquals(new int[]{7}, INDEX.find(TextIndex.Field.ORACLE, "+1/+1"));
+        assertArrayEquals(new int[]{1, 2}, INDEX.find(TextIndex.Field.ORACLE, "ter targ"));
+        assertArrayEquals(new int[]{}, INDEX.find(TextIndex.Field.ORACLE, "target spell deals"));
+        assertArrayEquals(new int[]{}, INDEX.find(TextIndex.Field.ORACLE, "destroy it"));
+        assertArrayEquals(new int[]{0, 3}, INDEX.find(TextIndex.Field.FLAVOR, "or"));
+    }
+
+    @Test
+    public void search() {
+        TextIndex.Hit[] hits = INDEX.search(TextIndex.Field.ORACLE, "counter spell", 10);
+        assertEquals(2, hits.length);
+        assertEquals(1, hits[0].getRow());
+        assertEquals(2, hits[1].getRow());
+        assertTrue(hits[0].getScore() > hits[1].getScore());
+
+        assertEquals(1, INDEX.search(TextIndex.Field.ORACLE, "\"target spell unless\"", 10).length);
+        assertEquals(0, INDEX.search(TextIndex.Field.ORACLE, "\"spell target\"", 10).length);
+        assertEquals(1, INDEX.search(TextIndex.Field.ORACLE, "damage", 1).length);
+        assertEquals(0, INDEX.search(TextIndex.Field.ORACLE, "", 10).length);
+    }
+
+    @Test
+    public void incremental() {
+        TextIndex index = new TextIndex();
+        assertEquals(0, index.add(CARDS[1]));
+        assertArrayEquals(new int[]{}, index.find(TextIndex.Field.ORACLE, "unless"));
+        assertEquals(1, index.add(CARDS[2]));
+        assertArrayEquals(new int[]{1}, index.find(TextIndex.Field.ORACLE, "unless"));
+        assertArrayEquals(new int[]{0, 1}, index.find(TextIndex.Field.ORACLE, "counter"));
+    }
+}
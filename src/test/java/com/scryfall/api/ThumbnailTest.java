@@ -0,0 +1,105 @@
+package com.scryfall.api;
+
+import com.scyrfall.api.field.Images;
+import com.scyrfall.api.query.ImageCache;
+import com.scyrfall.api.query.Query;
+import org.json.JSONObject;
+import org.junit.Test;
+
+import javax.imageio.ImageIO;
+import java.awt.Rectangle;
+import java.awt.image.BufferedImage;
+import java.awt.image.MultiResolutionImage;
+import java.io.IOException;
+import java.net.URL;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+public class ThumbnailTest {
+
+    @Test
+    public void thumbnails() throws IOException {
+        Path directory = Files.createTempDirectory("images");
+        Path sizes = Files.createTempDirectory("sizes");
+        try {
+            ImageCache cache = new ImageCache(directory, 1 << 20);
+            ImageCache.setDefault(cache);
+            Path file = sizes.resolve("normal.png");
+            BufferedImage source = new BufferedImage(488, 680, BufferedImage.TYPE_INT_RGB);
+            for (int y = 0; y < 680; y++) {
+                for (int x = 0; x < 488; x++) {
+                    source.setRGB(x, y, y < 340 ? 0x0000FF : 0x00FF00);
+                }
+            }
+            ImageIO.write(source, "png", file.toFile());
+            JSONObject uris = new JSONObject();
+            for (Images.Size size : Images.Size.values()) {
+                uris.put(size.toParameterString(), file.toUri().toString());
+            }
+            Images images = new Images(uris);
+
+            BufferedImage thumbnail = images.getThumbnail(Images.Size.NORMAL, 100, 100);
+            assertEquals(72, thumbnail.getWidth());
+            assertEquals(100, thumbnail.getHeight());
+            assertEquals(0x0000FF, thumbnail.getRGB(36, 10) & 0xFFFFFF);
+            assertEquals(2, cache.getCount());
+
+            BufferedImage region = images.getThumbnail(Images.Size.NORMAL, new Rectangle(0, 400, 488, 100), 244, 244);
+            assertEquals(244, region.getWidth());
+            assertEquals(50, region.getHeight());
+            assertEquals(0x00FF00, region.getRGB(0, 0) & 0xFFFFFF);
+            assertNull(images.getThumbnail(Images.Size.NORMAL, new Rectangle(500, 0, 10, 10), 10, 10));
+
+            // served from the cached derivative once the source is gone
+            Files.delete(file);
+            assertEquals(100, images.getThumbnail(Images.Size.NORMAL, 100, 100).getHeight());
+
+            ImageIO.write(source, "png", file.toFile());
+            MultiResolutionImage set = images.getThumbnails(Images.Size.NORMAL, 244, 61);
+            assertEquals(2, set.getResolutionVariants().size());
+            assertEquals(61, set.getResolutionVariant(50, 70).getWidth(null));
+            assertEquals(244, set.getResolutionVariant(200, 280).getWidth(null));
+        } finally {
+            ImageCache.setDefault(null);
+            ImageCacheTest.delete(directory);
+            ImageCacheTest.delete(sizes);
+        }
+    }
+
+    @Test
+    public void cachedThumbnailsMatchTheFirst() throws IOException {
+        Path directory = Files.createTempDirectory("images");
+        Path source = Files.createTempFile("image", ".png");
+        try {
+            ImageCache.setDefault(new ImageCache(directory, 1 << 20));
+            // noise, which a lossy encoding can't keep exactly
+            BufferedImage image = new BufferedImage(300, 200, BufferedImage.TYPE_INT_RGB);
+            Random random = new Random(42);
+            for (int y = 0; y < 200; y++) {
+                for (int x = 0; x < 300; x++) {
+                    image.setRGB(x, y, random.nextInt(0x1000000));
+                }
+            }
+            ImageIO.write(image, "png", source.toFile());
+            URL url = source.toUri().toURL();
+
+            BufferedImage first = Query.thumbnailFromURL(url, null, 90, 90);
+            Files.delete(source);
+            BufferedImage cached = Query.thumbnailFromURL(url, null, 90, 90);
+            assertEquals(first.getWidth(), cached.getWidth());
+            assertEquals(first.getHeight(), cached.getHeight());
+            for (int y = 0; y < first.getHeight(); y++) {
+                for (int x = 0; x < first.getWidth(); x++) {
+                    assertEquals(first.getRGB(x, y), cached.getRGB(x, y));
+                }
+            }
+        } finally {
+            ImageCache.setDefault(null);
+            Files.deleteIfExists(source);
+            ImageCacheTest.delete(directory);
+        }
+    }
+}